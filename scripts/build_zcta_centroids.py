@@ -0,0 +1,121 @@
+#!/usr/bin/env python3
+"""Build src/main/resources/geo/zcta-centroids.tsv.gz for OfflineReverseGeocoder.
+
+Inputs are the public-domain Census files (download once, pass the paths):
+
+  * ZCTA Gazetteer, e.g. 2023_Gaz_zcta_national.txt
+    https://www.census.gov/geographies/reference-files/time-series/geo/gazetteer-files.html
+    -> GEOID, INTPTLAT, INTPTLONG (the ZCTA's internal point)
+  * ZCTA-to-county relationship file, tab20_zcta520_county20_natl.txt
+    https://www.census.gov/geographies/reference-files/time-series/geo/relationship-files.html
+    -> the state of the county holding most of each ZCTA's land area
+
+Output: one "zip<TAB>state<TAB>lat<TAB>lng" row per ZCTA, gzipped (~300 KB).
+
+  python3 scripts/build_zcta_centroids.py 2023_Gaz_zcta_national.txt \
+      tab20_zcta520_county20_natl.txt src/main/resources/geo/zcta-centroids.tsv.gz
+
+or let it download both files first (what the Maven "release" profile runs):
+
+  python3 scripts/build_zcta_centroids.py --fetch target/classes/geo/zcta-centroids.tsv.gz
+
+Exits non-zero on any download or parse failure, and when the result is
+implausibly small, so a release never ships without the table.
+"""
+import csv
+import gzip
+import os
+import shutil
+import sys
+import tempfile
+import urllib.request
+import zipfile
+
+GAZETTEER_URL = ("https://www2.census.gov/geo/docs/maps-data/data/gazetteer/"
+                 "2023_Gazetteer/2023_Gaz_zcta_national.zip")
+RELATIONSHIP_URL = ("https://www2.census.gov/geo/docs/maps-data/data/rel2020/"
+                    "zcta520/tab20_zcta520_county20_natl.txt")
+
+# ~33.8k ZCTAs nationally; far fewer means a truncated or wrong download.
+MIN_ZCTAS = 30000
+
+FIPS_TO_USPS = {
+    "01": "AL", "02": "AK", "04": "AZ", "05": "AR", "06": "CA", "08": "CO", "09": "CT",
+    "10": "DE", "11": "DC", "12": "FL", "13": "GA", "15": "HI", "16": "ID", "17": "IL",
+    "18": "IN", "19": "IA", "20": "KS", "21": "KY", "22": "LA", "23": "ME", "24": "MD",
+    "25": "MA", "26": "MI", "27": "MN", "28": "MS", "29": "MO", "30": "MT", "31": "NE",
+    "32": "NV", "33": "NH", "34": "NJ", "35": "NM", "36": "NY", "37": "NC", "38": "ND",
+    "39": "OH", "40": "OK", "41": "OR", "42": "PA", "44": "RI", "45": "SC", "46": "SD",
+    "47": "TN", "48": "TX", "49": "UT", "50": "VT", "51": "VA", "53": "WA", "54": "WV",
+    "55": "WI", "56": "WY", "60": "AS", "66": "GU", "69": "MP", "72": "PR", "78": "VI",
+}
+
+
+def zcta_states(relationship_path):
+    """ZCTA -> USPS state of the county with the largest land-area share."""
+    best = {}
+    with open(relationship_path, newline="", encoding="utf-8-sig") as f:
+        for row in csv.DictReader(f, delimiter="|"):
+            zcta = (row.get("GEOID_ZCTA5_20") or "").strip()
+            county = (row.get("GEOID_COUNTY_20") or "").strip()
+            if not zcta or len(county) < 2:
+                continue
+            land = int(row.get("AREALAND_PART") or 0)
+            if zcta not in best or land > best[zcta][0]:
+                best[zcta] = (land, county[:2])
+    return {z: FIPS_TO_USPS[fips] for z, (_, fips) in best.items() if fips in FIPS_TO_USPS}
+
+
+def main(gazetteer_path, relationship_path, out_path):
+    states = zcta_states(relationship_path)
+    rows, missing = [], 0
+    with open(gazetteer_path, newline="", encoding="utf-8-sig") as f:
+        reader = csv.reader(f, delimiter="\t")
+        header = [h.strip() for h in next(reader)]
+        geoid, lat, lng = header.index("GEOID"), header.index("INTPTLAT"), header.index("INTPTLONG")
+        for rec in reader:
+            zcta = rec[geoid].strip()
+            state = states.get(zcta)
+            if state is None:
+                missing += 1
+                continue
+            rows.append((zcta, state, float(rec[lat]), float(rec[lng])))
+    if len(rows) < MIN_ZCTAS:
+        sys.exit("only %d ZCTAs parsed (expected >= %d); refusing to write %s"
+                 % (len(rows), MIN_ZCTAS, out_path))
+    rows.sort()
+    os.makedirs(os.path.dirname(out_path) or ".", exist_ok=True)
+    with gzip.open(out_path, "wt", encoding="utf-8", newline="\n") as out:
+        out.write("# zip\tstate\tlat\tlng — Census ZCTA internal points (%s)\n" % gazetteer_path.split("/")[-1])
+        for zcta, state, la, ln in rows:
+            out.write("%s\t%s\t%.5f\t%.5f\n" % (zcta, state, la, ln))
+    print("wrote %d ZCTAs to %s (%d without a state, skipped)" % (len(rows), out_path, missing))
+
+
+def download(url, path):
+    req = urllib.request.Request(url, headers={"User-Agent": "sitprep-build"})
+    with urllib.request.urlopen(req, timeout=120) as resp, open(path, "wb") as out:
+        shutil.copyfileobj(resp, out)
+
+
+def fetch_and_build(out_path):
+    with tempfile.TemporaryDirectory() as tmp:
+        gaz_zip = os.path.join(tmp, "gazetteer.zip")
+        rel = os.path.join(tmp, os.path.basename(RELATIONSHIP_URL))
+        download(GAZETTEER_URL, gaz_zip)
+        download(RELATIONSHIP_URL, rel)
+        with zipfile.ZipFile(gaz_zip) as z:
+            name = next(n for n in z.namelist() if n.endswith(".txt"))
+            gaz = os.path.join(tmp, os.path.basename(name))
+            with z.open(name) as src, open(gaz, "wb") as dst:
+                shutil.copyfileobj(src, dst)
+        main(gaz, rel, out_path)
+
+
+if __name__ == "__main__":
+    if len(sys.argv) == 3 and sys.argv[1] == "--fetch":
+        fetch_and_build(sys.argv[2])
+    elif len(sys.argv) == 4:
+        main(*sys.argv[1:])
+    else:
+        sys.exit(__doc__)
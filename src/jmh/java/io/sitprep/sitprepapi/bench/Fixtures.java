@@ -0,0 +1,157 @@
+package io.sitprep.sitprepapi.bench;
+
+import io.sitprep.sitprepapi.domain.Post;
+import io.sitprep.sitprepapi.domain.UserInfo;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic, seeded fixtures for the {@code src/jmh} benchmarks. Shapes and
+ * sizes follow production rather than toy data: posts carry images, tags
+ * and a realistic mix of feed types; rosters use mixed-case emails and stale
+ * statuses; records are filled field by field so payload size tracks the
+ * DTO as it grows.
+ *
+ * <p>Run with {@code ./mvnw -Pbench test-compile exec:exec} (see the
+ * {@code bench} profile in {@code pom.xml}).</p>
+ */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    /** Center of the synthetic metro — Oklahoma City. */
+    public static final double LAT = 35.4676;
+    public static final double LNG = -97.5164;
+
+    private static final String[] KINDS = {"ask", "offer", "news", "official", "civic-report", "resource"};
+    private static final String[] TIERS = {null, "emergency", "advisory", "info"};
+
+    /**
+     * {@code n} community posts scattered within ~25 km of {@link #LAT}/{@link #LNG},
+     * created over the last two weeks. About 1 in 12 is sponsored, 1 in 6
+     * carries an official tier.
+     */
+    public static List<Post> posts(int n, long seed) {
+        Random r = new Random(seed);
+        Instant now = Instant.now();
+        List<Post> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Post p = new Post();
+            p.setId((long) i + 1);
+            p.setRequesterEmail("Neighbor" + (i % 400) + "@Example.com");
+            p.setKind(KINDS[r.nextInt(KINDS.length)]);
+            p.setTitle("Synthetic post " + i + " about " + p.getKind());
+            p.setDescription("Line one of a neighbor post with enough text to matter.\n"
+                    + "Second line with details, a cross street and a time window.");
+            p.setStatus(Post.PostStatus.OPEN);
+            p.setLatitude(LAT + (r.nextDouble() - 0.5) * 0.45);
+            p.setLongitude(LNG + (r.nextDouble() - 0.5) * 0.55);
+            p.setZipBucket("731");
+            p.setPlaceLabel("Midtown, Oklahoma City");
+            p.setCreatedAt(now.minusSeconds(r.nextInt(14 * 86_400)));
+            p.setUpdatedAt(p.getCreatedAt());
+            List<String> keys = new ArrayList<>();
+            for (int k = 0, m = r.nextInt(4); k < m; k++) keys.add("posts/" + i + "/img-" + k + ".jpg");
+            p.setImageKeys(keys);
+            Set<String> tags = new HashSet<>();
+            for (int k = 0, m = r.nextInt(3); k < m; k++) tags.add("tag" + r.nextInt(20));
+            p.setTags(tags);
+            p.setSponsored(i % 12 == 0);
+            if (i % 6 == 0) p.setOfficialTier(TIERS[r.nextInt(TIERS.length)]);
+            out.add(p);
+        }
+        return out;
+    }
+
+    /** A roster of {@code n} members, a third of whom have no or a stale status. */
+    public static Map<String, UserInfo> roster(int n, Instant alertStart, long seed) {
+        Random r = new Random(seed);
+        String[] statuses = {"SAFE", "safe ", "HELP", "INJURED", null, ""};
+        Map<String, UserInfo> byEmail = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            UserInfo u = new UserInfo();
+            u.setUserEmail("member" + i + "@example.com");
+            u.setUserStatus(statuses[r.nextInt(statuses.length)]);
+            long offset = r.nextInt(7_200) - 3_600;
+            u.setUserStatusLastUpdated(alertStart.plusSeconds(offset));
+            byEmail.put(u.getUserEmail(), u);
+        }
+        return byEmail;
+    }
+
+    /**
+     * An instance of record type {@code type} with every component filled:
+     * strings sized like real values, lists / sets / maps of
+     * {@code collectionSize} elements, nested records recursively. Non-record
+     * reference types the filler doesn't know are left null.
+     */
+    public static <T> T record(Class<T> type, int collectionSize) {
+        return type.cast(fill(type, type.getSimpleName(), collectionSize, 0));
+    }
+
+    private static Object fill(Type type, String name, int size, int depth) {
+        if (depth > 8) return null;
+        if (type instanceof ParameterizedType pt) {
+            Class<?> raw = (Class<?>) pt.getRawType();
+            Type[] args = pt.getActualTypeArguments();
+            if (List.class.isAssignableFrom(raw)) {
+                List<Object> out = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) out.add(fill(args[0], name + i, size, depth + 1));
+                return out;
+            }
+            if (Set.class.isAssignableFrom(raw)) {
+                Set<Object> out = new LinkedHashSet<>();
+                for (int i = 0; i < size; i++) out.add(fill(args[0], name + i, size, depth + 1));
+                return out;
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                Map<Object, Object> out = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    out.put(fill(args[0], name + "Key" + i, size, depth + 1),
+                            fill(args[1], name + i, size, depth + 1));
+                }
+                return out;
+            }
+            return null;
+        }
+        Class<?> c = (Class<?>) type;
+        if (c == String.class) return name + "-value-" + Integer.toHexString(name.hashCode());
+        if (c == int.class || c == Integer.class) return Math.abs(name.hashCode() % 97);
+        if (c == long.class || c == Long.class) return (long) Math.abs(name.hashCode());
+        if (c == double.class || c == Double.class) return (name.hashCode() % 1000) / 10.0;
+        if (c == boolean.class || c == Boolean.class) return name.hashCode() % 2 == 0;
+        if (c == Instant.class) return Instant.parse("2026-07-01T12:00:00Z").plusSeconds(name.hashCode() % 86_400);
+        if (c == Object.class) return name;
+        if (c.isEnum()) return c.getEnumConstants()[0];
+        if (c.isArray()) return Array.newInstance(c.getComponentType(), 0);
+        if (c.isRecord()) {
+            RecordComponent[] parts = c.getRecordComponents();
+            Class<?>[] types = new Class<?>[parts.length];
+            Object[] values = new Object[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                types[i] = parts[i].getType();
+                values[i] = fill(parts[i].getGenericType(), parts[i].getName(), size, depth + 1);
+            }
+            try {
+                var ctor = c.getDeclaredConstructor(types);
+                ctor.setAccessible(true);
+                return ctor.newInstance(values);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("cannot build fixture " + c.getName(), e);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+package io.sitprep.sitprepapi.dto;
+
+import io.sitprep.sitprepapi.bench.Fixtures;
+import io.sitprep.sitprepapi.domain.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity → DTO mapping for one feed page: {@link PostDto#fromEntity(Post, Double)}
+ * over {@code posts} entities, including image URL resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostDtoBenchmark {
+
+    @Param({"20", "200"})
+    int posts;
+
+    private List<Post> entities;
+
+    @Setup
+    public void setUp() {
+        entities = Fixtures.posts(posts, 11);
+    }
+
+    @Benchmark
+    public List<PostDto> mapPage() {
+        List<PostDto> out = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            out.add(PostDto.fromEntity(entities.get(i), i * 0.4));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,120 @@
+package io.sitprep.sitprepapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.sitprep.sitprepapi.service.AlertIngestService.NormalizedAlert;
+import io.sitprep.sitprepapi.service.AlertIngestService.Snapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alert ingest CPU paths: normalizing one NWS GeoJSON feature (polygon of
+ * {@code vertices} points) and the per-request {@code getSnapshotForPoint}
+ * filter over a national snapshot of {@code alerts} polygons, a tenth of
+ * them without geometry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertIngestBenchmark {
+
+    @Param({"300", "1500"})
+    int alerts;
+
+    @Param({"40"})
+    int vertices;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private AlertIngestService ingest;
+    private JsonNode nwsFeature;
+    private double[][] queryPoints;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ingest = new AlertIngestService();
+        Random r = new Random(3);
+        nwsFeature = nwsFeature(35.0, -97.0, vertices);
+
+        List<NormalizedAlert> list = new ArrayList<>(alerts);
+        for (int i = 0; i < alerts; i++) {
+            double lat = 25 + r.nextDouble() * 23;
+            double lng = -124 + r.nextDouble() * 57;
+            Object geometry = i % 10 == 0 ? null
+                    : json.convertValue(polygon(lat, lng, vertices, 0.05 + r.nextDouble() * 0.6), Map.class);
+            list.add(new NormalizedAlert("urn:oid:bench." + i, "NWS", i % 7 == 0 ? "Extreme" : "Severe",
+                    "Synthetic Warning " + i, "Synthetic description", "County " + i,
+                    "2026-07-01T12:00:00Z", "2026-07-01T18:00:00Z", geometry));
+        }
+        ingest.installSnapshot(new Snapshot(List.copyOf(list), Instant.now(), Instant.now()));
+
+        queryPoints = new double[256][];
+        for (int i = 0; i < queryPoints.length; i++) {
+            queryPoints[i] = new double[]{25 + r.nextDouble() * 23, -124 + r.nextDouble() * 57};
+        }
+    }
+
+    @Benchmark
+    public NormalizedAlert normalizeNwsFeature() {
+        return ingest.normalizeNws(nwsFeature);
+    }
+
+    @Benchmark
+    public Snapshot snapshotForPoint() {
+        double[] p = queryPoints[next++ & (queryPoints.length - 1)];
+        return ingest.getSnapshotForPoint(p[0], p[1], 25);
+    }
+
+    private JsonNode nwsFeature(double lat, double lng, int n) {
+        ObjectNode f = json.createObjectNode();
+        f.put("id", "https://api.weather.gov/alerts/urn:oid:bench");
+        f.put("type", "Feature");
+        f.set("geometry", polygon(lat, lng, n, 0.3));
+        ObjectNode p = f.putObject("properties");
+        p.put("id", "urn:oid:bench");
+        p.put("areaDesc", "Oklahoma; Cleveland; McClain");
+        p.put("sent", "2026-07-01T12:00:00-05:00");
+        p.put("effective", "2026-07-01T12:00:00-05:00");
+        p.put("onset", "2026-07-01T12:05:00-05:00");
+        p.put("expires", "2026-07-01T13:00:00-05:00");
+        p.put("ends", "2026-07-01T13:00:00-05:00");
+        p.put("severity", "Extreme");
+        p.put("event", "Tornado Warning");
+        p.put("headline", "Tornado Warning issued July 1 at 12:00PM CDT until 1:00PM CDT by NWS Norman OK");
+        p.put("description", "At 1200 PM CDT, a severe thunderstorm capable of producing a tornado was located "
+                + "near Moore, moving northeast at 30 mph. HAZARD...Tornado. SOURCE...Radar indicated rotation.");
+        return f;
+    }
+
+    private ObjectNode polygon(double lat, double lng, int n, double radiusDeg) {
+        ObjectNode g = json.createObjectNode();
+        g.put("type", "Polygon");
+        ArrayNode ring = g.putArray("coordinates").addArray();
+        for (int i = 0; i <= n; i++) {
+            double a = 2 * Math.PI * (i % n) / n;
+            ring.addArray().add(lng + radiusDeg * Math.cos(a)).add(lat + radiusDeg * Math.sin(a));
+        }
+        return g;
+    }
+}
@@ -0,0 +1,58 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.bench.Fixtures;
+import io.sitprep.sitprepapi.domain.Post;
+import io.sitprep.sitprepapi.dto.PostDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The within-radius sort in {@code PostService.discoverCommunity}:
+ * {@link PostService#COMMUNITY_ORDER} (tier, then composite score) over N
+ * candidates. Candidates are built once; each invocation sorts a fresh copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommunityRankingBenchmark {
+
+    @Param({"50", "500", "2000"})
+    int candidates;
+
+    private List<PostDto> within;
+
+    @Setup
+    public void setUp() {
+        Random r = new Random(7);
+        within = new ArrayList<>(candidates);
+        for (Post p : Fixtures.posts(candidates, 7)) {
+            double km = r.nextInt(40) == 0 ? Double.NaN : r.nextDouble() * 25;
+            within.add(PostDto.fromEntity(p, Double.isNaN(km) ? null : km)
+                    .withEngagement(r.nextInt(30), false, r.nextInt(12)));
+        }
+    }
+
+    @Benchmark
+    public List<PostDto> sortWithinRadius() {
+        List<PostDto> copy = new ArrayList<>(within);
+        copy.sort(PostService.COMMUNITY_ORDER);
+        return copy;
+    }
+}
@@ -0,0 +1,54 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.service.PushPolicyService.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimiterService#tryConsume} under contention: 8 threads
+ * hammering a pool of {@code recipients}. A small pool means hot per-email
+ * deques (the alert fan-out case, most calls denied); a large one means
+ * mostly-uncontended keys and map growth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"16", "10000"})
+    int recipients;
+
+    private RateLimiterService limiter;
+    private String[] emails;
+    private final Category[] categories = Category.values();
+
+    @Setup
+    public void setUp() {
+        limiter = new RateLimiterService();
+        emails = new String[recipients];
+        for (int i = 0; i < recipients; i++) emails[i] = "Recipient" + i + "@Example.com";
+    }
+
+    @Benchmark
+    public boolean tryConsume() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        return limiter.tryConsume(emails[r.nextInt(emails.length)], categories[r.nextInt(categories.length)]);
+    }
+}
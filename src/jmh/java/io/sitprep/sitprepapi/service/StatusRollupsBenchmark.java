@@ -0,0 +1,73 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.bench.Fixtures;
+import io.sitprep.sitprepapi.domain.UserInfo;
+import io.sitprep.sitprepapi.dto.GroupMemberViewDto.StatusRollup;
+import io.sitprep.sitprepapi.dto.HouseholdAccompanimentDto;
+import io.sitprep.sitprepapi.dto.HouseholdManualMemberDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link StatusRollups#compute} for a household (8 members) up to a large
+ * org group (2000), with an active alert so every status goes through the
+ * freshness check, plus manual members half of whom are claimed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusRollupsBenchmark {
+
+    @Param({"8", "200", "2000"})
+    int members;
+
+    private final Instant alertStart = Instant.parse("2026-07-01T12:00:00Z");
+    private List<String> memberEmails;
+    private Map<String, UserInfo> byEmail;
+    private List<HouseholdManualMemberDto> manual;
+    private List<HouseholdAccompanimentDto> accompaniments;
+
+    @Setup
+    public void setUp() {
+        byEmail = Fixtures.roster(members, alertStart, 11);
+        memberEmails = new ArrayList<>();
+        for (String e : byEmail.keySet()) memberEmails.add(e.toUpperCase());
+        manual = new ArrayList<>();
+        accompaniments = new ArrayList<>();
+        int manualCount = Math.max(2, members / 20);
+        for (int i = 0; i < manualCount; i++) {
+            String id = "manual-" + i;
+            manual.add(new HouseholdManualMemberDto(id, "hh-1", "Dependent " + i, "child", 7, false,
+                    null, alertStart, alertStart));
+            if (i % 2 == 0) {
+                accompaniments.add(new HouseholdAccompanimentDto((long) i,
+                        new HouseholdAccompanimentDto.Ref("user", "u" + i, "member" + i + "@example.com"),
+                        new HouseholdAccompanimentDto.Ref("manual", id, null),
+                        alertStart, false));
+            }
+        }
+    }
+
+    @Benchmark
+    public StatusRollup compute() {
+        return StatusRollups.compute(memberEmails, byEmail, manual, accompaniments, true, alertStart);
+    }
+}
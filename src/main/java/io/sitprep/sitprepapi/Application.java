@@ -5,11 +5,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 /**
- * {@code @EnableAsync} activates the {@code @Async} annotation on
- * {@link io.sitprep.sitprepapi.service.LastActivityService#writeAsync},
- * so the per-request "last active" bump runs on a worker thread instead
- * of blocking the HTTP response. The pool is sized in
- * {@link io.sitprep.sitprepapi.config.AsyncConfig}.
+ * {@code @EnableAsync} activates the {@code @Async} annotation for any
+ * bean method that opts in; the pool is sized in
+ * {@link io.sitprep.sitprepapi.config.AsyncConfig}. (The per-request
+ * "last active" bump used to be the main user; it is now buffered and
+ * flushed in batches by
+ * {@link io.sitprep.sitprepapi.service.LastActivityService#flush}.)
  *
  * <p>{@code @EnableScheduling} now lives on
  * {@link io.sitprep.sitprepapi.config.SchedulingConfig} alongside the
@@ -2,13 +2,16 @@ package io.sitprep.sitprepapi.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
 /**
- * Bounded {@code TaskScheduler} for {@code @Scheduled} methods.
+ * Bounded {@code TaskScheduler}s for {@code @Scheduled} methods: the
+ * general {@code taskScheduler} and a separate {@link #FLUSH_SCHEDULER}
+ * for the seconds-cadence write-behind loops.
  *
  * <p>Without an explicit bean, Spring creates a single-thread
  * {@link java.util.concurrent.ScheduledThreadPoolExecutor} for
@@ -24,6 +27,13 @@ import org.springframework.scheduling.config.ScheduledTaskRegistrar;
  * to it deterministically rather than falling through to whichever
  * scheduler Spring found first.</p>
  *
+ * <p>The flush loops (location pings every 2s, realtime presence every
+ * 1s plus its 10s heartbeat, last-activity every 10s, the outbox backstop
+ * poll every 2s) opt in with {@code @Scheduled(scheduler = FLUSH_SCHEDULER)}.
+ * Each runs one bounded batch statement and its buffer grows while it
+ * waits, so none of them may queue behind a minute-long rebuild or a
+ * daily sweep. Everything else shares the general pool.</p>
+ *
  * <p>{@code @EnableScheduling} also lives here so the activation is
  * co-located with the pool sizing (was on {@code Application}; moved to
  * keep scheduling config in one place).</p>
@@ -32,16 +42,27 @@ import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 @EnableScheduling
 public class SchedulingConfig implements SchedulingConfigurer {
 
+    /** Bean name of the write-behind flush scheduler. */
+    public static final String FLUSH_SCHEDULER = "flushScheduler";
+
     /**
-     * Pool size 4 — AlertIngestService.scheduledPoll(), the reminder/retention
-     * sweeps, the go-bag expiry sweep, and GhostTenantOutreachWorker (all daily
-     * {@code fixedDelay} jobs that stagger via distinct initialDelays, so they
-     * rarely overlap). Bump when adding more periodic work.
+     * Pool size 6 for the general jobs. Three of them are heavy and
+     * frequent: the 30s accountability-rollup verify, the 1m group
+     * membership rebuild, and the 15m Ask hot-score UPDATE, along with
+     * the community geo-index rebuild. Each can hold a thread for
+     * seconds, and they share the pool with the 5–15m alert, activation,
+     * reminder and cache-sweep ticks and the daily / nightly sweeps
+     * (AlertIngestService.scheduledPoll(), retention, purge, archival,
+     * GhostTenantOutreachWorker), which stagger via distinct initialDelays
+     * and crons. Six threads leave room for the long jobs to overlap
+     * without delaying the short ticks. Bump when adding more heavy
+     * periodic work.
      */
     @Bean(destroyMethod = "shutdown")
+    @Primary
     public ThreadPoolTaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler s = new ThreadPoolTaskScheduler();
-        s.setPoolSize(4);
+        s.setPoolSize(6);
         s.setThreadNamePrefix("sitprep-sched-");
         s.setWaitForTasksToCompleteOnShutdown(true);
         s.setAwaitTerminationSeconds(20);
@@ -50,6 +71,23 @@ public class SchedulingConfig implements SchedulingConfigurer {
         return s;
     }
 
+    /**
+     * Pool size 2 for the five flush loops. Each tick is one batched
+     * statement (or a no-op when its buffer is empty), so two threads keep
+     * up even when one loop stalls on a slow connection.
+     */
+    @Bean(name = FLUSH_SCHEDULER, destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler flushScheduler() {
+        ThreadPoolTaskScheduler s = new ThreadPoolTaskScheduler();
+        s.setPoolSize(2);
+        s.setThreadNamePrefix("sitprep-flush-");
+        s.setWaitForTasksToCompleteOnShutdown(true);
+        s.setAwaitTerminationSeconds(20);
+        s.setRemoveOnCancelPolicy(true);
+        s.initialize();
+        return s;
+    }
+
     @Override
     public void configureTasks(ScheduledTaskRegistrar registrar) {
         registrar.setTaskScheduler(taskScheduler());
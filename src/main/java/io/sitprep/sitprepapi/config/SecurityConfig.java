@@ -92,6 +92,9 @@ public class SecurityConfig {
 
         cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         cfg.setAllowedHeaders(List.of("*"));
+        // Paging headers the FE reads off cross-origin responses; browsers
+        // hide any response header not listed here.
+        cfg.setExposedHeaders(List.of("X-Next-Cursor", "X-Has-More"));
 
         // *** THE CRITICAL CHANGE ***
         cfg.setAllowCredentials(true); // <-- MUST BE TRUE to fix SockJS CORS error
@@ -19,7 +19,10 @@ import java.util.Set;
  * for the local-vs-anywhere toggle — same convention {@link Post} uses
  * for community-discover JPQL. {@code voteScore} is denormalized from the
  * {@link AskVote} table and bumped atomically on vote toggle so the search
- * + ranking endpoints don't need a join per row.</p>
+ * + ranking endpoints don't need a join per row. {@code hotScore} is the
+ * materialized hot rank (V62), rewritten alongside each vote bump and
+ * re-decayed on a schedule while the question is inside the recency
+ * window.</p>
  *
  * <p>{@code acceptedAnswerId} is null until the asker marks one answer as
  * accepted (only the original asker can do this). Pinned answers render
@@ -39,7 +42,8 @@ import java.util.Set;
                 @Index(name = "idx_ask_question_zip", columnList = "zip_bucket"),
                 @Index(name = "idx_ask_question_author", columnList = "author_email"),
                 @Index(name = "idx_ask_question_score", columnList = "vote_score"),
-                @Index(name = "idx_ask_question_created", columnList = "created_at")
+                @Index(name = "idx_ask_question_created", columnList = "created_at"),
+                @Index(name = "idx_ask_question_hot", columnList = "hot_score DESC, id DESC")
         }
 )
 public class AskQuestion {
@@ -88,6 +92,10 @@ public class AskQuestion {
     @Column(name = "vote_score", nullable = false)
     private int voteScore = 0;
 
+    /** {@code AskService.hotScore} as of the last vote or decay sweep. Indexed for the top strip. */
+    @Column(name = "hot_score", nullable = false)
+    private double hotScore = 0;
+
     @Column(name = "view_count", nullable = false)
     private long viewCount = 0;
 
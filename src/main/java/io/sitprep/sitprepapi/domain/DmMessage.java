@@ -11,6 +11,9 @@ import java.time.Instant;
  * column instead of a JPA relation — matches the flat-column style of
  * {@code HouseholdEvent} / {@code GroupPostComment} and keeps the
  * hot-path list query free of join fetch tuning.
+ *
+ * <p>History and sync page by keyset on {@code (createdAt, id)}; the
+ * thread index carries both so ties resolve without a heap visit.</p>
  */
 @Entity
 @Getter
@@ -19,8 +22,8 @@ import java.time.Instant;
         name = "dm_message",
         indexes = {
                 @Index(
-                        name = "idx_dm_message_thread_created",
-                        columnList = "thread_id, created_at"
+                        name = "idx_dm_message_thread_created_id",
+                        columnList = "thread_id, created_at, id"
                 )
         }
 )
@@ -23,6 +23,11 @@ import java.util.Objects;
  * <p>Composite PK keeps the lookup index-only and avoids a surrogate id
  * column that would never be referenced. The {@code createdAt} index backs
  * the sweeper that prunes rows past the TTL (default 24h).</p>
+ *
+ * <p>A row with {@code responseStatusCode == }{@link #RESERVED} is an
+ * in-flight reservation: the first request inserted it before running the
+ * handler, and duplicates wait on it rather than executing again. See
+ * {@code IdempotencyStore}.</p>
  */
 @Entity
 @Getter
@@ -35,6 +40,9 @@ import java.util.Objects;
 )
 public class IdempotencyKey {
 
+    /** Status code of a reservation whose handler hasn't finished yet. */
+    public static final int RESERVED = 0;
+
     @Id
     @Column(name = "caller_email", nullable = false, length = 320)
     private String callerEmail;
@@ -50,13 +58,25 @@ public class IdempotencyKey {
     @Column(name = "response_status_code", nullable = false)
     private int responseStatusCode;
 
-    /** JSON-serialized response envelope. */
-    @Column(name = "response_body", nullable = false, columnDefinition = "TEXT")
+    /**
+     * JSON-serialized response envelope, uncompressed. Only rows written
+     * before V59 carry it; newer rows use {@link #responseBodyGzip}.
+     */
+    @Column(name = "response_body", columnDefinition = "TEXT")
     private String responseBody;
 
+    /** Gzipped response body. Null while {@link #RESERVED}. */
+    @Column(name = "response_body_gzip")
+    private byte[] responseBodyGzip;
+
+    /** Reservation time, then completion time once the response is stored. */
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    public boolean isReserved() {
+        return responseStatusCode == RESERVED;
+    }
+
     /** Composite-PK helper required by {@code @IdClass}. */
     public static class PK implements Serializable {
         private String callerEmail;
@@ -0,0 +1,68 @@
+package io.sitprep.sitprepapi.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One queued push fan-out. Written inside the business transaction that
+ * triggers it and drained by {@code NotificationOutboxService}; the
+ * {@code payload} is the JSON-encoded fan-out plus either its recipient
+ * emails (first attempt) or the device tokens still owed a push (retries).
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+
+    public static final String PENDING = "PENDING";
+    public static final String DELIVERING = "DELIVERING";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "notification_type", nullable = false, length = 64)
+    private String notificationType;
+
+    @Column(name = "reference_id", length = 255)
+    private String referenceId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = Instant.now();
+        if (nextAttemptAt == null) nextAttemptAt = createdAt;
+        if (status == null) status = PENDING;
+    }
+}
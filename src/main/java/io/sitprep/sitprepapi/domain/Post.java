@@ -34,6 +34,7 @@ import java.util.Set;
 @Entity
 @Getter
 @Setter
+@EntityListeners(PostEngagementCounter.class)
 @Table(
         name = "task",
         indexes = {
@@ -27,7 +27,7 @@ import java.time.Instant;
 @Setter
 @Getter
 @Entity
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PostEngagementCounter.class})
 @Table(
         name = "task_comment",
         indexes = {
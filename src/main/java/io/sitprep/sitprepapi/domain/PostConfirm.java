@@ -20,6 +20,7 @@ import java.time.Instant;
  * folding in {@code PostConfirmService} matches {@code PostReactionService}.</p>
  */
 @Entity
+@EntityListeners(PostEngagementCounter.class)
 @Table(
         name = "post_confirm",
         uniqueConstraints = @UniqueConstraint(
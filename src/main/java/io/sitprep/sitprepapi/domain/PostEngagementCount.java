@@ -0,0 +1,77 @@
+package io.sitprep.sitprepapi.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Denormalized engagement counter for a community {@link Post}: one row per
+ * (task, metric) where metric is {@link #CONFIRM}, {@link #COMMENT}, or
+ * {@link #REACTION_PREFIX} + emoji. Lets the feed listing read a handful of
+ * small rows per post instead of every confirm / reaction row on the page.
+ *
+ * <p>Written only by {@code PostEngagementCounter} (JPA callbacks on the
+ * source entities, same transaction) with atomic {@code total = total + ?}
+ * updates — never load-modify-save this entity. A missing row means zero.</p>
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@IdClass(PostEngagementCount.PK.class)
+@Table(name = "post_engagement_count")
+public class PostEngagementCount {
+
+    public static final String CONFIRM = "confirm";
+    public static final String COMMENT = "comment";
+    public static final String REACTION_PREFIX = "r:";
+
+    @Id
+    @Column(name = "task_id", nullable = false)
+    private Long postId;
+
+    @Id
+    @Column(name = "metric", nullable = false, length = 40)
+    private String metric;
+
+    @Column(name = "total", nullable = false)
+    private int total;
+
+    /** Metric key for one reaction emoji. */
+    public static String reaction(String emoji) {
+        return REACTION_PREFIX + emoji;
+    }
+
+    /** Composite-PK helper required by {@code @IdClass}. */
+    public static class PK implements Serializable {
+        private Long postId;
+        private String metric;
+
+        public PK() {}
+
+        public PK(Long postId, String metric) {
+            this.postId = postId;
+            this.metric = metric;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PK pk)) return false;
+            return Objects.equals(postId, pk.postId) && Objects.equals(metric, pk.metric);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(postId, metric);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.sitprep.sitprepapi.domain;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@code post_engagement_count} in step with the confirm, comment and
+ * reaction tables. Registered as a JPA entity listener on {@link PostConfirm},
+ * {@link PostComment}, {@link PostReaction} and {@link Post}; Hibernate
+ * resolves it through Spring's bean container, so it gets the same
+ * {@link JdbcTemplate} (and the same transaction) as the write that fired it.
+ *
+ * <p>Hooking the entity lifecycle rather than each service means every
+ * write path — services, merges, tests saving through a repo — moves the
+ * counters, and a failed counter write rolls the source write back with it.
+ * Bulk JPQL deletes bypass callbacks, so the repos route single-row deletes
+ * through {@code delete(entity)} instead.</p>
+ *
+ * <p>Plain JDBC rather than the JPA repo: the callback runs mid-flush, and
+ * each bump is one atomic {@code total = total + ?} so concurrent confirms
+ * on a hot post never lose an update.</p>
+ */
+@Component
+public class PostEngagementCounter {
+
+    private static final String BUMP_SQL =
+            "UPDATE post_engagement_count SET total = GREATEST(total + ?, 0) "
+                    + "WHERE task_id = ? AND metric = ?";
+    private static final String SEED_SQL =
+            "INSERT INTO post_engagement_count (task_id, metric, total) VALUES (?, ?, ?) "
+                    + "ON CONFLICT DO NOTHING";
+    private static final String CLEAR_SQL =
+            "DELETE FROM post_engagement_count WHERE task_id = ?";
+
+    private final JdbcTemplate jdbc;
+
+    public PostEngagementCounter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @PostPersist
+    public void afterInsert(Object entity) {
+        apply(entity, 1);
+    }
+
+    @PostRemove
+    public void afterDelete(Object entity) {
+        if (entity instanceof Post post) {
+            if (post.getId() != null) jdbc.update(CLEAR_SQL, post.getId());
+            return;
+        }
+        apply(entity, -1);
+    }
+
+    private void apply(Object entity, int delta) {
+        switch (entity) {
+            case PostConfirm c -> bump(c.getPostId(), PostEngagementCount.CONFIRM, delta);
+            case PostComment c -> bump(c.getPostId(), PostEngagementCount.COMMENT, delta);
+            case PostReaction r -> {
+                if (r.getEmoji() != null) bump(r.getPostId(), PostEngagementCount.reaction(r.getEmoji()), delta);
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Move one counter. A missing row is zero: increments seed it, decrements
+     * have nothing to take away. If a concurrent writer seeds the row between
+     * our update and insert, the insert no-ops and the retried update lands.
+     */
+    void bump(Long postId, String metric, int delta) {
+        if (postId == null) return;
+        if (jdbc.update(BUMP_SQL, delta, postId, metric) > 0 || delta < 0) return;
+        if (jdbc.update(SEED_SQL, postId, metric, delta) > 0) return;
+        jdbc.update(BUMP_SQL, delta, postId, metric);
+    }
+}
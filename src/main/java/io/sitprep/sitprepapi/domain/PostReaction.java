@@ -23,6 +23,7 @@ import java.time.Instant;
  * same shape without schema work.</p>
  */
 @Entity
+@EntityListeners(PostEngagementCounter.class)
 @Table(
         name = "task_reaction",
         uniqueConstraints = @UniqueConstraint(
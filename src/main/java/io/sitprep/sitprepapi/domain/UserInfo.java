@@ -190,8 +190,12 @@ public class UserInfo {
      * stays bounded. Powers the Family-tab presence dots and any
      * "active in the last X" admin views. Null for users who haven't
      * hit a verified-token request since the column was added.
+     *
+     * <p>Written only by that service's batched UPDATE, so the column is
+     * {@code updatable = false}: a save of an entity loaded before a flush
+     * would otherwise write the older instant back and rewind presence.</p>
      */
-    @Column(name = "last_active_at")
+    @Column(name = "last_active_at", updatable = false)
     private Instant lastActiveAt;
 
     /**
@@ -241,14 +245,21 @@ public class UserInfo {
      * granted at least once. Powers the household presence dots
      * (home / nearby / out / unknown) and the future {@code effectiveLocation}
      * resolution in the per-group sharing story.
+     *
+     * <p>Written only by {@code LocationIngestService}'s narrow batched
+     * UPDATE, which skips the {@code @Version} bump so pings don't 409
+     * concurrent edits. The four {@code last_known_*} columns are therefore
+     * {@code updatable = false}: a save of an entity loaded before a flush
+     * (a status tap mid-alert) would otherwise write the stale position
+     * back over the flushed one, undetected.</p>
      */
-    @Column(name = "last_known_lat")
+    @Column(name = "last_known_lat", updatable = false)
     private Double lastKnownLat;
 
-    @Column(name = "last_known_lng")
+    @Column(name = "last_known_lng", updatable = false)
     private Double lastKnownLng;
 
-    @Column(name = "last_known_location_at")
+    @Column(name = "last_known_location_at", updatable = false)
     private Instant lastKnownLocationAt;
 
     /**
@@ -256,10 +267,13 @@ public class UserInfo {
      * {@link #lastKnownLat}/{@link #lastKnownLng} (Phase 5 Slice C). Powers
      * O(1) jurisdiction matching for agency geo-alerts — recipients are
      * found by {@code lastKnownZip IN (agency.jurisdictionZips)} instead of
-     * a Haversine scan per send. Refreshed on the location ping only when
+     * a Haversine scan per send. Each location ping takes the postcode from
+     * the offline ZCTA index when that dataset is deployed and covers the
+     * point; otherwise the zip is refreshed via Nominatim, and only when
      * it's null or the position moved meaningfully (bounds Nominatim calls).
+     * Same write path as {@link #lastKnownLat}.
      */
-    @Column(name = "last_known_zip", length = 12)
+    @Column(name = "last_known_zip", length = 12, updatable = false)
     private String lastKnownZip;
 
     /**
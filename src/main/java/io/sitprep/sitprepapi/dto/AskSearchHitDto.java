@@ -22,6 +22,15 @@ public class AskSearchHitDto {
     /** Short snippet for the hit card — first ~200 chars of body, or guide summary. */
     private String snippet;
 
+    /**
+     * Body fragments around the matched terms, HTML-escaped with matches in
+     * {@code <mark>}. Null for guide hits or when the match was title-only.
+     */
+    private String highlight;
+
+    /** Text relevance ({@code ts_rank_cd}); 0 for guide hits. */
+    private double rank;
+
     private Set<String> tags;
     private Set<String> hazardTags;
 
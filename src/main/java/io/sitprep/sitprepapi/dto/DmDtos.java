@@ -1,6 +1,7 @@
 package io.sitprep.sitprepapi.dto;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Wire shapes for the direct-message vertical ({@code /api/dm/*} +
@@ -31,6 +32,14 @@ public final class DmDtos {
             Instant createdAt
     ) {}
 
+    /**
+     * One bounded page of messages, oldest → newest. {@code hasMore} says a
+     * further page exists past the requested limit — older history for a
+     * thread page, newer messages for the reconnect delta. Shipped as the
+     * {@code X-Has-More} header; the body stays the bare list.
+     */
+    public record DmMessagePage(List<DmMessageDto> messages, boolean hasMore) {}
+
     public record DmThreadDto(
             Long threadId,
             PeerDto peer,
@@ -0,0 +1,34 @@
+package io.sitprep.sitprepapi.dto;
+
+import java.time.Instant;
+
+/**
+ * Live accountability counts for a group in an Active alert.
+ *
+ * <p>Topic: {@code /topic/group/{groupId}/rollup}</p>
+ *
+ * <p>Sent whenever a status tap, a "with me" claim / release, a roster
+ * change or the periodic verification moves the counts. Frames carry the
+ * whole (small) count set rather than a diff, so a client that missed one
+ * just applies the next; {@code version} only increases within one alert
+ * session ({@code alertActivatedAt}) on the sending instance, so clients
+ * drop a frame whose version is older than the one they hold. The first
+ * half mirrors {@link GroupMemberViewDto.StatusRollup} (manual members
+ * included); {@code checkedIn} / {@code missing} mirror
+ * {@link CheckInRollupDto} (account holders only). {@code active=false}
+ * marks the final frame after the alert ends.</p>
+ */
+public record GroupRollupFrame(
+        String groupId,
+        boolean active,
+        Instant alertActivatedAt,
+        long version,
+        int total,
+        int accounted,
+        int safe,
+        int help,
+        int injured,
+        int noResponse,
+        int checkedIn,
+        int missing
+) {}
@@ -4,7 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.sitprep.sitprepapi.domain.Post;
-import io.sitprep.sitprepapi.domain.UserInfo;
+import io.sitprep.sitprepapi.repo.UserProfileCard;
 import io.sitprep.sitprepapi.util.PublicCdn;
 
 import java.time.Instant;
@@ -250,7 +250,7 @@ public record PostDto(
         String needType,
         /**
          * Work-order assignees (Step 2) — the LEAD + any HELPERs — each with a
-         * display name + avatar folded server-side via the same batch UserInfo
+         * display name + avatar folded server-side via the same batch profile-card
          * path the requester uses (so Step-A avatars render without the client
          * cache). {@code task_assignee} is authoritative; {@code assigneeEmail}
          * above is the derived display mirror. Empty on non-work-order kinds and
@@ -466,7 +466,7 @@ public record PostDto(
             String authoredAsGroupName,
             String authoredAsGroupType
     ) {
-        public static ParentPostPreview fromEntity(Post t, UserInfo author, String groupName, String groupType) {
+        public static ParentPostPreview fromEntity(Post t, UserProfileCard author, String groupName, String groupType) {
             if (t == null || t.getId() == null) return null;
             List<String> urls = (t.getImageKeys() == null ? List.<String>of() : t.getImageKeys()).stream()
                     .map(PublicCdn::toPublicUrl)
@@ -474,9 +474,9 @@ public record PostDto(
             return new ParentPostPreview(
                     t.getId(),
                     t.getRequesterEmail(),
-                    author == null ? null : author.getUserFirstName(),
-                    author == null ? null : author.getUserLastName(),
-                    author == null ? null : DtoImages.avatar(author.getProfileImageUrl()),
+                    author == null ? null : author.firstName(),
+                    author == null ? null : author.lastName(),
+                    author == null ? null : DtoImages.avatar(author.profileImageUrl()),
                     t.getTitle(),
                     t.getDescription(),
                     t.getKind(),
@@ -493,7 +493,7 @@ public record PostDto(
     /**
      * Entity-only conversion. Author profile fields stay null — the
      * caller (typically {@code PostService}) is expected to fold in
-     * profile data via {@link #withAuthor(UserInfo)} so the FE doesn't
+     * profile data via {@link #withAuthor(UserProfileCard)} so the FE doesn't
      * need a separate profiles-batch round trip.
      */
     public static PostDto fromEntity(Post t, Double distanceKm) {
@@ -633,23 +633,53 @@ public record PostDto(
         );
     }
 
+    /**
+     * Returns a copy with {@code distanceKm} replaced. The community feed
+     * ranks a shared per-area snapshot, then re-measures each row from the
+     * viewer's exact position.
+     */
+    public PostDto withDistanceKm(Double km) {
+        return new PostDto(
+                id, groupId, requesterEmail,
+                requesterFirstName, requesterLastName, requesterProfileImageUrl,
+                claimedByGroupId, claimedByEmail, status, priority,
+                title, description, latitude, longitude, zipBucket, placeLabel,
+                dueAt, createdAt, updatedAt, claimedAt, completedAt,
+                parentPostId, tags, imageKeys, imageUrls, km,
+                sponsored, crisisRelevant, sponsoredUntil, sponsoredBy,
+                authorType, verifiedState, publisherScope, publisherProfileUrl,
+                serviceAreaLabel, jurisdictionLabel, sponsoredDisclosure,
+                kind, price, isFree, paymentMethods, viaFollow,
+                thanksCount, viewerThanked, commentsCount,
+                reactionsByEmoji, viewerEmojis,
+                latestCommentPreview,
+                authoredAsGroupId, authoredAsGroupName, authoredAsGroupType,
+                assigneeEmail,
+                parentPost,
+                community,
+                liabilityRequired(), releaseSigned(), releaseTextHash(), releaseExceptionReason(),
+                nearPowerLines(), electricalHazard(), waterLevel(), safeToEnter(), workDetails(), needType(),
+                assignees, projectRollup, children
+        );
+    }
+
     /**
      * Returns a copy of this DTO with author profile fields populated
      * from {@code u}. Used by {@code PostService.discoverCommunity}
-     * after a batch UserInfo lookup. Profile-image key is converted to
+     * after a batch profile-card lookup. Profile-image key is converted to
      * the strict DTO avatar URL shape so the FE renders either a public
      * CDN URL or its standard no-avatar fallback.
      */
-    public PostDto withAuthor(UserInfo u) {
+    public PostDto withAuthor(UserProfileCard u) {
         if (u == null) return this;
-        String avatarUrl = DtoImages.avatar(u.getProfileImageUrl());
+        String avatarUrl = DtoImages.avatar(u.profileImageUrl());
         PublisherIdentity identity = publisherIdentity(u);
         return new PostDto(
                 id,
                 groupId,
                 requesterEmail,
-                u.getUserFirstName(),
-                u.getUserLastName(),
+                u.firstName(),
+                u.lastName(),
                 avatarUrl,
                 claimedByGroupId,
                 claimedByEmail,
@@ -880,7 +910,7 @@ public record PostDto(
     /**
      * Returns a copy with the work-order assignee list folded in (Step 2).
      * Populated by {@code PostService.withAssignees} from {@code task_assignee}
-     * + a batch UserInfo lookup. Non-task / unassigned rows get an empty list.
+     * + a batch profile-card lookup. Non-task / unassigned rows get an empty list.
      */
     public PostDto withAssignees(List<AssigneeDto> assignees) {
         return new PostDto(
@@ -981,13 +1011,13 @@ public record PostDto(
     private static final TypeReference<Map<String, Object>> PAYMENT_TYPE =
             new TypeReference<>() {};
 
-    private static PublisherIdentity publisherIdentity(UserInfo u) {
-        if (u == null || !u.isVerifiedPublisher()) {
+    private static PublisherIdentity publisherIdentity(UserProfileCard u) {
+        if (u == null || !u.verifiedPublisher()) {
             return new PublisherIdentity(null, null, null, null, null, null);
         }
-        String kind = u.getVerifiedPublisherKind();
-        String email = u.getUserEmail();
-        String verified = u.isVerifiedPublisherEmergencyPostingEnabled()
+        String kind = u.verifiedPublisherKind();
+        String email = u.email();
+        String verified = u.verifiedPublisherEmergencyPostingEnabled()
                 || "official-agency".equalsIgnoreCase(String.valueOf(kind))
                 ? "official"
                 : "verified";
@@ -996,9 +1026,9 @@ public record PostDto(
                 verified,
                 publisherScopeFromKind(kind),
                 email == null || email.isBlank() ? null : "/business/" + email.trim(),
-                trim(u.getVerifiedPublisherServiceArea()),
-                coalesce(u.getVerifiedPublisherTemporaryEventAddress(),
-                        u.getVerifiedPublisherPermanentAddress())
+                trim(u.verifiedPublisherServiceArea()),
+                coalesce(u.verifiedPublisherTemporaryEventAddress(),
+                        u.verifiedPublisherPermanentAddress())
         );
     }
 
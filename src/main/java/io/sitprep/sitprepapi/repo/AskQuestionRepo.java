@@ -9,17 +9,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Repository for {@link AskQuestion}. The two listing finders cover the
  * common cases (most-recent N + cursor pagination); search across
- * title+body uses {@link #searchByTokens} which is good enough for v1
- * without a Postgres tsvector index — when usage grows we swap the LIKE
- * to {@code @@ to_tsquery(...)} without changing the call site.
+ * title+body is {@link #searchRanked} over the V61 tsvector index.
  */
 public interface AskQuestionRepo extends JpaRepository<AskQuestion, Long> {
 
+    /**
+     * SQL twin of {@code AskService.hotScore} over the row's own columns,
+     * with "now" bound as {@code :nowEpoch} (seconds). {@code created_at} is
+     * stored as UTC wall time, so its epoch is comparable.
+     */
+    String HOT_RECENCY_SQL = "GREATEST(0, 14 - (:nowEpoch - EXTRACT(EPOCH FROM created_at)) / 86400.0) * 0.15";
+    String HOT_SCORE_SQL = "LOG(GREATEST(vote_score + 1, 1)) + " + HOT_RECENCY_SQL;
+
     /** Most-recent N, descending by id. Initial-page loader. */
     List<AskQuestion> findAllByOrderByIdDesc(Pageable pageable);
 
@@ -33,32 +40,76 @@ public interface AskQuestionRepo extends JpaRepository<AskQuestion, Long> {
             String zipBucket, Long beforeId, Pageable pageable);
 
     /**
-     * Naive token search — case-insensitive substring across title + body.
-     * Caller wraps the user query as {@code "%" + token + "%"} (lowercased).
-     * Returns at most {@code Pageable.size}; service layer applies the
-     * hot-score sort on the slice.
+     * Full-text page over the V61 {@code search_tsv} GIN index: hits for a
+     * {@link io.sitprep.sitprepapi.util.FullTextQuery#toPrefixTsQuery prefix
+     * tsquery}, ordered hazard-matched first, then {@code ts_rank_cd}
+     * (length-normalized), vote score and id. Rows are
+     * {@code Object[]{id, rank, hazardMatched, voteScore}}; callers pass a
+     * non-empty {@code hazards} (a blank sentinel when none are active).
      */
-    @Query("SELECT q FROM AskQuestion q " +
-           "WHERE LOWER(q.title) LIKE :q " +
-           "   OR LOWER(q.body) LIKE :q " +
-           "ORDER BY q.voteScore DESC, q.id DESC")
-    List<AskQuestion> searchByTokens(@Param("q") String q, Pageable pageable);
+    @Query(value = """
+            SELECT a.id,
+                   ts_rank_cd(a.search_tsv, q.query, 1) AS rank,
+                   EXISTS (SELECT 1 FROM ask_question_hazards h
+                            WHERE h.question_id = a.id AND h.hazard IN (:hazards)) AS hazard_matched,
+                   a.vote_score
+              FROM ask_question a, to_tsquery('english', :tsq) AS q(query)
+             WHERE a.search_tsv @@ q.query
+             ORDER BY hazard_matched DESC, rank DESC, a.vote_score DESC, a.id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> searchRanked(@Param("tsq") String tsq,
+                                @Param("hazards") Collection<String> hazards,
+                                @Param("limit") int limit);
+
+    /**
+     * {@code ts_headline} snippets for one page of hits, as
+     * {@code Object[]{id, headline}}. Kept apart from {@link #searchRanked}
+     * so the (costly) headline is built only for rows actually returned.
+     */
+    @Query(value = """
+            SELECT a.id, ts_headline('english', a.body, to_tsquery('english', :tsq), :options)
+              FROM ask_question a
+             WHERE a.id IN (:ids)
+            """, nativeQuery = true)
+    List<Object[]> headlines(@Param("tsq") String tsq,
+                             @Param("options") String options,
+                             @Param("ids") Collection<Long> ids);
 
     /**
-     * Top questions across a time window — used by the "Top questions"
-     * strip on /ask. Sorted by vote score with id as tiebreaker. Time-
-     * window filter is on {@code createdAt}.
+     * Hottest questions in a time window — the "Top questions" strip on
+     * /ask. Walks {@code idx_ask_question_hot} from the top and stops after
+     * the page, so cost doesn't grow with the table; the window filter only
+     * skips rows along the way.
      */
     @Query("SELECT q FROM AskQuestion q " +
            "WHERE q.createdAt >= :since " +
-           "ORDER BY q.voteScore DESC, q.id DESC")
-    List<AskQuestion> topSince(@Param("since") Instant since, Pageable pageable);
+           "ORDER BY q.hotScore DESC, q.id DESC")
+    List<AskQuestion> hotSince(@Param("since") Instant since, Pageable pageable);
 
-    /** Atomic vote-score bump used in the same transaction as vote insert/delete. */
+    /**
+     * Atomic vote-score bump used in the same transaction as vote
+     * insert/delete. Rewrites {@code hot_score} in the same statement
+     * (Postgres evaluates SET against the pre-update row, hence the
+     * {@code + :delta} inside the score).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE ask_question SET vote_score = vote_score + :delta, "
+            + "hot_score = LOG(GREATEST(vote_score + :delta + 1, 1)) + " + HOT_RECENCY_SQL + " "
+            + "WHERE id = :id", nativeQuery = true)
+    int bumpVoteScore(@Param("id") Long id, @Param("delta") int delta, @Param("nowEpoch") double nowEpoch);
+
+    /**
+     * Re-decay {@code hot_score} for questions created at or after
+     * {@code since} — the rows whose recency term is still moving. Older
+     * rows keep the pure vote term and only change on a vote.
+     */
     @Transactional
     @Modifying
-    @Query("UPDATE AskQuestion q SET q.voteScore = q.voteScore + :delta WHERE q.id = :id")
-    int bumpVoteScore(@Param("id") Long id, @Param("delta") int delta);
+    @Query(value = "UPDATE ask_question SET hot_score = " + HOT_SCORE_SQL + " "
+            + "WHERE created_at >= :since", nativeQuery = true)
+    int refreshHotScores(@Param("since") Instant since, @Param("nowEpoch") double nowEpoch);
 
     @Transactional
     @Modifying
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface AskTipRepo extends JpaRepository<AskTip, Long> {
@@ -22,11 +23,31 @@ public interface AskTipRepo extends JpaRepository<AskTip, Long> {
     List<AskTip> findByZipBucketAndIdLessThanOrderByIdDesc(
             String zipBucket, Long beforeId, Pageable pageable);
 
-    @Query("SELECT t FROM AskTip t " +
-           "WHERE LOWER(t.title) LIKE :q " +
-           "   OR LOWER(t.body) LIKE :q " +
-           "ORDER BY t.voteScore DESC, t.id DESC")
-    List<AskTip> searchByTokens(@Param("q") String q, Pageable pageable);
+    /** {@link AskQuestionRepo#searchRanked} over {@code ask_tip}. */
+    @Query(value = """
+            SELECT a.id,
+                   ts_rank_cd(a.search_tsv, q.query, 1) AS rank,
+                   EXISTS (SELECT 1 FROM ask_tip_hazards h
+                            WHERE h.tip_id = a.id AND h.hazard IN (:hazards)) AS hazard_matched,
+                   a.vote_score
+              FROM ask_tip a, to_tsquery('english', :tsq) AS q(query)
+             WHERE a.search_tsv @@ q.query
+             ORDER BY hazard_matched DESC, rank DESC, a.vote_score DESC, a.id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> searchRanked(@Param("tsq") String tsq,
+                                @Param("hazards") Collection<String> hazards,
+                                @Param("limit") int limit);
+
+    /** {@link AskQuestionRepo#headlines} over {@code ask_tip}. */
+    @Query(value = """
+            SELECT a.id, ts_headline('english', a.body, to_tsquery('english', :tsq), :options)
+              FROM ask_tip a
+             WHERE a.id IN (:ids)
+            """, nativeQuery = true)
+    List<Object[]> headlines(@Param("tsq") String tsq,
+                             @Param("options") String options,
+                             @Param("ids") Collection<Long> ids);
 
     @Query("SELECT t FROM AskTip t " +
            "WHERE t.createdAt >= :since " +
@@ -0,0 +1,22 @@
+package io.sitprep.sitprepapi.repo;
+
+import java.time.Instant;
+
+/**
+ * One inbox row — the thread, its newest message and the viewer's unread
+ * count — built by the single JPQL constructor expression in
+ * {@link DmThreadRepo#findInboxRows}. The last-message columns are null
+ * for a thread with no messages yet.
+ */
+public record DmInboxRow(
+        Long threadId,
+        String participantAEmail,
+        String participantBEmail,
+        Instant aLastReadAt,
+        Instant bLastReadAt,
+        Long lastMessageId,
+        String lastMessageSenderEmail,
+        String lastMessageBody,
+        Instant lastMessageCreatedAt,
+        long unreadCount
+) {}
@@ -1,24 +1,52 @@
 package io.sitprep.sitprepapi.repo;
 
 import io.sitprep.sitprepapi.domain.DmMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
 
 public interface DmMessageRepo extends JpaRepository<DmMessage, Long> {
 
-    /** Full thread, oldest → newest (no pagination v1 — same posture as comment threads). */
-    List<DmMessage> findByThreadIdOrderByCreatedAtAsc(Long threadId);
+    /** Newest page of a thread, newest → oldest. */
+    List<DmMessage> findByThreadIdOrderByCreatedAtDescIdDesc(Long threadId, Pageable pageable);
 
-    /** Newest message — inbox row preview. */
-    Optional<DmMessage> findFirstByThreadIdOrderByCreatedAtDesc(Long threadId);
+    /**
+     * Page of a thread strictly older than the {@code (beforeAt, beforeId)}
+     * cursor, newest → oldest. Keyset on the {@code (thread_id, created_at,
+     * id)} index, so deep history costs the same as the first page.
+     */
+    @Query("""
+           SELECT m FROM DmMessage m
+           WHERE m.threadId = :threadId
+             AND (m.createdAt < :beforeAt
+                  OR (m.createdAt = :beforeAt AND m.id < :beforeId))
+           ORDER BY m.createdAt DESC, m.id DESC
+           """)
+    List<DmMessage> findPageBefore(@Param("threadId") Long threadId,
+                                   @Param("beforeAt") Instant beforeAt,
+                                   @Param("beforeId") Long beforeId,
+                                   Pageable pageable);
 
-    /** Unread = peer-sent messages newer than the viewer's watermark. */
-    long countByThreadIdAndSenderEmailNotAndCreatedAtAfter(
-            Long threadId, String senderEmail, Instant after);
-
-    /** Unread with no watermark yet — every peer-sent message counts. */
-    long countByThreadIdAndSenderEmailNot(Long threadId, String senderEmail);
+    /**
+     * Messages in any of the viewer's threads strictly newer than the
+     * {@code (since, afterId)} cursor, oldest → newest — the reconnect
+     * delta. Bounded by {@code pageable}; callers continue from the last
+     * row when a page comes back full.
+     */
+    @Query("""
+           SELECT m FROM DmMessage m, DmThread t
+           WHERE t.id = m.threadId
+             AND (t.participantAEmail = :email OR t.participantBEmail = :email)
+             AND (m.createdAt > :since
+                  OR (m.createdAt = :since AND m.id > :afterId))
+           ORDER BY m.createdAt ASC, m.id ASC
+           """)
+    List<DmMessage> findForViewerSince(@Param("email") String email,
+                                       @Param("since") Instant since,
+                                       @Param("afterId") Long afterId,
+                                       Pageable pageable);
 }
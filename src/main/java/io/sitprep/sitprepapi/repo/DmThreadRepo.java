@@ -13,11 +13,35 @@ public interface DmThreadRepo extends JpaRepository<DmThread, Long> {
     /** Pair lookup — callers pass the pair pre-sorted (a < b, lowercase). */
     Optional<DmThread> findByParticipantAEmailAndParticipantBEmail(String a, String b);
 
-    /** Viewer's inbox, newest conversation first (unmessaged threads last). */
+    /**
+     * Viewer's inbox in one statement, newest conversation first (unmessaged
+     * threads last): each thread with its newest message and the viewer's
+     * unread count (peer-sent messages past the viewer's watermark, or all of
+     * them before the first read).
+     *
+     * <p>The newest message is the one stamped at the thread's denormalized
+     * {@code lastMessageAt} — an index equality probe instead of a per-thread
+     * sort; the {@code MAX(id)} guard picks one if two share the instant.</p>
+     */
     @Query("""
-            SELECT t FROM DmThread t
-            WHERE t.participantAEmail = :email OR t.participantBEmail = :email
+            SELECT new io.sitprep.sitprepapi.repo.DmInboxRow(
+                t.id, t.participantAEmail, t.participantBEmail, t.aLastReadAt, t.bLastReadAt,
+                m.id, m.senderEmail, m.body, m.createdAt,
+                (SELECT COUNT(u) FROM DmMessage u
+                  WHERE u.threadId = t.id
+                    AND u.senderEmail <> :email
+                    AND ((t.participantAEmail = :email
+                          AND (t.aLastReadAt IS NULL OR u.createdAt > t.aLastReadAt))
+                      OR (t.participantBEmail = :email
+                          AND (t.bLastReadAt IS NULL OR u.createdAt > t.bLastReadAt)))))
+            FROM DmThread t
+            LEFT JOIN DmMessage m
+                   ON m.threadId = t.id AND m.createdAt = t.lastMessageAt
+            WHERE (t.participantAEmail = :email OR t.participantBEmail = :email)
+              AND (m.id IS NULL
+                   OR m.id = (SELECT MAX(m2.id) FROM DmMessage m2
+                               WHERE m2.threadId = t.id AND m2.createdAt = t.lastMessageAt))
             ORDER BY t.lastMessageAt DESC NULLS LAST
             """)
-    List<DmThread> findInbox(@Param("email") String email);
+    List<DmInboxRow> findInboxRows(@Param("email") String email);
 }
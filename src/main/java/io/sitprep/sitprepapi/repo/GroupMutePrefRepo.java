@@ -2,7 +2,10 @@ package io.sitprep.sitprepapi.repo;
 
 import io.sitprep.sitprepapi.domain.GroupMutePref;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +24,13 @@ public interface GroupMutePrefRepo extends JpaRepository<GroupMutePref, Long> {
      * enforcement check.
      */
     Optional<GroupMutePref> findByUserEmailIgnoreCaseAndGroupId(String userEmail, String groupId);
+
+    /**
+     * Every recipient's pref for one group in a single query — the
+     * batched fan-out's mute / quiet-hours check. {@code emails} must
+     * already be lowercased.
+     */
+    @Query("SELECT p FROM GroupMutePref p WHERE p.groupId = :groupId AND LOWER(p.userEmail) IN :emails")
+    List<GroupMutePref> findByGroupIdAndLowerEmailIn(@Param("groupId") String groupId,
+                                                     @Param("emails") Collection<String> emails);
 }
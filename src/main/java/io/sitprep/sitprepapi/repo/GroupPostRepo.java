@@ -30,8 +30,36 @@ public interface GroupPostRepo extends JpaRepository<GroupPost, Long> {
            "WHERE p.id = :id")
     int adjustCommentsCount(@Param("id") Long id, @Param("delta") int delta);
 
-    @Query("SELECT p FROM GroupPost p WHERE p.groupId = :groupId ORDER BY p.timestamp DESC")
-    List<GroupPost> findPostsByGroupId(@Param("groupId") String groupId);
+    /**
+     * Shared select list for the {@link GroupPostSummaryRow} read model.
+     * Scalar columns only, so neither EAGER element collection loads.
+     */
+    String SUMMARY_SELECT = """
+        SELECT new io.sitprep.sitprepapi.repo.GroupPostSummaryRow(
+               p.id, p.groupId, p.groupName, p.author, p.content,
+               p.timestamp, p.pinnedAt, p.pinnedBy)
+          FROM GroupPost p
+        """;
+
+    /**
+     * Newest posts of a group (pinned or not), bounded by {@code pageable}.
+     * Walks {@code idx_post_group_ts} backwards and stops at the limit
+     * instead of materializing the group's whole history.
+     */
+    @Query(SUMMARY_SELECT + """
+         WHERE p.groupId = :groupId
+         ORDER BY p.timestamp DESC, p.id DESC
+        """)
+    List<GroupPostSummaryRow> findRecentSummariesByGroupId(@Param("groupId") String groupId,
+                                                           Pageable pageable);
+
+    /** Summary-row twin of {@link #findPinnedByGroupId}. */
+    @Query(SUMMARY_SELECT + """
+         WHERE p.groupId = :groupId
+           AND p.pinnedAt IS NOT NULL
+         ORDER BY p.pinnedAt DESC
+        """)
+    List<GroupPostSummaryRow> findPinnedSummariesByGroupId(@Param("groupId") String groupId);
 
     // Backfill by UPDATED time (ascending for client merge)
     List<GroupPost> findByGroupIdAndUpdatedAtAfterOrderByUpdatedAtAsc(String groupId, Instant since);
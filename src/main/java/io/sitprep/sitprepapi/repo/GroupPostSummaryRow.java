@@ -0,0 +1,24 @@
+package io.sitprep.sitprepapi.repo;
+
+import java.time.Instant;
+
+/**
+ * Scalar read model of a {@code GroupPost} for the group view's recent /
+ * pinned strips — exactly the columns {@code GroupPostSummaryDto} carries.
+ * Loading the entity drags its EAGER tags and mentions collections along
+ * for every row just to render a one-line preview.
+ *
+ * <p>Built by the JPQL constructor expressions in {@link GroupPostRepo}
+ * ({@link GroupPostRepo#SUMMARY_SELECT}). Author names are folded in by
+ * the caller, which already holds the group's roster.</p>
+ */
+public record GroupPostSummaryRow(
+        Long id,
+        String groupId,
+        String groupName,
+        String author,
+        String content,
+        Instant timestamp,
+        Instant pinnedAt,
+        String pinnedBy
+) {}
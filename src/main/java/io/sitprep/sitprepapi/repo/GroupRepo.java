@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -68,6 +69,130 @@ public interface GroupRepo extends JpaRepository<Group, String> {
                                    @Param("minLng") double minLng,
                                    @Param("maxLng") double maxLng);
 
+    /**
+     * Shared select list for the {@link GroupSummaryRow} read model. Scalar
+     * columns only, so none of Group's EAGER element collections load;
+     * {@code SIZE()} is a correlated count on group_member_emails.
+     */
+    String SUMMARY_SELECT = """
+        SELECT new io.sitprep.sitprepapi.repo.GroupSummaryRow(
+               g.groupId, g.groupName, g.groupType, g.description, g.privacy, g.alert,
+               g.homeLocation.lat, g.homeLocation.lng, g.address, g.zipCode, g.ownerEmail,
+               g.agencyAuthorized, g.jurisdictionType, g.jurisdictionLat, g.jurisdictionLng,
+               g.jurisdictionRadiusMiles, g.logoImageUrl, g.createdAt, g.updatedAt,
+               SIZE(g.memberEmails))
+          FROM Group g
+        """;
+
+    /**
+     * Summary-row twin of {@link #findPublicInBounds} for the community map
+     * and Discover — same (latitude, longitude) range scan, no collections.
+     */
+    @Query(SUMMARY_SELECT + """
+         WHERE LOWER(g.privacy) = 'public'
+           AND g.homeLocation.lat BETWEEN :minLat AND :maxLat
+           AND g.homeLocation.lng BETWEEN :minLng AND :maxLng
+        """)
+    List<GroupSummaryRow> findPublicSummariesInBounds(@Param("minLat") double minLat,
+                                                      @Param("maxLat") double maxLat,
+                                                      @Param("minLng") double minLng,
+                                                      @Param("maxLng") double maxLng);
+
+    /** Summary rows by id — the group name / type folds on feed pages. */
+    @Query(SUMMARY_SELECT + " WHERE g.groupId IN :ids")
+    List<GroupSummaryRow> findSummariesByIds(@Param("ids") Collection<String> ids);
+
+    // On-demand membership for the summary read path: ids / emails only,
+    // for just the viewer or just the groups on the page.
+
+    @Query("SELECT g.groupId FROM Group g JOIN g.adminEmails a WHERE LOWER(a) = LOWER(:email)")
+    List<String> findGroupIdsByAdminEmail(@Param("email") String email);
+
+    @Query("SELECT g.groupId FROM Group g JOIN g.memberEmails m WHERE LOWER(m) = LOWER(:email)")
+    List<String> findGroupIdsByMemberEmail(@Param("email") String email);
+
+    @Query("SELECT g.groupId FROM Group g JOIN g.pendingMemberEmails p WHERE LOWER(p) = LOWER(:email)")
+    List<String> findGroupIdsByPendingMemberEmail(@Param("email") String email);
+
+    /**
+     * Every member email of the listed groups as {@code Object[]{groupId,
+     * memberEmail}}, in each group's stored member order.
+     */
+    @Query("""
+        SELECT g.groupId, m FROM Group g JOIN g.memberEmails m
+         WHERE g.groupId IN :ids
+         ORDER BY g.groupId, INDEX(m)
+        """)
+    List<Object[]> findMemberEmailRows(@Param("ids") Collection<String> ids);
+
+    /**
+     * Lowercased emails of everyone who shares at least one group with
+     * {@code email} (the email itself included — callers drop it).
+     */
+    @Query("""
+        SELECT DISTINCT LOWER(o) FROM Group g
+          JOIN g.memberEmails m
+          JOIN g.memberEmails o
+         WHERE LOWER(m) = LOWER(:email)
+        """)
+    List<String> findCoMemberEmails(@Param("email") String email);
+
+    /**
+     * Every group as {@code Object[]{groupId, groupType}} — the group half
+     * of {@code GroupMembershipIndex}'s rebuild.
+     */
+    @Query("SELECT g.groupId, g.groupType FROM Group g")
+    List<Object[]> findGroupTypeRows();
+
+    /**
+     * Every membership as {@code Object[]{groupId, memberEmail}}, straight
+     * off {@code group_member_emails} without hydrating any entity.
+     */
+    @Query("SELECT g.groupId, m FROM Group g JOIN g.memberEmails m")
+    List<Object[]> findMembershipRows();
+
+    /**
+     * Groups {@code email} belongs to as {@code Object[]{groupId, groupType}}
+     * — the narrow form of {@link #findByMemberEmail} for callers that only
+     * need IDs. {@code email} must be lowercased.
+     */
+    @Query("SELECT g.groupId, g.groupType FROM Group g JOIN g.memberEmails m WHERE LOWER(m) = :email")
+    List<Object[]> findMembershipsByMemberEmail(@Param("email") String email);
+
+    /**
+     * Which of {@code groupIds} currently have an Active alert — read live
+     * by the location-sharing gate so "check-in-only" never outlives the
+     * alert.
+     */
+    @Query("SELECT g.groupId FROM Group g WHERE g.groupId IN :groupIds AND LOWER(g.alert) = 'active'")
+    List<String> findActiveAlertGroupIds(@Param("groupIds") Collection<String> groupIds);
+
+    /**
+     * Roster of {@code groupId} with each member's self status, as
+     * {@code Object[]{lowercased memberEmail, userStatus,
+     * userStatusLastUpdated}} — the status columns are null for members
+     * without a UserInfo row. Feeds the live accountability rollup without
+     * hydrating any UserInfo.
+     */
+    @Query("""
+        SELECT LOWER(m), u.userStatus, u.userStatusLastUpdated
+          FROM Group g JOIN g.memberEmails m
+          LEFT JOIN UserInfo u ON LOWER(u.userEmail) = LOWER(m)
+         WHERE g.groupId = :groupId
+        """)
+    List<Object[]> findMemberStatusRows(@Param("groupId") String groupId);
+
+    /**
+     * Every group in an Active alert as {@code Object[]{groupId, groupType,
+     * alertActivatedAt, updatedAt}} — enough to key a live rollup on its
+     * alert session.
+     */
+    @Query("""
+        SELECT g.groupId, g.groupType, g.alertActivatedAt, g.updatedAt FROM Group g
+         WHERE LOWER(g.alert) = 'active'
+        """)
+    List<Object[]> findActiveAlertAnchors();
+
     Optional<Group> findByStripeCustomerId(String stripeCustomerId);
 
     Optional<Group> findByStripeSubscriptionId(String stripeSubscriptionId);
@@ -0,0 +1,46 @@
+package io.sitprep.sitprepapi.repo;
+
+import java.time.Instant;
+
+/**
+ * Scalar read model of a {@code Group} for listing / discovery / name-fold
+ * paths — everything a card, pin or tag label renders, and nothing from the
+ * six EAGER element collections. Loading a {@code Group} entity drags every
+ * admin / member / pending / sub-group / parent / jurisdiction-zip /
+ * challenge row along with it; a map viewport of 200 public groups was
+ * thousands of side-table rows to draw 200 pins.
+ *
+ * <p>Built by the JPQL constructor expressions in {@link GroupRepo}
+ * ({@link GroupRepo#SUMMARY_SELECT}). {@code memberCount} is a correlated
+ * {@code SIZE(memberEmails)} — the accurate count from the member table,
+ * not the drifting denormalized {@code Group.memberCount}. Membership
+ * itself is loaded on demand for just the groups that need it (see
+ * {@code GroupSummaryService}).</p>
+ */
+public record GroupSummaryRow(
+        String groupId,
+        String groupName,
+        String groupType,
+        String description,
+        String privacy,
+        String alert,
+        Double latitude,
+        Double longitude,
+        String address,
+        String zipCode,
+        String ownerEmail,
+        boolean agencyAuthorized,
+        String jurisdictionType,
+        Double jurisdictionLat,
+        Double jurisdictionLng,
+        Double jurisdictionRadiusMiles,
+        String logoImageUrl,
+        Instant createdAt,
+        Instant updatedAt,
+        Integer memberCount
+) {
+
+    public int memberCountOrZero() {
+        return memberCount == null ? 0 : memberCount;
+    }
+}
@@ -30,4 +30,74 @@ public interface IdempotencyKeyRepo extends JpaRepository<IdempotencyKey, Idempo
     @Modifying
     @Query("delete from IdempotencyKey k where k.createdAt < :cutoff")
     int deleteOlderThan(@Param("cutoff") Instant cutoff);
+
+    /**
+     * Atomically take the in-flight reservation for a key. Returns 1 if this
+     * caller now owns it, 0 if a row (reserved or completed) already exists.
+     * Postgres-specific {@code ON CONFLICT}; the repo is mocked in unit tests.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys
+                (caller_email, endpoint, idem_key, response_status_code, created_at)
+            VALUES
+                (:caller, :endpoint, :key, 0, :now)
+            ON CONFLICT (caller_email, endpoint, idem_key) DO NOTHING
+            """, nativeQuery = true)
+    int reserve(@Param("caller") String caller,
+                @Param("endpoint") String endpoint,
+                @Param("key") String key,
+                @Param("now") Instant now);
+
+    /**
+     * Re-take a row nobody should be waiting on: a reservation older than
+     * {@code abandonedBefore} (its instance died mid-handler) or a completed
+     * response older than {@code expiredBefore} (past the TTL, not yet swept).
+     * The conditional UPDATE lets exactly one contender win.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update IdempotencyKey k
+               set k.responseStatusCode = 0, k.responseBody = null,
+                   k.responseBodyGzip = null, k.createdAt = :now
+             where k.callerEmail = :caller and k.endpoint = :endpoint and k.key = :key
+               and ((k.responseStatusCode = 0 and k.createdAt < :abandonedBefore)
+                 or (k.responseStatusCode <> 0 and k.createdAt < :expiredBefore))
+            """)
+    int takeOver(@Param("caller") String caller,
+                 @Param("endpoint") String endpoint,
+                 @Param("key") String key,
+                 @Param("now") Instant now,
+                 @Param("abandonedBefore") Instant abandonedBefore,
+                 @Param("expiredBefore") Instant expiredBefore);
+
+    /** Store the response on a reservation this caller owns. */
+    @Transactional
+    @Modifying
+    @Query("""
+            update IdempotencyKey k
+               set k.responseStatusCode = :status, k.responseBodyGzip = :body, k.createdAt = :now
+             where k.callerEmail = :caller and k.endpoint = :endpoint and k.key = :key
+               and k.responseStatusCode = 0
+            """)
+    int complete(@Param("caller") String caller,
+                 @Param("endpoint") String endpoint,
+                 @Param("key") String key,
+                 @Param("status") int status,
+                 @Param("body") byte[] body,
+                 @Param("now") Instant now);
+
+    /** Drop a reservation whose handler failed so the client can retry. */
+    @Transactional
+    @Modifying
+    @Query("""
+            delete from IdempotencyKey k
+             where k.callerEmail = :caller and k.endpoint = :endpoint and k.key = :key
+               and k.responseStatusCode = 0
+            """)
+    int release(@Param("caller") String caller,
+                @Param("endpoint") String endpoint,
+                @Param("key") String key);
 }
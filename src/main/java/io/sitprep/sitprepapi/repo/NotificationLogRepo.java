@@ -101,6 +101,20 @@ public interface NotificationLogRepo extends JpaRepository<NotificationLog, Long
            """)
     long countUnreadForUser(@Param("email") String email);
 
+    /**
+     * {@link #countUnreadForUser} for a whole fan-out in one query —
+     * rows of {@code [lowercased email, count]}; recipients with nothing
+     * unread are absent. {@code emails} must already be lowercased.
+     */
+    @Query("""
+           SELECT LOWER(n.recipientEmail), COUNT(n) FROM NotificationLog n
+            WHERE LOWER(n.recipientEmail) IN :emails
+              AND n.archivedAt IS NULL
+              AND n.readAt IS NULL
+            GROUP BY LOWER(n.recipientEmail)
+           """)
+    List<Object[]> countUnreadByRecipient(@Param("emails") Collection<String> emails);
+
     /**
      * Mark one row read (only if it belongs to the caller — the
      * recipient predicate is the row-level auth check).
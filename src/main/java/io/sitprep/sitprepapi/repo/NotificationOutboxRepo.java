@@ -0,0 +1,36 @@
+package io.sitprep.sitprepapi.repo;
+
+import io.sitprep.sitprepapi.domain.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepo extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Due rows — pending and past their backoff, or claimed by a worker
+     * whose lease ran out (crashed or restarted mid-delivery). Must run in
+     * a transaction: the row locks keep concurrent drains (other threads,
+     * other dynos) from claiming the same rows until the caller commits
+     * its {@code DELIVERING} update.
+     */
+    @Query(value = """
+            SELECT * FROM notification_outbox
+             WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+                OR (status = 'DELIVERING' AND locked_until < :now)
+             ORDER BY next_attempt_at
+             LIMIT :limit
+             FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<NotificationOutbox> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    long countByStatus(String status);
+
+    @Query("select min(o.createdAt) from NotificationOutbox o where o.status <> 'FAILED'")
+    Instant oldestOpenCreatedAt();
+}
@@ -1,6 +1,7 @@
 package io.sitprep.sitprepapi.repo;
 
 import io.sitprep.sitprepapi.domain.PostComment;
+import io.sitprep.sitprepapi.domain.PostEngagementCount;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -51,13 +52,14 @@ public interface PostCommentRepo extends JpaRepository<PostComment, Long> {
     /**
      * Per-task comment count for a list of tasks. Used by
      * {@code PostService.withEngagement} to fold {@code commentsCount}
-     * onto every PostDto in one query rather than N. Returns
-     * {@code Object[]{postId, count}} rows; service layer maps to
-     * {@code Map<Long, Long>}.
+     * onto every PostDto in one query rather than N. Reads the denormalized
+     * {@code post_engagement_count} row per post rather than counting
+     * comment rows. Returns {@code Object[]{postId, count}} rows; service
+     * layer maps to {@code Map<Long, Integer>}.
      */
-    @Query("SELECT c.postId, COUNT(c) FROM PostComment c " +
-           "WHERE c.postId IN :postIds " +
-           "GROUP BY c.postId")
+    @Query("SELECT e.postId, e.total FROM PostEngagementCount e " +
+           "WHERE e.postId IN :postIds " +
+           "AND e.metric = '" + PostEngagementCount.COMMENT + "' AND e.total > 0")
     List<Object[]> countByPostIdIn(@Param("postIds") Collection<Long> postIds);
 
     /**
@@ -1,6 +1,7 @@
 package io.sitprep.sitprepapi.repo;
 
 import io.sitprep.sitprepapi.domain.PostConfirm;
+import io.sitprep.sitprepapi.domain.PostEngagementCount;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -37,12 +38,33 @@ public interface PostConfirmRepo extends JpaRepository<PostConfirm, Long> {
     List<Long> findPostIdsWhereViewerConfirmed(@Param("postIds") Collection<Long> postIds,
                                                @Param("userEmail") String userEmail);
 
-    @Transactional
-    @Modifying
-    @Query("DELETE FROM PostConfirm c WHERE c.postId = :postId " +
+    /**
+     * Confirm counts for a page of tasks from the denormalized
+     * {@code post_engagement_count} rows — one small row per confirmed
+     * task instead of every confirm row on the page. Absent = zero.
+     */
+    @Query("SELECT new io.sitprep.sitprepapi.repo.PostEngagementRow(e.postId, e.metric, e.total) " +
+           "FROM PostEngagementCount e WHERE e.postId IN :postIds " +
+           "AND e.metric = '" + PostEngagementCount.CONFIRM + "' AND e.total > 0")
+    List<PostEngagementRow> findConfirmCounts(@Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT c FROM PostConfirm c WHERE c.postId = :postId " +
            "AND lower(c.userEmail) = lower(:userEmail)")
-    int deleteByPostAndUser(@Param("postId") Long postId,
-                            @Param("userEmail") String userEmail);
+    List<PostConfirm> findAllByPostAndUser(@Param("postId") Long postId,
+                                           @Param("userEmail") String userEmail);
+
+    /**
+     * Delete through the entity (not a bulk JPQL DELETE) so the
+     * {@code PostEngagementCounter} callback moves the confirm counter.
+     */
+    @Transactional
+    default int deleteByPostAndUser(Long postId, String userEmail) {
+        List<PostConfirm> rows = findAllByPostAndUser(postId, userEmail);
+        if (rows.isEmpty()) return 0;
+        deleteAll(rows);
+        flush();
+        return rows.size();
+    }
 
     @Transactional
     @Modifying
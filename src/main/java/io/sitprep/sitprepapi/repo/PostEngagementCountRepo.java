@@ -0,0 +1,28 @@
+package io.sitprep.sitprepapi.repo;
+
+import io.sitprep.sitprepapi.domain.PostEngagementCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read side of the denormalized engagement counters. Writes go through
+ * {@link io.sitprep.sitprepapi.domain.PostEngagementCounter} as atomic SQL
+ * increments, so reads are scalar projections only — no managed entities
+ * that could go stale against those increments. Confirm and comment counts
+ * are read from {@link PostConfirmRepo} / {@link PostCommentRepo} next to
+ * the rest of their queries.
+ */
+@Repository
+public interface PostEngagementCountRepo extends JpaRepository<PostEngagementCount, PostEngagementCount.PK> {
+
+    /** Per-emoji reaction counters for a page of posts (metric {@code r:<emoji>}). */
+    @Query("SELECT new io.sitprep.sitprepapi.repo.PostEngagementRow(c.postId, c.metric, c.total) " +
+           "FROM PostEngagementCount c WHERE c.postId IN :postIds " +
+           "AND c.metric LIKE '" + PostEngagementCount.REACTION_PREFIX + "%' AND c.total > 0")
+    List<PostEngagementRow> findReactionCounts(@Param("postIds") Collection<Long> postIds);
+}
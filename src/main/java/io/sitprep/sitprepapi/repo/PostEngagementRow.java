@@ -0,0 +1,7 @@
+package io.sitprep.sitprepapi.repo;
+
+/**
+ * Scalar read of one {@code post_engagement_count} row. Built by the JPQL
+ * constructor expressions in {@link PostEngagementCountRepo}.
+ */
+public record PostEngagementRow(Long postId, String metric, int total) {}
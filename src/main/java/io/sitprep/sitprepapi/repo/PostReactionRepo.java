@@ -29,25 +29,35 @@ public interface PostReactionRepo extends JpaRepository<PostReaction, Long> {
             Long postId, String userEmail, String emoji);
 
     /**
-     * Did this viewer react with this emoji on any of the supplied tasks?
-     * Used by the listing path to populate {@code viewerThanked} per row
-     * in one query rather than N separate lookups.
+     * This viewer's own reactions across a page of tasks — a handful of rows
+     * at most, where {@link #findByPostIdIn} pulls every reaction on the page.
+     * Counts come from {@code post_engagement_count}.
      */
-    @Query("SELECT r.postId FROM PostReaction r " +
+    @Query("SELECT r FROM PostReaction r " +
            "WHERE r.postId IN :postIds " +
-           "AND lower(r.userEmail) = lower(:userEmail) " +
-           "AND r.emoji = :emoji")
-    List<Long> findPostIdsWhereViewerReacted(@Param("postIds") Collection<Long> postIds,
-                                             @Param("userEmail") String userEmail,
-                                             @Param("emoji") String emoji);
+           "AND lower(r.userEmail) = lower(:userEmail)")
+    List<PostReaction> findViewerReactions(@Param("postIds") Collection<Long> postIds,
+                                           @Param("userEmail") String userEmail);
 
-    @Transactional
-    @Modifying
-    @Query("DELETE FROM PostReaction r WHERE r.postId = :postId " +
+    @Query("SELECT r FROM PostReaction r WHERE r.postId = :postId " +
            "AND lower(r.userEmail) = lower(:userEmail) AND r.emoji = :emoji")
-    int deleteByPostUserEmoji(@Param("postId") Long postId,
-                              @Param("userEmail") String userEmail,
-                              @Param("emoji") String emoji);
+    List<PostReaction> findAllByPostUserEmoji(@Param("postId") Long postId,
+                                              @Param("userEmail") String userEmail,
+                                              @Param("emoji") String emoji);
+
+    /**
+     * Delete through the entity (not a bulk JPQL DELETE) so the
+     * {@code PostEngagementCounter} callback moves the reaction counter.
+     * Flushed so the counter is current before the caller reads it back.
+     */
+    @Transactional
+    default int deleteByPostUserEmoji(Long postId, String userEmail, String emoji) {
+        List<PostReaction> rows = findAllByPostUserEmoji(postId, userEmail, emoji);
+        if (rows.isEmpty()) return 0;
+        deleteAll(rows);
+        flush();
+        return rows.size();
+    }
 
     @Transactional
     @Modifying
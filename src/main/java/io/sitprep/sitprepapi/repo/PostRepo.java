@@ -372,6 +372,37 @@ public interface PostRepo extends JpaRepository<Post, Long> {
             @Param("zipBuckets") Set<String> zipBuckets
     );
 
+    /**
+     * Narrow scan that seeds {@code CommunityPostGeoIndex}: every
+     * community-scope post with a status in {@code statuses} (the live
+     * ones) as {@code Object[]{id, latitude, longitude, status}}. No entity
+     * hydration — the index only needs the point and the status to answer
+     * radius queries.
+     */
+    @Query("""
+        SELECT t.id, t.latitude, t.longitude, t.status FROM Post t
+         WHERE t.groupId IS NULL
+           AND t.status IN :statuses
+        """)
+    List<Object[]> findCommunityGeoRows(@Param("statuses") Set<PostStatus> statuses);
+
+    /**
+     * Community-scope posts authored by any of {@code emails} (lowercased).
+     * Backs the follow-source tail of the community feed — out-of-radius
+     * posts from followed authors — now that the radius half is answered by
+     * the in-memory geo index rather than a full candidate scan.
+     */
+    @Query("""
+        SELECT t FROM Post t
+         WHERE t.groupId IS NULL
+           AND t.status IN :statuses
+           AND LOWER(t.requesterEmail) IN :emails
+        """)
+    List<Post> findCommunityCandidatesByAuthors(
+            @Param("statuses") Set<PostStatus> statuses,
+            @Param("emails") Set<String> emails
+    );
+
     /**
      * Distinct zip-buckets that have any task with coords. Used by
      * {@code AlertModeService} to find "populated cells" — the set of
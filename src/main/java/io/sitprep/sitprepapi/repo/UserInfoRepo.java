@@ -1,14 +1,21 @@
 package io.sitprep.sitprepapi.repo;
 
 import io.sitprep.sitprepapi.domain.UserInfo;
+import io.sitprep.sitprepapi.util.FullTextQuery;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserInfoRepo extends JpaRepository<UserInfo, String> {
 
@@ -18,7 +25,8 @@ public interface UserInfoRepo extends JpaRepository<UserInfo, String> {
 
     /**
      * Typeahead user search for the InviteSheet. Excludes the caller and
-     * matches against firstName/lastName/email prefix. Only
+     * matches a prefix of firstName, lastName, email or "first last" (so
+     * "jane do" narrows as the user types). Only
      * {@code searchable=true} rows surface — discovery is opt-in
      * (see {@code UserInfo.searchable}). Pagination drives the 10-result
      * cap at the service layer.
@@ -26,21 +34,37 @@ public interface UserInfoRepo extends JpaRepository<UserInfo, String> {
      * <p>The {@code searchable IS NOT FALSE} predicate (vs. {@code IS TRUE})
      * keeps users null-valued during the column rollout visible — once
      * existing rows backfill to FALSE, the semantics converge to
-     * "explicitly opt-in only".</p>
+     * "explicitly opt-in only". It also matches the predicate of the V61
+     * partial trigram indexes, which answer each {@code LIKE} from the
+     * index. Ranked full-name prefix first, then trigram similarity to the
+     * query, then last/first name.</p>
      */
-    @Query("""
-           SELECT u FROM UserInfo u
+    default List<UserInfo> searchUsers(String q, String viewerEmail, Pageable pageable) {
+        String query = q == null ? "" : q.trim().toLowerCase(Locale.ROOT);
+        return searchUsersRanked(query, FullTextQuery.likePrefix(query), viewerEmail, pageable);
+    }
+
+    @Query(value = """
+           SELECT u.* FROM user_info u
             WHERE u.searchable IS NOT FALSE
-              AND LOWER(u.userEmail) <> LOWER(:viewerEmail)
+              AND LOWER(u.user_email) <> LOWER(:viewerEmail)
               AND (
-                LOWER(u.userFirstName) LIKE LOWER(CONCAT(:q, '%'))
-                OR LOWER(u.userLastName) LIKE LOWER(CONCAT(:q, '%'))
-                OR LOWER(u.userEmail) LIKE LOWER(CONCAT(:q, '%'))
+                LOWER(u.user_first_name) LIKE :prefix ESCAPE '\\'
+                OR LOWER(u.user_last_name) LIKE :prefix ESCAPE '\\'
+                OR LOWER(u.user_email) LIKE :prefix ESCAPE '\\'
+                OR LOWER(COALESCE(u.user_first_name, '') || ' ' || COALESCE(u.user_last_name, ''))
+                   LIKE :prefix ESCAPE '\\'
               )
-            ORDER BY LOWER(u.userLastName), LOWER(u.userFirstName)
-           """)
-    List<UserInfo> searchUsers(
+            ORDER BY
+              (LOWER(COALESCE(u.user_first_name, '') || ' ' || COALESCE(u.user_last_name, ''))
+                 LIKE :prefix ESCAPE '\\') DESC,
+              similarity(LOWER(COALESCE(u.user_first_name, '') || ' ' || COALESCE(u.user_last_name, '')),
+                         :q) DESC,
+              LOWER(u.user_last_name), LOWER(u.user_first_name), u.user_id
+           """, nativeQuery = true)
+    List<UserInfo> searchUsersRanked(
             @Param("q") String q,
+            @Param("prefix") String prefix,
             @Param("viewerEmail") String viewerEmail,
             Pageable pageable);
 
@@ -53,6 +77,21 @@ public interface UserInfoRepo extends JpaRepository<UserInfo, String> {
 
     List<UserInfo> findByUserEmailIn(List<String> emails);
 
+    /**
+     * Author cards for a batch of (lowercased) emails — scalar columns only,
+     * none of the EAGER group-id sets. Backs {@code ProfileCardService}.
+     */
+    @Query("""
+           SELECT new io.sitprep.sitprepapi.repo.UserProfileCard(
+                  u.id, u.userEmail, u.userFirstName, u.userLastName, u.profileImageUrl,
+                  u.verifiedPublisher, u.verifiedPublisherKind,
+                  u.verifiedPublisherEmergencyPostingEnabled, u.verifiedPublisherServiceArea,
+                  u.verifiedPublisherPermanentAddress, u.verifiedPublisherTemporaryEventAddress)
+             FROM UserInfo u
+            WHERE u.userEmail IN :emails
+           """)
+    List<UserProfileCard> findProfileCardsByEmailIn(@Param("emails") Collection<String> emails);
+
     /** Users with no base household yet — assigned by HouseholdBackfillRunner. */
     List<UserInfo> findByBaseHouseholdIdIsNull();
 
@@ -77,21 +116,35 @@ public interface UserInfoRepo extends JpaRepository<UserInfo, String> {
     Optional<UserInfo> findFirstByVerifiedPublisherGroupIdIgnoreCase(String groupId);
 
     /**
-     * Every user who can receive a push (a non-empty FCM token) AND has
-     * a known current location. {@code AlertDispatchService}'s severe-
-     * alert fan-out loads this once per dispatch tick and refines it
-     * with a Haversine radius filter in Java — the same load-candidates-
-     * then-filter-in-service pattern as {@link #findByVerifiedPublisherTrue()}.
-     *
-     * <p>Bounded by design: only located, push-enabled users qualify.
-     * A bounding-box pre-filter on (lastKnownLat, lastKnownLng) is the
-     * natural next optimization once the user base outgrows a single
-     * in-memory scan.</p>
+     * Explicit per-group location-sharing modes for a batch of users, as
+     * {@code [lowercased userEmail, groupId, mode]} rows — the location
+     * ingest fan-out gates frames on these without loading the users.
+     * Groups with no row use their type's default.
      */
-    @Query("SELECT u FROM UserInfo u " +
+    @Query("SELECT LOWER(u.userEmail), KEY(s), VALUE(s) FROM UserInfo u JOIN u.groupLocationSharing s " +
+           "WHERE LOWER(u.userEmail) IN :emails")
+    List<Object[]> findLocationSharingRows(@Param("emails") Collection<String> emails);
+
+    /**
+     * Push-enabled, located users inside a bounding box, as
+     * {@code [userEmail, fcmtoken, lastKnownLat, lastKnownLng]} rows — the
+     * severe-alert recipient stage ({@code UserGeoService.nearestPushables})
+     * ranks these by distance without ever materializing a {@link UserInfo}
+     * (and its EAGER group-id collections). Streamed with a bounded fetch
+     * size so a metro-wide warning doesn't buffer the whole box in memory;
+     * served by the covering partial index from V56. Must be consumed
+     * inside a transaction and closed.
+     */
+    @Query("SELECT u.userEmail, u.fcmtoken, u.lastKnownLat, u.lastKnownLng FROM UserInfo u " +
            "WHERE u.fcmtoken IS NOT NULL AND u.fcmtoken <> '' " +
-           "AND u.lastKnownLat IS NOT NULL AND u.lastKnownLng IS NOT NULL")
-    List<UserInfo> findPushablesWithLocation();
+           "AND u.lastKnownLat BETWEEN :latMin AND :latMax " +
+           "AND u.lastKnownLng BETWEEN :lngMin AND :lngMax")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Object[]> streamPushableLocationsInBox(
+            @Param("latMin") double latMin,
+            @Param("latMax") double latMax,
+            @Param("lngMin") double lngMin,
+            @Param("lngMax") double lngMax);
 
     @Query("SELECT u FROM UserInfo u " +
            "WHERE u.lastKnownLat BETWEEN :latMin AND :latMax " +
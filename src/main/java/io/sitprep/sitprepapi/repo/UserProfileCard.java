@@ -0,0 +1,45 @@
+package io.sitprep.sitprepapi.repo;
+
+import io.sitprep.sitprepapi.domain.UserInfo;
+
+/**
+ * Compact, immutable author card — everything a post header, comment row,
+ * pin label or map badge renders about a person, and nothing else. Loading
+ * a {@code UserInfo} entity for that drags its EAGER group-id sets along;
+ * this is the scalar read model {@code ProfileCardService} caches instead.
+ *
+ * <p>Built by the JPQL constructor expression in
+ * {@link UserInfoRepo#findProfileCardsByEmailIn}, or from an already-loaded
+ * entity via {@link #of(UserInfo)}. {@code profileImageUrl} is the raw
+ * column value — callers still normalize it through {@code DtoImages.avatar}.</p>
+ */
+public record UserProfileCard(
+        String id,
+        String email,
+        String firstName,
+        String lastName,
+        String profileImageUrl,
+        boolean verifiedPublisher,
+        String verifiedPublisherKind,
+        boolean verifiedPublisherEmergencyPostingEnabled,
+        String verifiedPublisherServiceArea,
+        String verifiedPublisherPermanentAddress,
+        String verifiedPublisherTemporaryEventAddress
+) {
+
+    public static UserProfileCard of(UserInfo u) {
+        if (u == null) return null;
+        return new UserProfileCard(
+                u.getId(),
+                u.getUserEmail(),
+                u.getUserFirstName(),
+                u.getUserLastName(),
+                u.getProfileImageUrl(),
+                u.isVerifiedPublisher(),
+                u.getVerifiedPublisherKind(),
+                u.isVerifiedPublisherEmergencyPostingEnabled(),
+                u.getVerifiedPublisherServiceArea(),
+                u.getVerifiedPublisherPermanentAddress(),
+                u.getVerifiedPublisherTemporaryEventAddress());
+    }
+}
@@ -43,12 +43,12 @@ public class AlertResource {
      * back to a direct NWS call if the data is too stale.
      *
      * <p>Optional filter: if {@code lat} + {@code lng} are both present,
-     * the response is filtered server-side to alerts whose geometry's
-     * first coordinate falls within {@code radiusMi} (default 250mi) of
-     * the point. Alerts without geometry are always included. This is a
-     * coarse filter — exact point-in-polygon happens client-side via
-     * Leaflet rendering. Without lat/lng, returns the full ~400-alert
-     * snapshot (roughly 440KB) which is fine for desktop / dashboards.</p>
+     * the response is filtered server-side to alerts whose area (warning
+     * polygon, or quake epicentre) lies within {@code radiusMi} (default
+     * 250mi) of the point — containment counts as distance 0. Alerts
+     * without geometry are always included. Without lat/lng, returns the
+     * full ~400-alert snapshot (roughly 440KB) which is fine for desktop /
+     * dashboards.</p>
      */
     @GetMapping("/active")
     public ResponseEntity<Snapshot> active(
@@ -236,8 +236,11 @@ public class AskResource {
     @GetMapping("/search")
     public List<AskSearchHitDto> search(
             @RequestParam("q") String q,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
             @RequestHeader(value = AskService.HAZARD_TYPE_HEADER, required = false) String hazards) {
         String viewer = AuthUtils.getCurrentUserEmail();
-        return service.search(q, viewer, AskService.parseHazardHeader(hazards));
+        return service.search(q, viewer, AskService.parseHazardHeader(hazards),
+                page == null ? 0 : page, size == null ? AskService.SEARCH_PAGE_SIZE : size);
     }
 }
@@ -1,6 +1,7 @@
 package io.sitprep.sitprepapi.resource;
 
 import io.sitprep.sitprepapi.dto.DmDtos.DmMessageDto;
+import io.sitprep.sitprepapi.dto.DmDtos.DmMessagePage;
 import io.sitprep.sitprepapi.dto.DmDtos.DmThreadDto;
 import io.sitprep.sitprepapi.dto.DmDtos.SendMessageRequest;
 import io.sitprep.sitprepapi.service.DmService;
@@ -9,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -16,11 +18,22 @@ import java.util.List;
  *
  * <pre>
  *   GET   /api/dm/threads                      → viewer's inbox
- *   GET   /api/dm/threads/{threadId}/messages  → full thread, oldest → newest
+ *   GET   /api/dm/threads/{threadId}/messages  → newest page, oldest → newest
+ *         ?before=&lt;ISO&gt;&amp;beforeId=&amp;limit=   → the page above that cursor
+ *                                                (limit default 50, max 200)
+ *   GET   /api/dm/messages/since?since=&lt;ISO&gt;&amp;afterId=&amp;limit=
+ *                                              → reconnect delta across threads
  *   POST  /api/dm/messages { peerEmail, body } → send (creates thread on first message)
  *   PATCH /api/dm/threads/{threadId}/read      → move viewer's read watermark
  * </pre>
  *
+ * <p>Both message reads are bounded pages. The body stays a bare array;
+ * {@code X-Has-More: true|false} says whether another page exists past
+ * {@code limit} — older history (re-request with the first message as
+ * {@code before}/{@code beforeId}) or newer delta (the last message as
+ * {@code since}/{@code afterId}). A page is never silently the whole
+ * thread.</p>
+ *
  * <p>Send targets ride the request body (not the path) so identity
  * emails never fight URL encoding. Live updates: STOMP
  * {@code /topic/dm/{viewerEmail}}.</p>
@@ -42,9 +55,24 @@ public class DmResource {
     }
 
     @GetMapping("/threads/{threadId}/messages")
-    public ResponseEntity<List<DmMessageDto>> messages(@PathVariable Long threadId) {
+    public ResponseEntity<List<DmMessageDto>> messages(
+            @PathVariable Long threadId,
+            @RequestParam(value = "before", required = false) String beforeStr,
+            @RequestParam(value = "beforeId", required = false) Long beforeId,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        String viewer = AuthUtils.requireAuthenticatedEmail();
+        return page(service.messages(threadId, viewer, parseInstantOrNull(beforeStr), beforeId, limit));
+    }
+
+    @GetMapping("/messages/since")
+    public ResponseEntity<List<DmMessageDto>> since(
+            @RequestParam("since") String sinceStr,
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
         String viewer = AuthUtils.requireAuthenticatedEmail();
-        return ResponseEntity.ok(service.messages(threadId, viewer));
+        return page(service.since(viewer, parseInstantOrNull(sinceStr), afterId, limit));
     }
 
     @PostMapping("/messages")
@@ -60,4 +88,16 @@ public class DmResource {
         service.markRead(threadId, viewer);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<List<DmMessageDto>> page(DmMessagePage page) {
+        return ResponseEntity.ok()
+                .header("X-Has-More", String.valueOf(page.hasMore()))
+                .body(page.messages());
+    }
+
+    private static Instant parseInstantOrNull(String s) {
+        if (s == null || s.isBlank()) return null;
+        try { return Instant.parse(s); }
+        catch (Exception ignored) { return null; }
+    }
 }
@@ -64,10 +64,21 @@ public class GroupPostResource {
     // Reads below wrapped in {@link ApiResponse} per P2-3 (audit BE-02 /
     // BE-15). FE axios interceptor unwraps response.data to the inner
     // payload so existing callers are unchanged.
+    //
+    // Bounded: every pinned post plus the newest
+    // GroupPostService.LEGACY_LIST_LIMIT (200) unpinned ones, not the whole
+    // history. When older posts were cut off, X-Next-Cursor carries the
+    // `before` cursor to continue from on /group/{groupId}/page; no
+    // header means the list is complete. Body shape unchanged.
     @GetMapping("/group/{groupId}")
     public ResponseEntity<ApiResponse<List<GroupPostDto>>> getPostsByGroupId(@PathVariable String groupId) {
         AuthUtils.requireAuthenticatedEmail();
-        return ResponseEntity.ok(ApiResponse.ok(postService.getPostsByGroupIdDto(groupId), ApiMeta.now()));
+        GroupPostService.LegacyListing listing = postService.getPostsByGroupIdDto(groupId);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (listing.nextBefore() != null) {
+            ok.header("X-Next-Cursor", String.valueOf(listing.nextBefore()));
+        }
+        return ok.body(ApiResponse.ok(listing.posts(), ApiMeta.now()));
     }
 
     /**
@@ -209,10 +209,17 @@ public class GroupResource {
         }
     }
 
+    /**
+     * Admin check-in card. {@code members=false} returns the counts only
+     * (empty {@code members}); while the alert is Active that shape is
+     * served from the live rollup without reading the roster.
+     */
     @GetMapping("/{groupId}/check-in-rollup")
-    public ResponseEntity<CheckInRollupDto> getCheckInRollup(@PathVariable String groupId) {
+    public ResponseEntity<CheckInRollupDto> getCheckInRollup(
+            @PathVariable String groupId,
+            @RequestParam(value = "members", defaultValue = "true") boolean members) {
         requireAdminOf(groupId);
-        return ResponseEntity.ok(groupService.getCheckInRollup(groupId));
+        return ResponseEntity.ok(groupService.getCheckInRollup(groupId, members));
     }
 
     @PostMapping("/{groupId}/check-in-ping-missing")
@@ -0,0 +1,126 @@
+package io.sitprep.sitprepapi.resource;
+
+import io.sitprep.sitprepapi.constant.PlatformPermission;
+import io.sitprep.sitprepapi.security.VerifiedTokenCache;
+import io.sitprep.sitprepapi.service.LookupCacheRegistry;
+import io.sitprep.sitprepapi.service.MeHydrator;
+import io.sitprep.sitprepapi.service.NotificationOutboxService;
+import io.sitprep.sitprepapi.service.NotificationService;
+import io.sitprep.sitprepapi.service.OfflineReverseGeocoder;
+import io.sitprep.sitprepapi.service.PlatformAccessService;
+import io.sitprep.sitprepapi.util.AuthUtils;
+import io.sitprep.sitprepapi.util.LookupCache;
+import io.sitprep.sitprepapi.websocket.RealtimeBackend;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Runtime counters for the platform console — in-process caches and
+ * pipelines that have no other window into them (no actuator on the
+ * dyno). Read-only; gated on {@link PlatformPermission#VIEW_METRICS}.
+ *
+ * <pre>
+ *   GET /api/admin/ops/caches             upstream lookup caches (size, hit rate, evictions)
+ *   GET /api/admin/ops/auth-token-cache   verified ID-token cache (hit rate, verify latency)
+ *   GET /api/admin/ops/me-hydration       /api/me section timings, timeouts, permit headroom
+ *   GET /api/admin/ops/realtime           presence / STOMP relay backend (this instance's view)
+ *   GET /api/admin/ops/notification-fanout batched group fan-out counts and stage timings
+ *   GET /api/admin/ops/notification-outbox push outbox queue depth, retries, delivery lag
+ *   GET /api/admin/ops/offline-geocoder   ZCTA dataset loaded?, postcodes resolved without Nominatim
+ * </pre>
+ */
+@RestController
+public class OpsMetricsResource {
+
+    private final PlatformAccessService platformAccessService;
+    private final LookupCacheRegistry lookupCaches;
+    private final VerifiedTokenCache tokenCache;
+    private final MeHydrator meHydrator;
+    private final RealtimeBackend realtime;
+    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutbox;
+    private final OfflineReverseGeocoder offlineGeocoder;
+
+    public OpsMetricsResource(PlatformAccessService platformAccessService,
+                              LookupCacheRegistry lookupCaches,
+                              VerifiedTokenCache tokenCache,
+                              MeHydrator meHydrator,
+                              RealtimeBackend realtime,
+                              NotificationService notificationService,
+                              NotificationOutboxService notificationOutbox,
+                              OfflineReverseGeocoder offlineGeocoder) {
+        this.platformAccessService = platformAccessService;
+        this.lookupCaches = lookupCaches;
+        this.tokenCache = tokenCache;
+        this.meHydrator = meHydrator;
+        this.realtime = realtime;
+        this.notificationService = notificationService;
+        this.notificationOutbox = notificationOutbox;
+        this.offlineGeocoder = offlineGeocoder;
+    }
+
+    @GetMapping("/api/admin/ops/caches")
+    public ResponseEntity<List<LookupCache.Stats>> caches(
+            @RequestHeader(value = "X-Sitprep-Admin-Token", required = false) String token
+    ) {
+        requireMetrics(token);
+        return ResponseEntity.ok(lookupCaches.stats());
+    }
+
+    @GetMapping("/api/admin/ops/auth-token-cache")
+    public ResponseEntity<VerifiedTokenCache.Stats> authTokenCache(
+            @RequestHeader(value = "X-Sitprep-Admin-Token", required = false) String token
+    ) {
+        requireMetrics(token);
+        return ResponseEntity.ok(tokenCache.stats());
+    }
+
+    @GetMapping("/api/admin/ops/me-hydration")
+    public ResponseEntity<MeHydrator.Stats> meHydration(
+            @RequestHeader(value = "X-Sitprep-Admin-Token", required = false) String token
+    ) {
+        requireMetrics(token);
+        return ResponseEntity.ok(meHydrator.stats());
+    }
+
+    @GetMapping("/api/admin/ops/realtime")
+    public ResponseEntity<RealtimeBackend.Stats> realtime(
+            @RequestHeader(value = "X-Sitprep-Admin-Token", required = false) String token
+    ) {
+        requireMetrics(token);
+        return ResponseEntity.ok(realtime.stats());
+    }
+
+    @GetMapping("/api/admin/ops/notification-fanout")
+    public ResponseEntity<NotificationService.FanoutStats> notificationFanout(
+            @RequestHeader(value = "X-Sitprep-Admin-Token", required = false) String token
+    ) {
+        requireMetrics(token);
+        return ResponseEntity.ok(notificationService.fanoutStats());
+    }
+
+    @GetMapping("/api/admin/ops/notification-outbox")
+    public ResponseEntity<NotificationOutboxService.Stats> notificationOutbox(
+            @RequestHeader(value = "X-Sitprep-Admin-Token", required = false) String token
+    ) {
+        requireMetrics(token);
+        return ResponseEntity.ok(notificationOutbox.stats());
+    }
+
+    @GetMapping("/api/admin/ops/offline-geocoder")
+    public ResponseEntity<OfflineReverseGeocoder.Stats> offlineGeocoder(
+            @RequestHeader(value = "X-Sitprep-Admin-Token", required = false) String token
+    ) {
+        requireMetrics(token);
+        return ResponseEntity.ok(offlineGeocoder.stats());
+    }
+
+    private void requireMetrics(String token) {
+        platformAccessService.resolveForRequest(AuthUtils.getCurrentUserEmail(), token)
+                .require(PlatformPermission.VIEW_METRICS);
+    }
+}
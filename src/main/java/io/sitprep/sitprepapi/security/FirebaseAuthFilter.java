@@ -1,8 +1,7 @@
 package io.sitprep.sitprepapi.security;
 
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
+import io.sitprep.sitprepapi.security.VerifiedTokenCache.VerifiedToken;
 import io.sitprep.sitprepapi.service.LastActivityService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -32,15 +31,24 @@ import java.util.Collections;
  * per-endpoint {@code authorEmail}/{@code actor} body-param fallbacks. When
  * we're ready to enforce, tighten {@code SecurityConfig} to require
  * {@code .authenticated()} on the relevant matchers; this filter stays as-is.
+ *
+ * <p>Verification goes through {@link VerifiedTokenCache}, so a token that
+ * already verified on this pod is served from memory until its {@code exp}.
  */
 @Component
 public class FirebaseAuthFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(FirebaseAuthFilter.class);
 
+    private final VerifiedTokenCache tokenCache;
+
     /** Setter-injected to avoid a constructor cycle with services that import this class indirectly. */
     private LastActivityService lastActivityService;
 
+    public FirebaseAuthFilter(VerifiedTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
     @Autowired
     public void setLastActivityService(LastActivityService lastActivityService) {
         this.lastActivityService = lastActivityService;
@@ -53,18 +61,18 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
         String token = extractToken(request);
         if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                FirebaseToken decoded = FirebaseAuth.getInstance().verifyIdToken(token);
-                String email = decoded.getEmail();
-                String uid = decoded.getUid();
+                VerifiedToken decoded = tokenCache.verify(token);
+                String email = decoded.email();
+                String uid = decoded.uid();
                 if (email != null && !email.isBlank()) {
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                             email.toLowerCase(), null, Collections.emptyList());
-                    auth.setDetails(new FirebaseAuthenticationDetails(request, uid, decoded.getPicture()));
+                    auth.setDetails(new FirebaseAuthenticationDetails(request, uid, decoded.picture()));
                     SecurityContextHolder.getContext().setAuthentication(auth);
                     // Bump UserInfo.lastActiveAt for presence — throttled to
                     // ~5 min/user inside the service so write pressure is bounded.
                     if (lastActivityService != null) lastActivityService.touch(email);
-                    // (The SSO provider photo from decoded.getPicture() rides on
+                    // (The SSO provider photo from decoded.picture() rides on
                     // the auth details above and is backfilled synchronously in
                     // MeService.buildMe — the one place that guarantees /api/me
                     // returns it on the first load, no async race.)
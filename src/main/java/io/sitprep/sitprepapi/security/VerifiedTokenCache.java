@@ -0,0 +1,203 @@
+package io.sitprep.sitprepapi.security;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Verified Firebase ID tokens, so a client polling with the same token for
+ * its hour of validity pays for signature + JWKS verification once instead
+ * of on every request. Shared by {@link FirebaseAuthFilter} (HTTP) and
+ * {@code WebSocketAuthChannelInterceptor} (STOMP CONNECT).
+ *
+ * <ul>
+ *   <li><b>Keyed by SHA-256 of the token</b> — raw bearer tokens never sit
+ *       in the heap as map keys.</li>
+ *   <li><b>Honors {@code exp}</b> — an entry is served only while the
+ *       token itself is valid; a token without a readable {@code exp} is
+ *       verified every time. Failed verifications are never cached.</li>
+ *   <li><b>Revocation</b> — {@link #revokeUser} drops every entry for a
+ *       uid/email (account deletion). Same guarantee as the uncached
+ *       path, which never asked Firebase for revocation status either.</li>
+ *   <li><b>Bounded</b> — over {@link #MAX_ENTRIES} the put path drops
+ *       expired entries first, then arbitrary ones down to 90% capacity;
+ *       a scheduled sweep reclaims expired entries on an idle pod.</li>
+ *   <li><b>Counters</b> — hit rate and verification latency, read via
+ *       {@link #stats()} ({@code GET /api/admin/ops/auth-token-cache}).</li>
+ * </ul>
+ *
+ * <p>Per-pod and in-memory, same v1 stance as {@code RateLimiterService}:
+ * a miss on another pod just costs one extra verification.</p>
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    static final int MAX_ENTRIES = 20_000;
+
+    /** What the auth paths need from a verified token. */
+    public record VerifiedToken(String uid, String email, String picture, long expiresAtEpochSec) {}
+
+    public record Stats(int size, long hits, long misses, long verifyFailures, long evictions,
+                        double hitRate, double avgVerifyMs, double maxVerifyMs) {}
+
+    /** Firebase verification seam — swapped in tests. */
+    @FunctionalInterface
+    interface Verifier {
+        VerifiedToken verify(String token) throws FirebaseAuthException;
+    }
+
+    private final Verifier verifier;
+    private final LongSupplier clockMs;
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder verifyFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+    private final LongAccumulator maxVerifyNanos = new LongAccumulator(Math::max, 0L);
+
+    public VerifiedTokenCache() {
+        this(VerifiedTokenCache::verifyWithFirebase, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(Verifier verifier, LongSupplier clockMs) {
+        this.verifier = verifier;
+        this.clockMs = clockMs;
+    }
+
+    /**
+     * The verified identity for {@code token}, from cache when the token was
+     * already verified and hasn't expired. Throws whatever Firebase throws
+     * for an invalid / expired token (never cached).
+     */
+    public VerifiedToken verify(String token) throws FirebaseAuthException {
+        String key = hash(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached != null) {
+            if (cached.expiresAtEpochSec() * 1000L > clockMs.getAsLong()) {
+                hits.increment();
+                return cached;
+            }
+            entries.remove(key, cached);
+        }
+        misses.increment();
+
+        long started = System.nanoTime();
+        VerifiedToken fresh;
+        try {
+            fresh = verifier.verify(token);
+        } catch (FirebaseAuthException | RuntimeException e) {
+            verifyFailures.increment();
+            throw e;
+        } finally {
+            long took = System.nanoTime() - started;
+            verifications.increment();
+            verifyNanos.add(took);
+            maxVerifyNanos.accumulate(took);
+        }
+
+        if (fresh.expiresAtEpochSec() * 1000L > clockMs.getAsLong()) {
+            entries.put(key, fresh);
+            if (entries.size() > MAX_ENTRIES) trim();
+        }
+        return fresh;
+    }
+
+    /** Drop every cached token belonging to this uid or email. Either may be null. */
+    public int revokeUser(String uid, String email) {
+        if (uid == null && email == null) return 0;
+        int dropped = 0;
+        Iterator<VerifiedToken> it = entries.values().iterator();
+        while (it.hasNext()) {
+            VerifiedToken t = it.next();
+            if ((uid != null && uid.equals(t.uid()))
+                    || (email != null && t.email() != null && email.equalsIgnoreCase(t.email()))) {
+                it.remove();
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private void trim() {
+        int dropped = removeExpired();
+        if (entries.size() > MAX_ENTRIES) {
+            int target = MAX_ENTRIES * 9 / 10;
+            Iterator<String> it = entries.keySet().iterator();
+            while (entries.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+                dropped++;
+            }
+        }
+        log.debug("VerifiedTokenCache: trimmed {} entries", dropped);
+    }
+
+    private int removeExpired() {
+        long now = clockMs.getAsLong();
+        int dropped = 0;
+        Iterator<VerifiedToken> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAtEpochSec() * 1000L <= now) {
+                it.remove();
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /** Reclaim expired entries so an idle pod doesn't hold an hour of dead tokens. */
+    @Scheduled(fixedDelayString = "PT5M", initialDelayString = "PT5M")
+    public void sweepExpired() {
+        int dropped = removeExpired();
+        if (dropped > 0) log.debug("VerifiedTokenCache: swept {} expired tokens", dropped);
+    }
+
+    public Stats stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        long v = verifications.sum();
+        return new Stats(entries.size(), h, m, verifyFailures.sum(), evictions.sum(),
+                (h + m) == 0 ? 0.0 : (double) h / (h + m),
+                v == 0 ? 0.0 : verifyNanos.sum() / 1e6 / v,
+                maxVerifyNanos.get() / 1e6);
+    }
+
+    private static VerifiedToken verifyWithFirebase(String token) throws FirebaseAuthException {
+        FirebaseToken decoded = FirebaseAuth.getInstance().verifyIdToken(token);
+        Object exp = decoded.getClaims().get("exp");
+        long expSec = exp instanceof Number n ? n.longValue() : 0L;
+        return new VerifiedToken(decoded.getUid(), decoded.getEmail(), decoded.getPicture(), expSec);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(Objects.requireNonNull(token).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
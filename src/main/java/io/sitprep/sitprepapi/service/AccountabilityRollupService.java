@@ -0,0 +1,506 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sentry.Sentry;
+import io.sitprep.sitprepapi.domain.Group;
+import io.sitprep.sitprepapi.domain.HouseholdAccompaniment;
+import io.sitprep.sitprepapi.domain.HouseholdManualMember;
+import io.sitprep.sitprepapi.dto.GroupMemberViewDto.StatusRollup;
+import io.sitprep.sitprepapi.dto.GroupRollupFrame;
+import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.HouseholdAccompanimentRepo;
+import io.sitprep.sitprepapi.repo.HouseholdManualMemberRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Live "N of M accounted for" counts for every group in an Active alert.
+ *
+ * <p>During an incident every member and admin keeps refreshing the group
+ * view and the check-in card, and each refresh used to re-bucket the whole
+ * roster. Here each alert session gets one in-memory rollup: built from a
+ * narrow roster+status projection when the alert starts, then moved
+ * incrementally by status taps, "with me" claims / releases of manual
+ * members and roster changes. Reading the counts is O(1), and every change
+ * goes out as a {@link GroupRollupFrame} on
+ * {@code /topic/group/{groupId}/rollup}.</p>
+ *
+ * <p>Bucketing is {@link StatusRollups#compute}'s, clamped on
+ * {@link StatusRollups#alertAnchor}: a status older than the alert start
+ * counts as no response. Manual members only exist for households and are
+ * accounted while claimed.</p>
+ *
+ * <p>State is per instance. Every {@code sitprep.rollup.verify-interval}
+ * a full recompute re-reads each active group, corrects drift (writes that
+ * landed on another instance, status paths without a hook), starts
+ * rollups for alerts flipped elsewhere and drops ended ones. A change that
+ * lands while a recompute is loading is kept over the loaded row, so the
+ * verifier never rolls back a newer tap.</p>
+ */
+@Service
+public class AccountabilityRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountabilityRollupService.class);
+
+    /** Where one real member counts. {@code OTHER} is a fresh status outside the three known ones. */
+    enum Bucket { SAFE, HELP, INJURED, OTHER, SILENT }
+
+    /**
+     * One count snapshot. {@link #toStatusRollup()} is the member-view
+     * shape (manual members included); {@link #checkedIn()} /
+     * {@link #missing()} are the check-in card's (account holders only).
+     */
+    public record Counts(int members, int safe, int help, int injured, int other,
+                         int manual, int manualClaimed) {
+
+        public StatusRollup toStatusRollup() {
+            int total = members + manual;
+            int safeAll = safe + manualClaimed;
+            int accounted = safeAll + help + injured;
+            return new StatusRollup(total, accounted, safeAll, help, injured, total - accounted);
+        }
+
+        public int checkedIn() {
+            return safe + help + injured + other;
+        }
+
+        public int missing() {
+            return Math.max(0, members - checkedIn());
+        }
+    }
+
+    private final GroupRepo groupRepo;
+    private final UserInfoRepo userInfoRepo;
+    private final HouseholdManualMemberRepo manualMemberRepo;
+    private final HouseholdAccompanimentRepo accompanimentRepo;
+    private final WebSocketMessageSender ws;
+
+    private final ConcurrentMap<String, Live> live = new ConcurrentHashMap<>();
+
+    public AccountabilityRollupService(GroupRepo groupRepo,
+                                       UserInfoRepo userInfoRepo,
+                                       HouseholdManualMemberRepo manualMemberRepo,
+                                       HouseholdAccompanimentRepo accompanimentRepo,
+                                       WebSocketMessageSender ws) {
+        this.groupRepo = groupRepo;
+        this.userInfoRepo = userInfoRepo;
+        this.manualMemberRepo = manualMemberRepo;
+        this.accompanimentRepo = accompanimentRepo;
+        this.ws = ws;
+    }
+
+    // ------------------------------------------------------------------ reads
+
+    /**
+     * Live counts for {@code g}'s current alert session, or empty when the
+     * alert isn't Active or the rollup can't be served yet (callers then
+     * compute from rows as before). The first read of a session this
+     * instance hasn't seen builds it synchronously, on the caller's
+     * thread — one roster query per session per instance (the verify loop
+     * usually gets there first); every later read is a map lookup.
+     */
+    public Optional<Counts> current(Group g) {
+        if (g == null || g.getGroupId() == null || !"Active".equalsIgnoreCase(g.getAlert())) {
+            return Optional.empty();
+        }
+        Instant anchor = StatusRollups.alertAnchor(g);
+        Live l = live.get(g.getGroupId());
+        if (l == null || !Objects.equals(l.anchor, anchor)) {
+            try {
+                l = start(g.getGroupId(), isHousehold(g.getGroupType()), anchor);
+            } catch (RuntimeException e) {
+                log.warn("AccountabilityRollup: build for {} failed: {}", g.getGroupId(), e.getMessage());
+                return Optional.empty();
+            }
+        }
+        return l.loaded ? Optional.of(l.counts) : Optional.empty();
+    }
+
+    /** {@link #current} in the member-view shape. */
+    public Optional<StatusRollup> statusRollup(Group g) {
+        return current(g).map(Counts::toStatusRollup);
+    }
+
+    int liveCount() {
+        return live.size();
+    }
+
+    // ---------------------------------------------------------------- events
+
+    /** After commit, re-bucket {@code email} in every live group that has them. */
+    public void statusChangedAfterCommit(String email, String status, Instant statusAt) {
+        String key = normalize(email);
+        if (key == null) return;
+        afterCommit(() -> {
+            for (Live l : live.values()) {
+                GroupRollupFrame frame = l.setStatus(key, status, statusAt);
+                if (frame != null) ws.sendGroupRollup(l.groupId, frame);
+            }
+        });
+    }
+
+    /**
+     * After commit, follow a group edit: start (or restart, on a new
+     * alert session) or re-read the roster while Active, end otherwise.
+     */
+    public void groupSavedAfterCommit(Group g) {
+        if (g == null || g.getGroupId() == null) return;
+        String groupId = g.getGroupId();
+        boolean active = "Active".equalsIgnoreCase(g.getAlert());
+        boolean household = isHousehold(g.getGroupType());
+        Instant anchor = StatusRollups.alertAnchor(g);
+        afterCommit(() -> {
+            if (active) refresh(groupId, household, anchor);
+            else end(groupId);
+        });
+    }
+
+    /** After commit, drop the group's rollup (alert cleared or group deleted). */
+    public void alertEndedAfterCommit(String groupId) {
+        if (groupId == null) return;
+        afterCommit(() -> end(groupId));
+    }
+
+    public void memberAddedAfterCommit(String groupId, String email) {
+        String key = normalize(email);
+        if (groupId == null || key == null) return;
+        afterCommit(() -> {
+            Live l = live.get(groupId);
+            if (l == null) return;
+            Bucket b = userInfoRepo.findByUserEmailIgnoreCase(key)
+                    .map(u -> bucket(u.getUserStatus(), u.getUserStatusLastUpdated(), l.anchor))
+                    .orElse(Bucket.SILENT);
+            publish(l, l.addMember(key, b));
+        });
+    }
+
+    public void memberRemovedAfterCommit(String groupId, String email) {
+        String key = normalize(email);
+        if (groupId == null || key == null) return;
+        afterCommit(() -> {
+            Live l = live.get(groupId);
+            if (l != null) publish(l, l.removeMember(key));
+        });
+    }
+
+    /** After commit, a "with me" claim now covers manual member {@code manualId}. */
+    public void manualClaimedAfterCommit(String householdId, String manualId) {
+        if (householdId == null || manualId == null) return;
+        afterCommit(() -> {
+            Live l = live.get(householdId);
+            if (l != null) publish(l, l.claim(manualId, true));
+        });
+    }
+
+    public void manualReleasedAfterCommit(String householdId, String manualId) {
+        if (householdId == null || manualId == null) return;
+        afterCommit(() -> {
+            Live l = live.get(householdId);
+            if (l != null) publish(l, l.claim(manualId, false));
+        });
+    }
+
+    /**
+     * After commit, re-read a household's manual members and claims — for
+     * adds and removals, whose cascades can drop several claims at once.
+     */
+    public void manualRosterChangedAfterCommit(String householdId) {
+        if (householdId == null) return;
+        afterCommit(() -> {
+            Live l = live.get(householdId);
+            if (l != null) refresh(householdId, l.household, l.anchor);
+        });
+    }
+
+    // ---------------------------------------------------------------- verify
+
+    /**
+     * Full recompute of every active group: corrects drift, starts
+     * sessions begun on other instances, drops ones that ended.
+     */
+    @Scheduled(fixedDelayString = "${sitprep.rollup.verify-interval:PT30S}",
+            initialDelayString = "${sitprep.rollup.verify-initial-delay:PT20S}")
+    public void scheduledVerify() {
+        try {
+            int corrected = verifyOnce();
+            if (corrected > 0) log.info("AccountabilityRollup: corrected {} drifted rollups", corrected);
+        } catch (Exception e) {
+            log.warn("AccountabilityRollup: verify failed: {}", e.getMessage(), e);
+            try { Sentry.captureException(e); } catch (Throwable ignored) {}
+        }
+    }
+
+    int verifyOnce() {
+        Map<String, Object[]> active = new HashMap<>();
+        for (Object[] row : groupRepo.findActiveAlertAnchors()) {
+            if (row[0] != null) active.put((String) row[0], row);
+        }
+        for (String groupId : live.keySet()) {
+            if (!active.containsKey(groupId)) end(groupId);
+        }
+        int corrected = 0;
+        for (Object[] row : active.values()) {
+            String groupId = (String) row[0];
+            Instant anchor = row[2] != null ? (Instant) row[2] : (Instant) row[3];
+            Live before = live.get(groupId);
+            try {
+                boolean changed = refresh(groupId, isHousehold((String) row[1]), anchor);
+                if (changed && before != null && before == live.get(groupId)) {
+                    log.debug("AccountabilityRollup: {} drifted, corrected", groupId);
+                    corrected++;
+                }
+            } catch (RuntimeException e) {
+                // One bad group shouldn't starve the rest; next tick retries.
+                log.warn("AccountabilityRollup: verify of {} failed: {}", groupId, e.getMessage());
+            }
+        }
+        return corrected;
+    }
+
+    // ------------------------------------------------------------- internals
+
+    /**
+     * Reconcile the live rollup with a fresh read, or start one when there
+     * is none or it belongs to an earlier session. True when counts moved.
+     */
+    private boolean refresh(String groupId, boolean household, Instant anchor) {
+        Live l = live.get(groupId);
+        if (l == null || !Objects.equals(l.anchor, anchor)) {
+            start(groupId, household, anchor);
+            return true;
+        }
+        long loadSeq = l.seq();
+        Snapshot fresh = load(groupId, household, anchor);
+        GroupRollupFrame frame = l.reconcile(fresh, loadSeq);
+        publish(l, frame);
+        return frame != null;
+    }
+
+    private Live start(String groupId, boolean household, Instant anchor) {
+        Live l = new Live(groupId, household, anchor);
+        live.put(groupId, l);
+        try {
+            Snapshot fresh = load(groupId, household, anchor);
+            // The first reconcile always yields a frame, announcing the session.
+            publish(l, l.reconcile(fresh, 0L));
+            l.loaded = true;
+        } catch (RuntimeException e) {
+            live.remove(groupId, l);
+            throw e;
+        }
+        return l;
+    }
+
+    private void end(String groupId) {
+        Live l = live.remove(groupId);
+        if (l != null) publish(l, l.frame(false));
+    }
+
+    private void publish(Live l, GroupRollupFrame frame) {
+        if (frame != null) ws.sendGroupRollup(l.groupId, frame);
+    }
+
+    /** Roster + statuses, and for households manual members + claims, as of now. */
+    private Snapshot load(String groupId, boolean household, Instant anchor) {
+        Map<String, Bucket> members = new HashMap<>();
+        for (Object[] row : groupRepo.findMemberStatusRows(groupId)) {
+            String email = normalize((String) row[0]);
+            if (email == null) continue;
+            Bucket b = bucket((String) row[1], (Instant) row[2], anchor);
+            // Duplicate UserInfo rows for one email: any answer beats none.
+            members.merge(email, b, (x, y) -> x == Bucket.SILENT ? y : x);
+        }
+        Set<String> manual = new HashSet<>();
+        Set<String> claimed = new HashSet<>();
+        if (household) {
+            for (HouseholdManualMember m : manualMemberRepo.findByHouseholdIdOrderByCreatedAtAsc(groupId)) {
+                if (m.getId() != null) manual.add(m.getId());
+            }
+            for (HouseholdAccompaniment a : accompanimentRepo.findByHouseholdId(groupId)) {
+                if ("manual".equals(a.getAccompaniedKind()) && manual.contains(a.getAccompaniedId())) {
+                    claimed.add(a.getAccompaniedId());
+                }
+            }
+        }
+        return new Snapshot(members, manual, claimed);
+    }
+
+    /** Same bucketing as {@link StatusRollups#compute}, plus OTHER for fresh unknown statuses. */
+    static Bucket bucket(String status, Instant statusAt, Instant anchor) {
+        boolean fresh = anchor == null
+                || (statusAt != null && statusAt.toEpochMilli() >= anchor.toEpochMilli());
+        if (!fresh || status == null || status.isBlank()) return Bucket.SILENT;
+        return switch (status.trim().toUpperCase(Locale.ROOT)) {
+            case "SAFE" -> Bucket.SAFE;
+            case "HELP" -> Bucket.HELP;
+            case "INJURED" -> Bucket.INJURED;
+            default -> Bucket.OTHER;
+        };
+    }
+
+    private static boolean isHousehold(String groupType) {
+        return HouseholdEventService.HOUSEHOLD_GROUP_TYPE.equalsIgnoreCase(groupType);
+    }
+
+    private static String normalize(String email) {
+        if (email == null) return null;
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * Run now when there's no transaction, after commit when there is.
+     * Best-effort: the write already committed, so a failure here is only
+     * logged — the next verify corrects the counts.
+     */
+    private static void afterCommit(Runnable task) {
+        Runnable guarded = () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("AccountabilityRollup: live update failed, verify will correct: {}", e.getMessage());
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guarded.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() {
+                guarded.run();
+            }
+        });
+    }
+
+    private record Snapshot(Map<String, Bucket> members, Set<String> manual, Set<String> claimed) {}
+
+    /** A member's bucket and the mutation that set it; a null bucket marks a removal. */
+    private record Member(Bucket bucket, long seq) {}
+
+    /**
+     * One alert session's rollup. Mutators hold the monitor and return the
+     * frame to send (null when the counts didn't move); {@link #counts} is
+     * republished on every change so readers never lock.
+     */
+    private static final class Live {
+        final String groupId;
+        final boolean household;
+        final Instant anchor;
+        volatile boolean loaded;
+        volatile Counts counts = new Counts(0, 0, 0, 0, 0, 0, 0);
+
+        private final Map<String, Member> members = new HashMap<>();
+        private final Set<String> manual = new HashSet<>();
+        private final Set<String> claimed = new HashSet<>();
+        private final int[] n = new int[Bucket.values().length];
+        private long seq;
+        private long manualSeq;
+        private long version;
+
+        Live(String groupId, boolean household, Instant anchor) {
+            this.groupId = groupId;
+            this.household = household;
+            this.anchor = anchor;
+        }
+
+        synchronized long seq() {
+            return seq;
+        }
+
+        synchronized GroupRollupFrame setStatus(String email, String status, Instant statusAt) {
+            Member m = members.get(email);
+            if (m == null || m.bucket() == null) return null;
+            return put(email, bucket(status, statusAt, anchor));
+        }
+
+        synchronized GroupRollupFrame addMember(String email, Bucket b) {
+            return put(email, b);
+        }
+
+        synchronized GroupRollupFrame removeMember(String email) {
+            return put(email, null);
+        }
+
+        synchronized GroupRollupFrame claim(String manualId, boolean claim) {
+            manualSeq = ++seq;
+            boolean changed = claim
+                    ? manual.contains(manualId) && claimed.add(manualId)
+                    : claimed.remove(manualId);
+            return changed ? changed() : null;
+        }
+
+        /**
+         * Adopt {@code fresh}, except entries changed after the read began
+         * ({@code seq > loadSeq}), which are newer than the rows.
+         */
+        synchronized GroupRollupFrame reconcile(Snapshot fresh, long loadSeq) {
+            Counts before = counts;
+            Iterator<Map.Entry<String, Member>> it = members.entrySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().getValue().seq() <= loadSeq) it.remove();
+            }
+            for (Map.Entry<String, Bucket> e : fresh.members().entrySet()) {
+                members.putIfAbsent(e.getKey(), new Member(e.getValue(), loadSeq));
+            }
+            members.values().removeIf(m -> m.bucket() == null);
+            if (manualSeq <= loadSeq) {
+                manual.clear();
+                manual.addAll(fresh.manual());
+                claimed.clear();
+                claimed.addAll(fresh.claimed());
+            }
+            Arrays.fill(n, 0);
+            for (Member m : members.values()) n[m.bucket().ordinal()]++;
+            counts = snapshot();
+            return counts.equals(before) && version > 0 ? null : frame(true);
+        }
+
+        synchronized GroupRollupFrame frame(boolean active) {
+            Counts c = counts;
+            StatusRollup r = c.toStatusRollup();
+            return new GroupRollupFrame(groupId, active, anchor, ++version,
+                    r.total(), r.accounted(), r.safe(), r.help(), r.injured(), r.noResponse(),
+                    c.checkedIn(), c.missing());
+        }
+
+        private GroupRollupFrame put(String email, Bucket b) {
+            Member old = members.put(email, new Member(b, ++seq));
+            Bucket was = old == null ? null : old.bucket();
+            if (was == b) return null;
+            if (was != null) n[was.ordinal()]--;
+            if (b != null) n[b.ordinal()]++;
+            return changed();
+        }
+
+        private GroupRollupFrame changed() {
+            counts = snapshot();
+            return frame(true);
+        }
+
+        private Counts snapshot() {
+            int total = 0;
+            for (int c : n) total += c;
+            return new Counts(total, n[Bucket.SAFE.ordinal()], n[Bucket.HELP.ordinal()],
+                    n[Bucket.INJURED.ordinal()], n[Bucket.OTHER.ordinal()],
+                    household ? manual.size() : 0, household ? claimed.size() : 0);
+        }
+    }
+}
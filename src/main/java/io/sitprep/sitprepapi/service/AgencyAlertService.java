@@ -49,17 +49,23 @@ public class AgencyAlertService {
     private final PostRepo postRepo;
     private final AgencyAuthorizationService agencyAuthorizationService;
     private final NotificationService notificationService;
+    private final CommunityPostGeoIndex geoIndex;
+    private final CommunityFeedCache feedCache;
 
     public AgencyAlertService(GroupRepo groupRepo,
                               AgencyAlertRepo agencyAlertRepo,
                               PostRepo postRepo,
                               AgencyAuthorizationService agencyAuthorizationService,
-                              NotificationService notificationService) {
+                              NotificationService notificationService,
+                              CommunityPostGeoIndex geoIndex,
+                              CommunityFeedCache feedCache) {
         this.groupRepo = groupRepo;
         this.agencyAlertRepo = agencyAlertRepo;
         this.postRepo = postRepo;
         this.agencyAuthorizationService = agencyAuthorizationService;
         this.notificationService = notificationService;
+        this.geoIndex = geoIndex;
+        this.feedCache = feedCache;
     }
 
     @Transactional
@@ -138,6 +144,10 @@ public class AgencyAlertService {
         post.setLatitude(group.getJurisdictionLat() == null ? group.getLatitude() : group.getJurisdictionLat());
         post.setLongitude(group.getJurisdictionLng() == null ? group.getLongitude() : group.getJurisdictionLng());
         Post savedPost = postRepo.save(post);
+        // Written outside PostService's broadcast seam — index it for the
+        // community feed ourselves (after commit, like every other write).
+        geoIndex.upsertAfterCommit(savedPost);
+        feedCache.onPostChangedAfterCommit(savedPost);
 
         // Recipients — radius when provisioned, legacy zip lookup otherwise.
         Instant since = Instant.now().minus(RECENCY_DAYS, ChronoUnit.DAYS);
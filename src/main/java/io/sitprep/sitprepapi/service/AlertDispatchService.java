@@ -12,8 +12,8 @@ import io.sitprep.sitprepapi.dto.PostDto;
 import io.sitprep.sitprepapi.repo.AlertPostRepo;
 import io.sitprep.sitprepapi.repo.UserInfoRepo;
 import io.sitprep.sitprepapi.service.AlertIngestService.NormalizedAlert;
-import io.sitprep.sitprepapi.service.NominatimGeocodeService.Place;
-import io.sitprep.sitprepapi.util.GeoUtil;
+import io.sitprep.sitprepapi.service.NominatimGeocodeService.Postal;
+import io.sitprep.sitprepapi.util.AlertGeometry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ClassPathResource;
@@ -29,7 +29,6 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -50,9 +49,9 @@ import java.util.Set;
  * Enforced by the unique index on {@link AlertPost} and by the
  * application-side {@link AlertPostRepo#findByAlertIdAndGeocellId}
  * check ahead of the create call. Geocell is the
- * {@code zipBucket} from a Nominatim reverse-geocode of the alert's
- * first-vertex coord — same key the {@code PostService} community
- * feed uses.</p>
+ * {@code zipBucket} from a Nominatim reverse-geocode of a point inside
+ * the alert's area ({@link AlertGeometry#representativePoint()}) — same
+ * key the {@code PostService} community feed uses.</p>
  *
  * <p><b>v1 scope:</b> NWS warnings (Severe + Extreme) and USGS quakes
  * (M5.5+) only. FEMA declarations are in the alert ingest cache but
@@ -70,12 +69,11 @@ public class AlertDispatchService {
     static final String SYSTEM_EMAIL = "system@sitprep.app";
 
     /**
-     * Radius (km) around an alert's representative coordinate within
-     * which located, push-enabled users get an FCM push for a life-
-     * threatening NWS warning. ~80 km ≈ 50 mi, matching the FE's
-     * {@code radiusMi.alerts} local-hazard window. v1 centers on the
-     * alert's first-vertex coord; a point-in-polygon-per-user test is
-     * the future refinement.
+     * Radius (km) around a point-geometry alert within which located,
+     * push-enabled users get an FCM push for a life-threatening NWS
+     * warning. ~80 km ≈ 50 mi, matching the FE's {@code radiusMi.alerts}
+     * local-hazard window. Polygon warnings don't use it — only users
+     * inside the warned area are pushed.
      */
     private static final double SEVERE_PUSH_RADIUS_KM = 80.0;
 
@@ -86,6 +84,7 @@ public class AlertDispatchService {
     private final AlertPostRepo alertPostRepo;
     private final PostService taskService;
     private final UserInfoRepo userInfoRepo;
+    private final UserGeoService userGeoService;
     private final NominatimGeocodeService geocode;
     private final NotificationService notificationService;
     private final ObjectMapper json = new ObjectMapper();
@@ -96,12 +95,14 @@ public class AlertDispatchService {
                                 AlertPostRepo alertPostRepo,
                                 PostService taskService,
                                 UserInfoRepo userInfoRepo,
+                                UserGeoService userGeoService,
                                 NominatimGeocodeService geocode,
                                 NotificationService notificationService) {
         this.ingest = ingest;
         this.alertPostRepo = alertPostRepo;
         this.taskService = taskService;
         this.userInfoRepo = userInfoRepo;
+        this.userGeoService = userGeoService;
         this.geocode = geocode;
         this.notificationService = notificationService;
     }
@@ -189,7 +190,7 @@ public class AlertDispatchService {
      * <ol>
      *   <li>Read {@code ingest.getSnapshot()}.</li>
      *   <li>For each alert with geometry: derive a geocell via
-     *       reverse-geocode of the first-vertex coord.</li>
+     *       reverse-geocode of a point inside the alert's area.</li>
      *   <li>Skip if {@link AlertPostRepo#findByAlertIdAndGeocellId}
      *       already has a row.</li>
      *   <li>Match a template; skip when no template matches (severity
@@ -202,22 +203,22 @@ public class AlertDispatchService {
     @Transactional
     public int dispatchOnce() {
         if (templates.isEmpty()) return 0;
-        AlertIngestService.Snapshot snap = ingest.getSnapshot();
+        AlertIngestService.IndexedSnapshot indexed = ingest.getIndexedSnapshot();
+        AlertIngestService.Snapshot snap = indexed == null ? null : indexed.snapshot();
         if (snap == null || snap.alerts() == null || snap.alerts().isEmpty()) return 0;
 
         int created = 0;
-        // Severe-alert push recipient pool — loaded lazily on the first
-        // push-worthy alert so a quiet tick does zero extra DB work.
-        List<UserInfo> pushCandidates = null;
-        for (NormalizedAlert a : snap.alerts()) {
+        for (int i = 0; i < snap.alerts().size(); i++) {
+            NormalizedAlert a = snap.alerts().get(i);
             try {
                 if (a.id() == null || a.id().isBlank()) continue;
                 String alertId = a.source() + "-" + a.id();
 
                 // Geometry-required for v1 (FEMA declarations bucketed
                 // separately in a future state-keyed flow).
-                double[] coord = firstCoord(a.geometry());
-                if (coord == null) continue;
+                AlertGeometry geom = indexed.geometry(i);
+                if (geom == null) continue;
+                double[] coord = geom.representativePoint(); // [lng, lat]
 
                 // Reverse-geocode → zipBucket. Skip silently when the
                 // geocoder fails or doesn't have a zip — alerts in
@@ -255,10 +256,7 @@ public class AlertDispatchService {
                 // (alertId, geocellId) dedup above means this branch is
                 // reached only when a NEW AlertPost is created.
                 if (isLifeThreatening(a)) {
-                    if (pushCandidates == null) {
-                        pushCandidates = userInfoRepo.findPushablesWithLocation();
-                    }
-                    pushSevereAlert(a, tpl, coord, pushCandidates);
+                    pushSevereAlert(a, tpl, geom);
                 }
 
                 created++;
@@ -476,42 +474,33 @@ public class AlertDispatchService {
 
     /**
      * Fan a life-threatening alert out to every located, push-enabled
-     * user within {@link #SEVERE_PUSH_RADIUS_KM} of the alert's
-     * representative coordinate, via one batched
-     * {@link NotificationService#sendHazardAlertBatch} call — online
-     * users get a STOMP frame, offline users an iOS time-sensitive
+     * user inside the warned polygon (or within
+     * {@link #SEVERE_PUSH_RADIUS_KM} of a point alert), via batched
+     * {@link NotificationService#sendHazardAlertToTargets} multicasts —
+     * online users get a STOMP frame, offline users an iOS time-sensitive
      * APNs push ({@code hazard_alert} breaks through Focus modes), and
      * everyone gets an inbox log row.
      *
-     * <p>Fan-out is capped at {@link #MAX_PUSH_RECIPIENTS} as a guard
-     * against a bad coordinate matching the whole table. The batch send
-     * runs inside the dispatch transaction — acceptable at the 5-min
-     * cron cadence and bounded by the 500-token multicast limit.</p>
+     * <p>Recipients come from {@link UserGeoService#nearestPushables}: a
+     * bounding-box projection query ranked nearest-first, so the
+     * {@link #MAX_PUSH_RECIPIENTS} guard (against a bad geometry matching
+     * the whole table) drops the users farthest from the hazard. Sends go
+     * out in {@link NotificationService#FCM_MULTICAST_LIMIT}-sized chunks,
+     * nearest chunk first, inside the dispatch transaction — acceptable at
+     * the 5-min cron cadence.</p>
      */
     private void pushSevereAlert(NormalizedAlert a,
                                  DispatchTemplate tpl,
-                                 double[] coord,
-                                 List<UserInfo> candidates) {
-        if (candidates == null || candidates.isEmpty()) return;
-
-        double alertLat = coord[1];
-        double alertLng = coord[0];
-
-        // Radius-filter the pool down to users near this alert, capped
-        // so a bad coordinate can't fan out to the whole table.
-        List<UserInfo> nearby = new ArrayList<>();
-        for (UserInfo u : candidates) {
-            if (nearby.size() >= MAX_PUSH_RECIPIENTS) {
-                log.warn("AlertDispatch: severe-alert push hit the {}-recipient cap for {}-{}",
-                        MAX_PUSH_RECIPIENTS, a.source(), a.id());
-                break;
-            }
-            if (u.getLastKnownLat() == null || u.getLastKnownLng() == null) continue;
-            double distKm = GeoUtil.haversineKm(alertLat, alertLng,
-                    u.getLastKnownLat(), u.getLastKnownLng());
-            if (distKm <= SEVERE_PUSH_RADIUS_KM) nearby.add(u);
-        }
+                                 AlertGeometry geom) {
+        double bufferKm = geom.isArea() ? 0.0 : SEVERE_PUSH_RADIUS_KM;
+        UserGeoService.RankedPushables ranked =
+                userGeoService.nearestPushables(geom, bufferKm, MAX_PUSH_RECIPIENTS);
+        List<NotificationService.PushTarget> nearby = ranked.nearestFirst();
         if (nearby.isEmpty()) return;
+        if (ranked.matched() > nearby.size()) {
+            log.warn("AlertDispatch: severe-alert push for {}-{} capped at {} of {} matching users (farthest dropped)",
+                    a.source(), a.id(), MAX_PUSH_RECIPIENTS, ranked.matched());
+        }
 
         String title = (tpl != null && tpl.headline != null && !tpl.headline.isBlank())
                 ? tpl.headline
@@ -519,11 +508,15 @@ public class AlertDispatchService {
         String body = truncate(buildPushBody(a, tpl), 160);
         String referenceId = a.source() + "-" + a.id();
 
-        // One batched MulticastMessage instead of N sequential sends.
+        // Batched MulticastMessages instead of N sequential sends.
         // Deep-link to the renamed hazards page. /Fema is still routed in
         // the FE as an alias (see App.js) for in-flight pushes; new ones
         // land on the canonical /hazards URL.
-        notificationService.sendHazardAlertBatch(nearby, title, body, referenceId, "/hazards");
+        for (int from = 0; from < nearby.size(); from += NotificationService.FCM_MULTICAST_LIMIT) {
+            int to = Math.min(from + NotificationService.FCM_MULTICAST_LIMIT, nearby.size());
+            notificationService.sendHazardAlertToTargets(nearby.subList(from, to),
+                    title, body, referenceId, "/hazards");
+        }
         log.info("AlertDispatch: severe-alert push for {} dispatched to {} nearby user(s)",
                 referenceId, nearby.size());
     }
@@ -547,7 +540,7 @@ public class AlertDispatchService {
 
     private String lookupZipBucket(double lat, double lng) {
         try {
-            Place p = geocode.reverse(lat, lng);
+            Postal p = geocode.postal(lat, lng);
             return p == null ? null : p.zipBucket();
         } catch (Exception e) {
             log.debug("AlertDispatch: reverse-geocode failed at ({}, {}): {}", lat, lng, e.getMessage());
@@ -561,42 +554,6 @@ public class AlertDispatchService {
         catch (Exception ignored) { return null; }
     }
 
-    /**
-     * First [lon, lat] coord from a GeoJSON geometry. Mirrors
-     * {@code AlertIngestService.firstCoord} but inlined here since
-     * that method is private.
-     */
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private static double[] firstCoord(Object geom) {
-        if (!(geom instanceof Map)) return null;
-        Map m = (Map) geom;
-        Object type = m.get("type");
-        Object coords = m.get("coordinates");
-        if (!(type instanceof String) || coords == null) return null;
-        try {
-            switch ((String) type) {
-                case "Point": {
-                    List<Number> p = (List<Number>) coords;
-                    return new double[] { p.get(0).doubleValue(), p.get(1).doubleValue() };
-                }
-                case "Polygon": {
-                    List<List<List<Number>>> rings = (List<List<List<Number>>>) coords;
-                    List<Number> v = rings.get(0).get(0);
-                    return new double[] { v.get(0).doubleValue(), v.get(1).doubleValue() };
-                }
-                case "MultiPolygon": {
-                    List<List<List<List<Number>>>> polys = (List<List<List<List<Number>>>>) coords;
-                    List<Number> v = polys.get(0).get(0).get(0);
-                    return new double[] { v.get(0).doubleValue(), v.get(1).doubleValue() };
-                }
-                default:
-                    return null;
-            }
-        } catch (Exception ex) {
-            return null;
-        }
-    }
-
     /**
      * Find the matching template for a normalized alert. Walks
      * templates in declaration order; first match wins. Severity
@@ -1,13 +1,20 @@
 package io.sitprep.sitprepapi.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sitprep.sitprepapi.util.AlertGeometry;
+import io.sitprep.sitprepapi.util.AlertGeometryIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -15,10 +22,22 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Polls public emergency-alert sources on a fixed schedule and exposes a
@@ -85,15 +104,34 @@ public class AlertIngestService {
             .connectTimeout(Duration.ofSeconds(8))
             .build();
 
+    /**
+     * Wall-clock budget for one source's poll (request + streamed parse).
+     * Sources run concurrently, so a slow NWS no longer delays USGS/FEMA;
+     * a source that blows its budget keeps its previous data this tick.
+     */
+    private static final Duration SOURCE_TIMEOUT = Duration.ofSeconds(30);
+
     private final ObjectMapper json = new ObjectMapper();
 
+    private final Feed nwsFeed = new Feed("NWS", NWS_ACTIVE_URL, "application/geo+json");
+    private final Feed usgsFeed = new Feed("USGS", USGS_RECENT_URL, "application/geo+json");
+    private final Feed femaFeed = new Feed("FEMA", FEMA_ACTIVE_URL, "application/json");
+
+    /** One virtual thread per source per tick — all three are I/O-bound. */
+    private final ExecutorService pollExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("alert-ingest-", 0).factory());
+
+    /** Per-source lists the current snapshot was merged from; guarded by pollAll's monitor. */
+    private List<List<NormalizedAlert>> lastParts = List.of();
+
     /**
-     * Latest snapshot. AtomicReference so the scheduled writer and the
-     * resource-thread readers don't need a lock — they swap whole
-     * snapshot objects.
+     * Latest snapshot plus its compiled geometry index. AtomicReference so
+     * the scheduled writer and the resource-thread readers don't need a
+     * lock — they swap whole snapshot objects, and the index is swapped in
+     * the same write so it always lines up with the alert list.
      */
-    private final AtomicReference<Snapshot> latest =
-            new AtomicReference<>(Snapshot.empty());
+    private final AtomicReference<IndexedSnapshot> latest =
+            new AtomicReference<>(IndexedSnapshot.of(Snapshot.empty()));
 
     /**
      * Force a poll on startup so the first request after boot has data
@@ -113,10 +151,8 @@ public class AlertIngestService {
      * Poll NWS + USGS + FEMA every {@code alerts.ingest.intervalMs} (default
      * 5 minutes = 300000 ms). {@code fixedDelay} (not {@code fixedRate}) so a
      * slow poll doesn't queue up another. {@code initialDelay} of 60s lets
-     * the @PostConstruct prime finish first. Both polls run sequentially in
-     * this method — they're cheap enough that parallelism isn't worth the
-     * extra complexity, and a sequential failure is easier to reason about
-     * in logs.
+     * the @PostConstruct prime finish first. The three sources are polled
+     * concurrently, each under {@link #SOURCE_TIMEOUT}.
      *
      * <p>Property-driven (2026-06-07 phase-2 memory trim) so we can dial the
      * interval up without a redeploy if the dyno is pressured: each poll
@@ -125,6 +161,11 @@ public class AlertIngestService {
      * dyno the GC pressure showed up as elevated R14s. 5 min is the
      * baseline; bump to 600000 (10 min) or higher via Heroku config var if
      * needed. Lower bound is whatever NWS rate-limits accept (~30s).</p>
+     *
+     * <p>Since the conditional + streaming ingest, a tick where nothing
+     * changed is a 304 (or a streamed pass that reuses every alert) and
+     * doesn't rebuild the snapshot at all, so shorter intervals are now
+     * cheap on the heap.</p>
      */
     @Scheduled(
             fixedDelayString = "${alerts.ingest.intervalMs:300000}",
@@ -133,40 +174,41 @@ public class AlertIngestService {
         refreshNow();
     }
 
+    @PreDestroy
+    void shutdown() {
+        pollExecutor.shutdownNow();
+    }
+
     /**
-     * Run both upstream polls and merge results into a single snapshot.
-     * Each source is independent — if NWS fails but USGS succeeds we
-     * still update with the USGS half (and vice versa), preserving the
-     * other source's last-good data.
+     * Run the three upstream polls concurrently and merge results into a
+     * single snapshot. Each source is independent — if NWS fails or times
+     * out but USGS succeeds we still update with the USGS half (and vice
+     * versa), preserving the other source's last-good data.
+     *
+     * <p>When every source comes back with the same list it produced last
+     * tick (304, or every feature reused by version), the alert list and
+     * compiled geometry index are kept as-is and only the freshness stamps
+     * move. Synchronized so the scheduled tick, the startup prime and
+     * {@code POST /api/alerts/refresh} never interleave.</p>
      */
-    private void pollAll() {
-        // Each source updates the snapshot independently so a failure in
-        // one doesn't drop the other.
-        Snapshot prev = latest.get();
-
-        List<NormalizedAlert> nws;
-        try {
-            nws = pollNws();
-        } catch (Exception e) {
-            log.warn("AlertIngest: NWS poll failed: {}", e.getMessage());
-            // Keep previous NWS data
-            nws = prev.alerts.stream().filter(a -> "NWS".equals(a.source())).toList();
-        }
-
-        List<NormalizedAlert> usgs;
-        try {
-            usgs = pollUsgs();
-        } catch (Exception e) {
-            log.warn("AlertIngest: USGS poll failed: {}", e.getMessage());
-            usgs = prev.alerts.stream().filter(a -> "USGS".equals(a.source())).toList();
-        }
-
-        List<NormalizedAlert> fema;
-        try {
-            fema = pollFema();
-        } catch (Exception e) {
-            log.warn("AlertIngest: FEMA poll failed: {}", e.getMessage());
-            fema = prev.alerts.stream().filter(a -> "FEMA".equals(a.source())).toList();
+    private synchronized void pollAll() {
+        IndexedSnapshot prev = latest.get();
+        long deadline = System.nanoTime() + SOURCE_TIMEOUT.toNanos();
+
+        Future<List<NormalizedAlert>> nwsF = pollExecutor.submit(this::pollNws);
+        Future<List<NormalizedAlert>> usgsF = pollExecutor.submit(this::pollUsgs);
+        Future<List<NormalizedAlert>> femaF = pollExecutor.submit(this::pollFema);
+
+        List<NormalizedAlert> nws = await(nwsFeed, nwsF, deadline);
+        List<NormalizedAlert> usgs = await(usgsFeed, usgsF, deadline);
+        List<NormalizedAlert> fema = await(femaFeed, femaF, deadline);
+
+        List<List<NormalizedAlert>> parts = List.of(nws, usgs, fema);
+        Instant now = Instant.now();
+        if (sameInstances(parts, lastParts)) {
+            latest.set(prev.refreshed(now));
+            log.debug("AlertIngest: no upstream changes; snapshot kept");
+            return;
         }
 
         List<NormalizedAlert> merged = new ArrayList<>(nws.size() + usgs.size() + fema.size());
@@ -176,38 +218,71 @@ public class AlertIngestService {
 
         Snapshot next = new Snapshot(
                 List.copyOf(merged),
-                Instant.now(),
-                Instant.now()
+                now,
+                now
         );
-        latest.set(next);
+        latest.set(IndexedSnapshot.of(next, prev));
+        lastParts = parts;
     }
 
-    private List<NormalizedAlert> pollNws() throws Exception {
-        long started = System.currentTimeMillis();
-        JsonNode root = fetchJson(NWS_ACTIVE_URL, "application/geo+json");
-        JsonNode features = root.path("features");
-        if (!features.isArray()) {
-            log.warn("AlertIngest: NWS response had no 'features' array; " +
-                    "treating as empty for this tick.");
-            return List.of();
+    /**
+     * Wait for one source until the shared tick deadline. Failure or
+     * timeout falls back to that source's last-good alerts.
+     */
+    private List<NormalizedAlert> await(Feed feed, Future<List<NormalizedAlert>> f, long deadlineNanos) {
+        try {
+            return f.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            f.cancel(true);
+            log.warn("AlertIngest: {} poll timed out after {}s; keeping previous data",
+                    feed.name, SOURCE_TIMEOUT.toSeconds());
+        } catch (ExecutionException e) {
+            log.warn("AlertIngest: {} poll failed: {}", feed.name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            f.cancel(true);
         }
+        return feed.alerts;
+    }
 
-        List<NormalizedAlert> normalized = new ArrayList<>(features.size());
-        Iterator<JsonNode> it = features.elements();
-        while (it.hasNext()) {
-            JsonNode f = it.next();
-            try {
-                normalized.add(normalizeNws(f));
-            } catch (Exception ex) {
-                // Skip individual feature parse errors — don't drop the
-                // whole batch because one alert was malformed.
-                log.debug("AlertIngest: skipped malformed NWS feature: {}", ex.getMessage());
+    /**
+     * NWS active alerts. A feature whose (id, {@code sent}) matches the
+     * previous poll is reused as-is — NWS issues a new id for every update
+     * to an alert, so an unchanged pair means an unchanged payload, and we
+     * skip re-converting its (often large) polygon.
+     */
+    private List<NormalizedAlert> pollNws() throws Exception {
+        return nwsFeed.poll(() -> {
+            long started = System.currentTimeMillis();
+            HttpResponse<InputStream> resp = fetch(nwsFeed);
+            if (resp == null) {
+                log.debug("AlertIngest: NWS not modified");
+                return nwsFeed.alerts;
             }
-        }
 
-        log.info("AlertIngest: NWS poll OK — {} alerts ingested in {}ms",
-                normalized.size(), System.currentTimeMillis() - started);
-        return normalized;
+            VersionedBatch batch = new VersionedBatch(nwsFeed);
+            boolean found = streamArray(resp.body(), "features", f -> {
+                JsonNode p = f.path("properties");
+                String id = textOrNull(p, "id");
+                if (id == null) id = textOrNull(f, "id");
+                try {
+                    batch.add(versionKey(id, textOrNull(p, "sent")), () -> normalizeNws(f));
+                } catch (Exception ex) {
+                    // Skip individual feature parse errors — don't drop the
+                    // whole batch because one alert was malformed.
+                    log.debug("AlertIngest: skipped malformed NWS feature: {}", ex.getMessage());
+                }
+            });
+            if (!found) {
+                log.warn("AlertIngest: NWS response had no 'features' array; " +
+                        "treating as empty for this tick.");
+                return List.of();
+            }
+
+            log.info("AlertIngest: NWS poll OK — {} alerts ingested ({} unchanged) in {}ms",
+                    batch.alerts.size(), batch.reused, System.currentTimeMillis() - started);
+            return nwsFeed.commit(resp, batch);
+        });
     }
 
     /**
@@ -232,89 +307,243 @@ public class AlertIngestService {
      * Coarse but safe — these are always broad-impact.</p>
      */
     private List<NormalizedAlert> pollFema() throws Exception {
-        long started = System.currentTimeMillis();
-        JsonNode root = fetchJson(FEMA_ACTIVE_URL, "application/json");
-        JsonNode rows = root.path("DisasterDeclarationsSummaries");
-        if (!rows.isArray()) {
-            log.warn("AlertIngest: FEMA response had no 'DisasterDeclarationsSummaries' array.");
-            return List.of();
-        }
+        return femaFeed.poll(() -> {
+            long started = System.currentTimeMillis();
+            HttpResponse<InputStream> resp = fetch(femaFeed);
+            if (resp == null) {
+                log.debug("AlertIngest: FEMA not modified");
+                return femaFeed.alerts;
+            }
 
-        // Group by declaration string. LinkedHashMap preserves insertion
-        // order, which is API order (declarationDate desc) — first row
-        // per disaster wins for metadata, subsequent rows append areas.
-        java.util.LinkedHashMap<String, FemaAccum> byDecl = new java.util.LinkedHashMap<>();
-        Iterator<JsonNode> it = rows.elements();
-        while (it.hasNext()) {
-            JsonNode r = it.next();
-            String key = textOrNull(r, "femaDeclarationString");
-            if (key == null) continue;
-            FemaAccum acc = byDecl.computeIfAbsent(key, k -> new FemaAccum(r));
-            String area = textOrNull(r, "designatedArea");
-            if (area != null && !acc.areas.contains(area)) acc.areas.add(area);
-        }
+            // Group by declaration string. LinkedHashMap preserves insertion
+            // order, which is API order (declarationDate desc) — first row
+            // per disaster wins for metadata, subsequent rows append areas.
+            java.util.LinkedHashMap<String, FemaAccum> byDecl = new java.util.LinkedHashMap<>();
+            int[] rowCount = {0};
+            boolean found = streamArray(resp.body(), "DisasterDeclarationsSummaries", r -> {
+                rowCount[0]++;
+                String key = textOrNull(r, "femaDeclarationString");
+                if (key == null) return;
+                FemaAccum acc = byDecl.computeIfAbsent(key, k -> new FemaAccum(r));
+                String area = textOrNull(r, "designatedArea");
+                if (area != null && !acc.areas.contains(area)) acc.areas.add(area);
+            });
+            if (!found) {
+                log.warn("AlertIngest: FEMA response had no 'DisasterDeclarationsSummaries' array.");
+                return List.of();
+            }
 
-        List<NormalizedAlert> normalized = new ArrayList<>(byDecl.size());
-        for (FemaAccum acc : byDecl.values()) {
-            try {
-                normalized.add(normalizeFema(acc));
-            } catch (Exception ex) {
-                log.debug("AlertIngest: skipped malformed FEMA row: {}", ex.getMessage());
+            // Declarations are aggregated across rows, so reuse is decided
+            // after normalizing: an equal record keeps the previous instance.
+            VersionedBatch batch = new VersionedBatch(femaFeed);
+            for (FemaAccum acc : byDecl.values()) {
+                try {
+                    batch.addIfEqual(normalizeFema(acc));
+                } catch (Exception ex) {
+                    log.debug("AlertIngest: skipped malformed FEMA row: {}", ex.getMessage());
+                }
             }
-        }
 
-        log.info("AlertIngest: FEMA poll OK — {} disasters ingested ({} rows) in {}ms",
-                normalized.size(), rows.size(), System.currentTimeMillis() - started);
-        return normalized;
+            log.info("AlertIngest: FEMA poll OK — {} disasters ingested ({} rows, {} unchanged) in {}ms",
+                    batch.alerts.size(), rowCount[0], batch.reused, System.currentTimeMillis() - started);
+            return femaFeed.commit(resp, batch);
+        });
     }
 
+    /** USGS quakes; a feature whose (id, {@code updated}) is unchanged is reused. */
     private List<NormalizedAlert> pollUsgs() throws Exception {
-        long started = System.currentTimeMillis();
-        JsonNode root = fetchJson(USGS_RECENT_URL, "application/geo+json");
-        JsonNode features = root.path("features");
-        if (!features.isArray()) {
-            log.warn("AlertIngest: USGS response had no 'features' array.");
-            return List.of();
-        }
+        return usgsFeed.poll(() -> {
+            long started = System.currentTimeMillis();
+            HttpResponse<InputStream> resp = fetch(usgsFeed);
+            if (resp == null) {
+                log.debug("AlertIngest: USGS not modified");
+                return usgsFeed.alerts;
+            }
 
-        List<NormalizedAlert> normalized = new ArrayList<>(features.size());
-        Iterator<JsonNode> it = features.elements();
-        while (it.hasNext()) {
-            JsonNode f = it.next();
-            try {
-                normalized.add(normalizeUsgs(f));
-            } catch (Exception ex) {
-                log.debug("AlertIngest: skipped malformed USGS feature: {}", ex.getMessage());
+            VersionedBatch batch = new VersionedBatch(usgsFeed);
+            boolean found = streamArray(resp.body(), "features", f -> {
+                try {
+                    batch.add(versionKey(textOrNull(f, "id"), textOrNull(f.path("properties"), "updated")),
+                            () -> normalizeUsgs(f));
+                } catch (Exception ex) {
+                    log.debug("AlertIngest: skipped malformed USGS feature: {}", ex.getMessage());
+                }
+            });
+            if (!found) {
+                log.warn("AlertIngest: USGS response had no 'features' array.");
+                return List.of();
             }
-        }
 
-        log.info("AlertIngest: USGS poll OK — {} quakes ingested in {}ms",
-                normalized.size(), System.currentTimeMillis() - started);
-        return normalized;
+            log.info("AlertIngest: USGS poll OK — {} quakes ingested ({} unchanged) in {}ms",
+                    batch.alerts.size(), batch.reused, System.currentTimeMillis() - started);
+            return usgsFeed.commit(resp, batch);
+        });
     }
 
     /**
-     * Shared HTTP fetch + JSON parse. Throws on non-2xx so the caller's
-     * error path (preserve previous snapshot) fires.
+     * Conditional GET. Sends the validators from the feed's last fully
+     * parsed 200; returns null on 304 so the caller can reuse its previous
+     * alerts without reading a body. Throws on any other non-2xx so the
+     * caller's error path (preserve previous data) fires. The caller owns
+     * (and {@link #streamArray} closes) the returned body stream.
      */
-    private JsonNode fetchJson(String url, String accept) throws Exception {
-        HttpRequest req = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+    private HttpResponse<InputStream> fetch(Feed feed) throws Exception {
+        HttpRequest.Builder req = HttpRequest.newBuilder()
+                .uri(URI.create(feed.url))
                 .timeout(HTTP_TIMEOUT)
                 .header("User-Agent", USER_AGENT)
-                .header("Accept", accept + ", application/json;q=0.9, */*;q=0.8")
-                .GET()
-                .build();
+                .header("Accept", feed.accept + ", application/json;q=0.9, */*;q=0.8")
+                .GET();
+        if (feed.etag != null) req.header("If-None-Match", feed.etag);
+        if (feed.lastModified != null) req.header("If-Modified-Since", feed.lastModified);
 
-        HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> resp = httpClient.send(req.build(), HttpResponse.BodyHandlers.ofInputStream());
         int code = resp.statusCode();
+        if (code == 304) {
+            resp.body().close();
+            return null;
+        }
         if (code < 200 || code >= 300) {
-            throw new RuntimeException("Upstream " + url + " returned HTTP " + code);
+            resp.body().close();
+            throw new RuntimeException("Upstream " + feed.url + " returned HTTP " + code);
+        }
+        return resp;
+    }
+
+    /**
+     * Token-level walk of a top-level JSON object: each element of the
+     * array under {@code field} is materialized as its own small tree and
+     * handed to {@code each}, then dropped — the full feed document is
+     * never held in memory. Other top-level fields are skipped without
+     * being built. Returns false when the array isn't present. Closes
+     * {@code in}.
+     */
+    private boolean streamArray(InputStream in, String field, Consumer<JsonNode> each) throws IOException {
+        try (in; JsonParser p = json.createParser(in)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return false;
+            boolean found = false;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                JsonToken t = p.nextToken();
+                if (field.equals(name) && t == JsonToken.START_ARRAY) {
+                    found = true;
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        JsonNode el = json.readTree(p);
+                        if (el != null) each.accept(el);
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return found;
         }
-        return json.readTree(resp.body());
     }
 
-    private NormalizedAlert normalizeNws(JsonNode f) {
+    private static String versionKey(String id, String version) {
+        return id == null ? null : id + "@" + (version == null ? "" : version);
+    }
+
+    private static boolean sameInstances(List<List<NormalizedAlert>> a, List<List<NormalizedAlert>> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Per-source conditional-request validators and last-good alerts.
+     * Each poll method holds the feed's monitor for its whole run, so a
+     * poll that outlived its tick's timeout can't race the next one;
+     * {@code alerts} is volatile so the timeout fallback can read it
+     * without waiting on that monitor.
+     */
+    private static final class Feed {
+        final String name;
+        final String url;
+        final String accept;
+        String etag;
+        String lastModified;
+        volatile List<NormalizedAlert> alerts = List.of();
+        /** Previous poll's alerts by {@link #versionKey}. */
+        Map<String, NormalizedAlert> byVersion = Map.of();
+        /**
+         * Guards the validators and {@link #byVersion}: {@code pollAll}'s
+         * monitor serializes ticks, but a source cancelled at the deadline
+         * can still be parsing when the next tick polls it. A lock rather
+         * than a monitor because the poll blocks on I/O on a virtual thread,
+         * which a monitor would pin to its carrier.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        Feed(String name, String url, String accept) {
+            this.name = name;
+            this.url = url;
+            this.accept = accept;
+        }
+
+        /** Run one poll of this feed under its lock. */
+        List<NormalizedAlert> poll(Callable<List<NormalizedAlert>> body) throws Exception {
+            lock.lockInterruptibly();
+            try {
+                return body.call();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Adopt a fully parsed 200: remember its validators and alerts.
+         * Returns the previous list instance when nothing changed so
+         * {@code pollAll} can tell an unchanged source by identity.
+         */
+        List<NormalizedAlert> commit(HttpResponse<?> resp, VersionedBatch batch) {
+            etag = resp.headers().firstValue("ETag").orElse(null);
+            lastModified = resp.headers().firstValue("Last-Modified").orElse(null);
+            byVersion = batch.nextByVersion;
+            List<NormalizedAlert> prev = alerts;
+            boolean unchanged = prev.size() == batch.alerts.size();
+            for (int i = 0; unchanged && i < prev.size(); i++) {
+                unchanged = prev.get(i) == batch.alerts.get(i);
+            }
+            if (!unchanged) alerts = List.copyOf(batch.alerts);
+            return alerts;
+        }
+    }
+
+    /** One poll's alerts, reusing the previous poll's instances where the version matches. */
+    private static final class VersionedBatch {
+        private final Map<String, NormalizedAlert> prevByVersion;
+        final Map<String, NormalizedAlert> nextByVersion = new HashMap<>();
+        final List<NormalizedAlert> alerts = new ArrayList<>();
+        int reused;
+
+        VersionedBatch(Feed feed) {
+            this.prevByVersion = feed.byVersion;
+        }
+
+        void add(String versionKey, Supplier<NormalizedAlert> normalize) {
+            NormalizedAlert a = versionKey == null ? null : prevByVersion.get(versionKey);
+            if (a != null) {
+                reused++;
+            } else {
+                a = normalize.get();
+            }
+            alerts.add(a);
+            if (versionKey != null) nextByVersion.put(versionKey, a);
+        }
+
+        void addIfEqual(NormalizedAlert fresh) {
+            String key = versionKey(fresh.id(), null);
+            NormalizedAlert prev = key == null ? null : prevByVersion.get(key);
+            NormalizedAlert a = fresh.equals(prev) ? prev : fresh;
+            if (a == prev) reused++;
+            alerts.add(a);
+            if (key != null) nextByVersion.put(key, a);
+        }
+    }
+
+    NormalizedAlert normalizeNws(JsonNode f) {
         JsonNode p = f.path("properties");
         String id = textOrNull(p, "id");
         if (id == null) id = textOrNull(f, "id");
@@ -476,87 +705,47 @@ public class AlertIngestService {
 
     /** Read-only access for the AlertResource — full snapshot, no filter. */
     public Snapshot getSnapshot() {
+        return latest.get().snapshot();
+    }
+
+    /**
+     * Snapshot together with its compiled geometries, for callers that need
+     * the real alert area rather than the raw GeoJSON (dispatch's
+     * representative point and push targeting).
+     */
+    public IndexedSnapshot getIndexedSnapshot() {
         return latest.get();
     }
 
     /**
-     * Filtered snapshot: only alerts whose geometry's centroid falls
-     * within {@code radiusMi} of {@code (lat, lng)}. Alerts with no
-     * geometry are included unconditionally (they may apply broadly —
-     * e.g. SAME-code NWS zones without polygon data, FEMA recovery
-     * declarations once Phase 2 ingests them).
+     * Filtered snapshot: only alerts whose area lies within
+     * {@code radiusMi} of {@code (lat, lng)} — a point inside a warning
+     * polygon matches at distance 0, a point outside matches when the
+     * nearest polygon edge (or the quake epicentre) is within the radius.
+     * Alerts with no usable geometry are included unconditionally (they
+     * may apply broadly — e.g. SAME-code NWS zones without polygon data,
+     * FEMA declarations).
      *
-     * <p>Coarse filter — uses the alert geometry's first vertex (Point
-     * for quakes; first ring vertex for polygons) rather than a true
-     * point-in-polygon test. Adequate for cutting a 387-alert NWS feed
-     * down to the dozen relevant to a user's area; precise filtering
-     * happens client-side via Leaflet's geometry rendering.</p>
+     * <p>Geometries are compiled to primitive arrays once per poll and
+     * held in an R-tree, so this is a bounding-box descent plus an exact
+     * test on the few alerts whose box overlaps the query — not a walk of
+     * every alert's nested GeoJSON. Result order matches the snapshot.</p>
      */
     public Snapshot getSnapshotForPoint(double lat, double lng, double radiusMi) {
-        Snapshot s = latest.get();
-        double radiusKm = radiusMi * 1.609344;
-        List<NormalizedAlert> filtered = new ArrayList<>();
-        for (NormalizedAlert a : s.alerts) {
-            double[] coord = firstCoord(a.geometry);
-            if (coord == null) {
-                // Geometry-less alert: include by default. Coarse but safe —
-                // these are usually broad-impact (e.g. statewide advisories).
-                filtered.add(a);
-                continue;
-            }
-            double distKm = haversineKm(lat, lng, coord[1], coord[0]);
-            if (distKm <= radiusKm) filtered.add(a);
-        }
-        return new Snapshot(List.copyOf(filtered), Instant.now(), s.lastSuccessAt);
+        IndexedSnapshot s = latest.get();
+        List<NormalizedAlert> alerts = s.snapshot().alerts();
+        int[] matched = s.idsNear(lat, lng, radiusMi * 1.609344);
+        List<NormalizedAlert> filtered = new ArrayList<>(matched.length);
+        for (int i : matched) filtered.add(alerts.get(i));
+        return new Snapshot(List.copyOf(filtered), Instant.now(), s.snapshot().lastSuccessAt());
     }
 
     /**
-     * Pull the first [lon, lat] coordinate from a GeoJSON geometry. Handles
-     * Point (USGS quakes) + Polygon (NWS warnings) + MultiPolygon. Returns
-     * null when the structure isn't recognized.
+     * Swap in a prepared snapshot without polling — the seam the
+     * {@code src/jmh} benchmarks use to query a synthetic alert set.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private static double[] firstCoord(Object geom) {
-        if (!(geom instanceof Map)) return null;
-        Map m = (Map) geom;
-        Object type = m.get("type");
-        Object coords = m.get("coordinates");
-        if (!(type instanceof String) || coords == null) return null;
-        try {
-            switch ((String) type) {
-                case "Point":
-                    // [lon, lat] (or [lon, lat, depth] for quakes)
-                    List<Number> p = (List<Number>) coords;
-                    return new double[] { p.get(0).doubleValue(), p.get(1).doubleValue() };
-                case "Polygon": {
-                    // [[ [lon,lat], [lon,lat], ... ]]
-                    List<List<List<Number>>> rings = (List<List<List<Number>>>) coords;
-                    List<Number> v = rings.get(0).get(0);
-                    return new double[] { v.get(0).doubleValue(), v.get(1).doubleValue() };
-                }
-                case "MultiPolygon": {
-                    // [[[ [lon,lat], ... ]]]
-                    List<List<List<List<Number>>>> polys = (List<List<List<List<Number>>>>) coords;
-                    List<Number> v = polys.get(0).get(0).get(0);
-                    return new double[] { v.get(0).doubleValue(), v.get(1).doubleValue() };
-                }
-                default:
-                    return null;
-            }
-        } catch (Exception ex) {
-            return null;
-        }
-    }
-
-    /** Great-circle distance in km. R = 6371. */
-    private static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
-        double R = 6371.0;
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLng = Math.toRadians(lng2 - lng1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                  * Math.sin(dLng / 2) * Math.sin(dLng / 2);
-        return 2 * R * Math.asin(Math.sqrt(a));
+    void installSnapshot(Snapshot snapshot) {
+        latest.set(IndexedSnapshot.of(snapshot));
     }
 
     /**
@@ -572,6 +761,76 @@ public class AlertIngestService {
     // DTOs returned to the resource layer
     // -------------------------------------------------------------------
 
+    /**
+     * A {@link Snapshot} plus the compiled form of each alert's geometry:
+     * {@code geometry(i)} belongs to {@code snapshot().alerts().get(i)} and
+     * is null when that alert has no usable geometry.
+     */
+    public static final class IndexedSnapshot {
+        private final Snapshot snapshot;
+        private final AlertGeometryIndex index;
+        /** Positions of alerts with no compiled geometry, ascending. */
+        private final int[] unlocated;
+
+        private IndexedSnapshot(Snapshot snapshot, AlertGeometryIndex index, int[] unlocated) {
+            this.snapshot = snapshot;
+            this.index = index;
+            this.unlocated = unlocated;
+        }
+
+        static IndexedSnapshot of(Snapshot snapshot) {
+            return of(snapshot, null);
+        }
+
+        /**
+         * Compile {@code snapshot}, reusing {@code prev}'s compiled geometry
+         * for any alert instance carried over unchanged from it.
+         */
+        static IndexedSnapshot of(Snapshot snapshot, IndexedSnapshot prev) {
+            Map<NormalizedAlert, AlertGeometry> carried = new IdentityHashMap<>();
+            if (prev != null) {
+                List<NormalizedAlert> old = prev.snapshot.alerts();
+                for (int i = 0; i < old.size(); i++) carried.put(old.get(i), prev.geometry(i));
+            }
+            List<NormalizedAlert> alerts = snapshot.alerts();
+            List<AlertGeometry> compiled = new ArrayList<>(alerts.size());
+            int[] unlocated = new int[alerts.size()];
+            int n = 0;
+            for (int i = 0; i < alerts.size(); i++) {
+                NormalizedAlert a = alerts.get(i);
+                AlertGeometry g = carried.containsKey(a) ? carried.get(a) : AlertGeometry.compile(a.geometry());
+                compiled.add(g);
+                if (g == null) unlocated[n++] = i;
+            }
+            return new IndexedSnapshot(snapshot, AlertGeometryIndex.build(compiled),
+                    Arrays.copyOf(unlocated, n));
+        }
+
+        /** Same alerts and index, new freshness stamps — the nothing-changed tick. */
+        IndexedSnapshot refreshed(Instant now) {
+            return new IndexedSnapshot(new Snapshot(snapshot.alerts(), now, now), index, unlocated);
+        }
+
+        public Snapshot snapshot() {
+            return snapshot;
+        }
+
+        public AlertGeometry geometry(int i) {
+            return index.geometry(i);
+        }
+
+        /** Positions (ascending) of alerts within {@code radiusKm}, plus every geometry-less alert. */
+        int[] idsNear(double lat, double lng, double radiusKm) {
+            int[] hits = new int[snapshot.alerts().size()];
+            int[] n = {0};
+            index.forEachWithin(lat, lng, radiusKm, i -> hits[n[0]++] = i);
+            for (int i : unlocated) hits[n[0]++] = i;
+            int[] out = Arrays.copyOf(hits, n[0]);
+            Arrays.sort(out);
+            return out;
+        }
+    }
+
     /** Cached alert payload + freshness markers. */
     public record Snapshot(
             List<NormalizedAlert> alerts,
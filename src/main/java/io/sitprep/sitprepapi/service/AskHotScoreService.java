@@ -0,0 +1,61 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sentry.Sentry;
+import io.sitprep.sitprepapi.repo.AskQuestionRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Keeps {@code ask_question.hot_score} (V62) decaying between votes.
+ *
+ * <p>The hot score's recency term shrinks linearly over a question's first
+ * 14 days and is zero after that, so only questions inside that window
+ * need rewriting. Each tick is one bounded {@code UPDATE … WHERE
+ * created_at >= now - (14d + margin)}; the margin lets a question that
+ * crossed day 14 since the last tick settle on its final, vote-only score
+ * even after some downtime. Votes rewrite their question's score inline
+ * ({@link AskQuestionRepo#bumpVoteScore}).</p>
+ *
+ * <p>Between ticks every in-window score is stale by the same amount, so
+ * their order among themselves is exact; against older questions the
+ * error is at most {@code 0.15 × interval/day} (≈0.002 at 15 minutes).</p>
+ */
+@Service
+public class AskHotScoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(AskHotScoreService.class);
+
+    /** Length of the recency glide path in {@code AskService.hotScore}. */
+    private static final Duration RECENCY_WINDOW = Duration.ofDays(14);
+
+    private final AskQuestionRepo questionRepo;
+    private final Duration margin;
+
+    public AskHotScoreService(AskQuestionRepo questionRepo,
+                              @Value("${app.ask.hotScore.settleMargin:P1D}") String margin) {
+        this.questionRepo = questionRepo;
+        this.margin = Duration.parse(margin);
+    }
+
+    @Scheduled(fixedDelayString = "${app.ask.hotScore.decayInterval:PT15M}", initialDelayString = "PT3M")
+    public void scheduledDecay() {
+        try {
+            int updated = decayOnce(Instant.now());
+            log.debug("AskHotScore: re-decayed {} questions", updated);
+        } catch (Exception e) {
+            log.warn("AskHotScore: decay tick failed: {}", e.getMessage(), e);
+            try { Sentry.captureException(e); } catch (Throwable ignored) {}
+        }
+    }
+
+    int decayOnce(Instant now) {
+        return questionRepo.refreshHotScores(now.minus(RECENCY_WINDOW).minus(margin),
+                now.toEpochMilli() / 1000.0);
+    }
+}
@@ -3,6 +3,7 @@ package io.sitprep.sitprepapi.service;
 import io.sitprep.sitprepapi.domain.*;
 import io.sitprep.sitprepapi.dto.*;
 import io.sitprep.sitprepapi.repo.*;
+import io.sitprep.sitprepapi.util.FullTextQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
@@ -30,6 +31,11 @@ import java.util.stream.Collectors;
  * Items with one of {@code hazardTags} matching an active alert in the
  * viewer's area are pinned in a higher tier (sorted ABOVE all non-matches);
  * within each tier, hot-score DESC then createdAt DESC.
+ *
+ * <p>Questions also carry the score materialized in {@code hot_score}
+ * (V62): written on create and on every vote, re-decayed by
+ * {@link AskHotScoreService}. The top strip reads the K hottest straight
+ * off its index rather than ranking a vote-sorted slice.</p>
  */
 @Service
 public class AskService {
@@ -38,7 +44,10 @@ public class AskService {
 
     private static final int MAX_PAGE = 50;
     private static final int DEFAULT_PAGE = 20;
-    private static final int SEARCH_CAP = 60;
+    /** Default and maximum search page size. */
+    public static final int SEARCH_PAGE_SIZE = 60;
+    /** Deepest ranked hit a search page can reach (per table window). */
+    private static final int SEARCH_MAX_DEPTH = 300;
 
     /** Used by FE list endpoints to communicate the active hazard set. */
     public static final String HAZARD_TYPE_HEADER = "X-Active-Hazards";
@@ -86,6 +95,7 @@ public class AskService {
         q.setLongitude(in.getLongitude());
 
         enrichGeo(in.getLatitude(), in.getLongitude(), q::setZipBucket, q::setPlaceLabel);
+        q.setHotScore(hotScore(0, null));
 
         return toDto(questionRepo.save(q), authorEmail, activeHazardsFor(authorEmail));
     }
@@ -110,7 +120,7 @@ public class AskService {
     public List<AskQuestionDto> topQuestions(String viewerEmail, String window, int limit, Set<String> activeHazards) {
         Instant since = sinceFor(window);
         var pageable = PageRequest.of(0, clamp(limit));
-        List<AskQuestion> rows = questionRepo.topSince(since, pageable);
+        List<AskQuestion> rows = questionRepo.hotSince(since, pageable);
         return rankAndDtoQuestions(rows, viewerEmail, activeHazards, false);
     }
 
@@ -329,7 +339,7 @@ public class AskService {
 
     private int bumpScore(String targetType, Long targetId, int delta) {
         switch (targetType) {
-            case "question" -> questionRepo.bumpVoteScore(targetId, delta);
+            case "question" -> questionRepo.bumpVoteScore(targetId, delta, nowEpochSeconds());
             case "answer" -> answerRepo.bumpVoteScore(targetId, delta);
             case "tip" -> tipRepo.bumpVoteScore(targetId, delta);
             default -> bad("Unsupported target type: " + targetType);
@@ -378,26 +388,102 @@ public class AskService {
     // =================================================================
 
     public List<AskSearchHitDto> search(String q, String viewerEmail, Set<String> activeHazards) {
-        if (isBlank(q)) return List.of();
-        String like = "%" + q.toLowerCase(Locale.ROOT).trim() + "%";
-        var pageable = PageRequest.of(0, SEARCH_CAP);
+        return search(q, viewerEmail, activeHazards, 0, SEARCH_PAGE_SIZE);
+    }
 
-        List<AskQuestion> qs = questionRepo.searchByTokens(like, pageable);
-        List<AskTip> ts = tipRepo.searchByTokens(like, pageable);
+    /**
+     * Ranked full-text search over questions + tips (V61 tsvector indexes).
+     * The last word matches as a prefix, so results follow the user as they
+     * type. Order: hazard-matched first, then text relevance
+     * ({@code ts_rank_cd}), vote score, id — computed identically by both
+     * table queries and the merge below, so pages are stable.
+     *
+     * <p>Each table returns its top {@code (page + 1) * size}; the merged
+     * list is sliced to the page, and only that page gets
+     * {@code ts_headline} snippets and entity hydration. Depth is capped at
+     * {@link #SEARCH_MAX_DEPTH} hits.</p>
+     */
+    public List<AskSearchHitDto> search(String q, String viewerEmail, Set<String> activeHazards,
+                                        int page, int size) {
+        String tsq = FullTextQuery.toPrefixTsQuery(q);
+        if (tsq == null) return List.of();
+        int pageSize = Math.max(1, Math.min(SEARCH_PAGE_SIZE, size));
+        int from = Math.max(0, page) * pageSize;
+        if (from >= SEARCH_MAX_DEPTH) return List.of();
+        int window = Math.min(SEARCH_MAX_DEPTH, from + pageSize);
 
         Set<String> hazards = activeHazards == null ? Set.of() : activeHazards;
+        // Native IN () is a syntax error; a blank never matches a hazard tag.
+        Collection<String> hazardParam = hazards.isEmpty() ? List.of("") : hazards;
 
-        List<AskSearchHitDto> hits = new ArrayList<>(qs.size() + ts.size());
-        for (AskQuestion item : qs) hits.add(searchHit(item, hazards));
-        for (AskTip item : ts) hits.add(searchHit(item, hazards));
-
-        // Hot-score sort: hazard-matched first, then hot DESC, then recency DESC.
-        hits.sort(SEARCH_HIT_COMPARATOR);
+        List<RankedHit> ranked = new ArrayList<>();
+        for (Object[] row : questionRepo.searchRanked(tsq, hazardParam, window)) {
+            ranked.add(RankedHit.of("question", row));
+        }
+        for (Object[] row : tipRepo.searchRanked(tsq, hazardParam, window)) {
+            ranked.add(RankedHit.of("tip", row));
+        }
+        ranked.sort(RankedHit.ORDER);
+        if (ranked.size() <= from) return List.of();
+        List<RankedHit> pageHits = ranked.subList(from, Math.min(ranked.size(), from + pageSize));
+
+        List<Long> qIds = pageHits.stream().filter(h -> h.kind().equals("question")).map(RankedHit::id).toList();
+        List<Long> tIds = pageHits.stream().filter(h -> h.kind().equals("tip")).map(RankedHit::id).toList();
+        Map<Long, AskQuestion> questions = qIds.isEmpty() ? Map.of()
+                : questionRepo.findAllById(qIds).stream().collect(Collectors.toMap(AskQuestion::getId, Function.identity()));
+        Map<Long, AskTip> tips = tIds.isEmpty() ? Map.of()
+                : tipRepo.findAllById(tIds).stream().collect(Collectors.toMap(AskTip::getId, Function.identity()));
+        Map<Long, String> qHeadlines = qIds.isEmpty() ? Map.of()
+                : headlineMap(questionRepo.headlines(tsq, FullTextQuery.HEADLINE_OPTIONS, qIds));
+        Map<Long, String> tHeadlines = tIds.isEmpty() ? Map.of()
+                : headlineMap(tipRepo.headlines(tsq, FullTextQuery.HEADLINE_OPTIONS, tIds));
+
+        List<AskSearchHitDto> hits = new ArrayList<>(pageHits.size());
+        for (RankedHit r : pageHits) {
+            AskSearchHitDto h;
+            if (r.kind().equals("question")) {
+                AskQuestion item = questions.get(r.id());
+                if (item == null) continue;
+                h = searchHit(item, hazards);
+                h.setHighlight(FullTextQuery.highlightHtml(qHeadlines.get(r.id())));
+            } else {
+                AskTip item = tips.get(r.id());
+                if (item == null) continue;
+                h = searchHit(item, hazards);
+                h.setHighlight(FullTextQuery.highlightHtml(tHeadlines.get(r.id())));
+            }
+            h.setRank(r.rank());
+            hits.add(h);
+        }
 
         // Server-fold author profiles in one batch round trip.
         return foldSearchAuthors(hits);
     }
 
+    /** One row of {@code searchRanked}: {@code {id, rank, hazardMatched, voteScore}}. */
+    record RankedHit(String kind, Long id, double rank, boolean hazardMatched, int voteScore) {
+        static final Comparator<RankedHit> ORDER = Comparator
+                .comparing((RankedHit h) -> h.hazardMatched() ? 0 : 1)
+                .thenComparing(Comparator.comparingDouble(RankedHit::rank).reversed())
+                .thenComparing(Comparator.comparingInt(RankedHit::voteScore).reversed())
+                .thenComparing(RankedHit::id, Comparator.reverseOrder())
+                .thenComparing(RankedHit::kind);
+
+        static RankedHit of(String kind, Object[] row) {
+            return new RankedHit(kind,
+                    ((Number) row[0]).longValue(),
+                    ((Number) row[1]).doubleValue(),
+                    Boolean.TRUE.equals(row[2]),
+                    ((Number) row[3]).intValue());
+        }
+    }
+
+    private static Map<Long, String> headlineMap(List<Object[]> rows) {
+        Map<Long, String> out = new HashMap<>();
+        for (Object[] row : rows) out.put(((Number) row[0]).longValue(), (String) row[1]);
+        return out;
+    }
+
     // =================================================================
     // Internal — DTO conversion + ranking
     // =================================================================
@@ -661,12 +747,6 @@ public class AskService {
                 .thenComparing(AskTip::getId, Comparator.reverseOrder());
     }
 
-    private static final Comparator<AskSearchHitDto> SEARCH_HIT_COMPARATOR = Comparator
-            .comparing((AskSearchHitDto h) -> h.isHazardMatched() ? 0 : 1)
-            .thenComparing(Comparator.comparingDouble(AskSearchHitDto::getHotScore).reversed())
-            .thenComparing(Comparator.comparing(AskSearchHitDto::getCreatedAt,
-                    Comparator.nullsLast(Comparator.reverseOrder())));
-
     /**
      * Hot score: log10 of vote score (so 100 votes ≠ 10× weight of 10 votes)
      * plus a 14-day glide-path recency bonus. See class doc for the exact
@@ -681,6 +761,11 @@ public class AskService {
         return base + recency;
     }
 
+    /** "Now" for {@link AskQuestionRepo#HOT_SCORE_SQL}. */
+    static double nowEpochSeconds() {
+        return Instant.now().toEpochMilli() / 1000.0;
+    }
+
     // =================================================================
     // Hydration helpers
     // =================================================================
@@ -9,6 +9,7 @@ import io.sitprep.sitprepapi.domain.Post;
 import io.sitprep.sitprepapi.repo.CivicCoverageGapRepo;
 import io.sitprep.sitprepapi.repo.CivicReportAgencyRepo;
 import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.GroupSummaryRow;
 import io.sitprep.sitprepapi.repo.PostRepo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -487,8 +488,10 @@ public class CivicAgencyService {
         Set<String> agencyIds = rows.stream().map(CivicReportAgency::getAgencyGroupId)
                 .filter(id -> id != null).collect(Collectors.toCollection(LinkedHashSet::new));
         Map<String, String> names = new HashMap<>();
-        for (Group g : groupRepo.findAllById(agencyIds)) {
-            if (g != null && g.getGroupId() != null) names.put(g.getGroupId(), g.getGroupName());
+        if (!agencyIds.isEmpty()) {
+            for (GroupSummaryRow g : groupRepo.findSummariesByIds(agencyIds)) {
+                if (g.groupId() != null) names.put(g.groupId(), g.groupName());
+            }
         }
         for (CivicReportAgency r : rows) {
             out.computeIfAbsent(r.getPostId(), k -> new ArrayList<>())
@@ -1,7 +1,5 @@
 package io.sitprep.sitprepapi.service;
 
-import io.sitprep.sitprepapi.domain.Group;
-import io.sitprep.sitprepapi.domain.UserInfo;
 import io.sitprep.sitprepapi.dto.CommunityDiscoverDto;
 import io.sitprep.sitprepapi.dto.MemberAvatar;
 import io.sitprep.sitprepapi.dto.CommunityDiscoverDto.NearbyGroup;
@@ -9,7 +7,9 @@ import io.sitprep.sitprepapi.dto.CommunityDiscoverDto.Place;
 import io.sitprep.sitprepapi.dto.DtoImages;
 import io.sitprep.sitprepapi.repo.GroupPostRepo;
 import io.sitprep.sitprepapi.repo.GroupRepo;
-import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.repo.GroupSummaryRow;
+import io.sitprep.sitprepapi.repo.UserProfileCard;
+import io.sitprep.sitprepapi.service.GroupSummaryService.ViewerMemberships;
 import io.sitprep.sitprepapi.util.Geo;
 import io.sitprep.sitprepapi.util.GeoUtil;
 import org.slf4j.Logger;
@@ -25,12 +25,12 @@ import java.util.*;
  * radius, sorted by distance, plus the reverse-geocoded place label so
  * the page can render "Lahore, Punjab" without an extra round-trip.
  *
- * <p>Distance: Haversine in Java because Group stores lat/lng as String
- * (legacy) and converting to native numeric SQL would be a bigger schema
- * change. At SitPrep's scale (thousands of groups, not millions), an
- * in-memory pass over all public groups with non-null coords is fine.
- * When the public-group count gets large, add a zip-bucket pre-filter
- * on the JPQL side using the first 3 chars of {@code zipCode}.</p>
+ * <p>Distance: a bounding-box range scan on the (latitude, longitude)
+ * index narrows to the radius's box, then Haversine in Java trims the
+ * corners. Groups are read as {@link GroupSummaryRow}s, never entities, so
+ * a dense metro doesn't hydrate every public group's member lists; member
+ * emails are fetched only for the returned cards, and only when the viewer
+ * has mutuals to count.</p>
  */
 @Service
 public class CommunityDiscoverService {
@@ -41,18 +41,21 @@ public class CommunityDiscoverService {
     private static final int VERSION = 1;
 
     private final GroupRepo groupRepo;
-    private final UserInfoRepo userInfoRepo;
+    private final ProfileCardService profileCards;
     private final GroupPostRepo groupPostRepo;
     private final NominatimGeocodeService geocode;
+    private final GroupSummaryService groupSummaries;
 
     public CommunityDiscoverService(GroupRepo groupRepo,
-                                    UserInfoRepo userInfoRepo,
+                                    ProfileCardService profileCards,
                                     GroupPostRepo groupPostRepo,
-                                    NominatimGeocodeService geocode) {
+                                    NominatimGeocodeService geocode,
+                                    GroupSummaryService groupSummaries) {
         this.groupRepo = groupRepo;
-        this.userInfoRepo = userInfoRepo;
+        this.profileCards = profileCards;
         this.groupPostRepo = groupPostRepo;
         this.geocode = geocode;
+        this.groupSummaries = groupSummaries;
     }
 
     /**
@@ -82,120 +85,97 @@ public class CommunityDiscoverService {
         String normalizedViewer = (viewerEmail == null || viewerEmail.isBlank())
                 ? null : viewerEmail.trim().toLowerCase();
 
-        List<Group> publicGroups = groupRepo.findAll().stream()
-                .filter(g -> "public".equalsIgnoreCase(safe(g.getPrivacy())))
-                .filter(g -> g.getLatitude() != null && g.getLongitude() != null)
-                .toList();
-
-        // Pre-compute the radius hits before doing any owner / activity
-        // lookups — keeps the batched queries scoped to just the groups
-        // the viewer actually sees, not every public group on the
-        // planet.
-        List<Group> withinRadiusGroups = new ArrayList<>();
-        Map<String, Double> distanceByGroupId = new HashMap<>();
-        for (Group g : publicGroups) {
-            double gLat = g.getLatitude();  // non-null by the coord filter above
-            double gLng = g.getLongitude();
-            double d = GeoUtil.haversineKm(lat, lng, gLat, gLng);
+        // Summary rows inside the radius's bounding box — the (latitude,
+        // longitude) index range-scans it, and no member lists load. The
+        // Haversine pass below trims the box corners.
+        GeoUtil.GeoBox box = GeoUtil.around(lat, lng, radiusKm);
+        List<GroupSummaryRow> publicGroups = groupRepo.findPublicSummariesInBounds(
+                box.latMin(), box.latMax(), box.lngMin(), box.lngMax());
+
+        // The viewer's own memberships as id sets (three small queries),
+        // so role resolution never needs a group's roster.
+        ViewerMemberships viewer = groupSummaries.membershipsOf(normalizedViewer);
+
+        List<NearbyCandidate> candidates = new ArrayList<>();
+        for (GroupSummaryRow g : publicGroups) {
+            if (g.latitude() == null || g.longitude() == null) continue;
+            double d = GeoUtil.haversineKm(lat, lng, g.latitude(), g.longitude());
             if (d > radiusKm) continue;
-            boolean viewerIsMember = isViewerInGroup(g, normalizedViewer);
+            String viewerRole = viewer.roleOf(g);
+            boolean viewerIsMember = !"NONE".equals(viewerRole);
             if (viewerIsMember && !includeMine) continue;
-            withinRadiusGroups.add(g);
-            if (g.getGroupId() != null) distanceByGroupId.put(g.getGroupId(), d);
+            candidates.add(new NearbyCandidate(g, d, viewerRole));
         }
 
+        // Sort + cap BEFORE any owner / activity / membership lookups — the
+        // batched queries below are scoped to the cards actually returned,
+        // not every public group in the radius.
+        candidates.sort(Comparator.comparingDouble(NearbyCandidate::distanceKm));
+        List<NearbyCandidate> capped = candidates.size() > MAX_RESULTS
+                ? candidates.subList(0, MAX_RESULTS)
+                : candidates;
+        List<GroupSummaryRow> cappedGroups = capped.stream().map(NearbyCandidate::group).toList();
+
         // The viewer's mutual-contact set — every email that shares at
         // least one group with the viewer (excluding the viewer). One
-        // membership query, one in-memory union. Used to compute the
-        // "N mutual" social signal on every Discover card.
+        // query. Used to compute the "N mutual" social signal on every
+        // Discover card.
         Set<String> mutualSet = buildMutualSet(normalizedViewer);
 
         // Verified-publisher status follows the OWNER's UserInfo, not
         // the group itself — one batched lookup over the unique owners
-        // of the radius hits.
-        Map<String, UserInfo> ownersByEmail = batchOwnerLookup(withinRadiusGroups);
+        // of the returned groups.
+        Map<String, UserProfileCard> ownersByEmail = batchOwnerLookup(cappedGroups);
 
         // Per-group most-recent-post timestamp — one batched query for
         // the freshness meta on Discover cards. Mirrors the
         // lastActivityFor() helper on MeService.
-        Map<String, Instant> latestPostMap = batchLatestPostMap(withinRadiusGroups);
-
-        // Per-group mutual emails (capped at the preview limit each)
-        // and a single batched profile lookup over the union. Lets
-        // every Discover card / pin preview render real faces instead
-        // of just a count — without an N+1 per-group profile fetch.
+        Map<String, Instant> latestPostMap = batchLatestPostMap(cappedGroups);
+
+        // Member emails, loaded on demand for just the returned groups and
+        // only when the viewer has mutuals to match against. Per-group
+        // mutual emails (capped at the preview limit each) and a single
+        // batched profile lookup over the union let every Discover card /
+        // pin preview render real faces instead of just a count — without
+        // an N+1 per-group profile fetch.
+        Map<String, List<String>> membersByGroup = mutualSet.isEmpty()
+                ? Map.of()
+                : batchMemberEmails(cappedGroups);
         Map<String, List<String>> mutualEmailsByGroup =
-                collectMutualEmailsByGroup(withinRadiusGroups, mutualSet);
-        Map<String, UserInfo> mutualProfiles = batchProfileLookup(mutualEmailsByGroup);
-
-        List<NearbyGroup> withinRadius = new ArrayList<>(withinRadiusGroups.size());
-        for (Group g : withinRadiusGroups) {
-            double d = distanceByGroupId.getOrDefault(g.getGroupId(), 0.0);
-            boolean viewerIsMember = isViewerInGroup(g, normalizedViewer);
-            String viewerRole = viewerRoleOf(g, normalizedViewer);
-            UserInfo owner = g.getOwnerEmail() == null ? null
-                    : ownersByEmail.get(g.getOwnerEmail().toLowerCase());
-            boolean verified = owner != null && owner.isVerifiedPublisher();
-            String verifiedKind = verified ? owner.getVerifiedPublisherKind() : null;
+                collectMutualEmailsByGroup(membersByGroup, mutualSet);
+        Map<String, UserProfileCard> mutualProfiles = batchProfileLookup(mutualEmailsByGroup);
+
+        List<NearbyGroup> results = new ArrayList<>(capped.size());
+        for (NearbyCandidate c : capped) {
+            GroupSummaryRow g = c.group();
+            UserProfileCard owner = g.ownerEmail() == null ? null
+                    : ownersByEmail.get(g.ownerEmail().toLowerCase());
+            boolean verified = owner != null && owner.verifiedPublisher();
+            String verifiedKind = verified ? owner.verifiedPublisherKind() : null;
             boolean agency = isAgency(g, verified, verifiedKind);
             // Owner-publisher identity is exposed ONLY for agencies (public
             // officials meant to be followed) — never for ordinary groups.
-            String ownerUserId = agency && owner != null ? owner.getId() : null;
-            int mutuals = countMutuals(g, mutualSet);
+            String ownerUserId = agency && owner != null ? owner.id() : null;
+            int mutuals = countMutuals(membersByGroup.get(g.groupId()), mutualSet);
             List<MemberAvatar> mutualAvatars = buildMutualAvatars(
-                    mutualEmailsByGroup.get(g.getGroupId()), mutualProfiles);
+                    mutualEmailsByGroup.get(g.groupId()), mutualProfiles);
             Instant activity = lastActivityFor(g, latestPostMap);
-            withinRadius.add(toNearbyGroup(g, d, viewerIsMember, viewerRole,
+            results.add(toNearbyGroup(g, c.distanceKm(), !"NONE".equals(c.viewerRole()), c.viewerRole(),
                     verified, verifiedKind, mutuals, mutualAvatars, activity,
                     agency, ownerUserId));
         }
 
-        withinRadius.sort(Comparator.comparingDouble(NearbyGroup::distanceKm));
-        List<NearbyGroup> capped = withinRadius.size() > MAX_RESULTS
-                ? withinRadius.subList(0, MAX_RESULTS)
-                : withinRadius;
-
         return new CommunityDiscoverDto(
                 place,
-                capped,
+                results,
                 new CommunityDiscoverDto.MetaDto(
-                        Instant.now(), VERSION, publicGroups.size(), capped.size()
+                        Instant.now(), VERSION, publicGroups.size(), results.size()
                 )
         );
     }
 
-    /** True if {@code viewerEmail} is in admin/member/pending lists, or is the owner. */
-    private static boolean isViewerInGroup(Group g, String viewerEmail) {
-        if (viewerEmail == null) return false;
-        if (viewerEmail.equalsIgnoreCase(g.getOwnerEmail())) return true;
-        if (containsCaseInsensitive(g.getAdminEmails(), viewerEmail)) return true;
-        if (containsCaseInsensitive(g.getMemberEmails(), viewerEmail)) return true;
-        if (containsCaseInsensitive(g.getPendingMemberEmails(), viewerEmail)) return true;
-        return false;
-    }
-
-    /**
-     * Resolve the viewer's role with a group — Owner / Admin / Member /
-     * Pending / None. Mirrors the FE {@code groupRoles.roleOf} precedence
-     * (owner beats admin beats member beats pending). Returns "NONE" for
-     * an anonymous viewer or any miss; never returns null.
-     */
-    private static String viewerRoleOf(Group g, String viewerEmail) {
-        if (viewerEmail == null) return "NONE";
-        if (viewerEmail.equalsIgnoreCase(g.getOwnerEmail())) return "OWNER";
-        if (containsCaseInsensitive(g.getAdminEmails(), viewerEmail)) return "ADMIN";
-        if (containsCaseInsensitive(g.getMemberEmails(), viewerEmail)) return "MEMBER";
-        if (containsCaseInsensitive(g.getPendingMemberEmails(), viewerEmail)) return "PENDING";
-        return "NONE";
-    }
-
-    private static boolean containsCaseInsensitive(List<String> list, String needle) {
-        if (list == null || list.isEmpty()) return false;
-        for (String e : list) {
-            if (e != null && e.equalsIgnoreCase(needle)) return true;
-        }
-        return false;
-    }
+    /** A radius hit awaiting its card: the row, its distance, the viewer's role. */
+    private record NearbyCandidate(GroupSummaryRow group, double distanceKm, String viewerRole) {}
 
     private Place resolvePlace(double lat, double lng) {
         try {
@@ -215,28 +195,27 @@ public class CommunityDiscoverService {
         }
     }
 
-    private NearbyGroup toNearbyGroup(Group g, double distanceKm, boolean viewerIsMember,
+    private NearbyGroup toNearbyGroup(GroupSummaryRow g, double distanceKm, boolean viewerIsMember,
                                       String viewerRole,
                                       boolean verified, String verifiedKind,
                                       int mutuals, List<MemberAvatar> mutualMembers,
                                       Instant lastActivityAt,
                                       boolean agency, String ownerUserId) {
-        // Accurate count from the member list (the denormalized
+        // Accurate count from the member table (the denormalized
         // Group.memberCount drifts and isn't kept in sync on join/leave).
-        int memberCount = g.getMemberEmails() == null ? 0 : g.getMemberEmails().size();
         return new NearbyGroup(
-                g.getGroupId(),
-                g.getGroupName(),
-                g.getGroupType(),
-                g.getDescription(),
-                memberCount,
+                g.groupId(),
+                g.groupName(),
+                g.groupType(),
+                g.description(),
+                g.memberCountOrZero(),
                 roundKm(distanceKm),
-                Geo.str(g.getLatitude()),
-                Geo.str(g.getLongitude()),
-                g.getAddress(),
-                g.getZipCode(),
-                g.getAlert(),
-                g.getPrivacy(),
+                Geo.str(g.latitude()),
+                Geo.str(g.longitude()),
+                g.address(),
+                g.zipCode(),
+                g.alert(),
+                g.privacy(),
                 viewerIsMember,
                 viewerRole,
                 verified,
@@ -261,8 +240,8 @@ public class CommunityDiscoverService {
             "law_enforcement", "ems", "emergency_management", "city", "county",
             "state", "municipal", "agency");
 
-    private static boolean isAgency(Group g, boolean verified, String verifiedKind) {
-        if (g.isAgencyAuthorized()) return true;
+    private static boolean isAgency(GroupSummaryRow g, boolean verified, String verifiedKind) {
+        if (g.agencyAuthorized()) return true;
         if (verified && verifiedKind != null
                 && AGENCY_KINDS.contains(verifiedKind.trim().toLowerCase().replace('-', '_'))) {
             return true;
@@ -271,39 +250,53 @@ public class CommunityDiscoverService {
     }
 
     /**
-     * For each candidate group, the first {@link NearbyGroup#MUTUAL_PREVIEW_LIMIT}
+     * For each returned group, the first {@link NearbyGroup#MUTUAL_PREVIEW_LIMIT}
      * mutual emails — i.e. members of the group who also share at
      * least one group with the viewer. Pure in-memory intersection
      * (no DB hit); used so {@link #batchProfileLookup} only queries
      * the emails we'll actually surface.
      */
-    private static Map<String, List<String>> collectMutualEmailsByGroup(List<Group> groups,
+    private static Map<String, List<String>> collectMutualEmailsByGroup(Map<String, List<String>> membersByGroup,
                                                                        Set<String> mutualSet) {
-        if (groups == null || groups.isEmpty() || mutualSet.isEmpty()) {
+        if (membersByGroup.isEmpty() || mutualSet.isEmpty()) {
             return Collections.emptyMap();
         }
         Map<String, List<String>> out = new HashMap<>();
-        for (Group g : groups) {
-            if (g.getGroupId() == null || g.getMemberEmails() == null) continue;
+        for (Map.Entry<String, List<String>> e : membersByGroup.entrySet()) {
             List<String> picked = new ArrayList<>(NearbyGroup.MUTUAL_PREVIEW_LIMIT);
-            for (String e : g.getMemberEmails()) {
-                if (e == null) continue;
-                String norm = e.toLowerCase();
+            for (String norm : e.getValue()) {
                 if (!mutualSet.contains(norm)) continue;
                 picked.add(norm);
                 if (picked.size() >= NearbyGroup.MUTUAL_PREVIEW_LIMIT) break;
             }
-            if (!picked.isEmpty()) out.put(g.getGroupId(), picked);
+            if (!picked.isEmpty()) out.put(e.getKey(), picked);
         }
         return out;
     }
 
     /**
-     * One batched UserInfo lookup over the union of every group's
+     * Lowercased member emails for just the returned groups, in stored
+     * order. Empty map (not null) on failure — the cards lose their mutual
+     * counts, not the response.
+     */
+    private Map<String, List<String>> batchMemberEmails(List<GroupSummaryRow> groups) {
+        List<String> ids = new ArrayList<>();
+        for (GroupSummaryRow g : groups) if (g.groupId() != null) ids.add(g.groupId());
+        if (ids.isEmpty()) return Collections.emptyMap();
+        try {
+            return groupSummaries.memberEmailsOf(ids);
+        } catch (Exception e) {
+            log.warn("batchMemberEmails failed: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * One batched profile-card lookup over the union of every group's
      * mutual-preview emails — keyed by lowercased email. Returns an
      * empty map (not null) on failure so callers can keep going.
      */
-    private Map<String, UserInfo> batchProfileLookup(Map<String, List<String>> mutualEmailsByGroup) {
+    private Map<String, UserProfileCard> batchProfileLookup(Map<String, List<String>> mutualEmailsByGroup) {
         if (mutualEmailsByGroup == null || mutualEmailsByGroup.isEmpty()) {
             return Collections.emptyMap();
         }
@@ -312,15 +305,12 @@ public class CommunityDiscoverService {
             if (emails != null) union.addAll(emails);
         }
         if (union.isEmpty()) return Collections.emptyMap();
-        Map<String, UserInfo> out = new HashMap<>();
         try {
-            for (UserInfo u : userInfoRepo.findByUserEmailIn(new ArrayList<>(union))) {
-                if (u.getUserEmail() != null) out.put(u.getUserEmail().toLowerCase(), u);
-            }
+            return profileCards.cardsFor(union);
         } catch (Exception e) {
             log.warn("batchProfileLookup (mutuals) failed: {}", e.getMessage());
+            return Collections.emptyMap();
         }
-        return out;
     }
 
     /**
@@ -330,44 +320,30 @@ public class CommunityDiscoverService {
      * the FE never has to defend against partial rows.
      */
     private static List<MemberAvatar> buildMutualAvatars(List<String> emails,
-                                                         Map<String, UserInfo> profiles) {
+                                                         Map<String, UserProfileCard> profiles) {
         if (emails == null || emails.isEmpty() || profiles.isEmpty()) return List.of();
         List<MemberAvatar> out = new ArrayList<>(emails.size());
         for (String e : emails) {
-            UserInfo u = profiles.get(e);
+            UserProfileCard u = profiles.get(e);
             if (u == null) continue;
-            out.add(new MemberAvatar(u.getId(), u.getUserFirstName(), DtoImages.avatar(u.getProfileImageUrl())));
+            out.add(new MemberAvatar(u.id(), u.firstName(), DtoImages.avatar(u.profileImageUrl())));
         }
         return out;
     }
 
     /**
      * Every email that shares at least one group with {@code viewer}
-     * (viewer's own email excluded). Single pass over the viewer's
-     * memberships — each Group's memberEmails is EAGER-loaded so this
-     * is one DB call + one in-memory union.
+     * (viewer's own email excluded). One co-member query — the viewer's
+     * groups are never loaded as entities.
      */
     private Set<String> buildMutualSet(String viewer) {
         if (viewer == null) return Collections.emptySet();
-        List<Group> viewersGroups;
         try {
-            viewersGroups = groupRepo.findByMemberEmail(viewer);
+            return groupSummaries.coMemberEmails(viewer);
         } catch (Exception e) {
             log.warn("buildMutualSet failed for {}: {}", viewer, e.getMessage());
             return Collections.emptySet();
         }
-        if (viewersGroups == null || viewersGroups.isEmpty()) return Collections.emptySet();
-        Set<String> out = new HashSet<>();
-        for (Group g : viewersGroups) {
-            if (g.getMemberEmails() == null) continue;
-            for (String e : g.getMemberEmails()) {
-                if (e == null) continue;
-                String norm = e.toLowerCase();
-                if (norm.equals(viewer)) continue;
-                out.add(norm);
-            }
-        }
-        return out;
     }
 
     /**
@@ -375,24 +351,21 @@ public class CommunityDiscoverService {
      * hits. Result map is keyed by lowercased email. Returns an empty
      * map (not null) on any failure so callers can keep going.
      */
-    private Map<String, UserInfo> batchOwnerLookup(List<Group> groups) {
+    private Map<String, UserProfileCard> batchOwnerLookup(List<GroupSummaryRow> groups) {
         if (groups == null || groups.isEmpty()) return Collections.emptyMap();
         Set<String> emails = new LinkedHashSet<>();
-        for (Group g : groups) {
-            if (g.getOwnerEmail() != null && !g.getOwnerEmail().isBlank()) {
-                emails.add(g.getOwnerEmail().toLowerCase());
+        for (GroupSummaryRow g : groups) {
+            if (g.ownerEmail() != null && !g.ownerEmail().isBlank()) {
+                emails.add(g.ownerEmail().toLowerCase());
             }
         }
         if (emails.isEmpty()) return Collections.emptyMap();
-        Map<String, UserInfo> out = new HashMap<>();
         try {
-            for (UserInfo u : userInfoRepo.findByUserEmailIn(new ArrayList<>(emails))) {
-                if (u.getUserEmail() != null) out.put(u.getUserEmail().toLowerCase(), u);
-            }
+            return profileCards.cardsFor(emails);
         } catch (Exception e) {
             log.warn("batchOwnerLookup failed: {}", e.getMessage());
+            return Collections.emptyMap();
         }
-        return out;
     }
 
     /**
@@ -400,10 +373,10 @@ public class CommunityDiscoverService {
      * with no posts simply don't show up in the map and fall back to
      * Group.updatedAt in {@link #lastActivityFor}.
      */
-    private Map<String, Instant> batchLatestPostMap(List<Group> groups) {
+    private Map<String, Instant> batchLatestPostMap(List<GroupSummaryRow> groups) {
         if (groups == null || groups.isEmpty()) return Collections.emptyMap();
         List<String> ids = new ArrayList<>();
-        for (Group g : groups) if (g.getGroupId() != null) ids.add(g.getGroupId());
+        for (GroupSummaryRow g : groups) if (g.groupId() != null) ids.add(g.groupId());
         if (ids.isEmpty()) return Collections.emptyMap();
         Map<String, Instant> out = new HashMap<>();
         try {
@@ -421,15 +394,15 @@ public class CommunityDiscoverService {
     }
 
     /**
-     * How many of {@code g}'s members are in the viewer's mutual set.
-     * Set lookups are O(1), so even a 200-member group is a 200-step
-     * loop with no DB hits.
+     * How many of a group's (lowercased) members are in the viewer's
+     * mutual set. Set lookups are O(1), so even a 200-member group is a
+     * 200-step loop with no DB hits.
      */
-    private static int countMutuals(Group g, Set<String> mutualSet) {
-        if (mutualSet.isEmpty() || g.getMemberEmails() == null) return 0;
+    private static int countMutuals(List<String> members, Set<String> mutualSet) {
+        if (mutualSet.isEmpty() || members == null) return 0;
         int n = 0;
-        for (String e : g.getMemberEmails()) {
-            if (e != null && mutualSet.contains(e.toLowerCase())) n++;
+        for (String e : members) {
+            if (mutualSet.contains(e)) n++;
         }
         return n;
     }
@@ -439,11 +412,11 @@ public class CommunityDiscoverService {
      * createdAt → now. Mirrors MeService.lastActivityFor() so the
      * Discover and My-circles surfaces speak the same dialect.
      */
-    private static Instant lastActivityFor(Group g, Map<String, Instant> latestPostMap) {
-        Instant post = g.getGroupId() == null ? null : latestPostMap.get(g.getGroupId());
+    private static Instant lastActivityFor(GroupSummaryRow g, Map<String, Instant> latestPostMap) {
+        Instant post = g.groupId() == null ? null : latestPostMap.get(g.groupId());
         if (post != null) return post;
-        if (g.getUpdatedAt() != null) return g.getUpdatedAt();
-        if (g.getCreatedAt() != null) return g.getCreatedAt();
+        if (g.updatedAt() != null) return g.updatedAt();
+        if (g.createdAt() != null) return g.createdAt();
         return Instant.now();
     }
 
@@ -0,0 +1,227 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.Post;
+import io.sitprep.sitprepapi.domain.Post.PostStatus;
+import io.sitprep.sitprepapi.dto.PostDto;
+import io.sitprep.sitprepapi.util.GeoUtil;
+import io.sitprep.sitprepapi.util.LookupCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared, viewer-independent layers of the {@code /community} feed
+ * ({@code PostService.discoverCommunity}). Neighbors in the same few blocks
+ * asking for the same radius get the same candidate posts; only the block
+ * filter, each row's distance (and so the ranking), the follow tail and the
+ * viewer's own flags differ.
+ *
+ * <ul>
+ *   <li><b>Snapshots</b> ({@code community-feed}) — the candidate rows
+ *       for an {@link Area}: a {@link #CELL_DEG}-degree cell (~1.1 km), the
+ *       smallest {@link #BANDS_KM radius band} covering the request, and
+ *       the status set. The area reaches {@link #CELL_SLACK_KM} past the
+ *       band so every viewer in the cell is covered; the caller measures
+ *       each row from the viewer's exact position, drops what falls outside
+ *       the real radius and ranks the rest, since the distance term would
+ *       be off by up to a cell diagonal if ranked from the cell center.
+ *       Rows carry the tier / recency / engagement inputs, newest first.</li>
+ *   <li><b>Cards</b> ({@code community-feed-cards}) — each post enriched
+ *       with the viewer-independent folds (author, group attribution,
+ *       parent preview, counts), keyed by post id so a page only enriches
+ *       posts no recent page already did.</li>
+ * </ul>
+ *
+ * <p>Invalidation is event-driven from the post broadcasts in
+ * {@code WebSocketMessageSender}: an update drops the post's card and every
+ * snapshot that holds it or whose area covers its location (all of them
+ * for a geo-less post); a delete drops the card and the snapshots holding
+ * it; a reaction or comment drops just the card. The short TTLs bound
+ * anything the broadcasts miss (an author renaming themselves, a write on
+ * another instance). Requests wider than the largest band bypass the
+ * snapshot layer.</p>
+ */
+@Service
+public class CommunityFeedCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CommunityFeedCache.class);
+
+    /** Snapshot cell edge in degrees (~1.1 km of latitude). */
+    static final double CELL_DEG = 0.01;
+
+    /** Radius bands (km); a request shares the snapshot of the smallest band that covers it. */
+    static final double[] BANDS_KM = {2, 5, 10, 25, 50, 100};
+
+    /** Reach past the band so a viewer anywhere in the cell is covered (≥ half the cell diagonal). */
+    static final double CELL_SLACK_KM = 1.0;
+
+    /** Where a snapshot's posts come from: everything within {@code reachKm} of the center. */
+    public record Area(double centerLat, double centerLng, double reachKm, Set<PostStatus> statuses) {
+        boolean covers(double lat, double lng) {
+            return GeoUtil.haversineKm(centerLat, centerLng, lat, lng) <= reachKm;
+        }
+    }
+
+    /** Unranked base rows within an {@link Area}'s reach, newest first, without distances. */
+    public record Snapshot(Area area, List<PostDto> rows, Set<Long> ids) {
+        public Snapshot(Area area, List<PostDto> rows) {
+            this(area, List.copyOf(rows), rows.stream().map(PostDto::id)
+                    .filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet()));
+        }
+    }
+
+    private final LookupCache<Snapshot> snapshots;
+    private final LookupCache<PostDto> cards;
+
+    public CommunityFeedCache(
+            LookupCacheRegistry caches,
+            @Value("${community.feedCache.maxRows:20000}") long maxRows,
+            @Value("${community.feedCache.ttl:PT30S}") String ttl,
+            @Value("${community.feedCache.maxCards:5000}") long maxCards,
+            @Value("${community.feedCache.cardTtl:PT1M}") String cardTtl
+    ) {
+        // Snapshots weigh their row count; an empty area is a legitimate
+        // (cheap) answer, so it is cached for the normal TTL.
+        this.snapshots = caches.create("community-feed", maxRows, Duration.parse(ttl), Duration.parse(ttl),
+                s -> s.rows().size(), Objects::isNull);
+        this.cards = caches.create("community-feed-cards", maxCards, Duration.parse(cardTtl), Duration.ZERO,
+                c -> 1, Objects::isNull);
+    }
+
+    /**
+     * The snapshot for the area containing (lat, lng) at {@code radiusKm},
+     * built by {@code loader} on a miss. Radii past the largest band are
+     * loaded fresh every time, centered on the viewer.
+     */
+    public Snapshot snapshot(double lat, double lng, double radiusKm, Set<PostStatus> statuses,
+                             Function<Area, Snapshot> loader) {
+        double band = bandFor(radiusKm);
+        if (band < 0) return loader.apply(new Area(lat, lng, radiusKm, statuses));
+        long latCell = (long) Math.floor(lat / CELL_DEG);
+        long lngCell = (long) Math.floor(lng / CELL_DEG);
+        Area area = new Area((latCell + 0.5) * CELL_DEG, (lngCell + 0.5) * CELL_DEG,
+                band + CELL_SLACK_KM, statuses);
+        String key = latCell + ":" + lngCell + ":" + (int) band + ":" + statusKey(statuses);
+        return snapshots.get(key, () -> loader.apply(area));
+    }
+
+    /**
+     * Viewer-independent cards for {@code ids}; misses are enriched in one
+     * {@code loader} call. Posts the loader doesn't return are absent.
+     */
+    public Map<Long, PostDto> cards(Collection<Long> ids, Function<Set<Long>, Map<Long, PostDto>> loader) {
+        if (ids == null || ids.isEmpty()) return Map.of();
+        List<String> keys = ids.stream().filter(Objects::nonNull).distinct().map(String::valueOf).toList();
+        Map<String, PostDto> byKey = cards.getAll(keys, missing -> {
+            Set<Long> missingIds = missing.stream().map(Long::valueOf).collect(Collectors.toSet());
+            Map<String, PostDto> loaded = new HashMap<>();
+            loader.apply(missingIds).forEach((id, card) -> loaded.put(String.valueOf(id), card));
+            return loaded;
+        });
+        Map<Long, PostDto> out = new HashMap<>();
+        byKey.forEach((k, v) -> { if (v != null) out.put(Long.valueOf(k), v); });
+        return out;
+    }
+
+    /**
+     * A post was created or changed. A group-scope post only drops
+     * snapshots that still hold it (it may have just left community scope).
+     */
+    public void onPostChanged(PostDto dto) {
+        if (dto == null) return;
+        onPostChanged(dto.id(), dto.groupId(), dto.latitude(), dto.longitude());
+    }
+
+    /**
+     * {@link #onPostChanged} once the surrounding transaction commits, for
+     * writes outside {@code PostService}'s broadcast seam (agency alerts).
+     */
+    public void onPostChangedAfterCommit(Post p) {
+        if (p == null) return;
+        Long id = p.getId();
+        String groupId = p.getGroupId();
+        Double lat = p.getLatitude(), lng = p.getLongitude();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onPostChanged(id, groupId, lat, lng);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() {
+                onPostChanged(id, groupId, lat, lng);
+            }
+        });
+    }
+
+    private void onPostChanged(Long id, String groupId, Double lat, Double lng) {
+        if (id == null) return;
+        cards.invalidate(String.valueOf(id));
+        boolean community = groupId == null || groupId.isBlank();
+        int dropped;
+        if (!community) {
+            dropped = snapshots.invalidateIf(s -> s.ids().contains(id));
+        } else if (lat == null || lng == null) {
+            dropped = snapshots.invalidateIf(s -> true);
+        } else {
+            dropped = snapshots.invalidateIf(s -> s.ids().contains(id) || s.area().covers(lat, lng));
+        }
+        log.debug("CommunityFeedCache: post {} changed, dropped {} snapshots", id, dropped);
+    }
+
+    /** A post was deleted. */
+    public void onPostDeleted(Long postId) {
+        if (postId == null) return;
+        cards.invalidate(String.valueOf(postId));
+        snapshots.invalidateIf(s -> s.ids().contains(postId));
+    }
+
+    /** A post's reactions or comments changed — only its card carries those. */
+    public void onEngagementChanged(Long postId) {
+        if (postId == null) return;
+        cards.invalidate(String.valueOf(postId));
+    }
+
+    /**
+     * {@link #onEngagementChanged} once the surrounding transaction commits,
+     * for counts written outside the realtime broadcast seam (confirms).
+     */
+    public void onEngagementChangedAfterCommit(Long postId) {
+        if (postId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onEngagementChanged(postId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() {
+                onEngagementChanged(postId);
+            }
+        });
+    }
+
+    /** Smallest band ≥ {@code radiusKm}, or -1 when the radius is wider than every band. */
+    static double bandFor(double radiusKm) {
+        for (double b : BANDS_KM) {
+            if (radiusKm <= b) return b;
+        }
+        return -1;
+    }
+
+    private static String statusKey(Set<PostStatus> statuses) {
+        Set<String> names = new TreeSet<>();
+        for (PostStatus s : statuses) names.add(s.name());
+        return String.join(",", names);
+    }
+}
@@ -0,0 +1,360 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.Post;
+import io.sitprep.sitprepapi.domain.Post.PostStatus;
+import io.sitprep.sitprepapi.repo.PostRepo;
+import io.sitprep.sitprepapi.util.GeoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid index over live community-scope posts ({@code groupId IS
+ * NULL}, status in {@link #LIVE_STATUSES}) so
+ * {@code PostService.discoverCommunity} only touches the posts near the
+ * viewer instead of Haversine-ing every OPEN/CLAIMED row on every request.
+ * Closed history (DONE, CANCELLED, ...) grows without bound and the default
+ * feed never shows it, so it is kept out: the seed scan filters on status
+ * and a write that moves a post out of the live set removes its entry.
+ * Feed requests for other statuses go to the database instead (see
+ * {@link #covers}).
+ *
+ * <p><b>Layout:</b> the globe is cut into fixed {@link #CELL_DEG}-degree
+ * cells (~5.5 km of latitude). Each geo-tagged post lives in exactly one
+ * cell; geo-less posts (community-wide by construction) sit in a separate
+ * set that every query returns. A radius query walks only the cells that
+ * overlap the {@link GeoUtil#around} box, then runs the exact Haversine on
+ * the handful of posts inside them — so feed cost tracks local density,
+ * not total post count. Entries are tiny (id + coords + status); the rows
+ * themselves are still loaded from Postgres by id, so ranking, tiering and
+ * enrichment read the authoritative entity exactly as before.</p>
+ *
+ * <p><b>Maintenance:</b> {@code PostService} upserts after commit from its
+ * single broadcast seam (create / patch / claim / complete / cancel /
+ * reopen / civic status) and removes on delete; {@code AgencyAlertService}
+ * upserts the official post it writes. Anything that mutates {@code task}
+ * behind our back (nightly archival sweep, retention purge, manual SQL) is
+ * reconciled by the periodic {@link #scheduledRebuild}. A rebuild that
+ * overlaps live writes replays them on top of the fresh snapshot, so an
+ * upsert committed mid-rebuild is never lost.</p>
+ *
+ * <p><b>Per-pod state</b> — same v1 trade-off as {@link RateLimiterService}.
+ * The index is built lazily on the first feed request after boot (one
+ * narrow id/lat/lng/status scan) and every pod rebuilds independently.</p>
+ */
+@Service
+public class CommunityPostGeoIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CommunityPostGeoIndex.class);
+
+    /** Cell edge in degrees. 0.05° ≈ 5.5 km N–S; a 25 km feed radius spans ~100 cells. */
+    static final double CELL_DEG = 0.05;
+    private static final long LNG_CELLS = (long) Math.ceil(360.0 / CELL_DEG);
+
+    /** The statuses the community feed serves by default — the only ones indexed. */
+    public static final Set<PostStatus> LIVE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(PostStatus.OPEN, PostStatus.CLAIMED));
+
+    private final PostRepo postRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object buildLock = new Object();
+
+    // Guarded by `lock`.
+    private Map<Long, Entry> byId = new HashMap<>();
+    private Map<Long, Set<Long>> cells = new HashMap<>();
+    private Set<Long> geoless = new HashSet<>();
+    /** Non-null while a rebuild is reading the DB — live writes queue here for replay. */
+    private List<Mutation> replay;
+
+    private volatile boolean ready;
+
+    /** One indexed post. {@code cell} is {@link #NO_CELL} for geo-less rows. */
+    record Entry(long id, double lat, double lng, PostStatus status, long cell) {}
+
+    /** A live write captured during a rebuild; {@code entry == null} means remove. */
+    private record Mutation(long id, Entry entry) {}
+
+    private static final long NO_CELL = -1L;
+
+    public CommunityPostGeoIndex(PostRepo postRepo) {
+        this.postRepo = postRepo;
+    }
+
+    // ---------------------------------------------------------------------
+    // Reads
+    // ---------------------------------------------------------------------
+
+    /** Whether {@link #idsWithin} can answer for {@code statuses} (all of them live). */
+    public static boolean covers(Set<PostStatus> statuses) {
+        return statuses != null && !statuses.isEmpty() && LIVE_STATUSES.containsAll(statuses);
+    }
+
+    /**
+     * Ids of community posts with a status in {@code statuses} that are
+     * within {@code radiusKm} of the point, plus every geo-less community
+     * post with a matching status. Order is unspecified — callers re-rank.
+     *
+     * @throws IllegalArgumentException when {@code statuses} isn't
+     *         {@link #covers covered} — non-live posts aren't indexed, so the
+     *         answer would be silently empty.
+     */
+    public List<Long> idsWithin(double lat, double lng, double radiusKm, Set<PostStatus> statuses) {
+        if (!covers(statuses)) {
+            throw new IllegalArgumentException("geo index only holds " + LIVE_STATUSES + ", asked for " + statuses);
+        }
+        ensureReady();
+        GeoUtil.GeoBox box = GeoUtil.around(lat, lng, radiusKm);
+        long latLo = latIndex(box.latMin());
+        long latHi = latIndex(box.latMax());
+        long lngLo = lngIndex(box.lngMin());
+        long lngHi = lngIndex(box.lngMax());
+        long span = (latHi - latLo + 1) * (lngHi - lngLo + 1);
+
+        List<Long> out = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (span > cells.size()) {
+                // Huge radius (or a sparse index) — cheaper to walk the
+                // populated cells than to enumerate empty ones in the box.
+                for (Map.Entry<Long, Set<Long>> c : cells.entrySet()) {
+                    long key = c.getKey();
+                    long li = key / LNG_CELLS;
+                    long gi = key % LNG_CELLS;
+                    if (li < latLo || li > latHi || gi < lngLo || gi > lngHi) continue;
+                    collect(c.getValue(), lat, lng, radiusKm, statuses, out);
+                }
+            } else {
+                for (long li = latLo; li <= latHi; li++) {
+                    for (long gi = lngLo; gi <= lngHi; gi++) {
+                        Set<Long> ids = cells.get(li * LNG_CELLS + gi);
+                        if (ids != null) collect(ids, lat, lng, radiusKm, statuses, out);
+                    }
+                }
+            }
+            for (Long id : geoless) {
+                Entry e = byId.get(id);
+                if (e != null && statuses.contains(e.status())) out.add(id);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return out;
+    }
+
+    private void collect(Set<Long> ids, double lat, double lng, double radiusKm,
+                         Set<PostStatus> statuses, List<Long> out) {
+        for (Long id : ids) {
+            Entry e = byId.get(id);
+            if (e == null || !statuses.contains(e.status())) continue;
+            if (GeoUtil.haversineKm(lat, lng, e.lat(), e.lng()) <= radiusKm) out.add(id);
+        }
+    }
+
+    /** Number of indexed posts — for logs and tests. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Writes
+    // ---------------------------------------------------------------------
+
+    /** Index (or re-index) a post from its current entity state. */
+    public void upsert(Post p) {
+        if (p == null) return;
+        upsert(p.getId(), p.getGroupId(), p.getLatitude(), p.getLongitude(), p.getStatus());
+    }
+
+    /**
+     * Index (or re-index) a post. Group-scope posts are never in the
+     * community feed, and closed ones aren't indexed, so a non-null
+     * {@code groupId} or a status outside {@link #LIVE_STATUSES} removes the
+     * id instead.
+     */
+    public void upsert(Long id, String groupId, Double lat, Double lng, PostStatus status) {
+        if (id == null) return;
+        if (groupId != null || status == null || !LIVE_STATUSES.contains(status)) {
+            remove(id);
+            return;
+        }
+        apply(new Mutation(id, toEntry(id, lat, lng, status)));
+    }
+
+    public void remove(Long id) {
+        if (id == null) return;
+        apply(new Mutation(id, null));
+    }
+
+    /**
+     * {@link #upsert(Post)} once the surrounding transaction commits (or
+     * immediately when there is none), so a rolled-back write never shows
+     * up in the feed. For callers outside {@code PostService}'s broadcast
+     * seam.
+     */
+    public void upsertAfterCommit(Post p) {
+        if (p == null) return;
+        Long id = p.getId();
+        String groupId = p.getGroupId();
+        Double lat = p.getLatitude();
+        Double lng = p.getLongitude();
+        PostStatus status = p.getStatus();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            upsert(id, groupId, lat, lng, status);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() {
+                upsert(id, groupId, lat, lng, status);
+            }
+        });
+    }
+
+    private void apply(Mutation m) {
+        lock.writeLock().lock();
+        try {
+            applyTo(byId, cells, geoless, m);
+            if (replay != null) replay.add(m);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void applyTo(Map<Long, Entry> byId, Map<Long, Set<Long>> cells,
+                                Set<Long> geoless, Mutation m) {
+        Entry prev = byId.remove(m.id());
+        if (prev != null) {
+            if (prev.cell() == NO_CELL) {
+                geoless.remove(prev.id());
+            } else {
+                Set<Long> ids = cells.get(prev.cell());
+                if (ids != null) {
+                    ids.remove(prev.id());
+                    if (ids.isEmpty()) cells.remove(prev.cell());
+                }
+            }
+        }
+        Entry e = m.entry();
+        if (e == null) return;
+        byId.put(e.id(), e);
+        if (e.cell() == NO_CELL) {
+            geoless.add(e.id());
+        } else {
+            cells.computeIfAbsent(e.cell(), k -> new HashSet<>()).add(e.id());
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Build / reconcile
+    // ---------------------------------------------------------------------
+
+    /**
+     * Reconcile against Postgres every {@code community.geoindex.rebuildMs}
+     * (default 10 min). Catches writes that bypass the service seams.
+     * Skipped until the first feed request has built the index, so an idle
+     * pod never pays for it.
+     */
+    @Scheduled(
+            fixedDelayString = "${community.geoindex.rebuildMs:600000}",
+            initialDelayString = "${community.geoindex.rebuildMs:600000}")
+    public void scheduledRebuild() {
+        if (!ready) return;
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("CommunityPostGeoIndex: reconcile failed, keeping current index: {}", e.getMessage());
+        }
+    }
+
+    private void ensureReady() {
+        if (ready) return;
+        synchronized (buildLock) {
+            if (!ready) rebuild();
+        }
+    }
+
+    /** Full rebuild from a narrow id/lat/lng/status scan of the live posts. */
+    public void rebuild() {
+        synchronized (buildLock) {
+            long started = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                replay = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Map<Long, Entry> nextById = new HashMap<>();
+            Map<Long, Set<Long>> nextCells = new HashMap<>();
+            Set<Long> nextGeoless = new HashSet<>();
+            try {
+                for (Object[] row : postRepo.findCommunityGeoRows(LIVE_STATUSES)) {
+                    if (row == null || row.length < 4 || row[0] == null || row[3] == null) continue;
+                    if (!LIVE_STATUSES.contains((PostStatus) row[3])) continue;
+                    long id = (Long) row[0];
+                    Entry e = toEntry(id, (Double) row[1], (Double) row[2], (PostStatus) row[3]);
+                    applyTo(nextById, nextCells, nextGeoless, new Mutation(id, e));
+                }
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    replay = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Mutation m : replay) applyTo(nextById, nextCells, nextGeoless, m);
+                byId = nextById;
+                cells = nextCells;
+                geoless = nextGeoless;
+                replay = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("CommunityPostGeoIndex: indexed {} posts across {} cells in {} ms",
+                    nextById.size(), nextCells.size(), System.currentTimeMillis() - started);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Cell math
+    // ---------------------------------------------------------------------
+
+    private static Entry toEntry(long id, Double lat, Double lng, PostStatus status) {
+        if (!GeoUtil.validLatLng(lat, lng)) {
+            return new Entry(id, 0, 0, status, NO_CELL);
+        }
+        return new Entry(id, lat, lng, status, latIndex(lat) * LNG_CELLS + lngIndex(lng));
+    }
+
+    private static long latIndex(double lat) {
+        return Math.min((long) Math.floor((lat + 90.0) / CELL_DEG), (long) Math.ceil(180.0 / CELL_DEG) - 1);
+    }
+
+    private static long lngIndex(double lng) {
+        return Math.min((long) Math.floor((lng + 180.0) / CELL_DEG), LNG_CELLS - 1);
+    }
+}
@@ -4,24 +4,31 @@ import io.sitprep.sitprepapi.domain.DmMessage;
 import io.sitprep.sitprepapi.domain.DmThread;
 import io.sitprep.sitprepapi.domain.UserInfo;
 import io.sitprep.sitprepapi.dto.DmDtos.DmMessageDto;
+import io.sitprep.sitprepapi.dto.DmDtos.DmMessagePage;
 import io.sitprep.sitprepapi.dto.DmDtos.DmThreadDto;
 import io.sitprep.sitprepapi.dto.DmDtos.PeerDto;
 import io.sitprep.sitprepapi.dto.DtoImages;
+import io.sitprep.sitprepapi.repo.DmInboxRow;
 import io.sitprep.sitprepapi.repo.DmMessageRepo;
 import io.sitprep.sitprepapi.repo.DmThreadRepo;
 import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.repo.UserProfileCard;
 import io.sitprep.sitprepapi.service.PushPolicyService.Category;
 import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -38,12 +45,21 @@ import java.util.Optional;
  *
  * <p>Blocks are absolute: any block in either direction 403s the send.
  * Reads (inbox / thread) are participant-gated.</p>
+ *
+ * <p>Reads stay flat as threads age: history pages by keyset on
+ * {@code (createdAt, id)}, reconnecting clients pull only the delta via
+ * {@link #since}, and the inbox is one statement (last message + unread
+ * count per thread) with peers from {@link ProfileCardService}.</p>
  */
 @Service
 public class DmService {
 
     private static final Logger log = LoggerFactory.getLogger(DmService.class);
     private static final int BODY_MAX = 4000;
+    private static final int PAGE_DEFAULT = 50;
+    private static final int PAGE_MAX = 200;
+    private static final int SYNC_DEFAULT = 200;
+    private static final int SYNC_MAX = 500;
 
     private final DmThreadRepo threadRepo;
     private final DmMessageRepo messageRepo;
@@ -51,19 +67,22 @@ public class DmService {
     private final BlockService blockService;
     private final WebSocketMessageSender webSocketMessageSender;
     private final NotificationService notificationService;
+    private final ProfileCardService profileCards;
 
     public DmService(DmThreadRepo threadRepo,
                      DmMessageRepo messageRepo,
                      UserInfoRepo userInfoRepo,
                      BlockService blockService,
                      WebSocketMessageSender webSocketMessageSender,
-                     NotificationService notificationService) {
+                     NotificationService notificationService,
+                     ProfileCardService profileCards) {
         this.threadRepo = threadRepo;
         this.messageRepo = messageRepo;
         this.userInfoRepo = userInfoRepo;
         this.blockService = blockService;
         this.webSocketMessageSender = webSocketMessageSender;
         this.notificationService = notificationService;
+        this.profileCards = profileCards;
     }
 
     // ------------------------------------------------------------------
@@ -73,18 +92,62 @@ public class DmService {
     @Transactional(readOnly = true)
     public List<DmThreadDto> inbox(String viewerEmail) {
         String viewer = normalize(viewerEmail);
-        return threadRepo.findInbox(viewer).stream()
-                .map(t -> toThreadDto(t, viewer))
+        List<DmInboxRow> rows = threadRepo.findInboxRows(viewer);
+        Map<String, UserProfileCard> peers = profileCards.cardsFor(
+                rows.stream().map(r -> peerOf(r, viewer)).distinct().toList());
+        return rows.stream()
+                .map(r -> toThreadDto(r, viewer, peers.get(peerOf(r, viewer))))
                 .toList();
     }
 
+    /**
+     * One page of a thread, oldest → newest. Without a cursor it's the newest
+     * {@code limit} messages; pass the first (oldest) message's
+     * {@code createdAt} / {@code id} back as {@code before} / {@code beforeId}
+     * for the page above it. {@code limit} defaults to 50 (max 200);
+     * {@code hasMore} is false once the page reaches the top of the thread.
+     * One extra row is read to tell.
+     */
     @Transactional(readOnly = true)
-    public List<DmMessageDto> messages(Long threadId, String viewerEmail) {
+    public DmMessagePage messages(Long threadId, String viewerEmail,
+                                  Instant before, Long beforeId, Integer limit) {
         DmThread thread = requireParticipant(threadId, normalize(viewerEmail));
-        return messageRepo.findByThreadIdOrderByCreatedAtAsc(thread.getId())
-                .stream()
+        int size = clamp(limit, PAGE_DEFAULT, PAGE_MAX);
+        Pageable page = PageRequest.of(0, size + 1);
+        List<DmMessage> newestFirst = before == null
+                ? messageRepo.findByThreadIdOrderByCreatedAtDescIdDesc(thread.getId(), page)
+                : messageRepo.findPageBefore(thread.getId(), before,
+                        beforeId == null ? Long.MAX_VALUE : beforeId, page);
+        boolean hasMore = newestFirst.size() > size;
+        int n = Math.min(size, newestFirst.size());
+        List<DmMessageDto> out = new ArrayList<>(n);
+        for (int i = n - 1; i >= 0; i--) {
+            out.add(toMessageDto(newestFirst.get(i)));
+        }
+        return new DmMessagePage(out, hasMore);
+    }
+
+    /**
+     * Reconnect delta: messages in any of the viewer's threads newer than
+     * {@code (since, afterId)}, oldest → newest. Pass the last message's
+     * {@code createdAt} / {@code id} back to continue while {@code hasMore}.
+     * Omitting {@code afterId} includes messages stamped exactly at
+     * {@code since}; clients dedupe by id.
+     */
+    @Transactional(readOnly = true)
+    public DmMessagePage since(String viewerEmail, Instant since, Long afterId, Integer limit) {
+        String viewer = normalize(viewerEmail);
+        if (since == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must be an ISO-8601 instant");
+        }
+        int size = clamp(limit, SYNC_DEFAULT, SYNC_MAX);
+        List<DmMessage> rows = messageRepo.findForViewerSince(viewer, since, afterId == null ? 0L : afterId,
+                PageRequest.of(0, size + 1));
+        List<DmMessageDto> out = rows.stream()
+                .limit(size)
                 .map(DmService::toMessageDto)
                 .toList();
+        return new DmMessagePage(out, rows.size() > size);
     }
 
     // ------------------------------------------------------------------
@@ -189,40 +252,38 @@ public class DmService {
         return thread;
     }
 
-    private DmThreadDto toThreadDto(DmThread thread, String viewer) {
-        boolean viewerIsA = viewer.equals(thread.getParticipantAEmail());
-        String peerEmail = viewerIsA
-                ? thread.getParticipantBEmail()
-                : thread.getParticipantAEmail();
-        Instant watermark = viewerIsA ? thread.getALastReadAt() : thread.getBLastReadAt();
-
-        DmMessageDto last = messageRepo
-                .findFirstByThreadIdOrderByCreatedAtDesc(thread.getId())
-                .map(DmService::toMessageDto)
-                .orElse(null);
-
-        long unread = watermark == null
-                ? messageRepo.countByThreadIdAndSenderEmailNot(thread.getId(), viewer)
-                : messageRepo.countByThreadIdAndSenderEmailNotAndCreatedAtAfter(
-                        thread.getId(), viewer, watermark);
+    private static String peerOf(DmInboxRow row, String viewer) {
+        return viewer.equals(row.participantAEmail())
+                ? row.participantBEmail()
+                : row.participantAEmail();
+    }
 
+    private static DmThreadDto toThreadDto(DmInboxRow row, String viewer, UserProfileCard peer) {
+        boolean viewerIsA = viewer.equals(row.participantAEmail());
+        Instant watermark = viewerIsA ? row.aLastReadAt() : row.bLastReadAt();
+        DmMessageDto last = row.lastMessageId() == null ? null
+                : new DmMessageDto(row.lastMessageId(), row.threadId(),
+                        row.lastMessageSenderEmail(), row.lastMessageBody(), row.lastMessageCreatedAt());
         return new DmThreadDto(
-                thread.getId(), peerDtoFor(peerEmail), last, unread, watermark);
+                row.threadId(), peerDtoFor(peerOf(row, viewer), peer), last, row.unreadCount(), watermark);
     }
 
-    private PeerDto peerDtoFor(String peerEmail) {
-        UserInfo peer = userInfoRepo.findByUserEmailIgnoreCase(peerEmail).orElse(null);
+    private static PeerDto peerDtoFor(String peerEmail, UserProfileCard peer) {
         if (peer == null) {
             return new PeerDto(null, peerEmail, peerEmail, null);
         }
-        String name = ((peer.getUserFirstName() == null ? "" : peer.getUserFirstName())
+        String name = ((peer.firstName() == null ? "" : peer.firstName())
                 + " "
-                + (peer.getUserLastName() == null ? "" : peer.getUserLastName())).trim();
+                + (peer.lastName() == null ? "" : peer.lastName())).trim();
         return new PeerDto(
-                peer.getId(),
+                peer.id(),
                 peerEmail,
                 name.isBlank() ? peerEmail : name,
-                DtoImages.avatar(peer.getProfileImageUrl()));
+                DtoImages.avatar(peer.profileImageUrl()));
+    }
+
+    private static int clamp(Integer limit, int dflt, int max) {
+        return limit == null ? dflt : Math.max(1, Math.min(max, limit));
     }
 
     /**
@@ -2,6 +2,7 @@ package io.sitprep.sitprepapi.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sitprep.sitprepapi.util.LookupCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,8 +17,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
 
 /**
  * Free, key-less address geocoding via OpenStreetMap Nominatim — backs
@@ -32,7 +32,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * </ul>
  *
  * <p>Per the Nominatim usage policy this sends a real {@code User-Agent}
- * and caches aggressively (6 h on success). Never throws — returns an
+ * and caches aggressively (6 h on success) in bounded, single-flight
+ * {@link LookupCache}s from {@link LookupCacheRegistry}. Never throws — returns an
  * empty list / null on any upstream failure. The FE additionally
  * debounces type-ahead input so we stay well under the ~1 req/s rate.</p>
  *
@@ -54,21 +55,31 @@ public class GeocodeService {
     private static final int DEFAULT_LIMIT = 5;
     private static final int MAX_LIMIT = 8;
 
-    private static final long TTL_OK_MS = Duration.ofHours(6).toMillis();
-    private static final long TTL_FAIL_MS = Duration.ofMinutes(5).toMillis();
+    private static final Duration TTL_OK = Duration.ofHours(6);
+    private static final Duration TTL_FAIL = Duration.ofMinutes(5);
+    /** Forward results weigh their suggestion count (≤ 8), so this is ~4-5k queries. */
+    private static final long MAX_FORWARD_WEIGHT = 25_000;
+    private static final long MAX_REVERSE_ENTRIES = 10_000;
     /** ~0.0005° ≈ 55 m buckets — fine enough that a "use my location" fix
      *  resolves to the right building, coarse enough to coalesce repeats. */
     private static final double Q = 0.0005;
 
     private final ObjectMapper objectMapper;
     private final RestTemplate rest;
-    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final LookupCache<List<Suggestion>> forwardCache;
+    private final LookupCache<Suggestion> reverseCache;
 
     @Value("${nominatim.user-agent:SitPrep/1.0 (contact@sitprep.app)}")
     private String userAgent;
 
-    public GeocodeService(ObjectMapper objectMapper) {
+    public GeocodeService(ObjectMapper objectMapper, LookupCacheRegistry caches) {
         this.objectMapper = objectMapper;
+        // An empty type-ahead result is cached on the short TTL — it is far
+        // more often a transient upstream miss than a truly empty address.
+        this.forwardCache = caches.create("geocode-forward", MAX_FORWARD_WEIGHT, TTL_OK, TTL_FAIL,
+                List::size, List::isEmpty);
+        this.reverseCache = caches.create("geocode-reverse", MAX_REVERSE_ENTRIES, TTL_OK, TTL_FAIL,
+                x -> 1, Objects::isNull);
         var factory = new org.springframework.http.client.SimpleClientHttpRequestFactory();
         factory.setConnectTimeout(5_000);
         factory.setReadTimeout(10_000);
@@ -76,17 +87,16 @@ public class GeocodeService {
     }
 
     /** Forward type-ahead: free text → up to {@code limit} US address candidates. */
-    @SuppressWarnings("unchecked")
     public List<Suggestion> forwardSearch(String query, Integer limit) {
         if (query == null || query.isBlank() || query.trim().length() < 3) return List.of();
         int lim = (limit == null || limit < 1) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
 
-        String key = "f|" + query.trim().toLowerCase(Locale.US) + "|" + lim;
-        CacheEntry cached = cache.get(key);
-        if (cached != null && !cached.isExpired()) return (List<Suggestion>) cached.payload;
+        String key = query.trim().toLowerCase(Locale.US) + "|" + lim;
+        return forwardCache.get(key, () -> fetchForward(query, lim));
+    }
 
+    private List<Suggestion> fetchForward(String query, int lim) {
         List<Suggestion> out = new ArrayList<>();
-        long ttl = TTL_FAIL_MS;
         try {
             URI uri = URI.create(SEARCH
                     + "?format=jsonv2&addressdetails=1&countrycodes=us"
@@ -102,26 +112,24 @@ public class GeocodeService {
                         out.add(new Suggestion(label, la, lo));
                     }
                 }
-                ttl = TTL_OK_MS;
             }
         } catch (Exception e) {
             log.debug("Nominatim forward search failed for '{}': {}", query, e.getMessage());
         }
-        cache.put(key, new CacheEntry(out, System.currentTimeMillis() + ttl));
-        return out;
+        return List.copyOf(out);
     }
 
     /** Reverse: coordinates → single best full-address label, or null. */
     public Suggestion reverse(Double lat, Double lng) {
         if (lat == null || lng == null || !Double.isFinite(lat) || !Double.isFinite(lng)) return null;
 
-        String key = String.format(Locale.US, "r|%.4f|%.4f",
+        String key = String.format(Locale.US, "%.4f|%.4f",
                 Math.round(lat / Q) * Q, Math.round(lng / Q) * Q);
-        CacheEntry cached = cache.get(key);
-        if (cached != null && !cached.isExpired()) return (Suggestion) cached.payload;
+        return reverseCache.get(key, () -> fetchReverse(lat, lng));
+    }
 
+    private Suggestion fetchReverse(double lat, double lng) {
         Suggestion s = null;
-        long ttl = TTL_FAIL_MS;
         try {
             for (int zoom : new int[] { 18, 17, 16 }) {
                 URI uri = URI.create(REVERSE
@@ -133,7 +141,6 @@ public class GeocodeService {
                     String label = text(root, "display_name");
                     if (label != null) {
                         s = new Suggestion(label, lat, lng);
-                        ttl = TTL_OK_MS;
                         break;
                     }
                 }
@@ -141,7 +148,6 @@ public class GeocodeService {
         } catch (Exception e) {
             log.debug("Nominatim reverse failed at {},{}: {}", lat, lng, e.getMessage());
         }
-        cache.put(key, new CacheEntry(s, System.currentTimeMillis() + ttl));
         return s;
     }
 
@@ -164,14 +170,4 @@ public class GeocodeService {
         String s = v.asText(null);
         return (s == null || s.isBlank()) ? null : s.trim();
     }
-
-    private static final class CacheEntry {
-        final Object payload;
-        final long expiresAtMs;
-        CacheEntry(Object payload, long expiresAtMs) {
-            this.payload = payload;
-            this.expiresAtMs = expiresAtMs;
-        }
-        boolean isExpired() { return System.currentTimeMillis() > expiresAtMs; }
-    }
 }
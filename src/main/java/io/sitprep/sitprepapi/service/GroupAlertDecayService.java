@@ -73,6 +73,7 @@ public class GroupAlertDecayService {
     private final UserInfoRepo userInfoRepo;
     private final NotificationService notificationService;
     private final WebSocketMessageSender webSocketMessageSender;
+    private final AccountabilityRollupService rollups;
 
     /**
      * Threshold for the auto-decay sweep. Default is 48h, matching
@@ -90,12 +91,14 @@ public class GroupAlertDecayService {
                                   HouseholdEventService householdEventService,
                                   UserInfoRepo userInfoRepo,
                                   NotificationService notificationService,
-                                  WebSocketMessageSender webSocketMessageSender) {
+                                  WebSocketMessageSender webSocketMessageSender,
+                                  AccountabilityRollupService rollups) {
         this.groupRepo = groupRepo;
         this.householdEventService = householdEventService;
         this.userInfoRepo = userInfoRepo;
         this.notificationService = notificationService;
         this.webSocketMessageSender = webSocketMessageSender;
+        this.rollups = rollups;
     }
 
     /**
@@ -177,6 +180,7 @@ public class GroupAlertDecayService {
             @Override public void afterCommit() {
                 for (GroupAlertFrame frame : frames) {
                     webSocketMessageSender.sendGroupAlertStatus(frame.groupId(), frame);
+                    rollups.alertEndedAfterCommit(frame.groupId());
                 }
             }
         });
@@ -199,23 +203,9 @@ public class GroupAlertDecayService {
         String targetUrl = GroupUrlUtil.getGroupTargetUrl(group);
 
         List<UserInfo> users = userInfoRepo.findByUserEmailIn(recipientEmails);
-        for (UserInfo user : users) {
-            String token = user.getFcmtoken();
-            notificationService.deliverPresenceAwareForGroup(
-                    user.getUserEmail(),
-                    title,
-                    body,
-                    owner,
-                    "/images/group-alert-icon.png",
-                    type,
-                    referenceId,
-                    targetUrl,
-                    null,
-                    token,
-                    group.getGroupId(),
-                    Category.CHECK_IN_REVIEW
-            );
-        }
+        notificationService.fanOut(new NotificationService.GroupFanout(
+                type, Category.CHECK_IN_REVIEW, title, body, owner, "/images/group-alert-icon.png",
+                referenceId, targetUrl, null, /* actorUserId */ null, group.getGroupId()), users, null);
         log.info("GroupAlertDecay: continue-prompt fanned out to {} admins/owners of group {}",
                 users.size(), group.getGroupId());
     }
@@ -210,23 +210,9 @@ public class GroupCheckInReminderService {
                 ? List.of()
                 : userInfoRepo.findByUserEmailIn(group.getMemberEmails());
         body = rollupBody(body, members, group);
-        for (UserInfo user : users) {
-            String token = user.getFcmtoken();
-            notificationService.deliverPresenceAwareForGroup(
-                    user.getUserEmail(),
-                    title,
-                    body,
-                    owner,
-                    "/images/group-alert-icon.png",
-                    type,
-                    referenceId,
-                    targetUrl,
-                    null,
-                    token,
-                    group.getGroupId(),
-                    Category.CHECK_IN_REVIEW
-            );
-        }
+        notificationService.fanOut(new NotificationService.GroupFanout(
+                type, Category.CHECK_IN_REVIEW, title, body, owner, "/images/group-alert-icon.png",
+                referenceId, targetUrl, null, /* actorUserId */ null, group.getGroupId()), users, null);
 
         if (HouseholdEventService.HOUSEHOLD_GROUP_TYPE.equalsIgnoreCase(group.getGroupType())) {
             try {
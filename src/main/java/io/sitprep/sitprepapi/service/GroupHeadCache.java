@@ -0,0 +1,80 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.repo.GroupPostRepo;
+import io.sitprep.sitprepapi.repo.GroupPostSummaryRow;
+import io.sitprep.sitprepapi.util.LookupCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The "head" of each group's post stream — the few newest posts and the
+ * pinned set, as {@link GroupPostSummaryRow}s — shared by every member
+ * opening the group view ({@code GroupViewService}). During an incident
+ * the whole roster keeps reopening the same group; the head is read once
+ * per change instead of once per open.
+ *
+ * <p>Rows are viewer-independent: author names are folded in by the
+ * caller from the roster it already loaded. {@code GroupPostService}'s
+ * create / edit / delete / pin / unpin paths drop the group's head after
+ * commit; a load of that group that raced the write isn't cached, so it
+ * can't re-seed the stale head. The TTL bounds
+ * what the hooks miss (writes on another instance).</p>
+ */
+@Service
+public class GroupHeadCache {
+
+    /** Newest posts kept per group — what the member view's recent strip shows. */
+    public static final int RECENT_LIMIT = 5;
+
+    /** Recent posts newest first (may include pinned ones), and the pinned set newest pin first. */
+    public record Head(List<GroupPostSummaryRow> recent, List<GroupPostSummaryRow> pinned) {
+        public Head {
+            recent = List.copyOf(recent);
+            pinned = List.copyOf(pinned);
+        }
+    }
+
+    private final GroupPostRepo postRepo;
+    private final LookupCache<Head> heads;
+
+    public GroupHeadCache(
+            GroupPostRepo postRepo,
+            LookupCacheRegistry caches,
+            @Value("${sitprep.group-head.max-entries:10000}") long maxEntries,
+            @Value("${sitprep.group-head.ttl:PT5M}") String ttl
+    ) {
+        this.postRepo = postRepo;
+        // A group with no posts is a legitimate (cheap) head; it is never null.
+        this.heads = caches.create("group-head", maxEntries, Duration.parse(ttl), Duration.ZERO,
+                h -> 1, Objects::isNull);
+    }
+
+    /** The head of {@code groupId}, loaded with two bounded queries on a miss. */
+    public Head head(String groupId) {
+        if (groupId == null || groupId.isBlank()) return new Head(List.of(), List.of());
+        return heads.get(groupId, () -> new Head(
+                postRepo.findRecentSummariesByGroupId(groupId, PageRequest.of(0, RECENT_LIMIT)),
+                postRepo.findPinnedSummariesByGroupId(groupId)));
+    }
+
+    /** Drop {@code groupId}'s head once the surrounding transaction commits. */
+    public void evictAfterCommit(String groupId) {
+        if (groupId == null || groupId.isBlank()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            heads.invalidate(groupId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() {
+                heads.invalidate(groupId);
+            }
+        });
+    }
+}
@@ -0,0 +1,265 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sentry.Sentry;
+import io.sitprep.sitprepapi.domain.Group;
+import io.sitprep.sitprepapi.repo.GroupRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory, bidirectional group membership index: group → (type, members)
+ * and member → group IDs. Realtime fan-out (status taps, location frames)
+ * resolves its target groups with a hash lookup instead of
+ * {@code groupRepo.findByMemberEmail}, which hydrates every group with all
+ * of its collections just to read the IDs.
+ *
+ * <p>Built from two narrow projections ({@link GroupRepo#findGroupTypeRows},
+ * {@link GroupRepo#findMembershipRows}) on a background tick shortly after
+ * boot, and rebuilt every {@code sitprep.membership.refresh-interval}.
+ * {@link GroupService}'s join / approve / remove / update / delete paths
+ * patch it after commit, so changes made on this instance show up
+ * immediately; the periodic rebuild picks up other instances and the
+ * less frequent mutation paths (household provisioning, account deletion,
+ * agency onboarding). A patch that lands while a rebuild is loading is
+ * replayed onto the new snapshot, so a rebuild never rolls one back.</p>
+ *
+ * <p>Until the first build completes, lookups fall back to a narrow
+ * per-email query. Emails are keyed lowercased.</p>
+ */
+@Service
+public class GroupMembershipIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupMembershipIndex.class);
+
+    /** One group the member belongs to, with the type the sharing gate needs. */
+    public record Membership(String groupId, String groupType) {}
+
+    private record GroupEntry(String groupType, Set<String> members) {}
+
+    private record State(ConcurrentMap<String, GroupEntry> groups,
+                         ConcurrentMap<String, Set<String>> byMember) {
+        static State empty() {
+            return new State(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private final GroupRepo groupRepo;
+
+    private volatile State state = State.empty();
+    private volatile boolean ready;
+
+    // Guarded by this: patches applied while a rebuild is loading.
+    private List<Consumer<State>> journal;
+
+    public GroupMembershipIndex(GroupRepo groupRepo) {
+        this.groupRepo = groupRepo;
+    }
+
+    // ------------------------------------------------------------------ reads
+
+    /** IDs of every group {@code email} is a member of; never null. */
+    public Set<String> groupIdsOf(String email) {
+        String key = normalize(email);
+        if (key == null) return Set.of();
+        if (!ready) {
+            Set<String> ids = new HashSet<>();
+            for (Membership m : loadMemberships(key)) ids.add(m.groupId());
+            return ids;
+        }
+        Set<String> ids = state.byMember().get(key);
+        return ids == null ? Set.of() : Set.copyOf(ids);
+    }
+
+    /** Every group {@code email} is a member of, with its type; never null. */
+    public List<Membership> membershipsOf(String email) {
+        String key = normalize(email);
+        if (key == null) return List.of();
+        if (!ready) return loadMemberships(key);
+        State s = state;
+        Set<String> ids = s.byMember().get(key);
+        if (ids == null) return List.of();
+        List<Membership> out = new ArrayList<>(ids.size());
+        for (String groupId : ids) {
+            GroupEntry g = s.groups().get(groupId);
+            if (g != null) out.add(new Membership(groupId, g.groupType()));
+        }
+        return out;
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    // ---------------------------------------------------------------- patches
+
+    /** After commit, record {@code email} joining {@code group}. */
+    public void memberAddedAfterCommit(Group group, String email) {
+        if (group == null || group.getGroupId() == null) return;
+        String groupId = group.getGroupId();
+        String groupType = group.getGroupType();
+        String key = normalize(email);
+        if (key == null) return;
+        afterCommit(() -> apply(s -> addMember(s, groupId, groupType, key)));
+    }
+
+    /** After commit, record {@code email} leaving the group. */
+    public void memberRemovedAfterCommit(String groupId, String email) {
+        String key = normalize(email);
+        if (groupId == null || key == null) return;
+        afterCommit(() -> apply(s -> removeMember(s, groupId, key)));
+    }
+
+    /**
+     * After commit, replace the group's type and whole roster with the
+     * state {@code group} holds now — for edits that rewrite the member
+     * list wholesale. The roster is copied here, not at commit time.
+     */
+    public void groupSavedAfterCommit(Group group) {
+        if (group == null || group.getGroupId() == null) return;
+        String groupId = group.getGroupId();
+        String groupType = group.getGroupType();
+        Set<String> members = new HashSet<>();
+        if (group.getMemberEmails() != null) {
+            for (String m : group.getMemberEmails()) {
+                String key = normalize(m);
+                if (key != null) members.add(key);
+            }
+        }
+        afterCommit(() -> apply(s -> replaceGroup(s, groupId, groupType, members)));
+    }
+
+    /** After commit, forget the group entirely. */
+    public void groupDeletedAfterCommit(String groupId) {
+        if (groupId == null) return;
+        afterCommit(() -> apply(s -> replaceGroup(s, groupId, null, null)));
+    }
+
+    // ---------------------------------------------------------------- rebuild
+
+    /**
+     * Reload the whole index from the database. The first tick runs a few
+     * seconds after boot so the build stays off the startup path.
+     */
+    @Scheduled(fixedDelayString = "${sitprep.membership.refresh-interval:PT1M}",
+            initialDelayString = "${sitprep.membership.initial-delay:PT5S}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; the next tick retries.
+            log.warn("GroupMembershipIndex: rebuild failed: {}", e.getMessage(), e);
+            try { Sentry.captureException(e); } catch (Throwable ignored) {}
+        }
+    }
+
+    void rebuild() {
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        State next = State.empty();
+        try {
+            for (Object[] row : groupRepo.findGroupTypeRows()) {
+                String groupId = (String) row[0];
+                if (groupId != null) {
+                    next.groups().put(groupId, new GroupEntry((String) row[1], ConcurrentHashMap.newKeySet()));
+                }
+            }
+            for (Object[] row : groupRepo.findMembershipRows()) {
+                String groupId = (String) row[0];
+                String key = normalize((String) row[1]);
+                GroupEntry g = groupId == null ? null : next.groups().get(groupId);
+                if (g == null || key == null) continue;
+                g.members().add(key);
+                next.byMember().computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(groupId);
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                journal = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (Consumer<State> patch : journal) patch.accept(next);
+            journal = null;
+            state = next;
+            ready = true;
+        }
+        log.debug("GroupMembershipIndex: rebuilt {} groups, {} members",
+                next.groups().size(), next.byMember().size());
+    }
+
+    // --------------------------------------------------------------- internals
+
+    private synchronized void apply(Consumer<State> patch) {
+        patch.accept(state);
+        if (journal != null) journal.add(patch);
+    }
+
+    private static void addMember(State s, String groupId, String groupType, String email) {
+        GroupEntry g = s.groups().computeIfAbsent(groupId,
+                k -> new GroupEntry(groupType, ConcurrentHashMap.newKeySet()));
+        g.members().add(email);
+        s.byMember().computeIfAbsent(email, k -> ConcurrentHashMap.newKeySet()).add(groupId);
+    }
+
+    private static void removeMember(State s, String groupId, String email) {
+        GroupEntry g = s.groups().get(groupId);
+        if (g != null) g.members().remove(email);
+        s.byMember().computeIfPresent(email, (k, ids) -> {
+            ids.remove(groupId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /** Swap in a new roster for {@code groupId}; a null roster drops the group. */
+    private static void replaceGroup(State s, String groupId, String groupType, Collection<String> members) {
+        GroupEntry old = s.groups().remove(groupId);
+        if (old != null) {
+            for (String email : old.members()) removeMember(s, groupId, email);
+        }
+        if (members == null) return;
+        s.groups().put(groupId, new GroupEntry(groupType, ConcurrentHashMap.newKeySet()));
+        for (String email : members) addMember(s, groupId, groupType, email);
+    }
+
+    private List<Membership> loadMemberships(String email) {
+        List<Membership> out = new ArrayList<>();
+        for (Object[] row : groupRepo.findMembershipsByMemberEmail(email)) {
+            if (row[0] != null) out.add(new Membership((String) row[0], (String) row[1]));
+        }
+        return out;
+    }
+
+    /** Run now when there's no transaction, after commit when there is. */
+    private static void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    private static String normalize(String email) {
+        if (email == null) return null;
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+}
@@ -8,7 +8,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Business logic for per-(user, group) notification mutes.
@@ -52,10 +57,9 @@ public class GroupMuteService {
     public boolean isMuted(String userEmail, String groupId) {
         if (userEmail == null || userEmail.isBlank()) return false;
         if (groupId == null || groupId.isBlank()) return false;
-        Optional<GroupMutePref> opt = repo.findByUserEmailIgnoreCaseAndGroupId(userEmail, groupId);
-        if (opt.isEmpty()) return false;
-        Instant until = opt.get().getMutedUntil();
-        return until != null && until.isAfter(Instant.now());
+        return repo.findByUserEmailIgnoreCaseAndGroupId(userEmail, groupId)
+                .map(p -> activeMute(p, Instant.now()))
+                .orElse(false);
     }
 
     /**
@@ -129,9 +133,48 @@ public class GroupMuteService {
     public boolean isInQuietHours(String userEmail, String groupId) {
         if (userEmail == null || userEmail.isBlank()) return false;
         if (groupId == null || groupId.isBlank()) return false;
-        Optional<GroupMutePref> opt = repo.findByUserEmailIgnoreCaseAndGroupId(userEmail, groupId);
-        if (opt.isEmpty()) return false;
-        GroupMutePref pref = opt.get();
+        return repo.findByUserEmailIgnoreCaseAndGroupId(userEmail, groupId)
+                .map(p -> inQuietHours(p, Instant.now()))
+                .orElse(false);
+    }
+
+    /**
+     * Batched {@link #isMuted} + {@link #isInQuietHours} for a group
+     * fan-out: one query for every recipient's pref on {@code groupId}.
+     * Only suppressed recipients appear in the result; a mute wins over
+     * quiet hours, matching the single-recipient check order.
+     *
+     * @return suppression per recipient, keyed by trimmed lowercased email
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Suppression> suppressions(Collection<String> userEmails, String groupId) {
+        if (userEmails == null || userEmails.isEmpty()) return Map.of();
+        if (groupId == null || groupId.isBlank()) return Map.of();
+        Set<String> keys = new HashSet<>();
+        for (String e : userEmails) {
+            if (e != null && !e.isBlank()) keys.add(e.trim().toLowerCase());
+        }
+        if (keys.isEmpty()) return Map.of();
+        Instant now = Instant.now();
+        Map<String, Suppression> out = new HashMap<>();
+        for (GroupMutePref p : repo.findByGroupIdAndLowerEmailIn(groupId, keys)) {
+            if (p.getUserEmail() == null) continue;
+            String key = p.getUserEmail().trim().toLowerCase();
+            if (activeMute(p, now)) out.put(key, Suppression.MUTED);
+            else if (inQuietHours(p, now)) out.putIfAbsent(key, Suppression.QUIET_HOURS);
+        }
+        return out;
+    }
+
+    /** Why a group-scoped notification was held back for a recipient. */
+    public enum Suppression { MUTED, QUIET_HOURS }
+
+    private static boolean activeMute(GroupMutePref pref, Instant now) {
+        Instant until = pref.getMutedUntil();
+        return until != null && until.isAfter(now);
+    }
+
+    private static boolean inQuietHours(GroupMutePref pref, Instant at) {
         Integer start = pref.getQuietStart();
         Integer end = pref.getQuietEnd();
         if (start == null || end == null || start.equals(end)) return false;
@@ -142,7 +185,7 @@ public class GroupMuteService {
         } catch (Exception e) {
             tz = ZoneId.of("UTC");
         }
-        LocalTime now = Instant.now().atZone(tz).toLocalTime();
+        LocalTime now = at.atZone(tz).toLocalTime();
         int cur = now.getHour() * 60 + now.getMinute();
         return start < end
                 ? (cur >= start && cur < end)        // 09:00 → 17:00
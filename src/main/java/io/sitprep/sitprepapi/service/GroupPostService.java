@@ -16,6 +16,7 @@ import io.sitprep.sitprepapi.repo.GroupRepo;
 import io.sitprep.sitprepapi.repo.GroupPostRepo;
 import io.sitprep.sitprepapi.repo.GroupReadStateRepo;
 import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.repo.UserProfileCard;
 import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
 
 import jakarta.transaction.Transactional;
@@ -24,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -32,7 +34,6 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 
 import java.time.Instant;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -46,33 +47,50 @@ public class GroupPostService {
 
     private static final Logger logger = LoggerFactory.getLogger(GroupPostService.class);
 
+    /** Unpinned rows in the legacy un-paginated listings — the paginated path's max page. */
+    static final int LEGACY_LIST_LIMIT = 200;
+
+    /**
+     * The legacy listing plus where it stopped: {@code nextBefore} is the
+     * {@code before} cursor for {@code GET /api/group-posts/group/{id}/page}
+     * when older unpinned posts were cut off, null when the listing is the
+     * whole history.
+     */
+    public record LegacyListing(List<GroupPostDto> posts, Long nextBefore) {}
+
     private final GroupPostRepo postRepo;
     private final UserInfoRepo userInfoRepo;
     private final GroupRepo groupRepo;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutbox;
     private final WebSocketMessageSender webSocketMessageSender;
     private final GroupPostReactionService reactionService;
     private final GroupReadStateRepo groupReadStateRepo;
     private final GroupPostThreadPresenceService threadPresenceService;
     private final PublisherPublishAuditService publisherPublishAuditService;
+    private final ProfileCardService profileCards;
+    private final GroupHeadCache groupHeads;
 
     @Autowired
     public GroupPostService(GroupPostRepo postRepo, UserInfoRepo userInfoRepo, GroupRepo groupRepo,
-                       NotificationService notificationService,
+                       NotificationOutboxService notificationOutbox,
                        WebSocketMessageSender webSocketMessageSender,
                        GroupPostReactionService reactionService,
                        GroupReadStateRepo groupReadStateRepo,
                        GroupPostThreadPresenceService threadPresenceService,
-                       PublisherPublishAuditService publisherPublishAuditService) {
+                       PublisherPublishAuditService publisherPublishAuditService,
+                       ProfileCardService profileCards,
+                       GroupHeadCache groupHeads) {
         this.postRepo = postRepo;
         this.userInfoRepo = userInfoRepo;
         this.groupRepo = groupRepo;
-        this.notificationService = notificationService;
+        this.notificationOutbox = notificationOutbox;
         this.webSocketMessageSender = webSocketMessageSender;
         this.reactionService = reactionService;
         this.groupReadStateRepo = groupReadStateRepo;
         this.threadPresenceService = threadPresenceService;
         this.publisherPublishAuditService = publisherPublishAuditService;
+        this.profileCards = profileCards;
+        this.groupHeads = groupHeads;
     }
 
     /** REST creation. Body carries content/group + optional imageKey from /api/images. */
@@ -103,6 +121,7 @@ public class GroupPostService {
                 post.getGroupId(), post.getAuthor(), actorEmail, false);
         GroupPost savedPost = postRepo.save(post);
         publisherPublishAuditService.recordGroupPost(savedPost, actorEmail);
+        groupHeads.evictAfterCommit(savedPost.getGroupId());
         GroupPostDto savedDto = convertToPostDto(savedPost);
         savedDto.setTempId(postDto.getTempId());
         int deliveredCount = threadPresenceService.openRecipientCount(
@@ -112,13 +131,15 @@ public class GroupPostService {
             savedDto.setDeliveredAt(Instant.now());
         }
 
+        // Pushes ride the outbox row committed with the post; only the
+        // in-process WS broadcast waits for the commit.
+        notifyGroupMembersOfNewPost(savedPost);
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
             @Override public void afterCommit() {
                 try {
-                    notifyGroupMembersOfNewPost(savedPost);
                     webSocketMessageSender.sendNewGroupPost(savedPost.getGroupId(), savedDto);
                 } catch (Exception e) {
-                    logger.error("GroupPost-commit WS/notify error for post {}", savedPost.getId(), e);
+                    logger.error("GroupPost-commit WS error for post {}", savedPost.getId(), e);
                 }
             }
         });
@@ -173,6 +194,7 @@ public class GroupPostService {
         }
 
         GroupPost updatedPost = postRepo.save(post);
+        groupHeads.evictAfterCommit(updatedPost.getGroupId());
         GroupPostDto updatedPostDto = convertToPostDto(updatedPost);
 
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
@@ -193,6 +215,7 @@ public class GroupPostService {
         }
 
         postRepo.delete(post);
+        groupHeads.evictAfterCommit(post.getGroupId());
         webSocketMessageSender.sendGroupPostDeletion(post.getGroupId(), post.getId());
     }
 
@@ -222,6 +245,7 @@ public class GroupPostService {
         }
 
         GroupPost updated = postRepo.save(post);
+        groupHeads.evictAfterCommit(updated.getGroupId());
         GroupPostDto updatedDto = convertToPostDto(updated);
         updatedDto.setTempId(dto.getTempId());
 
@@ -232,15 +256,12 @@ public class GroupPostService {
         });
     }
 
-    public List<GroupPost> getPostsByGroupId(String groupId) { return postRepo.findPostsByGroupId(groupId); }
-
     public List<GroupPostDto> getPostsByGroupSince(String groupId, Instant since) {
         List<GroupPost> rows = postRepo.findByGroupIdAndUpdatedAtAfterOrderByUpdatedAtAsc(groupId, since);
         if (rows.isEmpty()) return List.of();
 
         Set<String> emails = rows.stream().map(GroupPost::getAuthor).filter(Objects::nonNull).collect(Collectors.toSet());
-        Map<String, UserInfo> userByEmail = userInfoRepo.findByUserEmailIn(new ArrayList<>(emails)).stream()
-                .collect(Collectors.toMap(UserInfo::getUserEmail, Function.identity()));
+        Map<String, UserProfileCard> userByEmail = profileCards.cardsFor(emails);
 
         Map<Long, Map<String, List<EmojiReactionDto>>> reactionsByPost =
                 reactionService.loadByPostIds(rows.stream().map(GroupPost::getId).toList());
@@ -251,10 +272,29 @@ public class GroupPostService {
         return out;
     }
 
+    /**
+     * Legacy un-paginated listing, now bounded: pinned posts first (newest
+     * pin first), then the newest {@link #LEGACY_LIST_LIMIT} unpinned ones.
+     * It used to materialize the group's entire history; anything older is
+     * reached through {@link #getPostsByGroupIdPage}, and when the cut
+     * dropped posts {@code nextBefore} is the cursor for them (one probe row
+     * past the limit tells). Both halves come out of the repo already in
+     * order, so no re-sort.
+     */
     @Transactional(Transactional.TxType.SUPPORTS)
-    public List<GroupPostDto> getPostsByGroupIdDto(String groupId) {
-        List<GroupPost> posts = postRepo.findPostsByGroupId(groupId);
-        if (posts.isEmpty()) return List.of();
+    public LegacyListing getPostsByGroupIdDto(String groupId) {
+        List<GroupPost> pinned = postRepo.findPinnedByGroupId(groupId);
+        List<GroupPost> unpinned = postRepo.findUnpinnedByGroupIdPage(
+                groupId, null, PageRequest.of(0, LEGACY_LIST_LIMIT + 1));
+        Long nextBefore = null;
+        if (unpinned.size() > LEGACY_LIST_LIMIT) {
+            unpinned = unpinned.subList(0, LEGACY_LIST_LIMIT);
+            nextBefore = unpinned.get(LEGACY_LIST_LIMIT - 1).getId();
+        }
+        List<GroupPost> posts = new ArrayList<>(pinned.size() + unpinned.size());
+        posts.addAll(pinned);
+        posts.addAll(unpinned);
+        if (posts.isEmpty()) return new LegacyListing(List.of(), null);
 
         Set<String> emails = posts.stream().map(GroupPost::getAuthor).filter(Objects::nonNull).collect(Collectors.toSet());
         // Pin authors are surfaced by name on the FE ("📌 Pinned by Alice")
@@ -266,8 +306,7 @@ public class GroupPostService {
                 emails.add(p.getPinnedBy());
             }
         }
-        Map<String, UserInfo> userByEmail = userInfoRepo.findByUserEmailIn(new ArrayList<>(emails)).stream()
-                .collect(Collectors.toMap(UserInfo::getUserEmail, Function.identity()));
+        Map<String, UserProfileCard> userByEmail = profileCards.cardsFor(emails);
 
         // Batched reaction roster — one repo call for the whole listing.
         Map<Long, Map<String, List<EmojiReactionDto>>> reactionsByPost =
@@ -275,30 +314,9 @@ public class GroupPostService {
 
         List<GroupPostDto> out = posts.stream()
                 .map(p -> convertToPostDto(p, userByEmail, reactionsByPost.get(p.getId())))
-                // Sort pinned posts first (by pinnedAt DESC so a recent
-                // pin reads above older pins), then everything else by
-                // timestamp DESC. The repo returns timestamp-ordered
-                // already; this stable sort just lifts the pinned set
-                // to the top without disturbing the rest.
-                .sorted((a, b) -> {
-                    boolean ap = a.getPinnedAt() != null;
-                    boolean bp = b.getPinnedAt() != null;
-                    if (ap && !bp) return -1;
-                    if (!ap && bp) return 1;
-                    if (ap && bp) {
-                        return b.getPinnedAt().compareTo(a.getPinnedAt());
-                    }
-                    // Both unpinned — preserve the repo's timestamp DESC
-                    // by comparing timestamps directly (defensive — the
-                    // repo query already orders this way, but explicit
-                    // here means the sort is total and stable).
-                    if (a.getTimestamp() == null) return 1;
-                    if (b.getTimestamp() == null) return -1;
-                    return b.getTimestamp().compareTo(a.getTimestamp());
-                })
                 .toList();
         applyReadReceipts(out, groupId);
-        return out;
+        return new LegacyListing(out, nextBefore);
     }
 
     /**
@@ -314,12 +332,11 @@ public class GroupPostService {
      * </ul>
      *
      * <p>Scale rationale: the legacy {@link #getPostsByGroupIdDto(String)}
-     * loads ALL posts at once — fine for the first quarter of a group's
-     * life, fatal at 1k+ rows. This paginated path is the canonical
-     * listing surface for the chat feed; the legacy method stays
-     * available for any caller that genuinely needs the whole set
-     * (none currently — usePostWebSocket migrates here in the FE
-     * pass shipped alongside this BE change).</p>
+     * used to load ALL posts at once — fine for the first quarter of a
+     * group's life, fatal at 1k+ rows; it is now capped at one max-size
+     * page. This paginated path is the canonical listing surface for the
+     * chat feed (usePostWebSocket migrated here in the FE pass shipped
+     * alongside this BE change).</p>
      *
      * <p>Limit is clamped to [1, 200]. Default size is 50 — matches the
      * sustainable rendering load on phones for chat-style scroll
@@ -338,7 +355,7 @@ public class GroupPostService {
         List<GroupPost> unpinned = postRepo.findUnpinnedByGroupIdPage(
                 groupId,
                 before,
-                org.springframework.data.domain.PageRequest.of(0, pageSize + 1)
+                PageRequest.of(0, pageSize + 1)
         );
 
         boolean hasMore = unpinned.size() > pageSize;
@@ -361,10 +378,7 @@ public class GroupPostService {
         for (GroupPost p : unpinned) {
             if (p.getAuthor() != null) emails.add(p.getAuthor());
         }
-        Map<String, UserInfo> userByEmail = emails.isEmpty()
-                ? Collections.emptyMap()
-                : userInfoRepo.findByUserEmailIn(new ArrayList<>(emails)).stream()
-                        .collect(Collectors.toMap(UserInfo::getUserEmail, Function.identity()));
+        Map<String, UserProfileCard> userByEmail = profileCards.cardsFor(emails);
 
         // Batched reactions for both pinned + unpinned. Single round-trip.
         List<Long> allIds = new ArrayList<>(pinned.size() + unpinned.size());
@@ -413,13 +427,12 @@ public class GroupPostService {
         }
 
         Set<String> emails = bestByGroup.values().stream().map(GroupPost::getAuthor).filter(Objects::nonNull).collect(Collectors.toSet());
-        Map<String, UserInfo> userByEmail = userInfoRepo.findByUserEmailIn(new ArrayList<>(emails)).stream()
-                .collect(Collectors.toMap(UserInfo::getUserEmail, Function.identity()));
+        Map<String, UserProfileCard> userByEmail = profileCards.cardsFor(emails);
 
         Map<String, GroupPostSummaryDto> out = new HashMap<>();
         for (var e : bestByGroup.entrySet()) {
             GroupPost p = e.getValue();
-            UserInfo u = userByEmail.get(p.getAuthor());
+            UserProfileCard u = userByEmail.get(p.getAuthor());
 
             GroupPostSummaryDto dto = new GroupPostSummaryDto();
             dto.setId(p.getId());
@@ -427,12 +440,12 @@ public class GroupPostService {
             dto.setGroupName(p.getGroupName());
             dto.setAuthor(p.getAuthor());
             if (u != null) {
-                dto.setAuthorFirstName(u.getUserFirstName());
-                dto.setAuthorLastName(u.getUserLastName());
+                dto.setAuthorFirstName(u.firstName());
+                dto.setAuthorLastName(u.lastName());
                 // DtoImages.avatar normalizes the raw column value — legacy
                 // URLs return null so the FE renders the initials fallback
                 // instead of a broken-image glyph.
-                dto.setAuthorProfileImageUrl(DtoImages.avatar(u.getProfileImageUrl()));
+                dto.setAuthorProfileImageUrl(DtoImages.avatar(u.profileImageUrl()));
             }
             dto.setContent(p.getContent());
             dto.setTimestamp(p.getTimestamp());
@@ -487,23 +500,13 @@ public class GroupPostService {
             String baseTargetUrl = GroupUrlUtil.getGroupTargetUrl(group);
             String targetUrl = baseTargetUrl + "?postId=" + post.getId();
 
-            List<UserInfo> users = recipientEmails.isEmpty()
-                    ? List.of()
-                    : userInfoRepo.findByUserEmailIn(recipientEmails);
-            for (UserInfo user : users) {
-                // Mute-aware variant: when the recipient has muted
-                // this circle, FCM + STOMP banner are skipped (an
-                // inbox row is still written so missed messages are
-                // visible after unmute).
-                notificationService.deliverPresenceAwareForGroup(
-                        user.getUserEmail(), title, body, authorFirst, authorProfile,
-                        "post_notification", post.getGroupId(), targetUrl, String.valueOf(post.getId()),
-                        user.getFcmtoken(),
-                        post.getGroupId(),
-                        /* categoryOverride */ null,
-                        actorUserId
-                );
-            }
+            // Mute-aware: when the recipient has muted this circle,
+            // FCM + STOMP banner are skipped (an inbox row is still
+            // written so missed messages are visible after unmute).
+            notificationOutbox.enqueue(new NotificationService.GroupFanout(
+                    "post_notification", /* category */ null, title, body, authorFirst, authorProfile,
+                    post.getGroupId(), targetUrl, String.valueOf(post.getId()), actorUserId,
+                    post.getGroupId()), recipientEmails, null);
 
             // Targeted "mentioned you" push — same delivery path (still mute-
             // aware; an inbox row is written even when muted) but a distinct
@@ -511,44 +514,38 @@ public class GroupPostService {
             if (!mentionedLower.isEmpty()) {
                 String mentionBody = String.format("%s mentioned you in %s: '%s'",
                         authorFirst, group.getGroupName(), snippet);
-                List<UserInfo> mentionedUsers = userInfoRepo.findByUserEmailIn(new ArrayList<>(mentionedLower));
-                for (UserInfo user : mentionedUsers) {
-                    notificationService.deliverPresenceAwareForGroup(
-                            user.getUserEmail(), title, mentionBody, authorFirst, authorProfile,
-                            "mention_notification", post.getGroupId(), targetUrl, String.valueOf(post.getId()),
-                            user.getFcmtoken(),
-                            post.getGroupId(),
-                            /* categoryOverride */ null,
-                            actorUserId
-                    );
-                }
-                logger.info("GroupPost mention notification sent for '{}' to {} member(s).",
-                        group.getGroupName(), mentionedUsers.size());
+                notificationOutbox.enqueue(new NotificationService.GroupFanout(
+                        "mention_notification", /* category */ null, title, mentionBody, authorFirst,
+                        authorProfile, post.getGroupId(), targetUrl, String.valueOf(post.getId()),
+                        actorUserId, post.getGroupId()), mentionedLower, null);
+                logger.info("GroupPost mention notification queued for '{}' to {} member(s).",
+                        group.getGroupName(), mentionedLower.size());
             }
 
-            logger.info("GroupPost notification sent for '{}' to {} member(s).", group.getGroupName(), users.size());
+            logger.info("GroupPost notification queued for '{}' to {} member(s).",
+                    group.getGroupName(), recipientEmails.size());
         }, () -> logger.warn("Group with ID {} not found (notify)", post.getGroupId()));
     }
 
     private GroupPostDto convertToPostDto(GroupPost post) {
         GroupPostDto dto = baseDto(post, reactionService.loadByPostId(post.getId()));
-        userInfoRepo.findByUserEmail(post.getAuthor()).ifPresent(u -> {
-            dto.setAuthorFirstName(u.getUserFirstName());
-            dto.setAuthorLastName(u.getUserLastName());
-            dto.setAuthorProfileImageUrl(DtoImages.avatar(u.getProfileImageUrl()));
+        profileCards.cardFor(post.getAuthor()).ifPresent(u -> {
+            dto.setAuthorFirstName(u.firstName());
+            dto.setAuthorLastName(u.lastName());
+            dto.setAuthorProfileImageUrl(DtoImages.avatar(u.profileImageUrl()));
         });
         return dto;
     }
 
     private GroupPostDto convertToPostDto(GroupPost post,
-                                     Map<String, UserInfo> userByEmail,
+                                     Map<String, UserProfileCard> userByEmail,
                                      Map<String, List<EmojiReactionDto>> reactions) {
         GroupPostDto dto = baseDto(post, reactions);
-        UserInfo u = userByEmail.get(post.getAuthor());
+        UserProfileCard u = userByEmail.get(post.getAuthor());
         if (u != null) {
-            dto.setAuthorFirstName(u.getUserFirstName());
-            dto.setAuthorLastName(u.getUserLastName());
-            dto.setAuthorProfileImageUrl(DtoImages.avatar(u.getProfileImageUrl()));
+            dto.setAuthorFirstName(u.firstName());
+            dto.setAuthorLastName(u.lastName());
+            dto.setAuthorProfileImageUrl(DtoImages.avatar(u.profileImageUrl()));
         }
         return dto;
     }
@@ -576,14 +573,14 @@ public class GroupPostService {
         dto.setCommentsCount(post.getCommentsCount());
         // Pin metadata — denormalize the pinner's first name when set so
         // the FE can render "📌 Pinned by Alice" without a per-card
-        // profile fetch. Single-row lookup; no impact on the batched
-        // listing path's other passes. Falls back silently when the
-        // pinner profile can't be resolved.
+        // profile fetch. Card lookup — the listing paths already batched
+        // pinners into the page's card fetch, so this is a cache hit. Falls
+        // back silently when the pinner profile can't be resolved.
         dto.setPinnedAt(post.getPinnedAt());
         dto.setPinnedBy(post.getPinnedBy());
         if (post.getPinnedBy() != null && !post.getPinnedBy().isBlank()) {
-            userInfoRepo.findByUserEmail(post.getPinnedBy()).ifPresent(u ->
-                    dto.setPinnedByFirstName(u.getUserFirstName()));
+            profileCards.cardFor(post.getPinnedBy()).ifPresent(u ->
+                    dto.setPinnedByFirstName(u.firstName()));
         }
         return dto;
     }
@@ -635,6 +632,7 @@ public class GroupPostService {
         post.setPinnedAt(Instant.now());
         post.setPinnedBy(actorEmail.trim().toLowerCase());
         GroupPost saved = postRepo.save(post);
+        groupHeads.evictAfterCommit(saved.getGroupId());
         GroupPostDto dto = convertToPostDto(saved);
         broadcastUpdated(dto);
         return dto;
@@ -659,6 +657,7 @@ public class GroupPostService {
         post.setPinnedAt(null);
         post.setPinnedBy(null);
         GroupPost saved = postRepo.save(post);
+        groupHeads.evictAfterCommit(saved.getGroupId());
         GroupPostDto dto = convertToPostDto(saved);
         broadcastUpdated(dto);
         return dto;
@@ -37,17 +37,23 @@ public class GroupService {
     private final UserInfoRepo userInfoRepo;
     private final WebSocketMessageSender webSocketMessageSender;
     private final HouseholdEventService householdEventService;
+    private final GroupMembershipIndex membershipIndex;
+    private final AccountabilityRollupService rollups;
     private NotificationService notificationService; // setter-injected
 
     public GroupService(GroupRepo groupRepo,
                         UserInfoRepo userInfoRepo,
                         WebSocketMessageSender webSocketMessageSender,
                         HouseholdEventService householdEventService,
+                        GroupMembershipIndex membershipIndex,
+                        AccountabilityRollupService rollups,
                         NotificationService notificationService) {
         this.groupRepo = groupRepo;
         this.userInfoRepo = userInfoRepo;
         this.webSocketMessageSender = webSocketMessageSender;
         this.householdEventService = householdEventService;
+        this.membershipIndex = membershipIndex;
+        this.rollups = rollups;
         this.notificationService = notificationService;
     }
 
@@ -109,6 +115,7 @@ public class GroupService {
             throw new RuntimeException("Missing groupId. Ensure UUID is generated on frontend.");
         }
         Group saved = groupRepo.save(group);
+        membershipIndex.groupSavedAfterCommit(saved);
         // Creating a household seeds the creator's base household if they
         // don't have one yet — so a brand-new user's first household becomes
         // their base immediately, without waiting for the boot-time backfill.
@@ -199,10 +206,51 @@ public class GroupService {
         notificationService.notifyCheckInRequest(group, callerEmail, callerName);
     }
 
+    /**
+     * The admin check-in card. While Active the counts come from the live
+     * rollup so the card agrees with the /rollup frames it patches itself
+     * from.
+     *
+     * <p>With {@code includeMembers} the per-member list still loads every
+     * member's {@code UserInfo} — the live rollup only replaces the count
+     * math, not that read. Without it (the card's between-frame refresh)
+     * an Active group is answered from the live counts with no member
+     * rows loaded; other groups still compute their counts from rows.
+     * {@code members} is empty in that shape.</p>
+     */
     @Transactional(readOnly = true)
-    public CheckInRollupDto getCheckInRollup(String groupId) {
+    public CheckInRollupDto getCheckInRollup(String groupId, boolean includeMembers) {
         Group group = getGroupByPublicId(groupId);
-        return buildCheckInRollup(group);
+        Optional<AccountabilityRollupService.Counts> live = rollups.current(group);
+        if (!includeMembers && live.isPresent()) {
+            return withCounts(group.getGroupId(), group.getGroupName(), true,
+                    StatusRollups.alertAnchor(group), live.get(), List.of());
+        }
+        CheckInRollupDto rows = buildCheckInRollup(group);
+        List<CheckInRollupDto.Member> members = includeMembers ? rows.members() : List.of();
+        return live
+                .map(c -> withCounts(rows.groupId(), rows.groupName(), rows.active(), rows.startedAt(), c, members))
+                .orElseGet(() -> includeMembers ? rows : new CheckInRollupDto(
+                        rows.groupId(), rows.groupName(), rows.active(), rows.startedAt(),
+                        rows.total(), rows.accounted(), rows.safe(), rows.help(), rows.injured(),
+                        rows.missing(), members));
+    }
+
+    private static CheckInRollupDto withCounts(String groupId, String groupName, boolean active,
+                                               Instant startedAt, AccountabilityRollupService.Counts c,
+                                               List<CheckInRollupDto.Member> members) {
+        return new CheckInRollupDto(
+                groupId,
+                groupName,
+                active,
+                startedAt,
+                c.members(),
+                c.checkedIn(),
+                c.safe(),
+                c.help(),
+                c.injured(),
+                c.missing(),
+                members);
     }
 
     /**
@@ -232,23 +280,10 @@ public class GroupService {
         String title = group.getGroupName() != null ? group.getGroupName() : "Check in";
         String body = callerName + " is checking who is safe. Tap to share your status.";
         String targetUrl = GroupUrlUtil.getGroupTargetUrl(group);
-        for (UserInfo user : users) {
-            if (user.getUserEmail() == null) continue;
-            notificationService.deliverPresenceAwareForGroup(
-                    user.getUserEmail(),
-                    title,
-                    body,
-                    callerName,
-                    "/images/group-alert-icon.png",
-                    "check_in_request",
-                    group.getGroupId(),
-                    targetUrl,
-                    null,
-                    user.getFcmtoken(),
-                    group.getGroupId(),
-                    Category.CHECK_IN_REQUEST
-            );
-        }
+        notificationService.fanOut(new NotificationService.GroupFanout(
+                "check_in_request", Category.CHECK_IN_REQUEST, title, body, callerName,
+                "/images/group-alert-icon.png", group.getGroupId(), targetUrl, null,
+                /* actorUserId */ null, group.getGroupId()), users, null);
         logger.info("Pinged {} missing check-in member(s) for group {}",
                 users.size(), group.getGroupId());
         return rollup;
@@ -267,9 +302,7 @@ public class GroupService {
                         LinkedHashMap::new));
 
         boolean active = "Active".equalsIgnoreCase(group.getAlert());
-        Instant startedAt = group.getAlertActivatedAt() != null
-                ? group.getAlertActivatedAt()
-                : group.getUpdatedAt();
+        Instant startedAt = StatusRollups.alertAnchor(group);
 
         int[] counts = new int[4]; // safe, help, injured, accounted
         List<CheckInRollupDto.Member> members = new ArrayList<>();
@@ -402,6 +435,10 @@ public class GroupService {
         String previousAlert = group.getAlert();
         updateGroupFields(group, groupDetails);
         Group saved = groupRepo.save(group);
+        // The bulk edit can rewrite the roster and the type wholesale, and
+        // is where alerts start and end.
+        membershipIndex.groupSavedAfterCommit(saved);
+        rollups.groupSavedAfterCommit(saved);
         if (!sameAlertState(previousAlert, saved.getAlert())) {
             GroupAlertFrame frame = new GroupAlertFrame(
                     saved.getGroupId(),
@@ -422,6 +459,8 @@ public class GroupService {
     public void deleteGroupByPublicId(String groupId) {
         Group group = getGroupByPublicId(groupId);
         groupRepo.delete(group);
+        membershipIndex.groupDeletedAfterCommit(group.getGroupId());
+        rollups.alertEndedAfterCommit(group.getGroupId());
     }
 
     private void updateGroupFields(Group group, Group groupDetails) {
@@ -1121,6 +1160,16 @@ public class GroupService {
         if (group == null || group.getGroupId() == null || group.getGroupId().isBlank()) return;
         if (email == null || email.isBlank()) return;
 
+        // Every roster add/remove in this service funnels through here, so
+        // the fan-out index and the live rollup move at the same commit point.
+        if ("ADD".equals(action)) {
+            membershipIndex.memberAddedAfterCommit(group, email);
+            rollups.memberAddedAfterCommit(group.getGroupId(), email);
+        } else if ("REMOVE".equals(action)) {
+            membershipIndex.memberRemovedAfterCommit(group.getGroupId(), email);
+            rollups.memberRemovedAfterCommit(group.getGroupId(), email);
+        }
+
         GroupMembershipFrame frame = new GroupMembershipFrame(
                 action,
                 email.trim().toLowerCase(Locale.ROOT),
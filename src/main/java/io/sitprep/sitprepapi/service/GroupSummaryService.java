@@ -0,0 +1,99 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.GroupSummaryRow;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read side for group listings that only need a card's worth of data —
+ * Discover, the community map, the group name folds on feed pages.
+ * Works on {@link GroupSummaryRow} instead of the {@code Group} entity so a
+ * page of groups doesn't hydrate every member list, then loads membership
+ * on demand: the viewer's own memberships as three id lists, and member
+ * emails only for the groups actually on the page.
+ *
+ * <p>Writes, role gates and anything that walks a roster still go through
+ * {@code GroupRepo}'s entity finders.</p>
+ */
+@Service
+public class GroupSummaryService {
+
+    /**
+     * The viewer's side of every group relationship, as group ids. Lets a
+     * listing resolve OWNER / ADMIN / MEMBER / PENDING per row without the
+     * row carrying any email list.
+     */
+    public record ViewerMemberships(String email, Set<String> adminOf, Set<String> memberOf,
+                                    Set<String> pendingOf) {
+
+        public static final ViewerMemberships ANONYMOUS =
+                new ViewerMemberships(null, Set.of(), Set.of(), Set.of());
+
+        /**
+         * Same precedence as the FE {@code groupRoles.roleOf}: owner beats
+         * admin beats member beats pending. "NONE" for an anonymous viewer
+         * or any miss; never null.
+         */
+        public String roleOf(GroupSummaryRow g) {
+            if (email == null || g == null) return "NONE";
+            if (email.equalsIgnoreCase(g.ownerEmail())) return "OWNER";
+            if (adminOf.contains(g.groupId())) return "ADMIN";
+            if (memberOf.contains(g.groupId())) return "MEMBER";
+            if (pendingOf.contains(g.groupId())) return "PENDING";
+            return "NONE";
+        }
+    }
+
+    private final GroupRepo groupRepo;
+
+    public GroupSummaryService(GroupRepo groupRepo) {
+        this.groupRepo = groupRepo;
+    }
+
+    /** Three id-only queries; {@link ViewerMemberships#ANONYMOUS} for a blank email. */
+    public ViewerMemberships membershipsOf(String viewerEmail) {
+        if (viewerEmail == null || viewerEmail.isBlank()) return ViewerMemberships.ANONYMOUS;
+        String email = viewerEmail.trim().toLowerCase();
+        return new ViewerMemberships(email,
+                new HashSet<>(groupRepo.findGroupIdsByAdminEmail(email)),
+                new HashSet<>(groupRepo.findGroupIdsByMemberEmail(email)),
+                new HashSet<>(groupRepo.findGroupIdsByPendingMemberEmail(email)));
+    }
+
+    /**
+     * Member emails (lowercased, stored order) for just these groups. Groups
+     * with no members are absent from the map.
+     */
+    public Map<String, List<String>> memberEmailsOf(Collection<String> groupIds) {
+        if (groupIds == null || groupIds.isEmpty()) return Map.of();
+        Map<String, List<String>> out = new LinkedHashMap<>();
+        for (Object[] row : groupRepo.findMemberEmailRows(groupIds)) {
+            String groupId = (String) row[0];
+            String email = (String) row[1];
+            if (groupId == null || email == null) continue;
+            out.computeIfAbsent(groupId, k -> new ArrayList<>()).add(email.toLowerCase());
+        }
+        return out;
+    }
+
+    /**
+     * Every email that shares at least one group with {@code viewer}, viewer
+     * excluded — one query instead of loading each of the viewer's groups
+     * with its full roster.
+     */
+    public Set<String> coMemberEmails(String viewer) {
+        if (viewer == null || viewer.isBlank()) return Set.of();
+        String self = viewer.trim().toLowerCase();
+        Set<String> out = new HashSet<>(groupRepo.findCoMemberEmails(self));
+        out.remove(self);
+        return out;
+    }
+}
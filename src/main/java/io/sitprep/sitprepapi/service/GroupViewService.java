@@ -1,7 +1,6 @@
 package io.sitprep.sitprepapi.service;
 
 import io.sitprep.sitprepapi.domain.Group;
-import io.sitprep.sitprepapi.domain.GroupPost;
 import io.sitprep.sitprepapi.domain.UserInfo;
 import io.sitprep.sitprepapi.dto.GroupMemberViewDto;
 import io.sitprep.sitprepapi.dto.DtoImages;
@@ -10,7 +9,7 @@ import io.sitprep.sitprepapi.dto.HouseholdAccompanimentDto;
 import io.sitprep.sitprepapi.dto.HouseholdManualMemberDto;
 import io.sitprep.sitprepapi.dto.GroupPostSummaryDto;
 import io.sitprep.sitprepapi.repo.GroupRepo;
-import io.sitprep.sitprepapi.repo.GroupPostRepo;
+import io.sitprep.sitprepapi.repo.GroupPostSummaryRow;
 import io.sitprep.sitprepapi.repo.UserInfoRepo;
 import io.sitprep.sitprepapi.util.Geo;
 import org.springframework.stereotype.Service;
@@ -24,7 +23,6 @@ import java.util.stream.Collectors;
 public class GroupViewService {
 
     private static final int DTO_VERSION = 1;
-    private static final int RECENT_POST_LIMIT = 5;
 
     /** Sharing-mode constants — match the FE helper. */
     private static final String SHARE_ALWAYS = "always";
@@ -33,20 +31,23 @@ public class GroupViewService {
 
     private final GroupRepo groupRepo;
     private final UserInfoRepo userInfoRepo;
-    private final GroupPostRepo postRepo;
+    private final GroupHeadCache groupHeads;
     private final HouseholdManualMemberService manualMemberService;
     private final HouseholdAccompanimentService accompanimentService;
+    private final AccountabilityRollupService rollups;
 
     public GroupViewService(GroupRepo groupRepo,
                             UserInfoRepo userInfoRepo,
-                            GroupPostRepo postRepo,
+                            GroupHeadCache groupHeads,
                             HouseholdManualMemberService manualMemberService,
-                            HouseholdAccompanimentService accompanimentService) {
+                            HouseholdAccompanimentService accompanimentService,
+                            AccountabilityRollupService rollups) {
         this.groupRepo = groupRepo;
         this.userInfoRepo = userInfoRepo;
-        this.postRepo = postRepo;
+        this.groupHeads = groupHeads;
         this.manualMemberService = manualMemberService;
         this.accompanimentService = accompanimentService;
+        this.rollups = rollups;
     }
 
     @Transactional(readOnly = true)
@@ -77,22 +78,26 @@ public class GroupViewService {
                 ? accompanimentService.list(g.getGroupId())
                 : List.of();
 
-        List<GroupPostSummaryDto> recentPosts = postRepo.findPostsByGroupId(g.getGroupId()).stream()
-                .limit(RECENT_POST_LIMIT)
+        // Recent + pinned come from the shared group head: the newest
+        // few posts plus the pinned set (fetched separately so the FE can
+        // render it in a dedicated section regardless of how far back
+        // each post was pinned; admins pin 0-3 per group). Authors are
+        // folded in here from the roster already loaded above.
+        GroupHeadCache.Head head = groupHeads.head(g.getGroupId());
+        List<GroupPostSummaryDto> recentPosts = head.recent().stream()
                 .map(p -> toPostSummary(p, byEmail))
                 .toList();
-
-        // Pinned posts are fetched separately so the FE can render
-        // them in a dedicated section regardless of how far back they
-        // were pinned. Bounded cardinality (admins pin 0-3 per group)
-        // so this stays a single small query.
-        List<GroupPostSummaryDto> pinnedPosts = postRepo.findPinnedByGroupId(g.getGroupId()).stream()
+        List<GroupPostSummaryDto> pinnedPosts = head.pinned().stream()
                 .map(p -> toPostSummary(p, byEmail))
                 .toList();
 
-        StatusRollup rollup = computeRollup(
+        // While Active the live rollup serves the counts, matching the
+        // /rollup frames the client patches from between fetches. It saves
+        // the count math, not the roster read above — the view renders
+        // every member, so loading their UserInfo is unchanged.
+        StatusRollup rollup = rollups.statusRollup(g).orElseGet(() -> computeRollup(
                 memberEmails, byEmail, manualMembers, accompaniments,
-                alertActive, g.getUpdatedAt());
+                alertActive, StatusRollups.alertAnchor(g)));
 
         return new GroupMemberViewDto(
                 toGroupInfo(g),
@@ -114,11 +119,12 @@ public class GroupViewService {
      * {@code dominantStatus} from the SAME aggregation (zero duplication);
      * this method is a pure delegate kept for call-site stability.
      *
-     * <p>Anchor note: this uses {@code group.updatedAt} to match the FE hook
-     * exactly. {@code GroupService.buildCheckInRollup} (the org check-in path)
-     * uses {@code alertActivatedAt ?? updatedAt}; reconciling the two onto the
-     * more-correct {@code alertActivatedAt} anchor is a documented follow-up
-     * (they agree whenever the alert flip was the last edit, the common case).</p>
+     * <p>Anchor note: every rollup path, including
+     * {@code GroupService.buildCheckInRollup} and the live
+     * {@link AccountabilityRollupService}, now clamps on
+     * {@link StatusRollups#alertAnchor} ({@code alertActivatedAt ?? updatedAt}).
+     * The old {@code updatedAt} anchor reset freshness on every group edit —
+     * a member joining mid-alert marked everyone unaccounted.</p>
      */
     private StatusRollup computeRollup(List<String> memberEmails,
                                        Map<String, UserInfo> byEmail,
@@ -224,22 +230,22 @@ public class GroupViewService {
         };
     }
 
-    private GroupPostSummaryDto toPostSummary(GroupPost p, Map<String, UserInfo> byEmail) {
-        UserInfo u = p.getAuthor() == null ? null : byEmail.get(normalize(p.getAuthor()));
+    private GroupPostSummaryDto toPostSummary(GroupPostSummaryRow p, Map<String, UserInfo> byEmail) {
+        UserInfo u = p.author() == null ? null : byEmail.get(normalize(p.author()));
         GroupPostSummaryDto dto = new GroupPostSummaryDto();
-        dto.setId(p.getId());
-        dto.setGroupId(p.getGroupId());
-        dto.setGroupName(p.getGroupName());
-        dto.setAuthor(p.getAuthor());
+        dto.setId(p.id());
+        dto.setGroupId(p.groupId());
+        dto.setGroupName(p.groupName());
+        dto.setAuthor(p.author());
         if (u != null) {
             dto.setAuthorFirstName(u.getUserFirstName());
             dto.setAuthorLastName(u.getUserLastName());
             dto.setAuthorProfileImageUrl(DtoImages.avatar(u.getProfileImageUrl()));
         }
-        dto.setContent(p.getContent());
-        dto.setTimestamp(p.getTimestamp());
-        dto.setPinnedAt(p.getPinnedAt());
-        dto.setPinnedBy(p.getPinnedBy());
+        dto.setContent(p.content());
+        dto.setTimestamp(p.timestamp());
+        dto.setPinnedAt(p.pinnedAt());
+        dto.setPinnedBy(p.pinnedBy());
         return dto;
     }
 
@@ -33,13 +33,16 @@ public class HouseholdAccompanimentService {
     private final HouseholdAccompanimentRepo repo;
     private final WebSocketMessageSender ws;
     private final HouseholdEventService events;
+    private final AccountabilityRollupService rollups;
 
     public HouseholdAccompanimentService(HouseholdAccompanimentRepo repo,
                                          WebSocketMessageSender ws,
-                                         HouseholdEventService events) {
+                                         HouseholdEventService events,
+                                         AccountabilityRollupService rollups) {
         this.repo = repo;
         this.ws = ws;
         this.events = events;
+        this.rollups = rollups;
     }
 
     public List<HouseholdAccompanimentDto> list(String householdId) {
@@ -86,6 +89,10 @@ public class HouseholdAccompanimentService {
         HouseholdAccompaniment saved = repo.save(row);
         HouseholdAccompanimentDto dto = toDto(saved);
         broadcastAfterCommit(householdId, dto);
+        // A claimed manual member counts as accounted in the live rollup.
+        if ("manual".equals(accompanied.kind())) {
+            rollups.manualClaimedAfterCommit(householdId, accompanied.normId());
+        }
         events.recordWithClaim(
                 householdId, actorEmail,
                 "user".equals(accompanied.kind()) ? accompanied.email() : null);
@@ -117,6 +124,9 @@ public class HouseholdAccompanimentService {
         int deleted = repo.deleteByTarget(householdId, accompaniedKind, id);
         if (deleted > 0) {
             broadcastDeletionAfterCommit(householdId, accompaniedKind, id);
+            if ("manual".equals(accompaniedKind)) {
+                rollups.manualReleasedAfterCommit(householdId, id);
+            }
             events.recordWithRelease(householdId, actorEmail,
                     "user".equals(accompaniedKind) ? id : null);
         }
@@ -132,6 +142,7 @@ public class HouseholdAccompanimentService {
         if (householdId == null || manualMemberId == null) return;
         repo.deleteByManualMemberId(householdId, manualMemberId);
         broadcastListAfterCommit(householdId);
+        rollups.manualRosterChangedAfterCommit(householdId);
     }
 
     // ------------------------------------------------------------------
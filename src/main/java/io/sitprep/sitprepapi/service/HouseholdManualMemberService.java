@@ -28,13 +28,16 @@ public class HouseholdManualMemberService {
     private final HouseholdManualMemberRepo repo;
     private final HouseholdAccompanimentService accompanimentService;
     private final WebSocketMessageSender ws;
+    private final AccountabilityRollupService rollups;
 
     public HouseholdManualMemberService(HouseholdManualMemberRepo repo,
                                         HouseholdAccompanimentService accompanimentService,
-                                        WebSocketMessageSender ws) {
+                                        WebSocketMessageSender ws,
+                                        AccountabilityRollupService rollups) {
         this.repo = repo;
         this.accompanimentService = accompanimentService;
         this.ws = ws;
+        this.rollups = rollups;
     }
 
     public List<HouseholdManualMemberDto> list(String householdId) {
@@ -63,6 +66,9 @@ public class HouseholdManualMemberService {
         HouseholdManualMember saved = repo.save(m);
         HouseholdManualMemberDto dto = toDto(saved);
         broadcastAfterCommit(() -> ws.sendHouseholdManualMemberUpdate(householdId, dto));
+        // A new dependent starts unaccounted; removals go through the
+        // accompaniment cascade, which refreshes the rollup itself.
+        rollups.manualRosterChangedAfterCommit(householdId);
         return dto;
     }
 
@@ -62,6 +62,7 @@ public class HouseholdReadinessService {
     private final UserSavedLocationService savedLocationService;
     private final RiskProfileService riskProfileService;
     private final EvacuationPlanRepo evacuationPlanRepo;
+    private final AccountabilityRollupService rollups;
 
     public HouseholdReadinessService(HouseholdManualMemberService manualMemberService,
                                      HouseholdAccompanimentService accompanimentService,
@@ -69,7 +70,8 @@ public class HouseholdReadinessService {
                                      MeetingPlaceRepo meetingPlaceRepo,
                                      UserSavedLocationService savedLocationService,
                                      RiskProfileService riskProfileService,
-                                     EvacuationPlanRepo evacuationPlanRepo) {
+                                     EvacuationPlanRepo evacuationPlanRepo,
+                                     AccountabilityRollupService rollups) {
         this.manualMemberService = manualMemberService;
         this.accompanimentService = accompanimentService;
         this.emergencyContactGroupRepo = emergencyContactGroupRepo;
@@ -77,6 +79,7 @@ public class HouseholdReadinessService {
         this.savedLocationService = savedLocationService;
         this.riskProfileService = riskProfileService;
         this.evacuationPlanRepo = evacuationPlanRepo;
+        this.rollups = rollups;
     }
 
     // ---------------------------------------------------------------------
@@ -86,7 +89,9 @@ public class HouseholdReadinessService {
     /**
      * Dominant status for a household, from the SAME rollup math the
      * member-view ships. Caller supplies the (batched) UserInfo map so the
-     * org dashboard resolves N households with ONE userinfo query.
+     * org dashboard resolves N households with ONE userinfo query; a
+     * household in an Active alert reads its live rollup instead and skips
+     * the manual-member / accompaniment queries too.
      */
     @Transactional(readOnly = true)
     public String dominantStatusFor(Group household, Map<String, UserInfo> byEmail) {
@@ -94,11 +99,11 @@ public class HouseholdReadinessService {
         List<String> emails = household.getMemberEmails() == null
                 ? List.of() : household.getMemberEmails();
         boolean alertActive = "Active".equalsIgnoreCase(household.getAlert());
-        StatusRollup rollup = StatusRollups.compute(
+        StatusRollup rollup = rollups.statusRollup(household).orElseGet(() -> StatusRollups.compute(
                 emails, byEmail,
                 manualMemberService.list(household.getGroupId()),
                 accompanimentService.list(household.getGroupId()),
-                alertActive, household.getUpdatedAt());
+                alertActive, StatusRollups.alertAnchor(household)));
         return StatusRollups.dominantStatus(rollup);
     }
 
@@ -1,29 +1,47 @@
 package io.sitprep.sitprepapi.service;
 
-import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.config.SchedulingConfig;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
- * Tracks "last active" for authenticated users with a per-user write throttle.
+ * Tracks "last active" for authenticated users with a per-user write throttle
+ * and a write-behind flush.
  *
  * <p>{@link io.sitprep.sitprepapi.security.FirebaseAuthFilter} calls
  * {@link #touch(String)} after every successful token verification. We
- * keep an in-memory map of email → last-write-instant; if the user has
- * been "touched" within the throttle window, we no-op. Otherwise we fire
- * an async UPDATE so the request itself stays fast.</p>
+ * keep an in-memory map of email → last-touch-instant; if the user has
+ * been touched within the throttle window, we no-op. Otherwise the
+ * instant goes into a pending buffer — no DB work on the request thread.
+ * {@link #flush()} drains the buffer every few seconds as one
+ * {@code UPDATE ... FROM (VALUES ...)} per {@link #FLUSH_CHUNK} users,
+ * and once more on shutdown.</p>
  *
- * <p>The map is process-local — on a multi-instance Heroku dyno setup the
+ * <p>Both maps are bounded: throttle entries older than the window are
+ * pruned on each flush (they no longer suppress anything), and past
+ * {@code max-tracked} users new touches go unthrottled or, for the
+ * pending buffer, are dropped until the next flush. Presence is a hint,
+ * so losing a bump under extreme load beats growing the heap.</p>
+ *
+ * <p>The maps are process-local — on a multi-instance Heroku dyno setup the
  * effective throttle becomes "throttleSeconds × instanceCount". Acceptable;
  * we'd rather over-write a tiny bit than under-write and miss presence.</p>
  */
@@ -32,49 +50,122 @@ public class LastActivityService {
 
     private static final Logger log = LoggerFactory.getLogger(LastActivityService.class);
 
-    private final UserInfoRepo userInfoRepo;
-    private final ConcurrentMap<String, Instant> lastWritten = new ConcurrentHashMap<>();
+    /** Users per UPDATE statement (two bind parameters each). */
+    static final int FLUSH_CHUNK = 500;
+
+    private final JdbcTemplate jdbc;
     private final Duration throttle;
+    private final int maxTracked;
+    private final Supplier<Instant> clock;
+
+    private final ConcurrentMap<String, Instant> lastTouched = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Instant> pending = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
 
+    @Autowired
     public LastActivityService(
-            UserInfoRepo userInfoRepo,
-            @Value("${sitprep.activity.throttle-seconds:300}") long throttleSeconds
+            JdbcTemplate jdbc,
+            @Value("${sitprep.activity.throttle-seconds:300}") long throttleSeconds,
+            @Value("${sitprep.activity.max-tracked:50000}") int maxTracked
     ) {
-        this.userInfoRepo = userInfoRepo;
-        this.throttle = Duration.ofSeconds(throttleSeconds);
+        this(jdbc, Duration.ofSeconds(throttleSeconds), maxTracked, Instant::now);
+    }
+
+    LastActivityService(JdbcTemplate jdbc, Duration throttle, int maxTracked, Supplier<Instant> clock) {
+        this.jdbc = jdbc;
+        this.throttle = throttle;
+        this.maxTracked = Math.max(1, maxTracked);
+        this.clock = clock;
     }
 
     /**
-     * Mark the email as active. May or may not write to the DB depending on
-     * the throttle. Fire-and-forget — errors are logged at debug, never
-     * thrown back into the request handler.
+     * Mark the email as active. Never touches the DB; the bump lands on
+     * the next {@link #flush()}. Never throws into the request handler.
      */
     public void touch(String email) {
         if (email == null) return;
         String key = email.trim().toLowerCase(Locale.ROOT);
         if (key.isEmpty()) return;
 
-        Instant now = Instant.now();
-        Instant prev = lastWritten.get(key);
+        Instant now = clock.get();
+        Instant prev = lastTouched.get(key);
         if (prev != null && now.isBefore(prev.plus(throttle))) {
             return; // within throttle window
         }
-        // Race: two threads can both pass the check above, but the worst
-        // case is two near-simultaneous UPDATEs — same value, no harm.
-        lastWritten.put(key, now);
-        writeAsync(key, now);
+        if (prev != null || lastTouched.size() < maxTracked) {
+            lastTouched.put(key, now);
+        }
+        if (pending.containsKey(key) || pending.size() < maxTracked) {
+            pending.merge(key, now, (a, b) -> a.isAfter(b) ? a : b);
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Write every buffered bump. Rows only move forward in time, so an
+     * out-of-order flush (or another instance's) never rewinds presence.
+     * A failed chunk is re-buffered for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${sitprep.activity.flush-interval:PT10S}",
+            initialDelayString = "${sitprep.activity.flush-interval:PT10S}",
+            scheduler = SchedulingConfig.FLUSH_SCHEDULER)
+    public void flush() {
+        pruneThrottle();
+        if (pending.isEmpty()) return;
+
+        List<Map.Entry<String, Instant>> batch = new ArrayList<>(pending.size());
+        for (String key : pending.keySet()) {
+            Instant at = pending.remove(key);
+            if (at != null) batch.add(Map.entry(key, at));
+        }
+        for (int from = 0; from < batch.size(); from += FLUSH_CHUNK) {
+            List<Map.Entry<String, Instant>> chunk = batch.subList(from, Math.min(from + FLUSH_CHUNK, batch.size()));
+            try {
+                writeChunk(chunk);
+            } catch (Exception e) {
+                log.warn("LastActivityService flush of {} users failed, will retry: {}", chunk.size(), e.getMessage());
+                for (Map.Entry<String, Instant> entry : chunk) {
+                    pending.merge(entry.getKey(), entry.getValue(), (a, b) -> a.isAfter(b) ? a : b);
+                }
+            }
+        }
+        long lost = dropped.sumThenReset();
+        if (lost > 0) log.warn("LastActivityService dropped {} activity bumps (buffer full)", lost);
     }
 
-    @Async
-    @Transactional
-    void writeAsync(String email, Instant when) {
-        try {
-            userInfoRepo.findByUserEmailIgnoreCase(email).ifPresent(u -> {
-                u.setLastActiveAt(when);
-                userInfoRepo.save(u);
-            });
-        } catch (Exception e) {
-            log.debug("LastActivityService update failed for {}: {}", email, e.getMessage());
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void writeChunk(List<Map.Entry<String, Instant>> chunk) {
+        StringBuilder sql = new StringBuilder(
+                "UPDATE user_info u SET last_active_at = v.ts FROM (VALUES ");
+        Object[] args = new Object[chunk.size() * 2];
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(?, CAST(? AS timestamptz))");
+            args[i * 2] = chunk.get(i).getKey();
+            // Bound the way Hibernate binds an Instant, so a flushed value
+            // reads back exactly like one Hibernate wrote.
+            args[i * 2 + 1] = chunk.get(i).getValue().atOffset(ZoneOffset.UTC);
         }
+        sql.append(") AS v(email, ts) WHERE LOWER(u.user_email) = v.email")
+                .append(" AND (u.last_active_at IS NULL OR u.last_active_at < v.ts)");
+        jdbc.update(sql.toString(), args);
+    }
+
+    private void pruneThrottle() {
+        Instant cutoff = clock.get().minus(throttle);
+        lastTouched.values().removeIf(at -> at.isBefore(cutoff));
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    int trackedCount() {
+        return lastTouched.size();
     }
 }
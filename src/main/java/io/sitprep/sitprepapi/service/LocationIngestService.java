@@ -0,0 +1,394 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sentry.Sentry;
+import io.sitprep.sitprepapi.config.SchedulingConfig;
+import io.sitprep.sitprepapi.dto.MemberLocationFrame;
+import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.util.GeoUtil;
+import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind pipeline for presence-location pings
+ * ({@code PATCH /api/userinfo/me/location}).
+ *
+ * <p>During an active alert every member of a large org pings at once, so
+ * the request thread only validates and buffers: {@link #ingest} keeps the
+ * latest ping per user (latest-wins), and {@link #flush()} drains the
+ * buffer every couple of seconds in three stages:</p>
+ * <ol>
+ *   <li><b>Persist</b> — one narrow {@code UPDATE ... FROM (VALUES ...)}
+ *       per {@link #FLUSH_CHUNK} users touching only the
+ *       {@code last_known_*} columns. No entity load, no
+ *       {@code @Version} bump (a ping no longer turns a concurrent profile
+ *       edit into a 409), and rows only move forward in time. A failed
+ *       chunk is re-buffered unless a newer ping already replaced it.</li>
+ *   <li><b>Zip</b> — each ping's postcode comes from the in-memory
+ *       {@link OfflineReverseGeocoder} and is written by the same
+ *       statement. Pings it can't place (outside coverage, or every ping
+ *       in a build without the dataset) fall back: users with no cached
+ *       zip, or who moved ~2 mi since the last persisted position, are
+ *       queued for a Nominatim lookup on a
+ *       single background thread. That call never runs inside a
+ *       transaction or holds a pooled connection; the zip lands with its own
+ *       one-row update. Repeat requests for a user still queued collapse to
+ *       the newest position.</li>
+ *   <li><b>Fan-out</b> — memberships come from the in-memory
+ *       {@link GroupMembershipIndex}; explicit sharing modes, and the alert
+ *       state of groups where only an Active alert would allow sharing, are
+ *       read per flush in one batched query each, so a "never" or an
+ *       ended alert takes effect on the next flush on every instance.
+ *       Frames are held per group, latest-wins per member, and a group gets
+ *       at most one burst per {@code group-frame-interval}.</li>
+ * </ol>
+ *
+ * <p>All state is process-local and bounded like
+ * {@link LastActivityService}: past {@code max-tracked} users new pings
+ * are dropped until the next flush. A ping is a hint — the client sends
+ * another shortly — so shedding beats growing the heap.</p>
+ */
+@Service
+public class LocationIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationIngestService.class);
+
+    /** Users per UPDATE statement (five bind parameters each). */
+    static final int FLUSH_CHUNK = 500;
+
+    private static final String SHARE_ALWAYS = "always";
+    private static final String SHARE_CHECK_IN_ONLY = "check-in-only";
+    private static final String SHARE_NEVER = "never";
+
+    /** Latest buffered ping for one user. */
+    record Ping(double lat, double lng, Instant at) {
+        Ping newer(Ping other) {
+            return other.at.isAfter(at) ? other : this;
+        }
+    }
+
+    /**
+     * A persisted ping plus the position it replaced and the zip now on
+     * file; {@code zipResolved} when the offline geocoder supplied it.
+     */
+    record Persisted(String email, Ping ping, Double prevLat, Double prevLng, String zip, boolean zipResolved) {}
+
+    private final JdbcTemplate jdbc;
+    private final GroupRepo groupRepo;
+    private final GroupMembershipIndex membershipIndex;
+    private final UserInfoRepo userInfoRepo;
+    private final NominatimGeocodeService geocode;
+    private final OfflineReverseGeocoder offline;
+    private final WebSocketMessageSender ws;
+    private final Duration groupFrameInterval;
+    private final int maxTracked;
+    private final Supplier<Instant> clock;
+    private final Executor zipExecutor;
+
+    private final ConcurrentMap<String, Ping> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Ping> zipWanted = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    // Flush-thread only (flush() is synchronized).
+    private final Map<String, Map<String, MemberLocationFrame>> heldFrames = new HashMap<>();
+    private final Map<String, Instant> lastGroupBurst = new HashMap<>();
+
+    @Autowired
+    public LocationIngestService(
+            JdbcTemplate jdbc,
+            GroupRepo groupRepo,
+            GroupMembershipIndex membershipIndex,
+            UserInfoRepo userInfoRepo,
+            NominatimGeocodeService geocode,
+            OfflineReverseGeocoder offline,
+            WebSocketMessageSender ws,
+            @Value("${sitprep.location.group-frame-interval:PT5S}") String groupFrameInterval,
+            @Value("${sitprep.location.max-tracked:50000}") int maxTracked
+    ) {
+        this(jdbc, groupRepo, membershipIndex, userInfoRepo, geocode, offline, ws,
+                Duration.parse(groupFrameInterval), maxTracked, Instant::now, Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "location-zip-resolver");
+                    t.setDaemon(true);
+                    return t;
+                }));
+    }
+
+    LocationIngestService(JdbcTemplate jdbc, GroupRepo groupRepo, GroupMembershipIndex membershipIndex,
+                          UserInfoRepo userInfoRepo,
+                          NominatimGeocodeService geocode, OfflineReverseGeocoder offline,
+                          WebSocketMessageSender ws,
+                          Duration groupFrameInterval, int maxTracked,
+                          Supplier<Instant> clock, Executor zipExecutor) {
+        this.jdbc = jdbc;
+        this.groupRepo = groupRepo;
+        this.membershipIndex = membershipIndex;
+        this.userInfoRepo = userInfoRepo;
+        this.geocode = geocode;
+        this.offline = offline;
+        this.ws = ws;
+        this.groupFrameInterval = groupFrameInterval;
+        this.maxTracked = Math.max(1, maxTracked);
+        this.clock = clock;
+        this.zipExecutor = zipExecutor;
+    }
+
+    /**
+     * Buffer a ping for {@code email}. Throws {@link IllegalArgumentException}
+     * for out-of-range coordinates; otherwise never touches the DB. Unknown
+     * users are a silent no-op at flush time (the FE may have stale identity).
+     */
+    public void ingest(String email, Double lat, Double lng) {
+        if (email == null || email.isBlank() || lat == null || lng == null) return;
+        GeoUtil.requireValidLatLng(lat, lng);
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        Ping ping = new Ping(lat, lng, clock.get());
+        if (pending.containsKey(key) || pending.size() < maxTracked) {
+            pending.merge(key, ping, Ping::newer);
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sitprep.location.flush-interval:PT2S}",
+            initialDelayString = "${sitprep.location.flush-interval:PT2S}",
+            scheduler = SchedulingConfig.FLUSH_SCHEDULER)
+    public synchronized void flush() {
+        try {
+            List<Persisted> persisted = persistPending();
+            if (!persisted.isEmpty()) {
+                for (Persisted p : persisted) {
+                    if (p.zipResolved()) continue;
+                    if (p.zip() == null || movedMeaningfully(p.prevLat(), p.prevLng(), p.ping())) {
+                        requestZip(p.email(), p.ping());
+                    }
+                }
+                holdFrames(persisted);
+            }
+            publishFrames();
+        } catch (Exception e) {
+            log.warn("LocationIngest: flush failed: {}", e.getMessage(), e);
+            try { Sentry.captureException(e); } catch (Throwable ignored) {}
+        }
+        long lost = dropped.sumThenReset();
+        if (lost > 0) log.warn("LocationIngest: dropped {} location pings (buffer full)", lost);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    // ---------------------------------------------------------------- persist
+
+    private List<Persisted> persistPending() {
+        if (pending.isEmpty()) return List.of();
+        List<Map.Entry<String, Ping>> batch = new ArrayList<>(pending.size());
+        for (String key : pending.keySet()) {
+            Ping ping = pending.remove(key);
+            if (ping != null) batch.add(Map.entry(key, ping));
+        }
+        List<Persisted> out = new ArrayList<>(batch.size());
+        for (int from = 0; from < batch.size(); from += FLUSH_CHUNK) {
+            List<Map.Entry<String, Ping>> chunk = batch.subList(from, Math.min(from + FLUSH_CHUNK, batch.size()));
+            try {
+                out.addAll(writeChunk(chunk));
+            } catch (Exception e) {
+                log.warn("LocationIngest: write of {} pings failed, will retry", chunk.size(), e);
+                for (Map.Entry<String, Ping> entry : chunk) {
+                    pending.merge(entry.getKey(), entry.getValue(), Ping::newer);
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * One statement per chunk. An offline postcode overwrites the zip;
+     * without one the zip on file is kept. The self-join on {@code prev}
+     * reads the row as of statement start, so {@code RETURNING} can report
+     * the position this ping replaced alongside the zip now on file.
+     */
+    private List<Persisted> writeChunk(List<Map.Entry<String, Ping>> chunk) {
+        StringBuilder sql = new StringBuilder(
+                "UPDATE user_info u SET last_known_lat = v.lat, last_known_lng = v.lng, "
+                        + "last_known_location_at = v.ts, last_known_zip = COALESCE(v.zip, u.last_known_zip) "
+                        + "FROM (VALUES ");
+        Object[] args = new Object[chunk.size() * 5];
+        Map<String, Ping> byEmail = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(?, CAST(? AS double precision), CAST(? AS double precision), CAST(? AS timestamptz), "
+                    + "CAST(? AS varchar))");
+            Ping ping = chunk.get(i).getValue();
+            args[i * 5] = chunk.get(i).getKey();
+            args[i * 5 + 1] = ping.lat();
+            args[i * 5 + 2] = ping.lng();
+            // Bound the way Hibernate binds an Instant (see LastActivityService).
+            args[i * 5 + 3] = ping.at().atOffset(ZoneOffset.UTC);
+            args[i * 5 + 4] = offline.postcode(ping.lat(), ping.lng());
+            byEmail.put(chunk.get(i).getKey(), ping);
+        }
+        sql.append(") AS v(email, lat, lng, ts, zip), user_info prev")
+                .append(" WHERE LOWER(u.user_email) = v.email AND prev.user_id = u.user_id")
+                .append(" AND (u.last_known_location_at IS NULL OR u.last_known_location_at < v.ts)")
+                .append(" RETURNING v.email, prev.last_known_lat, prev.last_known_lng, u.last_known_zip,")
+                .append(" v.zip IS NOT NULL");
+        return jdbc.query(sql.toString(), (rs, i) -> {
+            String email = rs.getString(1);
+            double prevLat = rs.getDouble(2);
+            Double pLat = rs.wasNull() ? null : prevLat;
+            double prevLng = rs.getDouble(3);
+            Double pLng = rs.wasNull() ? null : prevLng;
+            return new Persisted(email, byEmail.get(email), pLat, pLng, rs.getString(4), rs.getBoolean(5));
+        }, args);
+    }
+
+    // ~0.03° ≈ 2mi in either axis — past this we re-resolve the zip.
+    static boolean movedMeaningfully(Double prevLat, Double prevLng, Ping ping) {
+        if (prevLat == null || prevLng == null) return true;
+        return Math.abs(prevLat - ping.lat()) > 0.03 || Math.abs(prevLng - ping.lng()) > 0.03;
+    }
+
+    // -------------------------------------------------------------------- zip
+
+    /**
+     * Queue a zip resolution. A user already queued just has their target
+     * moved to the newer position — the running drain picks it up.
+     */
+    private void requestZip(String email, Ping ping) {
+        if (zipWanted.put(email, ping) == null) {
+            zipExecutor.execute(() -> drainZip(email));
+        }
+    }
+
+    private void drainZip(String email) {
+        Ping ping;
+        while ((ping = zipWanted.get(email)) != null) {
+            try {
+                NominatimGeocodeService.Postal p = geocode.postal(ping.lat(), ping.lng());
+                if (p != null && p.postcode() != null && !p.postcode().isBlank()) {
+                    jdbc.update("UPDATE user_info SET last_known_zip = ? WHERE LOWER(user_email) = ?",
+                            p.postcode().trim(), email);
+                }
+            } catch (Exception e) {
+                // Best-effort: leave the existing zip; the next meaningful move retries.
+                log.debug("LocationIngest: zip refresh for {} failed: {}", email, e.getMessage());
+            }
+            // Only clears if no newer position arrived while we were resolving.
+            zipWanted.remove(email, ping);
+        }
+    }
+
+    // ---------------------------------------------------------------- fan-out
+
+    private void holdFrames(List<Persisted> persisted) {
+        Map<String, Persisted> byEmail = new LinkedHashMap<>();
+        for (Persisted p : persisted) byEmail.put(p.email(), p);
+
+        Map<String, Map<String, String>> modes = new HashMap<>();
+        for (Object[] row : userInfoRepo.findLocationSharingRows(byEmail.keySet())) {
+            modes.computeIfAbsent((String) row[0], k -> new HashMap<>()).put((String) row[1], (String) row[2]);
+        }
+        Map<String, List<GroupMembershipIndex.Membership>> audience = new LinkedHashMap<>();
+        Set<String> alertGated = new HashSet<>();
+        for (String email : byEmail.keySet()) {
+            List<GroupMembershipIndex.Membership> groups = membershipIndex.membershipsOf(email);
+            audience.put(email, groups);
+            for (GroupMembershipIndex.Membership m : groups) {
+                if (SHARE_CHECK_IN_ONLY.equals(effectiveMode(modes.get(email), m.groupId(), m.groupType()))) {
+                    alertGated.add(m.groupId());
+                }
+            }
+        }
+        Set<String> activeAlerts = alertGated.isEmpty()
+                ? Set.of()
+                : new HashSet<>(groupRepo.findActiveAlertGroupIds(alertGated));
+
+        for (Map.Entry<String, List<GroupMembershipIndex.Membership>> entry : audience.entrySet()) {
+            String email = entry.getKey();
+            Persisted p = byEmail.get(email);
+            for (GroupMembershipIndex.Membership m : entry.getValue()) {
+                boolean alertActive = activeAlerts.contains(m.groupId());
+                if (!shouldShareLocation(modes.get(email), m.groupId(), m.groupType(), alertActive)) continue;
+                heldFrames.computeIfAbsent(m.groupId(), k -> new LinkedHashMap<>())
+                        .put(email, new MemberLocationFrame(email, p.ping().lat(), p.ping().lng(), p.ping().at()));
+            }
+        }
+    }
+
+    /** Send each group's held frames unless it had a burst within the interval. */
+    private void publishFrames() {
+        Instant now = clock.get();
+        Instant cutoff = now.minus(groupFrameInterval);
+        lastGroupBurst.values().removeIf(at -> !at.isAfter(cutoff));
+        var it = heldFrames.entrySet().iterator();
+        while (it.hasNext()) {
+            var group = it.next();
+            if (lastGroupBurst.containsKey(group.getKey())) continue;
+            for (MemberLocationFrame frame : group.getValue().values()) {
+                ws.sendGroupMemberLocation(group.getKey(), frame);
+            }
+            lastGroupBurst.put(group.getKey(), now);
+            it.remove();
+        }
+    }
+
+    /**
+     * Same gate as {@code GroupViewService.shouldShareLocation}: an unset
+     * entry defaults to {@code check-in-only} for households and
+     * {@code never} otherwise; {@code never} is absolute even during an
+     * Active alert; unknown modes fail closed.
+     */
+    static boolean shouldShareLocation(Map<String, String> modes, String groupId,
+                                       String groupType, boolean alertActive) {
+        return switch (effectiveMode(modes, groupId, groupType)) {
+            case SHARE_ALWAYS -> true;
+            case SHARE_NEVER -> false;
+            case SHARE_CHECK_IN_ONLY -> alertActive;
+            default -> false;
+        };
+    }
+
+    /** The member's mode for {@code groupId}, with the per-type default applied. */
+    private static String effectiveMode(Map<String, String> modes, String groupId, String groupType) {
+        String mode = modes == null ? null : modes.get(groupId);
+        if (mode == null || mode.isBlank()) {
+            mode = HouseholdEventService.HOUSEHOLD_GROUP_TYPE.equalsIgnoreCase(groupType)
+                    ? SHARE_CHECK_IN_ONLY : SHARE_NEVER;
+        }
+        return mode;
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    int heldGroupCount() {
+        return heldFrames.size();
+    }
+}
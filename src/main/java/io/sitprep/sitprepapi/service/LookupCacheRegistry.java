@@ -0,0 +1,62 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.util.LookupCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Home of every {@link LookupCache} fronting an upstream OSM / FEMA call —
+ * {@link NominatimGeocodeService}, {@link GeocodeService} and
+ * {@link ShelterSearchService} create their caches here instead of each
+ * holding its own unbounded map.
+ *
+ * <p>Owns the two things a per-service map couldn't do: a scheduled
+ * sweep so expired entries don't sit in the heap until the same key is
+ * read again, and one place to read hit/miss/eviction counters from
+ * ({@code GET /api/admin/ops/caches}).</p>
+ */
+@Service
+public class LookupCacheRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(LookupCacheRegistry.class);
+
+    private final List<LookupCache<?>> caches = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create and register a cache.
+     *
+     * @param maxWeight   total weight bound (see {@code weigher})
+     * @param ttl         lifetime of a positive result
+     * @param negativeTtl lifetime of a result matching {@code isNegative}
+     */
+    public <V> LookupCache<V> create(String name, long maxWeight, Duration ttl, Duration negativeTtl,
+                                     ToIntFunction<V> weigher, Predicate<V> isNegative) {
+        LookupCache<V> cache = new LookupCache<>(name, maxWeight, ttl, negativeTtl, weigher, isNegative);
+        caches.add(cache);
+        return cache;
+    }
+
+    public List<LookupCache.Stats> stats() {
+        return caches.stream().map(LookupCache::stats).toList();
+    }
+
+    /** Drop expired entries from every cache so idle keys give their heap back. */
+    @Scheduled(fixedDelayString = "PT5M", initialDelayString = "PT5M")
+    public void sweepExpired() {
+        int dropped = 0;
+        for (LookupCache<?> c : caches) {
+            dropped += c.sweepExpired();
+        }
+        if (dropped > 0) {
+            log.debug("LookupCacheRegistry: swept {} expired entries", dropped);
+        }
+    }
+}
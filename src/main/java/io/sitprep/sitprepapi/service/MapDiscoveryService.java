@@ -1,21 +1,20 @@
 package io.sitprep.sitprepapi.service;
 
 import io.sitprep.sitprepapi.util.GeoUtil;
-import io.sitprep.sitprepapi.domain.Group;
 import io.sitprep.sitprepapi.domain.Post;
 import io.sitprep.sitprepapi.domain.Post.PostStatus;
-import io.sitprep.sitprepapi.domain.UserInfo;
 import io.sitprep.sitprepapi.dto.MapDiscoveryDto;
 import io.sitprep.sitprepapi.dto.MapPoiDto;
 import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.GroupSummaryRow;
 import io.sitprep.sitprepapi.repo.PostRepo;
-import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.repo.UserProfileCard;
+import io.sitprep.sitprepapi.service.GroupSummaryService.ViewerMemberships;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,15 +42,17 @@ public class MapDiscoveryService {
 
     private final GroupRepo groupRepo;
     private final PostRepo postRepo;
-    private final UserInfoRepo userInfoRepo;
+    private final ProfileCardService profileCards;
     private final ExternalPoiCacheService externalPois;
+    private final GroupSummaryService groupSummaries;
 
-    public MapDiscoveryService(GroupRepo groupRepo, PostRepo postRepo, UserInfoRepo userInfoRepo,
-                               ExternalPoiCacheService externalPois) {
+    public MapDiscoveryService(GroupRepo groupRepo, PostRepo postRepo, ProfileCardService profileCards,
+                               ExternalPoiCacheService externalPois, GroupSummaryService groupSummaries) {
         this.groupRepo = groupRepo;
         this.postRepo = postRepo;
-        this.userInfoRepo = userInfoRepo;
+        this.profileCards = profileCards;
         this.externalPois = externalPois;
+        this.groupSummaries = groupSummaries;
     }
 
     // Verified-publisher kinds that mark an OFFICIAL agency. Mirrors the small
@@ -85,23 +86,27 @@ public class MapDiscoveryService {
         double centerLat = (minLat + maxLat) / 2.0;
         double centerLng = (minLng + maxLng) / 2.0;
         int band = bandOf(zoom);
-        String viewer = viewerEmail == null ? null : viewerEmail.toLowerCase();
 
         List<MapPoiDto> pois = new ArrayList<>();
         List<String> sources = new ArrayList<>();
 
         // ── Proprietary: public groups (agencies always; joinable at z≥10) ──
-        List<Group> groups = groupRepo.findPublicInBounds(minLat, maxLat, minLng, maxLng);
-        Map<String, UserInfo> owners = batchOwners(groups);
+        // Summary rows + the viewer's membership ids: the pins never need a
+        // roster, so no group's member lists are loaded.
+        List<GroupSummaryRow> groups = groupRepo.findPublicSummariesInBounds(minLat, maxLat, minLng, maxLng);
+        ViewerMemberships memberships = groups.isEmpty()
+                ? ViewerMemberships.ANONYMOUS
+                : groupSummaries.membershipsOf(viewerEmail);
+        Map<String, UserProfileCard> owners = batchOwners(groups);
         sources.add("proprietary:group");
-        for (Group g : groups) {
-            Double lat = g.getLatitude();
-            Double lng = g.getLongitude();
+        for (GroupSummaryRow g : groups) {
+            Double lat = g.latitude();
+            Double lng = g.longitude();
             if (lat == null || lng == null) continue;
-            UserInfo owner = g.getOwnerEmail() == null ? null
-                    : owners.get(g.getOwnerEmail().toLowerCase());
-            boolean verified = owner != null && owner.isVerifiedPublisher();
-            String verifiedKind = verified ? owner.getVerifiedPublisherKind() : null;
+            UserProfileCard owner = g.ownerEmail() == null ? null
+                    : owners.get(g.ownerEmail().toLowerCase());
+            boolean verified = owner != null && owner.verifiedPublisher();
+            String verifiedKind = verified ? owner.verifiedPublisherKind() : null;
             boolean agency = isAgency(g, verified, verifiedKind);
 
             // Progressive disclosure: joinable (non-agency) groups only appear
@@ -109,16 +114,15 @@ public class MapDiscoveryService {
             if (!agency && band < 1) continue;
 
             double dist = haversineKm(centerLat, centerLng, lat, lng);
-            int memberCount = g.getMemberEmails() == null ? 0 : g.getMemberEmails().size();
             pois.add(new MapPoiDto(
-                    "group:" + g.getGroupId(),
+                    "group:" + g.groupId(),
                     agency ? "agency" : "group",
                     "proprietary:group",
-                    g.getGroupName(),
+                    g.groupName(),
                     lat, lng, round1(dist),
-                    verified, verifiedKind, memberCount,
-                    viewerRoleOf(g, viewer),
-                    agency && owner != null ? owner.getId() : null,
+                    verified, verifiedKind, g.memberCountOrZero(),
+                    memberships.roleOf(g),
+                    agency && owner != null ? owner.id() : null,
                     null, null, null, null,   // aid fields
                     null, null, null, null    // external fields
             ));
@@ -194,45 +198,22 @@ public class MapDiscoveryService {
     }
 
     // ── Helpers ─────────────────────────────────────────────────────────
-    private Map<String, UserInfo> batchOwners(List<Group> groups) {
+    private Map<String, UserProfileCard> batchOwners(List<GroupSummaryRow> groups) {
         List<String> emails = groups.stream()
-                .map(Group::getOwnerEmail)
+                .map(GroupSummaryRow::ownerEmail)
                 .filter(e -> e != null && !e.isBlank())
                 .map(String::toLowerCase)
                 .distinct()
                 .collect(Collectors.toList());
-        Map<String, UserInfo> byEmail = new HashMap<>();
-        if (!emails.isEmpty()) {
-            for (UserInfo u : userInfoRepo.findByUserEmailIn(emails)) {
-                if (u.getUserEmail() != null) byEmail.put(u.getUserEmail().toLowerCase(), u);
-            }
-        }
-        return byEmail;
+        return profileCards.cardsFor(emails);
     }
 
-    private static boolean isAgency(Group g, boolean verified, String verifiedKind) {
-        if (g.isAgencyAuthorized()) return true;
+    private static boolean isAgency(GroupSummaryRow g, boolean verified, String verifiedKind) {
+        if (g.agencyAuthorized()) return true;
         return verified && verifiedKind != null
                 && AGENCY_KINDS.contains(verifiedKind.trim().toLowerCase().replace('-', '_'));
     }
 
-    private static String viewerRoleOf(Group g, String viewerEmail) {
-        if (viewerEmail == null) return "NONE";
-        if (viewerEmail.equalsIgnoreCase(g.getOwnerEmail())) return "OWNER";
-        if (contains(g.getAdminEmails(), viewerEmail)) return "ADMIN";
-        if (contains(g.getMemberEmails(), viewerEmail)) return "MEMBER";
-        if (contains(g.getPendingMemberEmails(), viewerEmail)) return "PENDING";
-        return "NONE";
-    }
-
-    private static boolean contains(List<String> list, String needle) {
-        if (list == null) return false;
-        for (String e : list) {
-            if (e != null && e.equalsIgnoreCase(needle)) return true;
-        }
-        return false;
-    }
-
     private static String aidName(Post p) {
         if (p.getTitle() != null && !p.getTitle().isBlank()) return p.getTitle();
         String d = p.getDescription();
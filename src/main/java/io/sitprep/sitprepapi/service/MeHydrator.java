@@ -0,0 +1,287 @@
+package io.sitprep.sitprepapi.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent section runner for {@code MeService.buildMe}. The /me payload
+ * is a dozen-plus independent reads (groups, demographics, activation,
+ * read states, mutes, rituals, readiness engine, agency staff, ...);
+ * run one after another, first paint pays the SUM of their round-trips.
+ * {@link #fork} starts a section on a virtual thread and {@link Section#join}
+ * collects it, so a build pays roughly the slowest section per phase.
+ *
+ * <ul>
+ *   <li><b>Same tx contract as {@code safeGet}</b> — every section runs in
+ *       its own REQUIRES_NEW read-only tx via {@link MeSubfetchService}, so
+ *       one failing section still can't poison the others.</li>
+ *   <li><b>Bounded by the Hikari pool</b> — a process-wide semaphore
+ *       ({@code sitprep.me.hydration.parallelism}, default 5 against the
+ *       10-connection pool) caps how many sections hold a connection at
+ *       once across ALL concurrent /me builds, leaving the rest of the pool
+ *       for ordinary traffic. Sections queue on the permit, not on Hikari's
+ *       connection timeout, for at most
+ *       {@code sitprep.me.hydration.permit-wait}; a section that can't get
+ *       one in time degrades without ever running its query.</li>
+ *   <li><b>Per-section deadline</b> — measured from permit acquisition, so
+ *       a burst of concurrent builds doesn't spend a section's budget in
+ *       the queue. A section past its deadline degrades to its fallback
+ *       exactly like a failed {@code safeGet}: logged, recorded in
+ *       {@link MeBuildContext}, partial payload still ships. Its query is
+ *       left to finish (cancelled without interrupt — interrupting JDBC
+ *       mid-statement can poison the pooled connection); it keeps its
+ *       permit until then, bounded by the pool's statement timeout.</li>
+ *   <li><b>Timings</b> — per-section call / failure / timeout counts and
+ *       latency, read via {@link #stats()}
+ *       ({@code GET /api/admin/ops/me-hydration}).</li>
+ * </ul>
+ *
+ * <p>Sections receive everything they need as captured arguments; nothing
+ * here reads request thread-locals. {@link MeBuildContext} is only touched
+ * from {@link Section#join}, which runs on the request thread.</p>
+ */
+@Component
+public class MeHydrator {
+
+    private static final Logger log = LoggerFactory.getLogger(MeHydrator.class);
+
+    public record SectionStats(String section, long calls, long failures, long timeouts,
+                               double avgMs, double maxMs, double avgPermitWaitMs) {}
+
+    public record Stats(int parallelism, int permitsAvailable, Duration defaultDeadline, Duration permitWait,
+                        long builds, double avgBuildMs, double maxBuildMs,
+                        List<SectionStats> sections) {}
+
+    private final MeSubfetchService subfetch;
+    private final int parallelism;
+    private final Duration defaultDeadline;
+    private final Duration permitWait;
+    private final Semaphore permits;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("me-hydrate-", 0).factory());
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Timer builds = new Timer();
+
+    @Autowired
+    public MeHydrator(
+            MeSubfetchService subfetch,
+            @Value("${sitprep.me.hydration.parallelism:5}") int parallelism,
+            @Value("${sitprep.me.hydration.section-deadline:PT2S}") String defaultDeadline,
+            @Value("${sitprep.me.hydration.permit-wait:PT2S}") String permitWait
+    ) {
+        this(subfetch, parallelism, Duration.parse(defaultDeadline), Duration.parse(permitWait));
+    }
+
+    MeHydrator(MeSubfetchService subfetch, int parallelism, Duration defaultDeadline) {
+        this(subfetch, parallelism, defaultDeadline, defaultDeadline);
+    }
+
+    MeHydrator(MeSubfetchService subfetch, int parallelism, Duration defaultDeadline, Duration permitWait) {
+        this.subfetch = subfetch;
+        this.parallelism = Math.max(1, parallelism);
+        this.defaultDeadline = defaultDeadline;
+        this.permitWait = permitWait;
+        this.permits = new Semaphore(this.parallelism, true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Duration defaultDeadline() {
+        return defaultDeadline;
+    }
+
+    /** {@link #fork(String, String, Duration, Supplier, Object)} under the default deadline. */
+    public <T> Section<T> fork(String step, String logCtx, Supplier<T> op, T fallback) {
+        return fork(step, logCtx, defaultDeadline, op, fallback);
+    }
+
+    /**
+     * Start {@code op} concurrently in its own read-only tx. The returned
+     * section yields {@code op}'s result, or {@code fallback} when it
+     * returns null, throws, waits out the permit bound, or misses
+     * {@code deadline} (counted from when it got its permit).
+     */
+    public <T> Section<T> fork(String step, String logCtx, Duration deadline, Supplier<T> op, T fallback) {
+        long forked = System.nanoTime();
+        long permitByNanos = forked + permitWait.toNanos();
+        CompletableFuture<Long> admitted = new CompletableFuture<>();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!permits.tryAcquire(Math.max(0L, permitByNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                        result.completeExceptionally(new TimeoutException("no hydration permit within " + permitWait));
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                T value = null;
+                Throwable failure = null;
+                try {
+                    // The build gave up while this section queued: don't run the query.
+                    if (result.isDone()) return;
+                    long start = System.nanoTime();
+                    admitted.complete(start);
+                    try {
+                        value = subfetch.runReadOnly(op);
+                    } catch (Throwable t) {
+                        failure = t;
+                    }
+                    timer(step).record(System.nanoTime() - start, start - forked);
+                } finally {
+                    permits.release();
+                }
+                // Settle only after the permit is back, so a joined build never sees it held.
+                if (failure != null) result.completeExceptionally(failure);
+                else result.complete(value);
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return new Section<>(this, step, logCtx, admitted, result, permitByNanos, deadline.toNanos(), fallback);
+    }
+
+    /** Record one whole-build latency (request thread, fork to last join). */
+    void recordBuild(long nanos) {
+        builds.record(nanos);
+    }
+
+    private Timer timer(String step) {
+        return timers.computeIfAbsent(step, k -> new Timer());
+    }
+
+    public Stats stats() {
+        List<SectionStats> sections = timers.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingDouble(SectionStats::avgMs).reversed())
+                .toList();
+        SectionStats total = builds.snapshot("build");
+        return new Stats(parallelism, permits.availablePermits(), defaultDeadline, permitWait,
+                total.calls(), total.avgMs(), total.maxMs(), sections);
+    }
+
+    /** A forked section; {@link #join()} from the thread that owns the {@link MeBuildContext}. */
+    public static final class Section<T> {
+
+        private final MeHydrator owner;
+        private final String step;
+        private final String logCtx;
+        private final CompletableFuture<Long> admitted;
+        private final CompletableFuture<T> future;
+        private final long permitByNanos;
+        private final long deadlineNanos;
+        private final T fallback;
+
+        private Section(MeHydrator owner, String step, String logCtx, CompletableFuture<Long> admitted,
+                        CompletableFuture<T> future, long permitByNanos, long deadlineNanos, T fallback) {
+            this.owner = owner;
+            this.step = step;
+            this.logCtx = logCtx;
+            this.admitted = admitted;
+            this.future = future;
+            this.permitByNanos = permitByNanos;
+            this.deadlineNanos = deadlineNanos;
+            this.fallback = fallback;
+        }
+
+        /** An already-resolved section, for inputs that make the fetch pointless (blank email). */
+        public static <T> Section<T> completed(T value) {
+            CompletableFuture<T> done = CompletableFuture.completedFuture(value);
+            return new Section<>(null, null, null, CompletableFuture.completedFuture(0L), done, 0L, 0L, value);
+        }
+
+        /**
+         * Wait for a permit until the permit bound, then for the result until
+         * the section's deadline. Failures and timeouts are logged, marked
+         * degraded, and replaced by the fallback.
+         */
+        public T join() {
+            try {
+                if (!future.isDone()) {
+                    CompletableFuture.anyOf(admitted, future)
+                            .get(Math.max(0L, permitByNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                long dueNanos = admitted.isDone() ? admitted.getNow(0L) + deadlineNanos : System.nanoTime();
+                T result = future.get(Math.max(0L, dueNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                return result == null ? fallback : result;
+            } catch (TimeoutException e) {
+                future.cancel(false);
+                owner.timer(step).timeouts.increment();
+                log.warn("MeService: sub-fetch [{}] missed its deadline ({}). Using fallback.", step, logCtx);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof TimeoutException) {
+                    owner.timer(step).timeouts.increment();
+                } else {
+                    owner.timer(step).failures.increment();
+                }
+                log.warn("MeService: sub-fetch [{}] failed ({}). Using fallback. cause={}",
+                        step, logCtx, cause == null ? e.getMessage() : cause.getMessage());
+            } catch (CancellationException e) {
+                owner.timer(step).failures.increment();
+                log.warn("MeService: sub-fetch [{}] cancelled ({}). Using fallback.", step, logCtx);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(false);
+                log.warn("MeService: sub-fetch [{}] interrupted ({}). Using fallback.", step, logCtx);
+            }
+            MeBuildContext.markDegraded(step);
+            return fallback;
+        }
+    }
+
+    private static final class Timer {
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        final LongAdder permitWaitNanos = new LongAdder();
+
+        void record(long took) {
+            record(took, 0L);
+        }
+
+        void record(long took, long waited) {
+            calls.increment();
+            nanos.add(took);
+            maxNanos.accumulate(took);
+            permitWaitNanos.add(waited);
+        }
+
+        SectionStats snapshot(String name) {
+            long c = calls.sum();
+            return new SectionStats(name, c, failures.sum(), timeouts.sum(),
+                    c == 0 ? 0.0 : nanos.sum() / 1e6 / c, maxNanos.get() / 1e6,
+                    c == 0 ? 0.0 : permitWaitNanos.sum() / 1e6 / c);
+        }
+    }
+}
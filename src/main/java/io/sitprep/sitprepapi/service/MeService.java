@@ -10,13 +10,17 @@ import io.sitprep.sitprepapi.dto.MeDto.*;
 import io.sitprep.sitprepapi.dto.MemberAvatar;
 import io.sitprep.sitprepapi.dto.MePlansDto;
 import io.sitprep.sitprepapi.dto.PublicProfileDto;
+import io.sitprep.sitprepapi.dto.ReadinessDtos.CommsReadinessDto;
+import io.sitprep.sitprepapi.dto.ReadinessDtos.PulseDto;
 import io.sitprep.sitprepapi.repo.*;
+import io.sitprep.sitprepapi.service.MeHydrator.Section;
 import io.sitprep.sitprepapi.util.Geo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Supplier;
@@ -35,6 +39,13 @@ import java.util.function.Supplier;
  * {@link #safeGet} — if demographics has a duplicate row, meal plan table is
  * mid-migration, or a single group id is dirty, we log + degrade to null/empty
  * rather than failing the whole payload.</p>
+ *
+ * <p>The sub-fetches of {@link #buildMe} are independent round-trips, so
+ * they run concurrently through {@link MeHydrator} (virtual threads, a
+ * permit bound below the Hikari pool, a deadline per section) with the
+ * same degrade-to-fallback contract as {@code safeGet}: a section that
+ * fails OR runs past its deadline ships null/empty and is listed in
+ * {@code degradedSections}.</p>
  */
 @Service
 public class MeService {
@@ -65,6 +76,8 @@ public class MeService {
     private final HouseholdReadinessService readinessEngine;
     private final ObjectMapper objectMapper;
     private final AgencyStaffService agencyStaffService;
+    private final MeHydrator hydrator;
+    private final ProfileCardService profileCards;
 
     public MeService(
             UserInfoRepo userInfoRepo,
@@ -87,7 +100,9 @@ public class MeService {
             GoBagService goBagService,
             HouseholdReadinessService readinessEngine,
             ObjectMapper objectMapper,
-            AgencyStaffService agencyStaffService
+            AgencyStaffService agencyStaffService,
+            MeHydrator hydrator,
+            ProfileCardService profileCards
     ) {
         this.userInfoRepo = userInfoRepo;
         this.groupRepo = groupRepo;
@@ -110,6 +125,8 @@ public class MeService {
         this.readinessEngine = readinessEngine;
         this.objectMapper = objectMapper;
         this.agencyStaffService = agencyStaffService;
+        this.hydrator = hydrator;
+        this.profileCards = profileCards;
     }
 
     /**
@@ -132,8 +149,10 @@ public class MeService {
      * is intentionally absent: each sub-fetch runs in its own REQUIRES_NEW
      * read-only tx via {@link MeSubfetchService}, so one bad row no longer
      * leaves the outer transaction marked rollback-only and poisons the
-     * remaining sub-fetches. Section names that degraded land in the
-     * returned {@link MeBuildResult#degradedSections}.
+     * remaining sub-fetches. Sub-fetches run concurrently on
+     * {@link MeHydrator}; section names that degraded (failed or missed
+     * their deadline) land in the returned
+     * {@link MeBuildResult#degradedSections}.
      */
     public Optional<MeBuildResult> buildMe(String firebaseUid) {
         return buildMe(firebaseUid, Optional.empty());
@@ -222,6 +241,7 @@ public class MeService {
             if (picture == null || picture.isBlank()) return;
             user.setProfileImageUrl(picture.trim());
             userInfoRepo.save(user);
+            profileCards.invalidate(user.getUserEmail());
         } catch (Exception e) {
             log.debug("MeService: provider-image backfill skipped uid={} cause={}",
                     user.getFirebaseUid(), e.getMessage());
@@ -232,7 +252,16 @@ public class MeService {
         return assemble(user, Optional.empty());
     }
 
+    /**
+     * Hydration runs in three phases on {@link MeHydrator}. Phase 1 forks
+     * every read keyed only by the user; phase 2 forks the reads that need
+     * the group membership from phase 1; phase 3 forks the readiness
+     * pieces that need the member profiles from phase 2, then assembles.
+     * Each section joins under its own deadline and degrades to its
+     * fallback the same way {@link #safeGet} does.
+     */
     private MeDto assemble(UserInfo user, Optional<String> profileLookup) {
+        long buildStarted = System.nanoTime();
         String email = Optional.ofNullable(user.getUserEmail())
                 .map(String::trim).map(String::toLowerCase).orElse("");
         String logCtx = "uid=" + user.getFirebaseUid() + " email=" + email;
@@ -242,14 +271,16 @@ public class MeService {
         // so a member who didn't author the record still sees it as present.
         final String baseHouseholdId = user.getBaseHouseholdId();
 
-        // Demographic stays inline — used for HouseholdDto.demographic AND
-        // for the demographicsDone readiness flag, so a single fetch. It is
+        // ---- Phase 1: user-keyed reads, all in flight at once. ----
+
+        // Demographic — used for HouseholdDto.demographic AND for the
+        // demographicsDone readiness flag, so a single fetch. It is
         // HOUSEHOLD-owned (keyed by householdId; the food calculator reads it
         // household-scoped). Resolve household-first, owner-email fallback — an
         // owner-only lookup left the "Household Demographics" dashboard card
         // stuck not-done for non-authoring members (the same class of bug the
         // meal plan had).
-        Demographic demographic = safeGet("demographic", logCtx,
+        Section<Demographic> demographicS = hydrator.fork("demographic", logCtx,
                 () -> (baseHouseholdId != null && !baseHouseholdId.isBlank()
                             ? demographicRepo.findFirstByHouseholdIdOrderByIdDesc(baseHouseholdId)
                             : Optional.<Demographic>empty())
@@ -265,32 +296,95 @@ public class MeService {
         // has it under a different ownerEmail, so an owner-only check left the
         // "Emergency Food Planner" dashboard card stuck not-done for them.
         // Resolve household-first (base household), fall back to owner-email.
-        boolean hasMealPlan = email.isBlank() ? false : safeGet("hasMealPlan", logCtx,
+        Section<Boolean> hasMealPlanS = forkForEmail(email, "hasMealPlan", logCtx,
                 () -> (baseHouseholdId != null && !baseHouseholdId.isBlank()
                             && mealPlanDataRepo.existsByHouseholdId(baseHouseholdId))
                         || mealPlanDataRepo.existsByOwnerEmailIgnoreCase(email), false);
-        boolean hasEvac = email.isBlank() ? false : safeGet("hasEvac", logCtx,
+        Section<Boolean> hasEvacS = forkForEmail(email, "hasEvac", logCtx,
                 () -> evacuationPlanRepo.existsByOwnerEmailIgnoreCase(email), false);
-        boolean hasContacts = email.isBlank() ? false : safeGet("hasContacts", logCtx,
+        Section<Boolean> hasContactsS = forkForEmail(email, "hasContacts", logCtx,
                 () -> emergencyContactGroupRepo.existsByOwnerEmailIgnoreCase(email), false);
 
         // Authoritative membership lookup: read from the Group side, not the
         // denormalized UserInfo.managedGroupIDs/joinedGroupIDs cache. That
         // cache can drift; Group.ownerEmail/adminEmails/memberEmails are source
         // of truth. ownerEmail matters for agencies created before the owner
-        // signs in for the first time.
-        List<Group> ownerGroupList = safeGet("groupRepo.findByOwnerEmailIgnoreCase", logCtx,
-                () -> email.isBlank() ? List.<Group>of() : groupRepo.findByOwnerEmailIgnoreCase(email),
-                List.of());
-        List<Group> adminGroupList = safeGet("groupRepo.findByAdminEmail", logCtx,
-                () -> email.isBlank() ? List.<Group>of() : groupRepo.findByAdminEmail(email),
-                List.of());
-        List<Group> memberGroupList = safeGet("groupRepo.findByMemberEmail", logCtx,
-                () -> email.isBlank() ? List.<Group>of() : groupRepo.findByMemberEmail(email),
-                List.of());
-        List<Group> pendingGroupList = safeGet("groupRepo.findByPendingMemberEmail", logCtx,
-                () -> email.isBlank() ? List.<Group>of() : groupRepo.findByPendingMemberEmail(email),
-                List.of());
+        // signs in for the first time. Membership is the spine of the payload
+        // (every circle card hangs off it), so these get a double deadline.
+        Duration membershipDeadline = hydrator.defaultDeadline().multipliedBy(2);
+        Section<List<Group>> ownerGroupsS = forkForEmail(email, "groupRepo.findByOwnerEmailIgnoreCase",
+                logCtx, membershipDeadline, () -> groupRepo.findByOwnerEmailIgnoreCase(email), List.of());
+        Section<List<Group>> adminGroupsS = forkForEmail(email, "groupRepo.findByAdminEmail",
+                logCtx, membershipDeadline, () -> groupRepo.findByAdminEmail(email), List.of());
+        Section<List<Group>> memberGroupsS = forkForEmail(email, "groupRepo.findByMemberEmail",
+                logCtx, membershipDeadline, () -> groupRepo.findByMemberEmail(email), List.of());
+        Section<List<Group>> pendingGroupsS = forkForEmail(email, "groupRepo.findByPendingMemberEmail",
+                logCtx, membershipDeadline, () -> groupRepo.findByPendingMemberEmail(email), List.of());
+
+        // Per-(user,group) last-read pointers for the unread badge / Unread
+        // filter. ONE query; per-group lookup is in-memory. Empty map → all
+        // groups read=0 (deliberate "start clean on rollout").
+        Section<Map<String, Instant>> readMapS = forkForEmail(email, "groupReadStates", logCtx, () -> {
+            Map<String, Instant> m = new HashMap<>();
+            for (var s : groupReadStateRepo.findByUserEmailIgnoreCase(email)) {
+                if (s.getGroupId() != null && s.getLastReadAt() != null) {
+                    m.put(s.getGroupId(), s.getLastReadAt());
+                }
+            }
+            return m;
+        }, Map.of());
+
+        // Per-(user,group) mute + quiet-hours prefs; split into maps below.
+        Section<List<GroupMutePref>> mutePrefsS = forkForEmail(email, "groupMutePrefs", logCtx,
+                () -> groupMutePrefRepo.findByUserEmailIgnoreCase(email), List.of());
+
+        // Agency STAFF (fourth group source, D-d): the set of agency-authorized
+        // groups this viewer is STAFF of — independent of owner/admin/member role.
+        // Folded into each GroupSummary's agencyStaff flag, and used below to
+        // surface staff-only agencies (staff but not a member) that the
+        // membership-derived buckets would otherwise miss entirely.
+        Section<Set<String>> staffGroupIdsS = forkForEmail(email, "agencyStaff", logCtx,
+                () -> agencyStaffService.staffGroupIdsFor(email), Set.of());
+
+        // Most recent non-expired activation owned by this user, if any.
+        // Drives the Active Dashboard auto-promote on /home (per
+        // docs/ECOSYSTEM_INTEGRATION.md step 5).
+        Section<String> activeActivationS = forkForEmail(email, "activeActivationId", logCtx,
+                () -> planActivationRepo
+                        .findFirstActiveByOwnerEmail(email, Instant.now())
+                        .map(a -> a.getId())
+                        .orElse(null),
+                null);
+
+        // Opt-in public-profile preview (audit BE-12 / P2-15). Only
+        // populated when the caller passed {@code ?profile=<idOrEmail>}.
+        // Delegates to UserInfoService.getPublicProfile so the viewer-
+        // relationship + block + privacy-gate semantics match the
+        // dedicated profile endpoint exactly. A bad lookup key never sinks
+        // the rest of /me — degraded section surfaces as "profilePreview"
+        // in ApiMeta.
+        Section<PublicProfileDto> profilePreviewS = profileLookup
+                .filter(s -> s != null && !s.isBlank())
+                .map(lookup -> hydrator.fork("profilePreview", logCtx,
+                        () -> userInfoService.getPublicProfile(lookup, email).orElse(null),
+                        (PublicProfileDto) null))
+                .orElseGet(() -> Section.completed(null));
+        Section<List<String>> permissionsS = forkForEmail(email, "platformPermissions", logCtx,
+                () -> platformAccessService.resolve(email).permissionNames(), List.of());
+
+        // Readiness inputs that only need the email (see computeReadiness).
+        Section<PillarRollup> pillarsS = forkForEmail(email, "pillarRollup", "email=" + email,
+                () -> computePillarRollup(email), null);
+        Section<CommsReadinessDto> commsS = forkForEmail(email, "readinessComms", "email=" + email,
+                () -> readinessEngine.commsFor(email), null);
+
+        List<Group> ownerGroupList = ownerGroupsS.join();
+        List<Group> adminGroupList = adminGroupsS.join();
+        List<Group> memberGroupList = memberGroupsS.join();
+        List<Group> pendingGroupList = pendingGroupsS.join();
+        Map<String, Instant> readMap = readMapS.join();
+        Set<String> staffGroupIds = staffGroupIdsS.join();
+        PillarRollup pillars = pillarsS.join();
 
         Map<String, Group> groupsById = new LinkedHashMap<>();
         for (Group g : ownerGroupList) {
@@ -326,10 +420,25 @@ public class MeService {
                 .findFirst()
                 .orElse(householdGroups.isEmpty() ? null : householdGroups.get(0));
 
+        // Agencies where the viewer is STAFF but is NOT owner/admin/member (so
+        // absent from groupsById) and has no pending request — fetched in
+        // phase 2 and surfaced in `joined` below.
+        Set<String> representedIds = new HashSet<>(groupsById.keySet());
+        for (Group g : pendingGroupList) {
+            if (g == null || g.getGroupId() == null) continue;
+            if ("Household".equalsIgnoreCase(g.getGroupType())) continue;
+            representedIds.add(g.getGroupId());
+        }
+        List<String> missingStaffIds = staffGroupIds.stream()
+                .filter(id -> id != null && !representedIds.contains(id))
+                .toList();
+
+        // ---- Phase 2: reads that hang off the membership. ----
+
         // Member-avatar preview — ONE batched profile lookup for the
         // circle-card + Home-base member stacks (up to 4 emails per circle).
         // Keyed by lowercased email so previewFor() matches case-insensitively.
-        java.util.Set<String> previewEmails = new java.util.LinkedHashSet<>();
+        Set<String> previewEmails = new LinkedHashSet<>();
         for (Group g : groupsById.values()) {
             if (g.getGroupId() != null && householdIds.contains(g.getGroupId())) continue;
             if (g.getMemberEmails() != null)
@@ -337,42 +446,15 @@ public class MeService {
         }
         if (baseHousehold != null && baseHousehold.getMemberEmails() != null)
             baseHousehold.getMemberEmails().stream().filter(Objects::nonNull).limit(4).forEach(previewEmails::add);
-        java.util.Map<String, UserInfo> profileMap = new java.util.HashMap<>();
-        if (!previewEmails.isEmpty()) {
-            for (UserInfo u : userInfoRepo.findByUserEmailIn(new ArrayList<>(previewEmails))) {
-                if (u.getUserEmail() != null) profileMap.putIfAbsent(u.getUserEmail().toLowerCase(), u);
-            }
-        }
-
-        // Per-(user,group) last-read pointers for the unread badge / Unread
-        // filter. ONE query; per-group lookup is in-memory. Empty map → all
-        // groups read=0 (deliberate "start clean on rollout").
-        java.util.Map<String, java.time.Instant> readMap = new java.util.HashMap<>();
-        if (email != null && !email.isBlank()) {
-            for (var s : groupReadStateRepo.findByUserEmailIgnoreCase(email)) {
-                if (s.getGroupId() != null && s.getLastReadAt() != null) {
-                    readMap.put(s.getGroupId(), s.getLastReadAt());
-                }
-            }
-        }
-
-        // Per-(user,group) mute + quiet-hours pref. Same one-query-
-        // then-in-memory pattern. Past mute deadlines are filtered
-        // out at populate time so the wire only carries deadlines
-        // the FE should treat as active. Quiet-hours fields are
-        // carried verbatim — enforcement decides at dispatch time.
-        java.util.Map<String, java.time.Instant> muteMap = new java.util.HashMap<>();
-        java.util.Map<String, io.sitprep.sitprepapi.domain.GroupMutePref> prefMap = new java.util.HashMap<>();
-        if (email != null && !email.isBlank()) {
-            java.time.Instant now = java.time.Instant.now();
-            for (var m : groupMutePrefRepo.findByUserEmailIgnoreCase(email)) {
-                if (m.getGroupId() == null) continue;
-                prefMap.put(m.getGroupId(), m);
-                if (m.getMutedUntil() == null) continue;
-                if (m.getMutedUntil().isBefore(now)) continue;
-                muteMap.put(m.getGroupId(), m.getMutedUntil());
-            }
-        }
+        Section<Map<String, UserInfo>> profileMapS = previewEmails.isEmpty()
+                ? Section.completed(Map.of())
+                : hydrator.fork("memberPreviews", logCtx, () -> {
+                    Map<String, UserInfo> m = new HashMap<>();
+                    for (UserInfo u : userInfoRepo.findByUserEmailIn(new ArrayList<>(previewEmails))) {
+                        if (u.getUserEmail() != null) m.putIfAbsent(u.getUserEmail().toLowerCase(), u);
+                    }
+                    return m;
+                }, Map.of());
 
         // Per-group most-recent-post timestamp for the "Active vs Quiet"
         // freshness meta. ONE batched query across every group the user
@@ -380,42 +462,122 @@ public class MeService {
         // fall back to Group.updatedAt in lastActivityFor(). The
         // existing findLatestPostsByGroupIds already correlates MAX(ts)
         // per groupId, so we just keep the timestamp.
-        java.util.Map<String, java.time.Instant> latestPostMap = new java.util.HashMap<>();
-        if (!groupsById.isEmpty()) {
-            java.util.List<String> allIds = new java.util.ArrayList<>(groupsById.keySet());
-            try {
-                for (var p : groupPostRepo.findLatestPostsByGroupIds(allIds)) {
-                    if (p.getGroupId() == null || p.getTimestamp() == null) continue;
-                    java.time.Instant cur = latestPostMap.get(p.getGroupId());
-                    // The query can return >1 row per group when multiple
-                    // posts share the exact MAX(timestamp) — keep the
-                    // larger / first non-null.
-                    if (cur == null || p.getTimestamp().isAfter(cur)) {
-                        latestPostMap.put(p.getGroupId(), p.getTimestamp());
+        List<String> allIds = new ArrayList<>(groupsById.keySet());
+        Section<Map<String, Instant>> latestPostMapS = allIds.isEmpty()
+                ? Section.completed(Map.of())
+                : hydrator.fork("latestPosts", logCtx, () -> {
+                    Map<String, Instant> m = new HashMap<>();
+                    for (var p : groupPostRepo.findLatestPostsByGroupIds(allIds)) {
+                        if (p.getGroupId() == null || p.getTimestamp() == null) continue;
+                        Instant cur = m.get(p.getGroupId());
+                        // The query can return >1 row per group when multiple
+                        // posts share the exact MAX(timestamp) — keep the
+                        // larger / first non-null.
+                        if (cur == null || p.getTimestamp().isAfter(cur)) {
+                            m.put(p.getGroupId(), p.getTimestamp());
+                        }
                     }
-                }
-            } catch (Exception e) {
-                log.warn("MeService: latestPostMap fetch failed ({}). Falling back to updatedAt. cause={}",
-                        logCtx, e.getMessage());
-            }
+                    return m;
+                }, Map.of());
+
+        // Unread badge counts for every group with a read pointer, in one
+        // section (one tx) instead of one autocommit round-trip per card.
+        Map<String, Instant> unreadSince = new HashMap<>();
+        for (String id : allIds) {
+            Instant since = readMap.get(id);
+            if (since != null) unreadSince.put(id, since);
+        }
+        for (String id : missingStaffIds) {
+            Instant since = readMap.get(id);
+            if (since != null) unreadSince.put(id, since);
         }
+        Section<Map<String, Integer>> unreadS = unreadSince.isEmpty()
+                ? Section.completed(Map.of())
+                : hydrator.fork("unreadCounts", logCtx, () -> {
+                    Map<String, Integer> m = new HashMap<>();
+                    unreadSince.forEach((id, since) ->
+                            m.put(id, groupPostRepo.countByGroupIdAndTimestampAfter(id, since)));
+                    return m;
+                }, Map.of());
+
+        Section<List<Group>> staffOnlyGroupsS = missingStaffIds.isEmpty()
+                ? Section.completed(List.of())
+                : hydrator.fork("agencyStaffGroups", logCtx,
+                        () -> groupRepo.findAllById(missingStaffIds), List.of());
+
+        // §4 — weekly check-in ritual for the base household. Bounded since
+        // at-most-one ritual per (household, kind) in Round 1. Null when the
+        // admin hasn't opted in yet; the FE renders "Set a weekly check-in".
+        final String baseHouseholdGroupId = baseHousehold == null ? null : baseHousehold.getGroupId();
+        Section<HouseholdRitual> ritualS = baseHouseholdGroupId == null
+                ? Section.completed(null)
+                : hydrator.fork("household.ritual", "household=" + baseHouseholdGroupId,
+                        () -> householdRitualRepo.findFirstByHouseholdIdAndKind(baseHouseholdGroupId, "check-in")
+                                .orElse(null),
+                        null);
 
-        // Agency STAFF (fourth group source, D-d): the set of agency-authorized
-        // groups this viewer is STAFF of — independent of owner/admin/member role.
-        // Folded into each GroupSummary's agencyStaff flag, and used below to
-        // surface staff-only agencies (staff but not a member) that the
-        // membership-derived buckets would otherwise miss entirely.
-        java.util.Set<String> staffGroupIds = agencyStaffService.staffGroupIdsFor(email);
+        // Challenge progress — dedicated fetch inside a live read-only
+        // subfetch (P2 followup, done 2026-06-29). Group has 7
+        // @ElementCollections, which exceeds Hibernate's single-SELECT
+        // bag-fetch budget — the extras become secondary selects that
+        // need a live session to materialize. The base household was
+        // loaded inside a REQUIRES_NEW tx in its phase-1 section, so its
+        // session is long closed; walking getChallengeProgress() on it
+        // threw LazyInitializationException on EVERY /me call. Re-fetch the
+        // household by id inside the section's own tx so the collection
+        // initializes in an OPEN session; the map copy then detaches
+        // cleanly onto the DTO. Failures still degrade to an empty map.
+        Section<Map<String, Boolean>> challengeS = baseHouseholdGroupId == null
+                ? Section.completed(Map.of())
+                : hydrator.fork("household.challengeProgress", "household=" + baseHouseholdGroupId, () -> {
+                    Group fresh = groupRepo.findByGroupId(baseHouseholdGroupId).orElse(null);
+                    if (fresh == null || fresh.getChallengeProgress() == null) {
+                        return Map.<String, Boolean>of();
+                    }
+                    // Touched inside the live read-only tx → the
+                    // secondary select runs; the copy detaches it.
+                    return new HashMap<>(fresh.getChallengeProgress());
+                }, Map.of());
+
+        Section<PulseDto> pulseS = hydrator.fork("readinessPulse", "email=" + email,
+                () -> readinessEngine.pulseFor(pillars, baseHousehold), null);
+
+        Map<String, UserInfo> profileMap = profileMapS.join();
+
+        // ---- Phase 3: needs the member profiles. ----
+        Section<String> dominantS = baseHousehold == null
+                ? Section.completed(null)
+                : hydrator.fork("householdDominantStatus", "email=" + email,
+                        () -> readinessEngine.dominantStatusFor(baseHousehold, profileMap), null);
+
+        // Per-(user,group) mute + quiet-hours pref. Past mute deadlines are
+        // filtered out at populate time so the wire only carries deadlines
+        // the FE should treat as active. Quiet-hours fields are carried
+        // verbatim — enforcement decides at dispatch time.
+        Map<String, Instant> muteMap = new HashMap<>();
+        Map<String, GroupMutePref> prefMap = new HashMap<>();
+        Instant now = Instant.now();
+        for (var m : mutePrefsS.join()) {
+            if (m.getGroupId() == null) continue;
+            prefMap.put(m.getGroupId(), m);
+            if (m.getMutedUntil() == null) continue;
+            if (m.getMutedUntil().isBefore(now)) continue;
+            muteMap.put(m.getGroupId(), m.getMutedUntil());
+        }
+
+        Map<String, Instant> latestPostMap = latestPostMapS.join();
+        Map<String, Integer> unreadCounts = unreadS.join();
+        GroupCardContext cards = new GroupCardContext(
+                email, profileMap, unreadCounts, latestPostMap, muteMap, prefMap, staffGroupIds);
 
         List<GroupSummary> managed = new ArrayList<>();
         List<GroupSummary> joined = new ArrayList<>();
         List<GroupSummary> pending = new ArrayList<>();
-        java.util.Set<String> representedIds = new java.util.HashSet<>(groupsById.keySet());
         for (Group g : groupsById.values()) {
             // Households live in their own "Your households" section, never in
             // the circles lists.
             if (g.getGroupId() != null && householdIds.contains(g.getGroupId())) continue;
-            GroupSummary summary = toGroupSummary(g, email, profileMap, readMap, latestPostMap, muteMap, prefMap, staffGroupIds);
+            GroupSummary summary = toGroupSummary(g, cards);
             boolean isOwner = email != null && !email.isBlank()
                     && email.equalsIgnoreCase(g.getOwnerEmail());
             if (isOwner || adminGroupIds.contains(g.getGroupId())) managed.add(summary);
@@ -424,24 +586,17 @@ public class MeService {
         for (Group g : pendingGroupList) {
             if (g == null || g.getGroupId() == null || groupsById.containsKey(g.getGroupId())) continue;
             if ("Household".equalsIgnoreCase(g.getGroupType())) continue;
-            representedIds.add(g.getGroupId());
             pending.add(toPendingGroupSummary(g, staffGroupIds));
         }
-        // Fourth source: agencies where the viewer is STAFF but is NOT owner/admin/
-        // member (so absent from groupsById) and has no pending request. Surface
-        // them in `joined` so the workspace switcher (isAgencyWorkspaceEligible)
-        // can see them; role resolves to "none" and agencyStaff=true. Households
-        // and any non-agency-authorized row are skipped.
-        List<String> missingStaffIds = staffGroupIds.stream()
-                .filter(id -> id != null && !representedIds.contains(id))
-                .toList();
-        if (!missingStaffIds.isEmpty()) {
-            for (Group g : groupRepo.findAllById(missingStaffIds)) {
-                if (g == null || g.getGroupId() == null) continue;
-                if (householdIds.contains(g.getGroupId())) continue;
-                if (!g.isAgencyAuthorized()) continue;
-                joined.add(toGroupSummary(g, email, profileMap, readMap, latestPostMap, muteMap, prefMap, staffGroupIds));
-            }
+        // Fourth source: staff-only agencies. Surface them in `joined` so the
+        // workspace switcher (isAgencyWorkspaceEligible) can see them; role
+        // resolves to "none" and agencyStaff=true. Households and any
+        // non-agency-authorized row are skipped.
+        for (Group g : staffOnlyGroupsS.join()) {
+            if (g == null || g.getGroupId() == null) continue;
+            if (householdIds.contains(g.getGroupId())) continue;
+            if (!g.isAgencyAuthorized()) continue;
+            joined.add(toGroupSummary(g, cards));
         }
 
         // Per-household summaries for the "Your households" section.
@@ -452,55 +607,53 @@ public class MeService {
             households.add(toHouseholdSummary(g, email, isBase));
         }
 
+        Demographic demographic = demographicS.join();
         HouseholdDto householdDto = baseHousehold == null ? null
-                : toHouseholdDto(baseHousehold, demographic, profileMap, readMap, latestPostMap, muteMap, prefMap);
+                : toHouseholdDto(baseHousehold, demographic, cards, ritualS.join(), challengeS.join());
 
         ReadinessDto readiness = computeReadiness(
-                user, householdDto, demographic != null, hasMealPlan, hasEvac, hasContacts, email,
-                baseHousehold, profileMap
+                user, householdDto, demographic != null,
+                hasMealPlanS.join(), hasEvacS.join(), hasContactsS.join(), email,
+                baseHousehold, pillars, pulseS.join(), commsS.join(), dominantS.join()
         );
 
-        // Most recent non-expired activation owned by this user, if any.
-        // Drives the Active Dashboard auto-promote on /home (per
-        // docs/ECOSYSTEM_INTEGRATION.md step 5). Wrapped in safeGet so a
-        // misbehaving query doesn't sink the whole /me payload.
-        String activeActivationId = email.isBlank() ? null : safeGet(
-                "activeActivationId", logCtx,
-                () -> planActivationRepo
-                        .findFirstActiveByOwnerEmail(email, Instant.now())
-                        .map(a -> a.getId())
-                        .orElse(null),
-                null);
-
-        // Opt-in public-profile preview (audit BE-12 / P2-15). Only
-        // populated when the caller passed {@code ?profile=<idOrEmail>}.
-        // Delegates to UserInfoService.getPublicProfile so the viewer-
-        // relationship + block + privacy-gate semantics match the
-        // dedicated profile endpoint exactly. Wrapped in safeGet so a
-        // bad lookup key never sinks the rest of /me — degraded section
-        // surfaces as "profilePreview" in ApiMeta.
-        PublicProfileDto profilePreview = profileLookup
-                .filter(s -> s != null && !s.isBlank())
-                .map(lookup -> safeGet(
-                        "profilePreview", logCtx,
-                        () -> userInfoService.getPublicProfile(lookup, email).orElse(null),
-                        null))
-                .orElse(null);
-        List<String> platformPermissions = email.isBlank() ? List.of() : safeGet(
-                "platformPermissions", logCtx,
-                () -> platformAccessService.resolve(email).permissionNames(),
-                List.of());
-
-        return new MeDto(
-                toProfile(user, platformPermissions),
+        MeDto me = new MeDto(
+                toProfile(user, permissionsS.join()),
                 householdDto,
                 households,
                 new GroupsDto(managed, joined, pending),
                 readiness,
-                activeActivationId,
-                profilePreview,
+                activeActivationS.join(),
+                profilePreviewS.join(),
                 new MetaDto(Instant.now(), DTO_VERSION)
         );
+        hydrator.recordBuild(System.nanoTime() - buildStarted);
+        return me;
+    }
+
+    /**
+     * The per-viewer lookups every group card reads from — built once per
+     * /me so {@link #toGroupSummary} / {@link #toHouseholdDto} stay O(1)
+     * per card.
+     */
+    private record GroupCardContext(
+            String email,
+            Map<String, UserInfo> profiles,
+            Map<String, Integer> unreadCounts,
+            Map<String, Instant> latestPostMap,
+            Map<String, Instant> muteMap,
+            Map<String, GroupMutePref> prefMap,
+            Set<String> staffGroupIds
+    ) {}
+
+    /** Fork a section that only makes sense with an email; resolves to {@code fallback} without one. */
+    private <T> Section<T> forkForEmail(String email, String step, String logCtx, Supplier<T> op, T fallback) {
+        return forkForEmail(email, step, logCtx, hydrator.defaultDeadline(), op, fallback);
+    }
+
+    private <T> Section<T> forkForEmail(String email, String step, String logCtx, Duration deadline,
+                                        Supplier<T> op, T fallback) {
+        return email.isBlank() ? Section.completed(fallback) : hydrator.fork(step, logCtx, deadline, op, fallback);
     }
 
     private MePlansDto assemblePlans(UserInfo user) {
@@ -725,59 +878,15 @@ public class MeService {
         }
     }
 
-    private HouseholdDto toHouseholdDto(Group g, Demographic d, java.util.Map<String, UserInfo> profiles, java.util.Map<String, java.time.Instant> readMap, java.util.Map<String, java.time.Instant> latestPostMap, java.util.Map<String, java.time.Instant> muteMap, java.util.Map<String, io.sitprep.sitprepapi.domain.GroupMutePref> prefMap) {
+    private HouseholdDto toHouseholdDto(Group g, Demographic d, GroupCardContext cards,
+                                        HouseholdRitual ritual, Map<String, Boolean> challengeProgress) {
         DemographicDto demoDto = d == null ? null : new DemographicDto(
                 d.getAdults(), d.getTeens(), d.getKids(), d.getInfants(),
                 d.getDogs(), d.getCats(), d.getPets()
         );
         int memberCount = g.getMemberEmails() == null ? 0 : g.getMemberEmails().size();
         int adminCount = g.getAdminEmails() == null ? 0 : g.getAdminEmails().size();
-        io.sitprep.sitprepapi.domain.GroupMutePref pref =
-                g.getGroupId() == null ? null : prefMap.get(g.getGroupId());
-        // §4 — weekly check-in ritual lookup. One extra query per /me call
-        // for the base household; bounded since at-most-one ritual per
-        // (household, kind) in Round 1. Null when the admin hasn't opted
-        // in yet; the FE renders "Set a weekly check-in" in that case.
-        var ritual = g.getGroupId() == null
-                ? java.util.Optional.<io.sitprep.sitprepapi.domain.HouseholdRitual>empty()
-                : householdRitualRepo.findFirstByHouseholdIdAndKind(g.getGroupId(), "check-in");
-        String weeklyCheckInScheduleSpec = ritual
-                .map(io.sitprep.sitprepapi.domain.HouseholdRitual::getScheduleSpec)
-                .orElse(null);
-        java.time.Instant weeklyCheckInPausedUntil = ritual
-                .map(io.sitprep.sitprepapi.domain.HouseholdRitual::getPausedUntil)
-                .orElse(null);
-        String weeklyCheckInTimezone = ritual
-                .map(io.sitprep.sitprepapi.domain.HouseholdRitual::getTimezone)
-                .orElse(null);
-        // Challenge progress — dedicated fetch inside a live read-only
-        // subfetch (P2 followup, done 2026-06-29). Group has 7
-        // @ElementCollections, which exceeds Hibernate's single-SELECT
-        // bag-fetch budget — the extras become secondary selects that
-        // need a live session to materialize. The `g` passed in here was
-        // loaded inside a REQUIRES_NEW tx in safeGet(groupRepo.findBy*),
-        // so its session is long closed; walking g.getChallengeProgress()
-        // threw LazyInitializationException on EVERY /me call (caught +
-        // empty fallback, but it spammed the log and the field shipped
-        // empty every time — challenge state never reached the wire).
-        // Re-fetch the household by id inside subfetch.runReadOnly so the
-        // collection initializes in an OPEN session; the map copy then
-        // detaches cleanly onto the DTO. One extra query for the base
-        // household only; failures still degrade to an empty map.
-        final String householdIdForChallenge = g.getGroupId();
-        java.util.Map<String, Boolean> challengeProgress = householdIdForChallenge == null
-                ? java.util.Map.of()
-                : safeGet("household.challengeProgress", "household=" + householdIdForChallenge,
-                        () -> {
-                            Group fresh = groupRepo.findByGroupId(householdIdForChallenge).orElse(null);
-                            if (fresh == null || fresh.getChallengeProgress() == null) {
-                                return java.util.Map.<String, Boolean>of();
-                            }
-                            // Touched inside the live read-only tx → the
-                            // secondary select runs; the copy detaches it.
-                            return new java.util.HashMap<>(fresh.getChallengeProgress());
-                        },
-                        java.util.Map.of());
+        GroupMutePref pref = g.getGroupId() == null ? null : cards.prefMap().get(g.getGroupId());
         return new HouseholdDto(
                 g.getGroupId(),
                 g.getGroupName(),
@@ -791,16 +900,16 @@ public class MeService {
                 null,
                 g.getAlert(),
                 g.getActiveHazardType(),
-                previewFor(g, profiles),
-                unreadCountFor(g, readMap),
-                lastActivityFor(g, latestPostMap),
-                g.getGroupId() == null ? null : muteMap.get(g.getGroupId()),
+                previewFor(g, cards.profiles()),
+                unreadCountFor(g, cards.unreadCounts()),
+                lastActivityFor(g, cards.latestPostMap()),
+                g.getGroupId() == null ? null : cards.muteMap().get(g.getGroupId()),
                 pref == null ? null : pref.getQuietStart(),
                 pref == null ? null : pref.getQuietEnd(),
                 pref == null ? null : pref.getQuietTimezone(),
-                weeklyCheckInScheduleSpec,
-                weeklyCheckInPausedUntil,
-                weeklyCheckInTimezone,
+                ritual == null ? null : ritual.getScheduleSpec(),
+                ritual == null ? null : ritual.getPausedUntil(),
+                ritual == null ? null : ritual.getTimezone(),
                 challengeProgress
         );
     }
@@ -821,7 +930,8 @@ public class MeService {
         );
     }
 
-    private GroupSummary toGroupSummary(Group g, String userEmail, java.util.Map<String, UserInfo> profiles, java.util.Map<String, java.time.Instant> readMap, java.util.Map<String, java.time.Instant> latestPostMap, java.util.Map<String, java.time.Instant> muteMap, java.util.Map<String, io.sitprep.sitprepapi.domain.GroupMutePref> prefMap, java.util.Set<String> staffGroupIds) {
+    private GroupSummary toGroupSummary(Group g, GroupCardContext cards) {
+        String userEmail = cards.email();
         String role = resolveRole(g, userEmail);
         // Always derive from the member-email list — the denormalized
         // Group.memberCount drifts (set to 1 at creation, not kept in
@@ -831,8 +941,7 @@ public class MeService {
         // builders above).
         int memberCount = g.getMemberEmails() == null ? 0 : g.getMemberEmails().size();
         int pendingCount = g.getPendingMemberEmails() == null ? 0 : g.getPendingMemberEmails().size();
-        io.sitprep.sitprepapi.domain.GroupMutePref pref =
-                g.getGroupId() == null ? null : prefMap.get(g.getGroupId());
+        GroupMutePref pref = g.getGroupId() == null ? null : cards.prefMap().get(g.getGroupId());
         return new GroupSummary(
                 g.getGroupId(),
                 g.getGroupName(),
@@ -843,12 +952,12 @@ public class MeService {
                 g.getAlert(),
                 g.getActiveHazardType(),
                 g.isAgencyAuthorized(),
-                staffGroupIds != null && g.getGroupId() != null && staffGroupIds.contains(g.getGroupId()),
+                g.getGroupId() != null && cards.staffGroupIds().contains(g.getGroupId()),
                 g.getUpdatedAt(),
-                previewFor(g, profiles),
-                unreadCountFor(g, readMap),
-                lastActivityFor(g, latestPostMap),
-                g.getGroupId() == null ? null : muteMap.get(g.getGroupId()),
+                previewFor(g, cards.profiles()),
+                unreadCountFor(g, cards.unreadCounts()),
+                lastActivityFor(g, cards.latestPostMap()),
+                g.getGroupId() == null ? null : cards.muteMap().get(g.getGroupId()),
                 pref == null ? null : pref.getQuietStart(),
                 pref == null ? null : pref.getQuietEnd(),
                 pref == null ? null : pref.getQuietTimezone(),
@@ -902,15 +1011,14 @@ public class MeService {
     }
 
     /**
-     * Posts in {@code g} newer than the viewer's last-read pointer.
-     * Returns 0 when no pointer exists for this group — the unread badge
-     * stays empty until the user explicitly marks the circle read.
+     * Posts in {@code g} newer than the viewer's last-read pointer, from
+     * the batched {@code unreadCounts} section. Returns 0 when no pointer
+     * exists for this group — the unread badge stays empty until the user
+     * explicitly marks the circle read.
      */
-    private int unreadCountFor(Group g, java.util.Map<String, java.time.Instant> readMap) {
+    private int unreadCountFor(Group g, Map<String, Integer> unreadCounts) {
         if (g.getGroupId() == null) return 0;
-        java.time.Instant since = readMap.get(g.getGroupId());
-        if (since == null) return 0;
-        return groupPostRepo.countByGroupIdAndTimestampAfter(g.getGroupId(), since);
+        return unreadCounts.getOrDefault(g.getGroupId(), 0);
     }
 
     /**
@@ -975,6 +1083,21 @@ public class MeService {
      * Readiness now takes existence flags directly — the full plan entities
      * aren't needed for the dashboard ring, only whether each step is done.
      * Saves ~5 list fetches on every /me hit.
+     *
+     * <p>Personal-task pillar rollup — Phase 1 of BUSINESS_MODEL.md. Drives
+     * the My Readiness card on /home: the user's personal Post rows
+     * (kind="task", groupId=null) grouped by their "pillar:X" tag. FE
+     * computes displayed percent using template-catalog denominators
+     * (added vs recommendedMin), and falls back to the soft-default
+     * percentages when the rollup degraded to null.</p>
+     *
+     * <p>Global Readiness Engine (Phase 1.3 executed): the BE ships the
+     * fully computed pulse (pillar percents + overall + tier — the formula
+     * formerly in useReadinessPulse.js), the comms-pillar gap evaluation,
+     * and the household dominant status derived from the Phase 1
+     * accountability rollup. Those arrive here already hydrated (each
+     * degrades to null on its own); only the household rollup, which needs
+     * all three, is fetched here.</p>
      */
     private ReadinessDto computeReadiness(
             UserInfo u,
@@ -985,7 +1108,10 @@ public class MeService {
             boolean contactsDone,
             String email,
             Group baseHousehold,
-            Map<String, UserInfo> profileMap
+            PillarRollup pillars,
+            PulseDto pulse,
+            CommsReadinessDto comms,
+            String dominant
     ) {
         boolean profileDone =
                 u.getUserFirstName() != null && !u.getUserFirstName().isBlank()
@@ -1004,35 +1130,6 @@ public class MeService {
         long done = steps.stream().filter(ReadinessStep::done).count();
         int percent = (int) Math.round((done * 100.0) / steps.size());
 
-        // Personal-task pillar rollup — Phase 1 of BUSINESS_MODEL.md.
-        // Drives the My Readiness card on /home. We count user's
-        // personal Post rows (kind="task", groupId=null) grouped by
-        // their "pillar:X" tag. FE computes displayed percent using
-        // template-catalog denominators (added vs recommendedMin).
-        //
-        // Defense in depth: any failure here (corrupt rows, missing
-        // tag column, etc.) degrades to a null rollup so the rest of
-        // the /me payload still ships. The FE falls back to the
-        // soft-default percentages when the rollup is null.
-        PillarRollup pillars = email.isBlank() ? null : safeGet(
-                "pillarRollup", "email=" + email,
-                () -> computePillarRollup(email),
-                null);
-
-        // Global Readiness Engine (Phase 1.3 executed): the BE now ships the
-        // fully computed pulse (pillar percents + overall + tier — the
-        // formula formerly in useReadinessPulse.js), the comms-pillar gap
-        // evaluation, and the household dominant status derived from the
-        // Phase 1 accountability rollup. Each is safeGet-wrapped so a
-        // failure degrades that field to null without sinking /me.
-        final PillarRollup pillarsFinal = pillars;
-        var pulse = safeGet("readinessPulse", "email=" + email,
-                () -> readinessEngine.pulseFor(pillarsFinal, baseHousehold), null);
-        var comms = email.isBlank() ? null : safeGet("readinessComms", "email=" + email,
-                () -> readinessEngine.commsFor(email), null);
-        String dominant = baseHousehold == null ? null : safeGet(
-                "householdDominantStatus", "email=" + email,
-                () -> readinessEngine.dominantStatusFor(baseHousehold, profileMap), null);
         var householdReadiness = safeGet("householdReadiness", "email=" + email,
                 () -> readinessEngine.assembleHouseholdReadiness(baseHousehold, pulse, comms, dominant), null);
 
@@ -2,6 +2,7 @@ package io.sitprep.sitprepapi.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sitprep.sitprepapi.util.LookupCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,8 +13,7 @@ import org.springframework.web.client.RestTemplate;
 import java.net.URI;
 import java.time.Duration;
 import java.util.Locale;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
 
 /**
  * Reverse-geocoding via OpenStreetMap Nominatim. Free, no API key needed —
@@ -27,9 +27,18 @@ import java.util.concurrent.ConcurrentHashMap;
  * re-resolve.</p>
  *
  * <p>Quantizes coordinates to ~1 km buckets before caching so two close
- * locations hit the same key. In-memory cache: 6 h on success, 5 min on
- * failure. Never throws — returns {@code null} if Nominatim is unreachable
- * or the response is unusable.</p>
+ * locations hit the same key. Bounded {@link LookupCache} (via
+ * {@link LookupCacheRegistry}): 6 h on success, 5 min on failure, and
+ * concurrent misses for the same bucket share one upstream call. Never
+ * throws — returns {@code null} if Nominatim is unreachable or the
+ * response is unusable.</p>
+ *
+ * <p>Callers that only need the postcode (zip bucket, jurisdiction zip)
+ * use {@link #postal}, which answers from the {@link OfflineReverseGeocoder}
+ * when its ZCTA dataset is deployed and falls through to Nominatim for
+ * points outside its coverage — or for every point when the dataset isn't
+ * on the classpath ({@code OfflineReverseGeocoder#available()}). Labels
+ * always need the round-trip.</p>
  */
 @Service
 public class NominatimGeocodeService {
@@ -62,22 +71,38 @@ public class NominatimGeocodeService {
         }
     }
 
+    /** Postcode-level answer: full postcode plus its 3-char {@code zipBucket}. */
+    public record Postal(String postcode, String zipBucket) {}
+
     private static final String BASE = "https://nominatim.openstreetmap.org/reverse";
-    private static final long TTL_OK_MS = Duration.ofHours(6).toMillis();
-    private static final long TTL_FAIL_MS = Duration.ofMinutes(5).toMillis();
+    private static final Duration TTL_OK = Duration.ofHours(6);
+    private static final Duration TTL_FAIL = Duration.ofMinutes(5);
+    /** ~1 km buckets; 10k of them covers a metro plus travel at ~5 MB of Place records. */
+    private static final long MAX_ENTRIES = 10_000;
 
     /** ~0.01° ≈ 1.1 km → coarse enough to coalesce neighborhood-level requests. */
     private static final double Q = 0.01;
 
     private final ObjectMapper objectMapper;
-    private final RestTemplate rest = new RestTemplate();
-    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final RestTemplate rest;
+    private final LookupCache<Place> cache;
+    private final OfflineReverseGeocoder offline;
 
     @Value("${nominatim.user-agent:SitPrep/1.0 (contact@sitprep.app)}")
     private String userAgent;
 
-    public NominatimGeocodeService(ObjectMapper objectMapper) {
+    public NominatimGeocodeService(ObjectMapper objectMapper, LookupCacheRegistry caches,
+                                   OfflineReverseGeocoder offline) {
         this.objectMapper = objectMapper;
+        this.offline = offline;
+        // Bounded timeouts — callers coalesced behind one in-flight lookup
+        // wait on it, so an unbounded socket read would stall all of them.
+        var factory = new org.springframework.http.client.SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(5_000);
+        factory.setReadTimeout(10_000);
+        this.rest = new RestTemplate(factory);
+        this.cache = caches.create("nominatim-reverse", MAX_ENTRIES, TTL_OK, TTL_FAIL,
+                p -> 1, Objects::isNull);
     }
 
     /**
@@ -89,13 +114,28 @@ public class NominatimGeocodeService {
         if (lat == null || lng == null) return null;
         if (!Double.isFinite(lat) || !Double.isFinite(lng)) return null;
 
-        String key = bucketKey(lat, lng);
-        CacheEntry cached = cache.get(key);
-        if (cached != null && !cached.isExpired()) return cached.place;
+        return cache.get(bucketKey(lat, lng), () -> fetch(lat, lng));
+    }
 
-        Place place = null;
-        long ttl = TTL_FAIL_MS;
+    /**
+     * Resolve (lat, lng) → postcode without a network call when the point
+     * is inside the offline dataset's coverage; otherwise the postcode from
+     * {@link #reverse}. Null when neither knows. Never throws.
+     */
+    public Postal postal(Double lat, Double lng) {
+        if (lat == null || lng == null) return null;
+        if (!Double.isFinite(lat) || !Double.isFinite(lng)) return null;
+
+        OfflineReverseGeocoder.Hit hit = offline.nearest(lat, lng);
+        if (hit != null) return new Postal(hit.postcode(), hit.zipBucket());
+        Place p = reverse(lat, lng);
+        if (p == null || p.postcode() == null) return null;
+        return new Postal(p.postcode(), p.zipBucket());
+    }
 
+    /** One upstream call. Null on any failure — cached for {@link #TTL_FAIL}. */
+    private Place fetch(double lat, double lng) {
+        Place place = null;
         try {
             // zoom=18 (building level) returns the full address breakdown
             // including suburb / neighbourhood / quarter so the Place can
@@ -145,14 +185,11 @@ public class NominatimGeocodeService {
                             zipBucket,
                             postcode
                     );
-                    ttl = TTL_OK_MS;
                 }
             }
         } catch (Exception e) {
             log.debug("Nominatim reverse-geocode failed at lat={} lng={}: {}", lat, lng, e.getMessage());
         }
-
-        cache.put(key, new CacheEntry(place, System.currentTimeMillis() + ttl));
         return place;
     }
 
@@ -186,18 +223,4 @@ public class NominatimGeocodeService {
         double qLng = Math.round(lng / Q) * Q;
         return String.format(Locale.US, "%.2f|%.2f", qLat, qLng);
     }
-
-    private static final class CacheEntry {
-        final Place place;
-        final long expiresAtMs;
-
-        CacheEntry(Place place, long expiresAtMs) {
-            this.place = place;
-            this.expiresAtMs = expiresAtMs;
-        }
-
-        boolean isExpired() {
-            return System.currentTimeMillis() > expiresAtMs;
-        }
-    }
 }
@@ -0,0 +1,125 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.NotificationLog;
+import io.sitprep.sitprepapi.repo.NotificationLogRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-row {@code notification_log} insert for group fan-outs.
+ *
+ * <p>{@link NotificationLog} ids are {@code IDENTITY}, which turns off
+ * Hibernate's insert batching — a {@code saveAll} of 300 rows is still 300
+ * round-trips. This writes them as JDBC batches of {@link #CHUNK} and reads
+ * the generated ids back, so callers can still emit the inbox "created"
+ * event with a real row id. Each chunk runs nested (a savepoint inside
+ * the caller's transaction, or its own transaction otherwise), so a failed
+ * chunk rolls back whole and falls back to per-row {@code save} — the
+ * pre-batching behaviour — without duplicating rows.</p>
+ */
+@Service
+public class NotificationLogBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationLogBatchWriter.class);
+
+    static final int CHUNK = 500;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notification_log
+                (recipient_email, type, token, title, body, reference_id, target_url, additional_data,
+                 timestamp, success, error_message, lane, category, actor_user_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final NotificationLogRepo repo;
+    private final TransactionTemplate chunkTx;
+
+    public NotificationLogBatchWriter(JdbcTemplate jdbc, NotificationLogRepo repo,
+                                      PlatformTransactionManager txManager) {
+        this.jdbc = jdbc;
+        this.repo = repo;
+        this.chunkTx = new TransactionTemplate(txManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * Insert {@code rows} and set their generated ids in place. Returns the
+     * same list for chaining.
+     */
+    public List<NotificationLog> insertAll(List<NotificationLog> rows) {
+        if (rows == null || rows.isEmpty()) return rows;
+        for (int from = 0; from < rows.size(); from += CHUNK) {
+            List<NotificationLog> chunk = rows.subList(from, Math.min(from + CHUNK, rows.size()));
+            try {
+                chunkTx.executeWithoutResult(status -> insertChunk(chunk));
+            } catch (Exception e) {
+                log.warn("NotificationLog batch insert of {} rows failed, saving row by row: {}",
+                        chunk.size(), e.getMessage());
+                for (NotificationLog row : chunk) {
+                    row.setId(null);
+                    try {
+                        row.setId(repo.save(row).getId());
+                    } catch (Exception rowError) {
+                        log.warn("NotificationLog save failed for {}: {}",
+                                row.getRecipientEmail(), rowError.getMessage());
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void insertChunk(List<NotificationLog> chunk) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbc.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NotificationLog n = chunk.get(i);
+                        ps.setString(1, n.getRecipientEmail());
+                        ps.setString(2, n.getType());
+                        ps.setString(3, n.getToken());
+                        ps.setString(4, n.getTitle());
+                        ps.setString(5, n.getBody());
+                        ps.setString(6, n.getReferenceId());
+                        ps.setString(7, n.getTargetUrl());
+                        ps.setString(8, n.getAdditionalData());
+                        // Bound the way Hibernate binds an Instant, so batch
+                        // rows and entity rows land identically.
+                        if (n.getTimestamp() == null) ps.setNull(9, Types.TIMESTAMP_WITH_TIMEZONE);
+                        else ps.setObject(9, n.getTimestamp().atOffset(ZoneOffset.UTC),
+                                Types.TIMESTAMP_WITH_TIMEZONE);
+                        ps.setBoolean(10, n.isSuccess());
+                        ps.setString(11, n.getErrorMessage());
+                        ps.setString(12, n.getLane());
+                        ps.setString(13, n.getCategory());
+                        ps.setString(14, n.getActorUserId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < chunk.size() && i < generated.size(); i++) {
+            Object id = generated.get(i).get("id");
+            if (id instanceof Number num) chunk.get(i).setId(num.longValue());
+        }
+    }
+}
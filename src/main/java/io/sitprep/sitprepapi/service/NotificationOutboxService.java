@@ -0,0 +1,376 @@
+package io.sitprep.sitprepapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sitprep.sitprepapi.config.SchedulingConfig;
+import io.sitprep.sitprepapi.domain.NotificationOutbox;
+import io.sitprep.sitprepapi.domain.UserInfo;
+import io.sitprep.sitprepapi.repo.NotificationOutboxRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.service.NotificationService.GroupFanout;
+import io.sitprep.sitprepapi.service.NotificationService.PushTarget;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transactional outbox for push fan-outs.
+ *
+ * <p>Write paths call {@link #enqueue} inside their own transaction: one
+ * {@code notification_outbox} insert, committed (or rolled back) with the
+ * business change, instead of FCM I/O inline or in an {@code afterCommit}
+ * hook. A commit the dyno crashes right after still gets its push, and a
+ * slow FCM call no longer adds to the latency of the request.</p>
+ *
+ * <p>Delivery:</p>
+ * <ul>
+ *   <li>A drain — woken after each enqueueing commit, and on a short
+ *       poll as a backstop — locks up to {@code batch-size} due rows with
+ *       {@code FOR UPDATE SKIP LOCKED}, marks them {@code DELIVERING} under
+ *       a lease, and hands them to a bounded worker pool. A lease that runs
+ *       out (crash mid-delivery) makes the row claimable again, so delivery
+ *       is at-least-once.</li>
+ *   <li>The first attempt runs the whole {@link NotificationService#fanOut}
+ *       against freshly loaded recipients. Transient FCM failures are not
+ *       logged as failed; their tokens are written back to the row and
+ *       retried alone via {@link NotificationService#retryPushes}, so a
+ *       device that already got the push never gets it twice, and one
+ *       token shared by two accounts is sent once.</li>
+ *   <li>Retries back off exponentially with jitter, capped at
+ *       {@code max-backoff}. The last attempt logs whatever still fails;
+ *       token-level errors go through {@code handleFcmDeliveryError} on
+ *       every attempt. Rows that throw on every attempt are kept as
+ *       {@code FAILED}.</li>
+ * </ul>
+ *
+ * <p>Delivered rows are deleted. Queue depth and enqueue-to-delivery lag
+ * are exposed at {@code /api/admin/ops/notification-outbox}.</p>
+ */
+@Service
+public class NotificationOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxService.class);
+
+    /** Row {@code payload}: the fan-out and either its recipients or the tokens still owed a push. */
+    record Envelope(GroupFanout fanout, List<String> recipients, String excludeEmail, List<PushTarget> retry) {}
+
+    record Settings(int workers, int batchSize, int maxAttempts, Duration baseBackoff, Duration maxBackoff,
+                    Duration lease) {}
+
+    public record Stats(long pending,
+                        long delivering,
+                        long failed,
+                        long oldestOpenAgeMs,
+                        int activeWorkers,
+                        int queuedOnWorkers,
+                        long enqueued,
+                        long delivered,
+                        long retried,
+                        long deadLettered,
+                        double avgLagMs,
+                        long maxLagMs) {}
+
+    private final NotificationOutboxRepo repo;
+    private final NotificationService notificationService;
+    private final UserInfoRepo userInfoRepo;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate tx;
+    private final Settings settings;
+
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "notification-outbox-drain");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean rerun = new AtomicBoolean();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder lagMsTotal = new LongAdder();
+    private final LongAccumulator maxLagMs = new LongAccumulator(Math::max, 0);
+
+    @Autowired
+    public NotificationOutboxService(
+            NotificationOutboxRepo repo,
+            NotificationService notificationService,
+            UserInfoRepo userInfoRepo,
+            ObjectMapper mapper,
+            PlatformTransactionManager txManager,
+            @Value("${sitprep.notifications.outbox.workers:4}") int workers,
+            @Value("${sitprep.notifications.outbox.batch-size:50}") int batchSize,
+            @Value("${sitprep.notifications.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${sitprep.notifications.outbox.base-backoff:PT10S}") String baseBackoff,
+            @Value("${sitprep.notifications.outbox.max-backoff:PT10M}") String maxBackoff,
+            @Value("${sitprep.notifications.outbox.lease:PT5M}") String lease
+    ) {
+        this(repo, notificationService, userInfoRepo, mapper, new TransactionTemplate(txManager),
+                new Settings(workers, batchSize, maxAttempts, Duration.parse(baseBackoff),
+                        Duration.parse(maxBackoff), Duration.parse(lease)));
+    }
+
+    NotificationOutboxService(NotificationOutboxRepo repo, NotificationService notificationService,
+                              UserInfoRepo userInfoRepo, ObjectMapper mapper, TransactionTemplate tx,
+                              Settings settings) {
+        this.repo = repo;
+        this.notificationService = notificationService;
+        this.userInfoRepo = userInfoRepo;
+        this.mapper = mapper;
+        this.tx = tx;
+        this.settings = settings;
+        int threads = Math.max(1, settings.workers());
+        AtomicInteger n = new AtomicInteger();
+        // Bounded on both ends: the drain only claims what the queue can hold.
+        this.workers = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, settings.batchSize()) * 2),
+                r -> {
+                    Thread t = new Thread(r, "notification-outbox-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        workers.shutdown();
+        try {
+            // In-flight rows that don't finish keep their lease and are reclaimed after restart.
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------- enqueue
+
+    /**
+     * Queue {@code fanout} for {@code recipients} (UserInfo emails) in the
+     * caller's transaction. Recipients are resolved again at delivery time,
+     * so a token refreshed in between is the one that gets the push.
+     */
+    public void enqueue(GroupFanout fanout, Collection<String> recipients, String excludeEmail) {
+        Set<String> emails = new LinkedHashSet<>();
+        if (recipients != null) {
+            for (String e : recipients) {
+                if (e != null && !e.isBlank() && (excludeEmail == null || !e.equalsIgnoreCase(excludeEmail))) {
+                    emails.add(e);
+                }
+            }
+        }
+        if (emails.isEmpty()) return;
+
+        NotificationOutbox row = new NotificationOutbox();
+        row.setNotificationType(fanout.notificationType());
+        row.setReferenceId(fanout.referenceId());
+        row.setPayload(write(new Envelope(fanout, List.copyOf(emails), excludeEmail, null)));
+        repo.save(row);
+        enqueued.increment();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wake();
+                }
+            });
+        } else {
+            wake();
+        }
+    }
+
+    /** Single-recipient {@link #enqueue}. */
+    public void enqueue(GroupFanout fanout, String recipientEmail) {
+        enqueue(fanout, recipientEmail == null ? List.of() : List.of(recipientEmail), null);
+    }
+
+    // ---------------------------------------------------------------- drain
+
+    /** Backstop poll: rows whose backoff elapsed, leases that expired, wakes that were missed. */
+    @Scheduled(fixedDelayString = "${sitprep.notifications.outbox.poll-interval:PT2S}",
+            initialDelayString = "PT30S",
+            scheduler = SchedulingConfig.FLUSH_SCHEDULER)
+    public void scheduledDrain() {
+        drain();
+    }
+
+    /** Non-blocking: schedule a drain on the dispatcher thread. */
+    void wake() {
+        try {
+            dispatcher.execute(this::drain);
+        } catch (RejectedExecutionException shuttingDown) {
+            // Rows stay PENDING and are picked up after restart.
+        }
+    }
+
+    void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            rerun.set(true);
+            return;
+        }
+        try {
+            do {
+                rerun.set(false);
+                while (claimAndDispatch()) {
+                    // full batch claimed — more may be due
+                }
+            } while (rerun.get());
+        } catch (Exception e) {
+            log.warn("Notification outbox drain failed: {}", e.getMessage());
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /** Claim what the worker queue can hold and dispatch it. True when a full batch was claimed. */
+    private boolean claimAndDispatch() {
+        int limit = Math.min(settings.batchSize(), workers.getQueue().remainingCapacity());
+        if (limit <= 0) return false;
+        List<NotificationOutbox> claimed = tx.execute(status -> {
+            Instant now = Instant.now();
+            List<NotificationOutbox> due = repo.lockDue(now, limit);
+            for (NotificationOutbox row : due) {
+                row.setStatus(NotificationOutbox.DELIVERING);
+                row.setLockedUntil(now.plus(settings.lease()));
+                row.setAttempts(row.getAttempts() + 1);
+            }
+            return due;
+        });
+        if (claimed == null || claimed.isEmpty()) return false;
+        for (NotificationOutbox row : claimed) {
+            try {
+                workers.execute(() -> deliver(row));
+            } catch (RejectedExecutionException e) {
+                // Lease expiry hands it back; don't spin on a full pool.
+                return false;
+            }
+        }
+        return claimed.size() == limit;
+    }
+
+    // ---------------------------------------------------------------- deliver
+
+    void deliver(NotificationOutbox row) {
+        int attempt = row.getAttempts();
+        if (attempt > settings.maxAttempts()) {
+            deadLetter(row, "Lease expired on final attempt");
+            return;
+        }
+        boolean last = attempt >= settings.maxAttempts();
+        try {
+            Envelope env = mapper.readValue(row.getPayload(), Envelope.class);
+            List<PushTarget> deferred = last ? null : new ArrayList<>();
+            if (env.retry() == null) {
+                List<UserInfo> users = userInfoRepo.findByUserEmailIn(env.recipients());
+                notificationService.fanOut(env.fanout(), users, env.excludeEmail(), deferred);
+            } else {
+                notificationService.retryPushes(env.fanout(), env.retry(), deferred);
+            }
+
+            if (deferred == null || deferred.isEmpty()) {
+                repo.deleteById(row.getId());
+                long lagMs = Math.max(0, Duration.between(row.getCreatedAt(), Instant.now()).toMillis());
+                delivered.increment();
+                lagMsTotal.add(lagMs);
+                maxLagMs.accumulate(lagMs);
+                return;
+            }
+            row.setPayload(write(new Envelope(env.fanout(), List.of(), null, deferred)));
+            reschedule(row, deferred.size() + " push(es) failed transiently");
+        } catch (Exception e) {
+            log.warn("Notification outbox row {} ({} '{}') attempt {} failed: {}",
+                    row.getId(), row.getNotificationType(), row.getReferenceId(), attempt, e.getMessage());
+            if (last) deadLetter(row, e.getMessage());
+            else reschedule(row, e.getMessage());
+        }
+    }
+
+    private void reschedule(NotificationOutbox row, String error) {
+        row.setStatus(NotificationOutbox.PENDING);
+        row.setLockedUntil(null);
+        row.setNextAttemptAt(Instant.now().plus(backoff(row.getAttempts())));
+        row.setLastError(truncate(error));
+        repo.save(row);
+        retried.increment();
+    }
+
+    private void deadLetter(NotificationOutbox row, String error) {
+        row.setStatus(NotificationOutbox.FAILED);
+        row.setLockedUntil(null);
+        row.setLastError(truncate(error));
+        repo.save(row);
+        deadLettered.increment();
+        log.error("Notification outbox row {} ({} '{}') gave up after {} attempts: {}",
+                row.getId(), row.getNotificationType(), row.getReferenceId(), row.getAttempts(), error);
+    }
+
+    /** {@code base × 2^(attempt-1)}, capped, plus up to 20% jitter so retries of one outage spread out. */
+    Duration backoff(int attempt) {
+        long baseMs = settings.baseBackoff().toMillis();
+        long capMs = settings.maxBackoff().toMillis();
+        int shift = Math.min(Math.max(attempt - 1, 0), 20);
+        long ms = Math.min(capMs, baseMs << shift);
+        return Duration.ofMillis(ms + ThreadLocalRandom.current().nextLong(ms / 5 + 1));
+    }
+
+    private String write(Envelope env) {
+        try {
+            return mapper.writeValueAsString(env);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialize notification outbox payload", e);
+        }
+    }
+
+    private static String truncate(String s) {
+        if (s == null) return null;
+        return s.length() <= 1000 ? s : s.substring(0, 1000);
+    }
+
+    // ---------------------------------------------------------------- metrics
+
+    public Stats stats() {
+        Instant oldest = repo.oldestOpenCreatedAt();
+        long n = delivered.sum();
+        return new Stats(
+                repo.countByStatus(NotificationOutbox.PENDING),
+                repo.countByStatus(NotificationOutbox.DELIVERING),
+                repo.countByStatus(NotificationOutbox.FAILED),
+                oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis()),
+                workers.getActiveCount(),
+                workers.getQueue().size(),
+                enqueued.sum(), n, retried.sum(), deadLettered.sum(),
+                n == 0 ? 0 : (double) lagMsTotal.sum() / n,
+                maxLagMs.get());
+    }
+}
@@ -28,9 +28,16 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Presence-aware notifications:
@@ -49,19 +56,32 @@ public class NotificationService {
     private final WebSocketPresenceService presenceService;
     private final PushPolicyService pushPolicyService;
     private final GroupMuteService groupMuteService;
+    private final NotificationLogBatchWriter logBatchWriter;
+
+    private final LongAdder fanouts = new LongAdder();
+    private final LongAdder fanoutRecipients = new LongAdder();
+    private final LongAdder fanoutPushes = new LongAdder();
+    private final LongAdder fanoutPushFailures = new LongAdder();
+    private final LongAdder fanoutPolicyNanos = new LongAdder();
+    private final LongAdder fanoutSendNanos = new LongAdder();
+    private final LongAdder fanoutLogNanos = new LongAdder();
+    private final LongAdder fanoutTotalNanos = new LongAdder();
+    private volatile FanoutReport lastFanout;
 
     public NotificationService(WebSocketMessageSender webSocketMessageSender,
                                UserInfoRepo userInfoRepo,
                                NotificationLogRepo notificationLogRepo,
                                WebSocketPresenceService presenceService,
                                PushPolicyService pushPolicyService,
-                               GroupMuteService groupMuteService) {
+                               GroupMuteService groupMuteService,
+                               NotificationLogBatchWriter logBatchWriter) {
         this.webSocketMessageSender = webSocketMessageSender;
         this.userInfoRepo = userInfoRepo;
         this.notificationLogRepo = notificationLogRepo;
         this.presenceService = presenceService;
         this.pushPolicyService = pushPolicyService;
         this.groupMuteService = groupMuteService;
+        this.logBatchWriter = logBatchWriter;
     }
 
     /**
@@ -163,6 +183,25 @@ public class NotificationService {
                             Lane lane,
                             Category category,
                             String actorUserId) {
+        NotificationLog saved = notificationLogRepo.save(newLogRow(recipientEmail, notificationType, token,
+                title, body, referenceId, targetUrl, additionalData, success, errorMessage,
+                lane, category, actorUserId));
+        publishInboxCreated(saved, recipientEmail, lane);
+    }
+
+    private static NotificationLog newLogRow(String recipientEmail,
+                                             String notificationType,
+                                             String token,
+                                             String title,
+                                             String body,
+                                             String referenceId,
+                                             String targetUrl,
+                                             String additionalData,
+                                             boolean success,
+                                             String errorMessage,
+                                             Lane lane,
+                                             Category category,
+                                             String actorUserId) {
         NotificationLog row = new NotificationLog(
                 recipientEmail,
                 notificationType,
@@ -179,8 +218,10 @@ public class NotificationService {
         if (lane != null) row.setLane(lane.name());
         if (category != null) row.setCategory(category.name());
         if (actorUserId != null) row.setActorUserId(actorUserId);
-        NotificationLog saved = notificationLogRepo.save(row);
+        return row;
+    }
 
+    private void publishInboxCreated(NotificationLog saved, String recipientEmail, Lane lane) {
         // Live-update fan-out: prepend the new row in any open inbox
         // tab via STOMP. Per NOTIFICATIONS_INBOX.md the inbox page
         // listens on /topic/notifications/{userEmail} for kind-tagged
@@ -479,8 +520,6 @@ public class NotificationService {
                                      String actorUserId) {
 
         boolean online = presenceService.isUserOnline(recipientEmail);
-        String channelId = channelForType(notificationType);
-        String category = categoryForType(notificationType);
 
         // Apply policy: prefer the explicit categoryOverride when the
         // caller knows it (e.g. household vs org alert), fall back to
@@ -567,64 +606,13 @@ public class NotificationService {
         String errorMessage = null;
 
         try {
-            // ANDROID/Web data – keep your existing keys
-            AndroidConfig androidConfig = AndroidConfig.builder()
-                    .setPriority(AndroidConfig.Priority.HIGH)
-                    .setNotification(AndroidNotification.builder()
-                            .setSound("default")
-                            .build())
-                    .build();
-
-            // iOS APNs block (correct API: use ApnsConfig + Aps; put custom keys via Aps or ApnsConfig.putCustomData)
-            ApnsConfig.Builder apnsBuilder = ApnsConfig.builder()
-                    .putHeader("apns-priority", "10"); // 10 = alert, 5 = background
-
-            Aps.Builder apsBuilder = Aps.builder()
-                    .setMutableContent(true)      // enables notification service extension (if you have one)
-                    .setSound("default");
-
-            // Custom metadata inside "aps"
-            apsBuilder.putCustomData("notificationType", safe(notificationType));
-            apsBuilder.putCustomData("referenceId", safe(referenceId));
-            apsBuilder.putCustomData("targetUrl", safe(targetUrl));
-            apsBuilder.putCustomData("additionalData", safe(additionalData));
-            apsBuilder.putCustomData("title", safe(title));
-            apsBuilder.putCustomData("body", safe(body));
-            apsBuilder.putCustomData("channelId", safe(channelId));
-            apsBuilder.putCustomData("category", safe(category));
-            // iOS 15+ lock-screen affordances: interruption-level
-            // (Focus-mode break-through), relevance-score (stack
-            // ranking), thread-id (group related items).
-            applyIosLockScreenAffordances(apsBuilder, notificationType, referenceId);
             // App-icon badge — recipient's unread inbox count + 1 for
             // this notification. Cleared to 0 by AppDelegate when the
             // app is opened. Null on a lookup failure → badge omitted
             // so iOS leaves the existing number untouched.
-            Integer badge = unreadBadgeFor(recipientEmail);
-            if (badge != null) apsBuilder.setBadge(badge);
-            apnsBuilder.setAps(apsBuilder.build());
-
-            Message msg = Message.builder()
-                    .setToken(recipientFcmTokenOrNull)
-                    .setNotification(Notification.builder()
-                            .setTitle(title)
-                            .setBody(body)
-                            .setImage(iconUrl != null && iconUrl.startsWith("http") ? iconUrl : null)
-                            .build())
-                    // Android/Web data
-                    .putData("notificationType", safe(notificationType))
-                    .putData("referenceId", safe(referenceId))
-                    .putData("sender", safe(senderName))
-                    .putData("targetUrl", safe(targetUrl))
-                    .putData("additionalData", safe(additionalData))
-                    .putData("title", safe(title))
-                    .putData("body", safe(body))
-                    .putData("icon", safe(iconUrl))
-                    .putData("channelId", safe(channelId))
-                    .putData("category", safe(category))
-                    .setAndroidConfig(androidConfig)
-                    .setApnsConfig(apnsBuilder.build()) // <-- iOS APNs
-                    .build();
+            Message msg = buildPushMessage(recipientFcmTokenOrNull, title, body, senderName, iconUrl,
+                    notificationType, referenceId, targetUrl, additionalData,
+                    unreadBadgeFor(recipientEmail));
 
             String response = FirebaseMessaging.getInstance().send(msg);
             logger.info("🔵 FCM sent to {} -> {}", recipientEmail, response);
@@ -643,6 +631,81 @@ public class NotificationService {
         }
     }
 
+    /**
+     * The single-recipient FCM message — Android/Web data keys, the APNs
+     * block with iOS lock-screen affordances, and {@code aps.badge} when
+     * {@code badge} is known. Shared by {@link #deliverPresenceAware} and
+     * the batched {@link #fanOut}, so both paths put the same payload on
+     * the wire.
+     */
+    private Message buildPushMessage(String token,
+                                     String title,
+                                     String body,
+                                     String senderName,
+                                     String iconUrl,
+                                     String notificationType,
+                                     String referenceId,
+                                     String targetUrl,
+                                     String additionalData,
+                                     Integer badge) {
+        String channelId = channelForType(notificationType);
+        String category = categoryForType(notificationType);
+
+        // ANDROID/Web data – keep your existing keys
+        AndroidConfig androidConfig = AndroidConfig.builder()
+                .setPriority(AndroidConfig.Priority.HIGH)
+                .setNotification(AndroidNotification.builder()
+                        .setSound("default")
+                        .build())
+                .build();
+
+        // iOS APNs block (correct API: use ApnsConfig + Aps; put custom keys via Aps or ApnsConfig.putCustomData)
+        ApnsConfig.Builder apnsBuilder = ApnsConfig.builder()
+                .putHeader("apns-priority", "10"); // 10 = alert, 5 = background
+
+        Aps.Builder apsBuilder = Aps.builder()
+                .setMutableContent(true)      // enables notification service extension (if you have one)
+                .setSound("default");
+
+        // Custom metadata inside "aps"
+        apsBuilder.putCustomData("notificationType", safe(notificationType));
+        apsBuilder.putCustomData("referenceId", safe(referenceId));
+        apsBuilder.putCustomData("targetUrl", safe(targetUrl));
+        apsBuilder.putCustomData("additionalData", safe(additionalData));
+        apsBuilder.putCustomData("title", safe(title));
+        apsBuilder.putCustomData("body", safe(body));
+        apsBuilder.putCustomData("channelId", safe(channelId));
+        apsBuilder.putCustomData("category", safe(category));
+        // iOS 15+ lock-screen affordances: interruption-level
+        // (Focus-mode break-through), relevance-score (stack
+        // ranking), thread-id (group related items).
+        applyIosLockScreenAffordances(apsBuilder, notificationType, referenceId);
+        if (badge != null) apsBuilder.setBadge(badge);
+        apnsBuilder.setAps(apsBuilder.build());
+
+        return Message.builder()
+                .setToken(token)
+                .setNotification(Notification.builder()
+                        .setTitle(title)
+                        .setBody(body)
+                        .setImage(iconUrl != null && iconUrl.startsWith("http") ? iconUrl : null)
+                        .build())
+                // Android/Web data
+                .putData("notificationType", safe(notificationType))
+                .putData("referenceId", safe(referenceId))
+                .putData("sender", safe(senderName))
+                .putData("targetUrl", safe(targetUrl))
+                .putData("additionalData", safe(additionalData))
+                .putData("title", safe(title))
+                .putData("body", safe(body))
+                .putData("icon", safe(iconUrl))
+                .putData("channelId", safe(channelId))
+                .putData("category", safe(category))
+                .setAndroidConfig(androidConfig)
+                .setApnsConfig(apnsBuilder.build()) // <-- iOS APNs
+                .build();
+    }
+
     /**
      * Legacy wrapper kept for backward compatibility.
      * Iterates the provided token set and sends one FCM per token, logging per attempt.
@@ -790,8 +853,9 @@ public class NotificationService {
      * Presence-aware fan-out of a group alert (the Activate Check-in
      * trigger) to every member except the initiator.
      *
-     * <p>Each recipient passes through {@link #deliverPresenceAware}
-     * which applies the three-lane push policy — users who muted the
+     * <p>Recipients go through the batched {@link #fanOut} pipeline,
+     * which applies the same three-lane push policy as
+     * {@link #deliverPresenceAware} — users who muted the
      * matching category get {@code Lane.DROP} and never see a banner /
      * FCM / inbox row. Online users get a STOMP frame only; offline
      * users with a live FCM token get an iOS time-sensitive APNs push.
@@ -846,35 +910,16 @@ public class NotificationService {
                         .map(UserInfo::getId)
                         .orElse(null);
 
-        int delivered = 0;
-        for (UserInfo user : users) {
-            if (user.getUserEmail() == null) continue;
-            if (initiatedByEmail != null
-                    && user.getUserEmail().equalsIgnoreCase(initiatedByEmail)) {
-                continue;
-            }
-
-            deliverPresenceAware(
-                    user.getUserEmail(),
-                    title,
-                    body,
-                    owner,
-                    "/images/group-alert-icon.png",
-                    type,
-                    referenceId,
-                    targetUrl,
-                    null,
-                    user.getFcmtoken(),
-                    alertCategory,
-                    actorUserId
-            );
-            delivered++;
-        }
+        // No mute check: an alert flip is the emergency signal a group
+        // mute is not meant to silence (same as the per-recipient path).
+        FanoutReport report = fanOut(new GroupFanout(type, alertCategory, title, body, owner,
+                "/images/group-alert-icon.png", referenceId, targetUrl, null, actorUserId,
+                /* muteGroupId */ null), users, initiatedByEmail);
 
         logger.info("📢 Presence-aware alert fan-out completed for group '{}' (type={}, category={}): "
                         + "{} of {} members notified (initiator excluded).",
                 group.getGroupName(), group.getGroupType(), alertCategory.name(),
-                delivered, users.size());
+                report.recipients(), users.size());
     }
 
     /**
@@ -921,32 +966,354 @@ public class NotificationService {
                         .map(UserInfo::getId)
                         .orElse(null);
 
-        int delivered = 0;
-        for (UserInfo user : users) {
-            if (user.getUserEmail() == null) continue;
-            if (initiatedByEmail != null
-                    && user.getUserEmail().equalsIgnoreCase(initiatedByEmail)) {
+        FanoutReport report = fanOut(new GroupFanout("check_in_request", Category.CHECK_IN_REQUEST, title, body,
+                who, "/images/group-alert-icon.png", referenceId, targetUrl, null, actorUserId,
+                /* muteGroupId */ null), users, initiatedByEmail);
+
+        logger.info("👋 Check-in-request fan-out for group '{}': {} of {} members notified.",
+                group.getGroupName(), report.recipients(), users.size());
+    }
+
+    // ---------------------- batched group fan-out ----------------------
+
+    /**
+     * What one group fan-out sends — identical content for every
+     * recipient. {@code category} null falls back to
+     * {@link #mapTypeToCategory}; {@code muteGroupId} non-null applies the
+     * {@link #deliverPresenceAwareForGroup} mute / quiet-hours check
+     * against that group.
+     */
+    public record GroupFanout(String notificationType,
+                              Category category,
+                              String title,
+                              String body,
+                              String senderName,
+                              String iconUrl,
+                              String referenceId,
+                              String targetUrl,
+                              String additionalData,
+                              String actorUserId,
+                              String muteGroupId) {}
+
+    /** Outcome and per-stage wall time of one {@link #fanOut}. */
+    public record FanoutReport(String notificationType,
+                               int recipients,
+                               int pushed,
+                               int pushFailed,
+                               int deferred,
+                               int inboxOnly,
+                               int noToken,
+                               int suppressed,
+                               int dropped,
+                               long policyMs,
+                               long sendMs,
+                               long logMs,
+                               long totalMs) {}
+
+    /** Cumulative fan-out counters for {@code /api/admin/ops/notification-fanout}. */
+    public record FanoutStats(long fanouts,
+                              long recipients,
+                              long pushes,
+                              long pushFailures,
+                              double avgPolicyMs,
+                              double avgSendMs,
+                              double avgLogMs,
+                              double avgTotalMs,
+                              FanoutReport last) {}
+
+    /** One Lane-A recipient waiting for the push stage. */
+    private record PendingPush(String key, String email, String token) {}
+
+    /**
+     * Batched form of a {@link #deliverPresenceAwareForGroup} loop, with
+     * the same per-recipient outcome (lane, socket banner, log row,
+     * stale-token cleanup) but stage-wise I/O:
+     *
+     * <ol>
+     *   <li><b>Policy</b> — mute / quiet-hours state for the group and
+     *       every recipient's alert preferences in one query each
+     *       ({@link GroupMuteService#suppressions},
+     *       {@link PushPolicyService#evaluateAll}).</li>
+     *   <li><b>Send</b> — unread badges in one query, then Lane-A pushes
+     *       go out {@link #FCM_MULTICAST_LIMIT} at a time through
+     *       {@link FirebaseMessaging#sendEach}. Each message keeps its own
+     *       {@code aps.badge}, which a shared-payload multicast can't carry;
+     *       the SDK cost per batch is the same.</li>
+     *   <li><b>Log</b> — every row goes through
+     *       {@link NotificationLogBatchWriter} as JDBC batches, then the
+     *       inbox "created" events are emitted.</li>
+     * </ol>
+     *
+     * <p>A 300-member org alert drops from ~900 round-trips (lookup, send,
+     * insert per recipient) to a handful. {@code excludeEmail} (the
+     * initiator) is skipped; duplicate recipients are delivered once, and
+     * two accounts signed in on the same device get one push.</p>
+     */
+    public FanoutReport fanOut(GroupFanout f, Collection<UserInfo> recipients, String excludeEmail) {
+        return fanOut(f, recipients, excludeEmail, null);
+    }
+
+    /**
+     * {@link #fanOut} for {@link NotificationOutboxService}: pushes that
+     * fail transiently ({@link #isTransientFcmFailure}) are added to
+     * {@code deferred} instead of being logged as failed, so the outbox can
+     * retry just those tokens later via {@link #retryPushes}. A null
+     * {@code deferred} logs every failure, as the public overload does.
+     */
+    FanoutReport fanOut(GroupFanout f, Collection<UserInfo> recipients, String excludeEmail,
+                        List<PushTarget> deferred) {
+        long start = System.nanoTime();
+        String type = f.notificationType();
+        Category catEnum = f.category() != null ? f.category() : mapTypeToCategory(type);
+
+        Map<String, UserInfo> byKey = new LinkedHashMap<>();
+        if (recipients != null) {
+            for (UserInfo u : recipients) {
+                if (u == null || u.getUserEmail() == null || u.getUserEmail().isBlank()) continue;
+                if (excludeEmail != null && u.getUserEmail().equalsIgnoreCase(excludeEmail)) continue;
+                byKey.putIfAbsent(u.getUserEmail().trim().toLowerCase(Locale.ROOT), u);
+            }
+        }
+
+        // -- stage 1: policy
+        Map<String, GroupMuteService.Suppression> suppressions = f.muteGroupId() == null
+                ? Map.of()
+                : groupMuteService.suppressions(byKey.keySet(), f.muteGroupId());
+        Map<String, Lane> lanes = Map.of();
+        if (catEnum != null) {
+            List<String> eligible = new ArrayList<>(byKey.size());
+            for (String key : byKey.keySet()) {
+                if (!suppressions.containsKey(key)) eligible.add(key);
+            }
+            lanes = pushPolicyService.evaluateAll(eligible, catEnum, /* severity */ null);
+        }
+        long policyDone = System.nanoTime();
+
+        // -- routing: banners now, rows + pushes collected for the batch stages
+        List<NotificationLog> rows = new ArrayList<>(byKey.size());
+        List<Lane> rowLanes = new ArrayList<>(byKey.size());
+        List<PendingPush> pushes = new ArrayList<>();
+        Set<String> pushTokens = new HashSet<>();
+        int inboxOnly = 0, noToken = 0, suppressedCount = 0, dropped = 0, pushFailed = 0;
+        for (Map.Entry<String, UserInfo> e : byKey.entrySet()) {
+            String key = e.getKey();
+            String email = e.getValue().getUserEmail();
+            String token = e.getValue().getFcmtoken();
+
+            GroupMuteService.Suppression suppression = suppressions.get(key);
+            if (suppression != null) {
+                String reason = suppression == GroupMuteService.Suppression.MUTED
+                        ? "Muted by recipient (group=" + f.muteGroupId() + ")"
+                        : "Quiet hours active (group=" + f.muteGroupId() + ")";
+                addRow(rows, rowLanes, f, email, token, false, reason, Lane.B, catEnum);
+                suppressedCount++;
+                continue;
+            }
+
+            Lane lane = catEnum != null ? lanes.getOrDefault(key, Lane.DROP) : null;
+            if (lane == Lane.DROP) {
+                dropped++;
                 continue;
             }
-            deliverPresenceAware(
-                    user.getUserEmail(),
-                    title,
-                    body,
-                    who,
-                    "/images/group-alert-icon.png",
-                    "check_in_request",
-                    referenceId,
-                    targetUrl,
-                    null,
-                    user.getFcmtoken(),
-                    Category.CHECK_IN_REQUEST,
-                    actorUserId
-            );
-            delivered++;
+            if (presenceService.isUserOnline(email)) {
+                try {
+                    webSocketMessageSender.sendInAppNotification(new NotificationPayload(
+                            email, f.title(), f.body(), f.iconUrl(), type, f.targetUrl(), f.referenceId(),
+                            Instant.now(), lane != null ? lane.name() : null, f.actorUserId()));
+                } catch (Exception ex) {
+                    logger.warn("Socket notification failed for {}: {}", email, ex.getMessage());
+                }
+            }
+            if (lane == Lane.C) continue;
+            if (lane == Lane.B) {
+                addRow(rows, rowLanes, f, email, token, false, "Lane B (silent inbox)", lane, catEnum);
+                inboxOnly++;
+            } else if (token == null || token.isEmpty()) {
+                addRow(rows, rowLanes, f, email, null, false, "No token", lane, catEnum);
+                noToken++;
+            } else if (!pushTokens.add(token)) {
+                addRow(rows, rowLanes, f, email, token, false, "Duplicate device token", lane, catEnum);
+                pushFailed++;
+            } else {
+                pushes.add(new PendingPush(key, email, token));
+            }
         }
 
-        logger.info("👋 Check-in-request fan-out for group '{}': {} of {} members notified.",
-                group.getGroupName(), delivered, users.size());
+        // -- stage 2: send
+        int[] sent = sendPushes(f, catEnum, pushes, rows, rowLanes, deferred);
+        int pushed = sent[0], deferredCount = sent[2];
+        pushFailed += sent[1];
+        long sendDone = System.nanoTime();
+
+        // -- stage 3: log rows, then the inbox live-update events
+        logBatchWriter.insertAll(rows);
+        for (int i = 0; i < rows.size(); i++) {
+            NotificationLog row = rows.get(i);
+            if (row.getId() != null) publishInboxCreated(row, row.getRecipientEmail(), rowLanes.get(i));
+        }
+        long end = System.nanoTime();
+
+        FanoutReport report = new FanoutReport(type, byKey.size(), pushed, pushFailed, deferredCount,
+                inboxOnly, noToken, suppressedCount, dropped,
+                (policyDone - start) / 1_000_000, (sendDone - policyDone) / 1_000_000,
+                (end - sendDone) / 1_000_000, (end - start) / 1_000_000);
+        recordFanout(report, policyDone - start, sendDone - policyDone, end - sendDone, end - start);
+        logger.info("Fan-out {} '{}': {} recipients, {} pushed, {} push failed, {} deferred, {} inbox-only, "
+                        + "{} no token, {} suppressed, {} dropped; policy={}ms send={}ms log={}ms total={}ms",
+                type, f.referenceId(), report.recipients(), pushed, pushFailed, deferredCount, inboxOnly, noToken,
+                suppressedCount, dropped, report.policyMs(), report.sendMs(), report.logMs(), report.totalMs());
+        return report;
+    }
+
+    /**
+     * Re-send the pushes an earlier {@link #fanOut} deferred — the send and
+     * log stages only; policy and socket banners already ran. Targets that
+     * fail transiently again go back into {@code deferred}; pass null on the
+     * final attempt to log them as failed.
+     */
+    FanoutReport retryPushes(GroupFanout f, List<PushTarget> targets, List<PushTarget> deferred) {
+        long start = System.nanoTime();
+        Category catEnum = f.category() != null ? f.category() : mapTypeToCategory(f.notificationType());
+        List<PendingPush> pushes = new ArrayList<>(targets.size());
+        Set<String> seen = new HashSet<>();
+        for (PushTarget t : targets) {
+            if (t.email() == null || t.fcmToken() == null || !seen.add(t.fcmToken())) continue;
+            pushes.add(new PendingPush(t.email().trim().toLowerCase(Locale.ROOT), t.email(), t.fcmToken()));
+        }
+        List<NotificationLog> rows = new ArrayList<>(pushes.size());
+        List<Lane> rowLanes = new ArrayList<>(pushes.size());
+        int[] sent = sendPushes(f, catEnum, pushes, rows, rowLanes, deferred);
+        long sendDone = System.nanoTime();
+        logBatchWriter.insertAll(rows);
+        for (int i = 0; i < rows.size(); i++) {
+            NotificationLog row = rows.get(i);
+            if (row.getId() != null) publishInboxCreated(row, row.getRecipientEmail(), rowLanes.get(i));
+        }
+        long end = System.nanoTime();
+        FanoutReport report = new FanoutReport(f.notificationType(), pushes.size(), sent[0], sent[1], sent[2],
+                0, 0, 0, 0, 0, (sendDone - start) / 1_000_000, (end - sendDone) / 1_000_000,
+                (end - start) / 1_000_000);
+        recordFanout(report, 0, sendDone - start, end - sendDone, end - start);
+        return report;
+    }
+
+    /**
+     * Send stage shared by {@link #fanOut} and {@link #retryPushes}: badges
+     * in one query, then {@link #FCM_MULTICAST_LIMIT} messages per
+     * {@link FirebaseMessaging#sendEach}. Returns {pushed, failed, deferred}.
+     */
+    private int[] sendPushes(GroupFanout f, Category catEnum, List<PendingPush> pushes,
+                             List<NotificationLog> rows, List<Lane> rowLanes, List<PushTarget> deferred) {
+        String type = f.notificationType();
+        Lane pushLane = catEnum != null ? Lane.A : null;
+        int pushed = 0, pushFailed = 0, deferredCount = 0;
+        if (pushes.isEmpty()) return new int[]{0, 0, 0};
+        Map<String, Integer> badges = unreadBadgesFor(pushes);
+        for (int from = 0; from < pushes.size(); from += FCM_MULTICAST_LIMIT) {
+            List<PendingPush> batch = pushes.subList(from, Math.min(from + FCM_MULTICAST_LIMIT, pushes.size()));
+            List<Message> messages = new ArrayList<>(batch.size());
+            for (PendingPush p : batch) {
+                messages.add(buildPushMessage(p.token(), f.title(), f.body(), f.senderName(), f.iconUrl(),
+                        type, f.referenceId(), f.targetUrl(), f.additionalData(), badges.get(p.key())));
+            }
+            try {
+                List<SendResponse> responses = FirebaseMessaging.getInstance().sendEach(messages).getResponses();
+                for (int i = 0; i < batch.size(); i++) {
+                    PendingPush p = batch.get(i);
+                    SendResponse r = i < responses.size() ? responses.get(i) : null;
+                    if (r != null && r.isSuccessful()) {
+                        addRow(rows, rowLanes, f, p.email(), p.token(), true, null, pushLane, catEnum);
+                        pushed++;
+                        continue;
+                    }
+                    FirebaseMessagingException ex = r != null ? r.getException() : null;
+                    if (deferred != null && isTransientFcmFailure(ex)) {
+                        deferred.add(new PushTarget(p.email(), p.token()));
+                        deferredCount++;
+                        continue;
+                    }
+                    String err = ex != null ? ex.getMessage() : "Unknown FCM error";
+                    addRow(rows, rowLanes, f, p.email(), p.token(), false, err, pushLane, catEnum);
+                    handleFcmDeliveryError(ex, p.email(), p.token());
+                    pushFailed++;
+                }
+            } catch (Exception ex) {
+                logger.error("❌ FCM batch send failed for {} '{}' ({} tokens): {}",
+                        type, f.referenceId(), batch.size(), ex.getMessage(), ex);
+                for (PendingPush p : batch) {
+                    if (deferred != null) {
+                        // The whole call failed (network, auth refresh, 5xx) — nothing was delivered.
+                        deferred.add(new PushTarget(p.email(), p.token()));
+                        deferredCount++;
+                    } else {
+                        addRow(rows, rowLanes, f, p.email(), p.token(), false, ex.getMessage(), pushLane, catEnum);
+                        pushFailed++;
+                    }
+                }
+            }
+        }
+        return new int[]{pushed, pushFailed, deferredCount};
+    }
+
+    /**
+     * FCM errors worth retrying with backoff: the service was unavailable
+     * or overloaded, or the response carried no error at all. Token-level
+     * errors (unregistered, invalid, sender mismatch) never succeed on retry
+     * and go through {@link #handleFcmDeliveryError} instead.
+     */
+    static boolean isTransientFcmFailure(FirebaseMessagingException ex) {
+        if (ex == null) return true;
+        MessagingErrorCode code = ex.getMessagingErrorCode();
+        return code == MessagingErrorCode.UNAVAILABLE
+                || code == MessagingErrorCode.INTERNAL
+                || code == MessagingErrorCode.QUOTA_EXCEEDED;
+    }
+
+    private static void addRow(List<NotificationLog> rows, List<Lane> rowLanes, GroupFanout f,
+                               String email, String token, boolean success, String error,
+                               Lane lane, Category category) {
+        rows.add(newLogRow(email, f.notificationType(), token, f.title(), f.body(), f.referenceId(),
+                f.targetUrl(), f.additionalData(), success, error, lane, category, f.actorUserId()));
+        rowLanes.add(lane);
+    }
+
+    /** {@link #unreadBadgeFor} for a whole push batch in one query; absent on lookup failure. */
+    private Map<String, Integer> unreadBadgesFor(List<PendingPush> pushes) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (PendingPush p : pushes) keys.add(p.key());
+        Map<String, Integer> out = new HashMap<>(keys.size() * 2);
+        try {
+            for (String key : keys) out.put(key, 1);
+            for (Object[] row : notificationLogRepo.countUnreadByRecipient(keys)) {
+                long badge = ((Number) row[1]).longValue() + 1;
+                out.put(String.valueOf(row[0]), (int) Math.min(badge, Integer.MAX_VALUE));
+            }
+            return out;
+        } catch (Exception e) {
+            logger.warn("Badge count lookup failed for {} recipients: {}", keys.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void recordFanout(FanoutReport report, long policyNanos, long sendNanos, long logNanos,
+                              long totalNanos) {
+        fanouts.increment();
+        fanoutRecipients.add(report.recipients());
+        fanoutPushes.add(report.pushed());
+        fanoutPushFailures.add(report.pushFailed());
+        fanoutPolicyNanos.add(policyNanos);
+        fanoutSendNanos.add(sendNanos);
+        fanoutLogNanos.add(logNanos);
+        fanoutTotalNanos.add(totalNanos);
+        lastFanout = report;
+    }
+
+    public FanoutStats fanoutStats() {
+        long n = fanouts.sum();
+        double div = n == 0 ? 1 : n * 1_000_000.0;
+        return new FanoutStats(n, fanoutRecipients.sum(), fanoutPushes.sum(), fanoutPushFailures.sum(),
+                fanoutPolicyNanos.sum() / div, fanoutSendNanos.sum() / div,
+                fanoutLogNanos.sum() / div, fanoutTotalNanos.sum() / div, lastFanout);
     }
 
     /** Log a socket-only delivery so we can backfill even if FCM was not used. */
@@ -998,13 +1365,28 @@ public class NotificationService {
                 lane, category, actorUserId);
     }
 
+    /**
+     * FCM's per-call ceiling for {@link FirebaseMessaging#sendEachForMulticast}.
+     * Larger recipient lists are split into consecutive multicasts.
+     */
+    public static final int FCM_MULTICAST_LIMIT = 500;
+
+    /**
+     * The two fields the hazard fan-out actually needs from a recipient.
+     * Lets callers that resolve recipients through a projection (severe-
+     * alert dispatch) skip materializing full {@link UserInfo} entities.
+     */
+    public record PushTarget(String email, String fcmToken) {}
+
     /**
      * Batched hazard-alert fan-out — the {@code AlertDispatchService}
      * severe-weather path. One {@link MulticastMessage} (identical
-     * payload) is delivered to up to 500 device tokens in a single
-     * {@link FirebaseMessaging#sendEachForMulticast} call — the
+     * payload) is delivered to up to {@link #FCM_MULTICAST_LIMIT} device
+     * tokens per {@link FirebaseMessaging#sendEachForMulticast} call — the
      * multicast form of {@code sendEach} — instead of N sequential
-     * {@code .send()} round-trips.
+     * {@code .send()} round-trips. Longer lists go out as consecutive
+     * multicasts in list order, so callers that sort nearest-first get
+     * the nearest users pushed first.
      *
      * <p>Online recipients get a best-effort in-app STOMP banner AND
      * still go into the FCM multicast batch — a hazard alert is
@@ -1027,13 +1409,27 @@ public class NotificationService {
                                      String referenceId,
                                      String targetUrl) {
         if (recipients == null || recipients.isEmpty()) return;
+        List<PushTarget> targets = new ArrayList<>(recipients.size());
+        for (UserInfo u : recipients) {
+            if (u != null) targets.add(new PushTarget(u.getUserEmail(), u.getFcmtoken()));
+        }
+        sendHazardAlertToTargets(targets, title, body, referenceId, targetUrl);
+    }
+
+    /** {@link #sendHazardAlertBatch} for callers holding projected recipients. */
+    public void sendHazardAlertToTargets(List<PushTarget> recipients,
+                                         String title,
+                                         String body,
+                                         String referenceId,
+                                         String targetUrl) {
+        if (recipients == null || recipients.isEmpty()) return;
 
         final String type = "hazard_alert";
         List<String> batchTokens = new ArrayList<>();
-        List<UserInfo> batchUsers = new ArrayList<>();
+        List<String> batchEmails = new ArrayList<>();
 
-        for (UserInfo u : recipients) {
-            String email = u != null ? u.getUserEmail() : null;
+        for (PushTarget t : recipients) {
+            String email = t != null ? t.email() : null;
             if (email == null) continue;
 
             // Foregrounded client → best-effort in-app STOMP banner.
@@ -1053,18 +1449,31 @@ public class NotificationService {
                 }
             }
 
-            String token = u.getFcmtoken();
+            String token = t.fcmToken();
             if (token == null || token.isEmpty()) {
                 saveLogRow(email, type, null, title, body, referenceId, targetUrl,
                         false, "No token", null, null);
                 continue;
             }
             batchTokens.add(token);
-            batchUsers.add(u);
+            batchEmails.add(email);
         }
 
-        if (batchTokens.isEmpty()) return;
+        for (int from = 0; from < batchTokens.size(); from += FCM_MULTICAST_LIMIT) {
+            int to = Math.min(from + FCM_MULTICAST_LIMIT, batchTokens.size());
+            sendHazardMulticast(batchTokens.subList(from, to), batchEmails.subList(from, to),
+                    type, title, body, referenceId, targetUrl);
+        }
+    }
 
+    /** One ≤{@link #FCM_MULTICAST_LIMIT}-token hazard multicast plus its log rows. */
+    private void sendHazardMulticast(List<String> batchTokens,
+                                     List<String> batchEmails,
+                                     String type,
+                                     String title,
+                                     String body,
+                                     String referenceId,
+                                     String targetUrl) {
         MulticastMessage multicast = MulticastMessage.builder()
                 .addAllTokens(batchTokens)
                 .setNotification(Notification.builder()
@@ -1090,19 +1499,19 @@ public class NotificationService {
         try {
             BatchResponse resp = FirebaseMessaging.getInstance().sendEachForMulticast(multicast);
             List<SendResponse> responses = resp.getResponses();
-            for (int i = 0; i < responses.size() && i < batchUsers.size(); i++) {
+            for (int i = 0; i < responses.size() && i < batchEmails.size(); i++) {
                 SendResponse r = responses.get(i);
-                UserInfo u = batchUsers.get(i);
+                String email = batchEmails.get(i);
                 String token = batchTokens.get(i);
                 if (r.isSuccessful()) {
-                    saveLogRow(u.getUserEmail(), type, token, title, body, referenceId, targetUrl,
+                    saveLogRow(email, type, token, title, body, referenceId, targetUrl,
                             true, null, null, null);
                 } else {
                     FirebaseMessagingException ex = r.getException();
                     String err = ex != null ? ex.getMessage() : "Unknown FCM error";
-                    saveLogRow(u.getUserEmail(), type, token, title, body, referenceId, targetUrl,
+                    saveLogRow(email, type, token, title, body, referenceId, targetUrl,
                             false, err, null, null);
-                    handleFcmDeliveryError(ex, u.getUserEmail(), token);
+                    handleFcmDeliveryError(ex, email, token);
                 }
             }
             logger.info("📣 Hazard-alert multicast '{}': {} delivered, {} failed",
@@ -1111,8 +1520,8 @@ public class NotificationService {
             logger.error("❌ Hazard-alert multicast send failed for {}: {}", referenceId, e.getMessage(), e);
             // Whole-batch failure — log a failed row per recipient so the
             // inbox still reflects the intent.
-            for (int i = 0; i < batchUsers.size(); i++) {
-                saveLogRow(batchUsers.get(i).getUserEmail(), type, batchTokens.get(i),
+            for (int i = 0; i < batchEmails.size(); i++) {
+                saveLogRow(batchEmails.get(i), type, batchTokens.get(i),
                         title, body, referenceId, targetUrl, false, e.getMessage(), null, null);
             }
         }
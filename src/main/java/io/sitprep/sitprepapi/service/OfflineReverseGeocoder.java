@@ -0,0 +1,314 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.util.GeoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Network-free (lat, lng) → postcode / state lookup over a table of US ZCTA
+ * (Census zip code tabulation area) internal points.
+ *
+ * <p>The dataset ({@code geo/zcta-centroids.tsv.gz}, one
+ * {@code zip<TAB>state<TAB>lat<TAB>lng} row per ZCTA) is generated from the
+ * Census downloads by {@code scripts/build_zcta_centroids.py}, which the
+ * Maven {@code release} profile (active on Heroku builds) runs into the jar;
+ * that build fails when the table is missing. A plain local build has no
+ * table: {@link #available()} is false, every lookup returns null and
+ * callers take their Nominatim fallback — {@code GET
+ * /api/admin/ops/offline-geocoder} shows which. When present
+ * it loads once at boot into parallel primitive arrays laid out as an implicit
+ * balanced k-d tree over unit-sphere (x, y, z) — chord length orders points
+ * exactly as great-circle distance does, so the nearest point is exact with
+ * no projection error. ~34k points in well under 1 MB; a lookup takes about
+ * a microsecond and allocates nothing beyond the result.</p>
+ *
+ * <p>Nearest internal point is an approximation of polygon containment:
+ * right at a ZCTA border the neighbor's centroid can win. That's fine for
+ * the 3-digit {@code zipBucket} feed pre-filter and state resolution, and
+ * close enough for jurisdiction routing. Points farther than
+ * {@code geo.offline.maxDistanceKm} from every centroid (offshore, outside
+ * the US) return null, as does every lookup when the dataset isn't on the
+ * classpath — callers fall back to {@link NominatimGeocodeService}, which
+ * stays the source for neighborhood / city labels.</p>
+ */
+@Service
+public class OfflineReverseGeocoder {
+
+    private static final Logger log = LoggerFactory.getLogger(OfflineReverseGeocoder.class);
+
+    /** Dataset state and lookup counters for the ops console. */
+    public record Stats(boolean available, String resource, int zctas, long lookups, long resolved) {}
+
+    /** A resolved ZCTA: 5-digit postcode, 2-letter state, distance to its internal point. */
+    public record Hit(String postcode, String state, double distanceKm) {
+        /** First three digits — same bucket {@link NominatimGeocodeService.Place#zipBucket()} carries. */
+        public String zipBucket() {
+            return postcode.substring(0, 3);
+        }
+    }
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final double maxDistanceKm;
+
+    // Implicit k-d tree: for a subrange [lo, hi) the node is at (lo + hi) >>> 1,
+    // splitting on x, y, z in turn by depth.
+    private final float[] x;
+    private final float[] y;
+    private final float[] z;
+    private final int[] zip;
+    private final byte[] state;
+    private final String[] stateCodes;
+    private final String resource;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder resolved = new LongAdder();
+
+    @Autowired
+    public OfflineReverseGeocoder(
+            @Value("${geo.offline.resource:geo/zcta-centroids.tsv.gz}") String resource,
+            @Value("${geo.offline.maxDistanceKm:40}") double maxDistanceKm
+    ) {
+        this(resource, openResource(resource), maxDistanceKm);
+    }
+
+    OfflineReverseGeocoder(Reader rows, double maxDistanceKm) {
+        this(null, rows, maxDistanceKm);
+    }
+
+    private OfflineReverseGeocoder(String resource, Reader rows, double maxDistanceKm) {
+        this.resource = resource;
+        this.maxDistanceKm = maxDistanceKm;
+        Table t = rows == null ? new Table() : read(rows);
+        int n = t.size;
+        float[][] xyz = {new float[n], new float[n], new float[n]};
+        for (int i = 0; i < n; i++) {
+            double phi = Math.toRadians(t.lat[i]), lambda = Math.toRadians(t.lng[i]);
+            xyz[0][i] = (float) (Math.cos(phi) * Math.cos(lambda));
+            xyz[1][i] = (float) (Math.cos(phi) * Math.sin(lambda));
+            xyz[2][i] = (float) Math.sin(phi);
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        build(order, 0, n, 0, xyz);
+
+        this.x = new float[n];
+        this.y = new float[n];
+        this.z = new float[n];
+        this.zip = new int[n];
+        this.state = new byte[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = xyz[0][order[i]];
+            y[i] = xyz[1][order[i]];
+            z[i] = xyz[2][order[i]];
+            zip[i] = t.zip[order[i]];
+            state[i] = t.state[order[i]];
+        }
+        this.stateCodes = t.stateCodes.toArray(new String[0]);
+        if (n > 0) log.info("OfflineReverseGeocoder: loaded {} ZCTAs", n);
+    }
+
+    /** False when the dataset wasn't on the classpath at boot — every lookup returns null. */
+    public boolean available() {
+        return zip.length > 0;
+    }
+
+    int size() {
+        return zip.length;
+    }
+
+    /**
+     * Nearest ZCTA to (lat, lng), or null when out of range, the input is
+     * invalid, or no dataset is loaded. Never throws.
+     */
+    public Hit nearest(Double qLat, Double qLng) {
+        if (qLat == null || qLng == null || !GeoUtil.validLatLng(qLat, qLng)) return null;
+        lookups.increment();
+        if (zip.length == 0) return null;
+        double phi = Math.toRadians(qLat), lambda = Math.toRadians(qLng);
+        double[] q = {Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi)};
+        double[] bestD = {Double.MAX_VALUE};
+        int[] best = {-1};
+        search(0, zip.length, 0, q, bestD, best);
+        int i = best[0];
+        if (i < 0) return null;
+        double km = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(bestD[0]) / 2));
+        if (km > maxDistanceKm) return null;
+        resolved.increment();
+        return new Hit(String.format(Locale.ROOT, "%05d", zip[i]), stateCodes[state[i]], km);
+    }
+
+    /**
+     * Whether the dataset loaded, and how many valid lookups it answered
+     * since boot — {@code lookups - resolved} is what fell through to
+     * Nominatim (or got no zip).
+     */
+    public Stats stats() {
+        return new Stats(available(), resource, zip.length, lookups.sum(), resolved.sum());
+    }
+
+    /** Postcode of the nearest ZCTA, or null. */
+    public String postcode(Double qLat, Double qLng) {
+        Hit h = nearest(qLat, qLng);
+        return h == null ? null : h.postcode();
+    }
+
+    /** 2-letter state of the nearest ZCTA, or null. */
+    public String state(Double qLat, Double qLng) {
+        Hit h = nearest(qLat, qLng);
+        return h == null ? null : h.state();
+    }
+
+    /** Squared-chord nearest neighbor; {@code bestD}/{@code best} carry the running winner. */
+    private void search(int lo, int hi, int depth, double[] q, double[] bestD, int[] best) {
+        if (lo >= hi) return;
+        int m = (lo + hi) >>> 1;
+        double dx = q[0] - x[m];
+        double dy = q[1] - y[m];
+        double dz = q[2] - z[m];
+        double d = dx * dx + dy * dy + dz * dz;
+        if (d < bestD[0]) {
+            bestD[0] = d;
+            best[0] = m;
+        }
+        int axis = depth % 3;
+        double diff = axis == 0 ? dx : axis == 1 ? dy : dz;
+        if (diff < 0) {
+            search(lo, m, depth + 1, q, bestD, best);
+            if (diff * diff < bestD[0]) search(m + 1, hi, depth + 1, q, bestD, best);
+        } else {
+            search(m + 1, hi, depth + 1, q, bestD, best);
+            if (diff * diff < bestD[0]) search(lo, m, depth + 1, q, bestD, best);
+        }
+    }
+
+    // ------------------------------------------------------------------ build
+
+    /** Arrange {@code order[lo, hi)} so each subrange's middle is its median on the depth's axis. */
+    private static void build(int[] order, int lo, int hi, int depth, float[][] xyz) {
+        if (hi - lo <= 1) return;
+        int m = (lo + hi) >>> 1;
+        select(order, lo, hi - 1, m, xyz[depth % 3]);
+        build(order, lo, m, depth + 1, xyz);
+        build(order, m + 1, hi, depth + 1, xyz);
+    }
+
+    /** Quickselect: {@code order[k]} ends up holding the k-th smallest key in [lo, hi]. */
+    private static void select(int[] order, int lo, int hi, int k, float[] key) {
+        while (hi > lo) {
+            float pivot = key[order[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (key[order[i]] < pivot) i++;
+                while (key[order[j]] > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    // ------------------------------------------------------------------- load
+
+    private static final class Table {
+        int size;
+        float[] lat = new float[0];
+        float[] lng = new float[0];
+        int[] zip = new int[0];
+        byte[] state = new byte[0];
+        final List<String> stateCodes = new ArrayList<>();
+    }
+
+    private static Reader openResource(String resource) {
+        ClassPathResource res = new ClassPathResource(resource);
+        if (!res.exists()) {
+            log.warn("OfflineReverseGeocoder: {} not on the classpath — postcode lookups fall back to Nominatim "
+                    + "(build with -Prelease, or run scripts/build_zcta_centroids.py)", resource);
+            return null;
+        }
+        try {
+            InputStream in = res.getInputStream();
+            if (resource.endsWith(".gz")) in = new GZIPInputStream(in);
+            return new InputStreamReader(in, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("OfflineReverseGeocoder: failed to open {} — falling back to Nominatim", resource, e);
+            return null;
+        }
+    }
+
+    /** Parse {@code zip<TAB>state<TAB>lat<TAB>lng} rows; {@code #} comments and bad rows are skipped. */
+    private static Table read(Reader rows) {
+        Table t = new Table();
+        Map<String, Byte> stateIdx = new HashMap<>();
+        int skipped = 0;
+        try (BufferedReader r = new BufferedReader(rows)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] f = line.split("\t");
+                try {
+                    int z = Integer.parseInt(f[0].trim());
+                    String st = f[1].trim().toUpperCase(Locale.ROOT);
+                    float la = Float.parseFloat(f[2].trim());
+                    float ln = Float.parseFloat(f[3].trim());
+                    if (z < 0 || z > 99_999 || st.length() != 2 || !GeoUtil.validLatLng((double) la, (double) ln)) {
+                        skipped++;
+                        continue;
+                    }
+                    Byte s = stateIdx.get(st);
+                    if (s == null) {
+                        s = (byte) t.stateCodes.size();
+                        stateIdx.put(st, s);
+                        t.stateCodes.add(st);
+                    }
+                    if (t.size == t.zip.length) grow(t);
+                    t.zip[t.size] = z;
+                    t.state[t.size] = s;
+                    t.lat[t.size] = la;
+                    t.lng[t.size] = ln;
+                    t.size++;
+                } catch (RuntimeException bad) {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            log.error("OfflineReverseGeocoder: dataset read failed after {} rows — keeping what loaded", t.size, e);
+        }
+        if (skipped > 0) log.warn("OfflineReverseGeocoder: skipped {} malformed rows", skipped);
+        return t;
+    }
+
+    private static void grow(Table t) {
+        int cap = Math.max(1024, t.zip.length * 2);
+        t.zip = Arrays.copyOf(t.zip, cap);
+        t.state = Arrays.copyOf(t.state, cap);
+        t.lat = Arrays.copyOf(t.lat, cap);
+        t.lng = Arrays.copyOf(t.lng, cap);
+    }
+}
@@ -46,7 +46,7 @@ public class PlanActivationService {
     private final EmergencyContactRepo emergencyContactRepo;
     private final WebSocketMessageSender ws;
     private final GroupRepo groupRepo;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutbox;
     private final HouseholdAccessService householdAccess;
     private final HouseholdResolver householdResolver;
     private final GoBagService goBagService;
@@ -62,7 +62,7 @@ public class PlanActivationService {
             EmergencyContactRepo emergencyContactRepo,
             WebSocketMessageSender ws,
             GroupRepo groupRepo,
-            NotificationService notificationService,
+            NotificationOutboxService notificationOutbox,
             HouseholdAccessService householdAccess,
             HouseholdResolver householdResolver,
             GoBagService goBagService
@@ -77,7 +77,7 @@ public class PlanActivationService {
         this.emergencyContactRepo = emergencyContactRepo;
         this.ws = ws;
         this.groupRepo = groupRepo;
-        this.notificationService = notificationService;
+        this.notificationOutbox = notificationOutbox;
         this.householdAccess = householdAccess;
         this.householdResolver = householdResolver;
         this.goBagService = goBagService;
@@ -145,18 +145,10 @@ public class PlanActivationService {
                 saved.getId(), ownerEmail, saved.getExpiresAt());
 
         // Push the owner's authenticated household members so they can open
-        // the plan + check in. Fires AFTER commit so the row is durable
-        // before we notify; failures are logged, never block the create.
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override public void afterCommit() {
-                try {
-                    notifyHouseholdOfActivation(ownerEmail, saved.getId());
-                } catch (Exception e) {
-                    log.error("Plan activation push fan-out failed owner={} activation={}",
-                            ownerEmail, saved.getId(), e);
-                }
-            }
-        });
+        // the plan + check in. The outbox row commits with the activation,
+        // so the push survives a crash after commit and FCM latency stays
+        // off the create; delivery failures are retried by the outbox.
+        notifyHouseholdOfActivation(ownerEmail, saved.getId());
 
         return new ActivationCreatedDto(saved.getId(), saved.getExpiresAt());
     }
@@ -164,10 +156,9 @@ public class PlanActivationService {
     /**
      * Fan-out an activation push to the owner's household members (decision
      * 2026-05-22: activation does BOTH a push to authed members AND the
-     * owner's share sheet). Resolves the household group from the owner,
-     * batch-loads members + FCM tokens, and delivers a presence-aware push
-     * per member via {@link NotificationService#deliverPresenceAware} with
-     * the {@code PLAN_ACTIVATION_RECEIVED} category (Lane A, quiet-hours
+     * owner's share sheet). Resolves the household group from the owner and
+     * queues one {@link NotificationOutboxService} fan-out to its members
+     * with the {@code PLAN_ACTIVATION_RECEIVED} category (Lane A, quiet-hours
      * bypass). Self-excludes the owner. Tokenless members are skipped
      * gracefully by the notification layer.
      */
@@ -189,18 +180,12 @@ public class PlanActivationService {
         String body = ownerName + " activated the family plan. Open it and check in when you're safe.";
         String targetUrl = "/deployedplan?activationId=" + activationId;
 
-        List<UserInfo> members = userInfoRepo.findByUserEmailIn(household.getMemberEmails());
-        for (UserInfo m : members) {
-            if (m.getUserEmail() == null) continue;
-            if (m.getUserEmail().equalsIgnoreCase(ownerEmail)) continue; // don't notify the activator
-            notificationService.deliverPresenceAware(
-                    m.getUserEmail(), title, body, ownerName,
-                    "/images/plan-icon.png", "plan_activation", activationId,
-                    targetUrl, null, m.getFcmtoken(),
-                    PushPolicyService.Category.PLAN_ACTIVATION_RECEIVED
-            );
-        }
-        log.info("Plan activation {} pushed to {} household member(s)", activationId, members.size());
+        notificationOutbox.enqueue(new NotificationService.GroupFanout(
+                "plan_activation", PushPolicyService.Category.PLAN_ACTIVATION_RECEIVED, title, body, ownerName,
+                "/images/plan-icon.png", activationId, targetUrl, null, null, null
+        ), household.getMemberEmails(), ownerEmail);
+        log.info("Plan activation {} queued for {} household member(s)",
+                activationId, household.getMemberEmails().size());
     }
 
     // ---------------------------------------------------------------------
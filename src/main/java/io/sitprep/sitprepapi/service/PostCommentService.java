@@ -10,6 +10,7 @@ import io.sitprep.sitprepapi.dto.PostCommentDto;
 import io.sitprep.sitprepapi.repo.PostCommentRepo;
 import io.sitprep.sitprepapi.repo.PostRepo;
 import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.repo.UserProfileCard;
 import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
@@ -20,7 +21,6 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 
 import java.time.Instant;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -33,8 +33,8 @@ import java.util.stream.Collectors;
  *   <li>Broadcasts EXACTLY ONCE on commit (afterCommit synchronization)</li>
  *   <li>Enriches author profile fields (name, avatar) so the FE renders
  *       without a separate batch profile lookup</li>
- *   <li>Fires a presence-aware notification to the task author when someone
- *       else comments on their post</li>
+ *   <li>Queues a presence-aware notification to the task author (via the
+ *       notification outbox) when someone else comments on their post</li>
  * </ul>
  *
  * <p>Replies use the quote-prefix content convention from {@code PostComments}
@@ -50,21 +50,24 @@ public class PostCommentService {
     private final PostRepo taskRepo;
     private final UserInfoRepo userInfoRepo;
     private final WebSocketMessageSender ws;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutbox;
     private final PostCommentReactionService reactionService;
+    private final ProfileCardService profileCards;
 
     public PostCommentService(PostCommentRepo commentRepo,
                               PostRepo taskRepo,
                               UserInfoRepo userInfoRepo,
                               WebSocketMessageSender ws,
-                              NotificationService notificationService,
-                              PostCommentReactionService reactionService) {
+                              NotificationOutboxService notificationOutbox,
+                              PostCommentReactionService reactionService,
+                              ProfileCardService profileCards) {
         this.commentRepo = commentRepo;
         this.taskRepo = taskRepo;
         this.userInfoRepo = userInfoRepo;
         this.ws = ws;
-        this.notificationService = notificationService;
+        this.notificationOutbox = notificationOutbox;
         this.reactionService = reactionService;
+        this.profileCards = profileCards;
     }
 
     // --------------------------------------------------------------------------------------------
@@ -105,13 +108,10 @@ public class PostCommentService {
                 } catch (Exception e) {
                     log.error("WS broadcast failed for new task comment id={}", saved.getId(), e);
                 }
-                try {
-                    notifyPostAuthorOnNewComment(saved, out);
-                } catch (Exception e) {
-                    log.error("Notification fan-out failed for new task comment id={}", saved.getId(), e);
-                }
             }
         });
+        // The author push is queued in the outbox and commits with the comment.
+        notifyPostAuthorOnNewComment(saved, out);
 
         return out;
     }
@@ -198,8 +198,7 @@ public class PostCommentService {
 
         Set<String> emails = rows.stream()
                 .map(PostComment::getAuthor).filter(Objects::nonNull).collect(Collectors.toSet());
-        Map<String, UserInfo> userByEmail = userInfoRepo.findByUserEmailIn(new ArrayList<>(emails))
-                .stream().collect(Collectors.toMap(UserInfo::getUserEmail, Function.identity()));
+        Map<String, UserProfileCard> userByEmail = profileCards.cardsFor(emails);
 
         List<PostCommentDto> dtos = rows.stream()
                 .map(c -> toDto(c, userByEmail))
@@ -246,8 +245,7 @@ public class PostCommentService {
 
         Set<String> emails = rows.stream()
                 .map(PostComment::getAuthor).filter(Objects::nonNull).collect(Collectors.toSet());
-        Map<String, UserInfo> userByEmail = userInfoRepo.findByUserEmailIn(new ArrayList<>(emails))
-                .stream().collect(Collectors.toMap(UserInfo::getUserEmail, Function.identity()));
+        Map<String, UserProfileCard> userByEmail = profileCards.cardsFor(emails);
 
         List<PostCommentDto> dtos = rows.stream()
                 .map(c -> toDto(c, userByEmail))
@@ -271,8 +269,7 @@ public class PostCommentService {
 
         Set<String> emails = rows.stream()
                 .map(PostComment::getAuthor).filter(Objects::nonNull).collect(Collectors.toSet());
-        Map<String, UserInfo> userByEmail = userInfoRepo.findByUserEmailIn(new ArrayList<>(emails))
-                .stream().collect(Collectors.toMap(UserInfo::getUserEmail, Function.identity()));
+        Map<String, UserProfileCard> userByEmail = profileCards.cardsFor(emails);
 
         List<PostCommentDto> dtos = rows.stream()
                 .map(c -> toDto(c, userByEmail))
@@ -345,7 +342,7 @@ public class PostCommentService {
         for (Object[] row : rows) {
             if (row == null || row.length < 2) continue;
             Long postId = (Long) row[0];
-            Long count = (Long) row[1];
+            Number count = (Number) row[1];
             if (postId != null && count != null) {
                 out.put(postId, count.intValue());
             }
@@ -371,31 +368,25 @@ public class PostCommentService {
         List<PostComment> latest = commentRepo.findLatestByPostIdIn(postIds);
         if (latest.isEmpty()) return Map.of();
 
-        // Batch-load author profiles in one round trip.
+        // Author cards in one batch (cache first, one round trip for misses).
         List<String> emails = latest.stream()
                 .map(PostComment::getAuthor)
                 .filter(Objects::nonNull)
                 .distinct()
                 .collect(Collectors.toList());
-        Map<String, UserInfo> profilesByEmail = emails.isEmpty()
-                ? Map.of()
-                : userInfoRepo.findByUserEmailIn(emails).stream()
-                    .collect(Collectors.toMap(
-                            UserInfo::getUserEmail,
-                            Function.identity(),
-                            (a, b) -> a));
+        Map<String, UserProfileCard> profilesByEmail = profileCards.cardsFor(emails);
 
         Map<Long, CommentPreviewDto> out = new HashMap<>(latest.size());
         for (PostComment c : latest) {
             String email = c.getAuthor();
-            UserInfo u = email == null ? null : profilesByEmail.get(email);
-            String first = u != null ? u.getUserFirstName()
+            UserProfileCard u = email == null ? null : profilesByEmail.get(email);
+            String first = u != null ? u.firstName()
                     : (email != null ? email.split("@")[0] : "Neighbor");
             // DtoImages.avatar normalizes the raw column value through PublicCdn
             // — legacy Firebase URLs, stale R2 keys, signed S3 URLs all return
             // null so the wire contract guarantees the FE either renders the
             // initials fallback OR a resolved https URL on the R2 base.
-            String avatarUrl = u != null ? DtoImages.avatar(u.getProfileImageUrl()) : null;
+            String avatarUrl = u != null ? DtoImages.avatar(u.profileImageUrl()) : null;
 
             // Strip the "> Replying to ...:" quote prefix so the preview
             // shows the actual reply text, not the quoted header. Then
@@ -433,14 +424,14 @@ public class PostCommentService {
         return d;
     }
 
-    private PostCommentDto toDto(PostComment c, Map<String, UserInfo> userByEmail) {
+    private PostCommentDto toDto(PostComment c, Map<String, UserProfileCard> userByEmail) {
         PostCommentDto d = toDto(c);
         if (c.getAuthor() != null) {
-            UserInfo u = userByEmail.get(c.getAuthor());
+            UserProfileCard u = userByEmail.get(c.getAuthor());
             if (u != null) {
-                d.setAuthorFirstName(u.getUserFirstName());
-                d.setAuthorLastName(u.getUserLastName());
-                d.setAuthorProfileImageUrl(DtoImages.avatar(u.getProfileImageUrl()));
+                d.setAuthorFirstName(u.firstName());
+                d.setAuthorLastName(u.lastName());
+                d.setAuthorProfileImageUrl(DtoImages.avatar(u.profileImageUrl()));
             }
         }
         return d;
@@ -448,10 +439,10 @@ public class PostCommentService {
 
     private void enrichAuthor(PostCommentDto d) {
         if (d == null || d.getAuthor() == null) return;
-        userInfoRepo.findByUserEmail(d.getAuthor()).ifPresent(u -> {
-            d.setAuthorFirstName(u.getUserFirstName());
-            d.setAuthorLastName(u.getUserLastName());
-            d.setAuthorProfileImageUrl(DtoImages.avatar(u.getProfileImageUrl()));
+        profileCards.cardFor(d.getAuthor()).ifPresent(u -> {
+            d.setAuthorFirstName(u.firstName());
+            d.setAuthorLastName(u.lastName());
+            d.setAuthorProfileImageUrl(DtoImages.avatar(u.profileImageUrl()));
         });
     }
 
@@ -477,11 +468,6 @@ public class PostCommentService {
             return;
         }
 
-        Optional<UserInfo> ownerOpt = userInfoRepo.findByUserEmail(taskAuthorEmail);
-        if (ownerOpt.isEmpty()) return;
-
-        UserInfo owner = ownerOpt.get();
-
         String commenterName = enrichedDto.getAuthorFirstName() != null
                 ? enrichedDto.getAuthorFirstName()
                 : "Someone";
@@ -504,19 +490,10 @@ public class PostCommentService {
                 .map(UserInfo::getId)
                 .orElse(null);
 
-        notificationService.deliverPresenceAware(
-                owner.getUserEmail(),
-                title,
-                body,
-                commenterName,
-                iconUrl,
-                "comment_on_task",
-                String.valueOf(task.getId()),
-                targetUrl,
-                null,
-                owner.getFcmtoken(),
-                actorUserId
-        );
+        notificationOutbox.enqueue(new NotificationService.GroupFanout(
+                "comment_on_task", /* category */ null, title, body, commenterName, iconUrl,
+                String.valueOf(task.getId()), targetUrl, null, actorUserId, /* muteGroupId */ null
+        ), taskAuthorEmail);
     }
 
     private String snippet(String content, int maxLen) {
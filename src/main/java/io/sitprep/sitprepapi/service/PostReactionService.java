@@ -1,9 +1,12 @@
 package io.sitprep.sitprepapi.service;
 
 import io.sitprep.sitprepapi.domain.Post;
+import io.sitprep.sitprepapi.domain.PostEngagementCount;
 import io.sitprep.sitprepapi.domain.PostReaction;
 import io.sitprep.sitprepapi.dto.EmojiReactionDto;
 import io.sitprep.sitprepapi.dto.PostReactionFrame;
+import io.sitprep.sitprepapi.repo.PostEngagementCountRepo;
+import io.sitprep.sitprepapi.repo.PostEngagementRow;
 import io.sitprep.sitprepapi.repo.PostReactionRepo;
 import io.sitprep.sitprepapi.repo.PostRepo;
 import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
@@ -31,6 +34,10 @@ import java.util.stream.Collectors;
  * {@code /topic/community/tasks/{zipBucket}}) after commit so other viewers
  * update live.</p>
  *
+ * <p>Listing summaries read per-emoji counts from {@code post_engagement_count}
+ * (kept current by {@link io.sitprep.sitprepapi.domain.PostEngagementCounter})
+ * plus the viewer's own rows, never the full reaction roster for a page.</p>
+ *
  * <p>The community-feed "Thank" affordance toggles emoji {@code "❤"};
  * the service supports any short emoji string so future surfaces can
  * extend without schema work.</p>
@@ -45,13 +52,16 @@ public class PostReactionService {
     public static final String THANK_EMOJI = "❤";
 
     private final PostReactionRepo reactionRepo;
+    private final PostEngagementCountRepo engagementRepo;
     private final PostRepo taskRepo;
     private final WebSocketMessageSender ws;
 
     public PostReactionService(PostReactionRepo reactionRepo,
+                               PostEngagementCountRepo engagementRepo,
                                PostRepo taskRepo,
                                WebSocketMessageSender ws) {
         this.reactionRepo = reactionRepo;
+        this.engagementRepo = engagementRepo;
         this.taskRepo = taskRepo;
         this.ws = ws;
     }
@@ -124,32 +134,12 @@ public class PostReactionService {
 
     /**
      * Heart-thank counts + viewer-thanked set in one cheap query each.
-     * Used by {@code PostService} when shaping a feed listing — populates
-     * {@code thanksCount} and {@code viewerThanked} on every PostDto so
-     * the FE doesn't need to fetch reactions separately for each card.
-     *
-     * <p>Returns a {@link ThankSummary} bundle so the listing path can
-     * destructure once instead of running two batch queries.</p>
+     * Populates {@code thanksCount} and {@code viewerThanked} for callers
+     * that only render the heart. Derived from {@link #loadReactionSummary}
+     * — the feed listing calls that directly and reads the heart from it.
      */
     public ThankSummary loadThankSummary(Collection<Long> postIds, String viewerEmail) {
-        if (postIds == null || postIds.isEmpty()) {
-            return new ThankSummary(Map.of(), Set.of());
-        }
-        List<PostReaction> rows = reactionRepo.findByPostIdIn(postIds);
-        Map<Long, Integer> counts = new HashMap<>();
-        for (PostReaction r : rows) {
-            if (THANK_EMOJI.equals(r.getEmoji())) {
-                counts.merge(r.getPostId(), 1, Integer::sum);
-            }
-        }
-        Set<Long> viewerThanked;
-        if (viewerEmail == null || viewerEmail.isBlank()) {
-            viewerThanked = Set.of();
-        } else {
-            viewerThanked = new HashSet<>(reactionRepo.findPostIdsWhereViewerReacted(
-                    postIds, viewerEmail.trim().toLowerCase(Locale.ROOT), THANK_EMOJI));
-        }
-        return new ThankSummary(counts, viewerThanked);
+        return loadReactionSummary(postIds, viewerEmail).thanks();
     }
 
     /** Bundle returned by {@link #loadThankSummary}. */
@@ -176,39 +166,42 @@ public class PostReactionService {
      *       emoji in the picker.</li>
      * </ul>
      *
-     * <p>Reuses the same {@code findByPostIdIn} batch query so this
-     * costs one extra hash-bucket pass over rows already in memory
-     * — no additional DB hit beyond what {@link #loadThankSummary}
-     * was already doing. In fact callers can pick one OR the other;
-     * the legacy thank-only path stays for code that hasn't migrated
-     * to the per-emoji DTO yet.</p>
+     * <p>Two small queries regardless of how popular the page is: the
+     * per-emoji counter rows, and the viewer's own reactions (skipped
+     * for anonymous reads).</p>
      */
     public ReactionSummary loadReactionSummary(Collection<Long> postIds, String viewerEmail) {
         if (postIds == null || postIds.isEmpty()) {
             return new ReactionSummary(Map.of(), Map.of());
         }
-        List<PostReaction> rows = reactionRepo.findByPostIdIn(postIds);
-        if (rows.isEmpty()) {
-            return new ReactionSummary(Map.of(), Map.of());
+        Map<Long, Map<String, Integer>> countsByPost = new HashMap<>();
+        for (PostEngagementRow row : engagementRepo.findReactionCounts(postIds)) {
+            String emoji = row.metric().substring(PostEngagementCount.REACTION_PREFIX.length());
+            countsByPost
+                    .computeIfAbsent(row.postId(), k -> new LinkedHashMap<>())
+                    .merge(emoji, row.total(), Integer::sum);
         }
-        String viewerNormalized = (viewerEmail == null || viewerEmail.isBlank())
-                ? null
-                : viewerEmail.trim().toLowerCase(Locale.ROOT);
+        return new ReactionSummary(countsByPost, loadViewerEmojis(postIds, viewerEmail));
+    }
 
-        Map<Long, Map<String, Integer>> countsByPost = new HashMap<>();
+    /**
+     * Just the viewer half of {@link #loadReactionSummary} — the emojis
+     * {@code viewerEmail} recorded on each post. For callers whose counts
+     * come from a shared cache. Empty for anonymous reads.
+     */
+    public Map<Long, Set<String>> loadViewerEmojis(Collection<Long> postIds, String viewerEmail) {
         Map<Long, Set<String>> viewerEmojisByPost = new HashMap<>();
-        for (PostReaction r : rows) {
-            countsByPost
-                    .computeIfAbsent(r.getPostId(), k -> new LinkedHashMap<>())
-                    .merge(r.getEmoji(), 1, Integer::sum);
-            if (viewerNormalized != null
-                    && viewerNormalized.equalsIgnoreCase(r.getUserEmail())) {
-                viewerEmojisByPost
-                        .computeIfAbsent(r.getPostId(), k -> new HashSet<>())
-                        .add(r.getEmoji());
-            }
+        if (postIds == null || postIds.isEmpty() || viewerEmail == null || viewerEmail.isBlank()) {
+            return viewerEmojisByPost;
+        }
+        List<PostReaction> mine = reactionRepo.findViewerReactions(
+                postIds, viewerEmail.trim().toLowerCase(Locale.ROOT));
+        for (PostReaction r : mine) {
+            viewerEmojisByPost
+                    .computeIfAbsent(r.getPostId(), k -> new HashSet<>())
+                    .add(r.getEmoji());
         }
-        return new ReactionSummary(countsByPost, viewerEmojisByPost);
+        return viewerEmojisByPost;
     }
 
     /** Bundle returned by {@link #loadReactionSummary}. */
@@ -224,6 +217,20 @@ public class PostReactionService {
             Set<String> s = viewerEmojisByPost.get(postId);
             return s == null ? Set.of() : s;
         }
+
+        /** The heart-only view of this summary. */
+        public ThankSummary thanks() {
+            Map<Long, Integer> counts = new HashMap<>();
+            countsByPost.forEach((postId, byEmoji) -> {
+                Integer n = byEmoji.get(THANK_EMOJI);
+                if (n != null && n > 0) counts.put(postId, n);
+            });
+            Set<Long> viewerThanked = new HashSet<>();
+            viewerEmojisByPost.forEach((postId, emojis) -> {
+                if (emojis.contains(THANK_EMOJI)) viewerThanked.add(postId);
+            });
+            return new ThankSummary(counts, viewerThanked);
+        }
     }
 
     // ------------------------------------------------------------------
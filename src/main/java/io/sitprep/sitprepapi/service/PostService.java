@@ -11,6 +11,8 @@ import io.sitprep.sitprepapi.domain.Follow;
 import io.sitprep.sitprepapi.domain.PostConfirm;
 import io.sitprep.sitprepapi.repo.AskBookmarkRepo;
 import io.sitprep.sitprepapi.repo.PostConfirmRepo;
+import io.sitprep.sitprepapi.repo.PostEngagementRow;
+import io.sitprep.sitprepapi.repo.UserProfileCard;
 import io.sitprep.sitprepapi.domain.Group;
 import io.sitprep.sitprepapi.domain.Post;
 import io.sitprep.sitprepapi.domain.Post.PostStatus;
@@ -20,6 +22,7 @@ import io.sitprep.sitprepapi.dto.CivicQueueDto;
 import io.sitprep.sitprepapi.dto.DtoImages;
 import io.sitprep.sitprepapi.repo.FollowRepo;
 import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.GroupSummaryRow;
 import io.sitprep.sitprepapi.repo.PostRepo;
 import io.sitprep.sitprepapi.repo.UserInfoRepo;
 import io.sitprep.sitprepapi.repo.TaskAssigneeRepo;
@@ -39,7 +42,6 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -51,7 +53,7 @@ import java.util.stream.Collectors;
  * cancel, reopen) plus the queries each surface needs:</p>
  * <ul>
  *   <li>Group feed — by groupId</li>
- *   <li>Community feed — by lat/lng/radius (Haversine in Java; zip-bucket pre-filter via repo)</li>
+ *   <li>Community feed — by lat/lng/radius ({@link CommunityPostGeoIndex} grid prefilter, Haversine in Java)</li>
  *   <li>My tasks — by requester or claimer email</li>
  * </ul>
  */
@@ -100,6 +102,9 @@ public class PostService {
     // PostService, so there is no constructor cycle).
     private final AgencyJurisdictionService agencyJurisdictionService;
     private final CivicAgencyService civicAgencyService;
+    private final CommunityPostGeoIndex geoIndex;
+    private final ProfileCardService profileCards;
+    private final CommunityFeedCache feedCache;
 
     public record PostSharePreview(
             String title,
@@ -126,7 +131,10 @@ public class PostService {
                        TaskAssigneeRepo taskAssigneeRepo,
                        TaskAssignmentService taskAssignmentService,
                        AgencyJurisdictionService agencyJurisdictionService,
-                       CivicAgencyService civicAgencyService) {
+                       CivicAgencyService civicAgencyService,
+                       CommunityPostGeoIndex geoIndex,
+                       ProfileCardService profileCards,
+                       CommunityFeedCache feedCache) {
         this.taskRepo = taskRepo;
         this.userInfoRepo = userInfoRepo;
         this.geocode = geocode;
@@ -148,6 +156,9 @@ public class PostService {
         this.taskAssignmentService = taskAssignmentService;
         this.agencyJurisdictionService = agencyJurisdictionService;
         this.civicAgencyService = civicAgencyService;
+        this.geoIndex = geoIndex;
+        this.profileCards = profileCards;
+        this.feedCache = feedCache;
     }
 
     // -----------------------------------------------------------------------
@@ -235,7 +246,8 @@ public class PostService {
      * (avatar + name + 3-dot menu) without fanning out a separate
      * /userinfo/profiles/batch round trip per page-load.
      *
-     * <p>One DB call total via {@code findByUserEmailIn}. Tasks whose
+     * <p>Cards come from {@link ProfileCardService} — at most one DB call
+     * for the authors not already cached. Tasks whose
      * requesterEmail can't be resolved (deleted account, anon) flow
      * through unchanged with null author fields — the FE handles that
      * by falling back to email-as-name + initials.</p>
@@ -249,17 +261,11 @@ public class PostService {
                 .distinct()
                 .collect(Collectors.toList());
         if (emails.isEmpty()) return dtos;
-        Map<String, UserInfo> byEmail = userInfoRepo.findByUserEmailIn(emails).stream()
-                .filter(u -> u.getUserEmail() != null)
-                .collect(Collectors.toMap(
-                        u -> u.getUserEmail().toLowerCase(Locale.ROOT),
-                        Function.identity(),
-                        (a, b) -> a
-                ));
+        Map<String, UserProfileCard> byEmail = profileCards.cardsFor(emails);
         return dtos.stream()
                 .map(d -> {
                     if (d.requesterEmail() == null) return d;
-                    UserInfo u = byEmail.get(d.requesterEmail().toLowerCase(Locale.ROOT));
+                    UserProfileCard u = byEmail.get(d.requesterEmail().toLowerCase(Locale.ROOT));
                     return (u == null) ? d : d.withAuthor(u);
                 })
                 .collect(Collectors.toList());
@@ -268,7 +274,7 @@ public class PostService {
     /**
      * Batch-fold the work-order assignee list (Step 2 — {@code task_assignee},
      * LEAD + HELPERs) into task PostDtos, each enriched with a display name +
-     * avatar via one batched UserInfo lookup (same path {@link #withAuthors}
+     * avatar via one batched profile-card lookup (same path {@link #withAuthors}
      * uses). Two batched queries total; non-task dtos pass through untouched.
      * {@code task_assignee} is authoritative — {@code assigneeEmail} on the dto
      * stays the derived display mirror.
@@ -285,11 +291,7 @@ public class PostService {
         List<String> emails = byTask.values().stream().flatMap(List::stream)
                 .map(TaskAssignee::getEmail).filter(Objects::nonNull)
                 .map(s -> s.toLowerCase(Locale.ROOT)).distinct().collect(Collectors.toList());
-        Map<String, UserInfo> users = emails.isEmpty() ? Map.of()
-                : userInfoRepo.findByUserEmailIn(emails).stream()
-                    .filter(u -> u.getUserEmail() != null)
-                    .collect(Collectors.toMap(u -> u.getUserEmail().toLowerCase(Locale.ROOT),
-                            Function.identity(), (a, b) -> a));
+        Map<String, UserProfileCard> users = profileCards.cardsFor(emails);
         return dtos.stream().map(d -> {
             List<TaskAssignee> rows = byTask.get(d.id());
             if (rows == null || rows.isEmpty()) return d;
@@ -301,12 +303,12 @@ public class PostService {
                             .thenComparingInt(r -> r.getRole() == TaskAssignee.Role.LEAD ? 0 : 1)
                             .thenComparing(r -> r.getCreatedAt() == null ? Instant.EPOCH : r.getCreatedAt()))
                     .map(r -> {
-                        UserInfo u = r.getEmail() == null ? null
+                        UserProfileCard u = r.getEmail() == null ? null
                                 : users.get(r.getEmail().toLowerCase(Locale.ROOT));
-                        String first = (u == null || u.getUserFirstName() == null) ? "" : u.getUserFirstName();
-                        String last = (u == null || u.getUserLastName() == null) ? "" : u.getUserLastName();
+                        String first = (u == null || u.firstName() == null) ? "" : u.firstName();
+                        String last = (u == null || u.lastName() == null) ? "" : u.lastName();
                         String name = (first + " " + last).trim();
-                        String avatar = (u == null) ? null : DtoImages.avatar(u.getProfileImageUrl());
+                        String avatar = (u == null) ? null : DtoImages.avatar(u.profileImageUrl());
                         return new PostDto.AssigneeDto(
                                 r.getEmail(), name.isEmpty() ? null : name, avatar,
                                 r.getRole() == null ? null : r.getRole().name(), r.isPrimary());
@@ -319,7 +321,7 @@ public class PostService {
     /**
      * Batch-fold the authored-as-group identity (groupName + groupType)
      * into a list of PostDto. Mirrors {@link #withAuthors} — one DB
-     * call total via {@code groupRepo.findAllById}, then map-lookup
+     * call total via {@code groupRepo.findSummariesByIds}, then map-lookup
      * per row. Posts with null authoredAsGroupId flow through
      * unchanged (the common case).
      *
@@ -336,16 +338,16 @@ public class PostService {
                 .distinct()
                 .collect(Collectors.toList());
         if (ids.isEmpty()) return dtos;
-        Map<String, Group> byId = new HashMap<>();
-        for (Group g : groupRepo.findAllById(ids)) {
-            if (g != null && g.getGroupId() != null) byId.put(g.getGroupId(), g);
+        Map<String, GroupSummaryRow> byId = new HashMap<>();
+        for (GroupSummaryRow g : groupRepo.findSummariesByIds(ids)) {
+            if (g.groupId() != null) byId.put(g.groupId(), g);
         }
         return dtos.stream()
                 .map(d -> {
                     if (d.authoredAsGroupId() == null) return d;
-                    Group g = byId.get(d.authoredAsGroupId());
+                    GroupSummaryRow g = byId.get(d.authoredAsGroupId());
                     if (g == null) return d;
-                    return d.withAuthoredAsGroup(g.getGroupName(), g.getGroupType());
+                    return d.withAuthoredAsGroup(g.groupName(), g.groupType());
                 })
                 .collect(Collectors.toList());
     }
@@ -377,15 +379,7 @@ public class PostService {
                 .map(s -> s.toLowerCase(Locale.ROOT))
                 .distinct()
                 .toList();
-        Map<String, UserInfo> authorByEmail = parentEmails.isEmpty()
-                ? Map.of()
-                : userInfoRepo.findByUserEmailIn(parentEmails).stream()
-                    .filter(u -> u.getUserEmail() != null)
-                    .collect(Collectors.toMap(
-                            u -> u.getUserEmail().toLowerCase(Locale.ROOT),
-                            Function.identity(),
-                            (a, b) -> a
-                    ));
+        Map<String, UserProfileCard> authorByEmail = profileCards.cardsFor(parentEmails);
 
         List<String> authoredGroupIds = parentsById.values().stream()
                 .map(Post::getAuthoredAsGroupId)
@@ -393,9 +387,11 @@ public class PostService {
                 .filter(s -> !s.isBlank())
                 .distinct()
                 .toList();
-        Map<String, Group> groupById = new HashMap<>();
-        for (Group g : groupRepo.findAllById(authoredGroupIds)) {
-            if (g != null && g.getGroupId() != null) groupById.put(g.getGroupId(), g);
+        Map<String, GroupSummaryRow> groupById = new HashMap<>();
+        if (!authoredGroupIds.isEmpty()) {
+            for (GroupSummaryRow g : groupRepo.findSummariesByIds(authoredGroupIds)) {
+                if (g.groupId() != null) groupById.put(g.groupId(), g);
+            }
         }
 
         return dtos.stream()
@@ -408,17 +404,17 @@ public class PostService {
                     boolean sameGroupScope = Objects.equals(parent.getGroupId(), d.groupId());
                     if (parentIsGroupScoped && !sameGroupScope) return d;
 
-                    UserInfo author = parent.getRequesterEmail() == null
+                    UserProfileCard author = parent.getRequesterEmail() == null
                             ? null
                             : authorByEmail.get(parent.getRequesterEmail().toLowerCase(Locale.ROOT));
-                    Group authoredGroup = parent.getAuthoredAsGroupId() == null
+                    GroupSummaryRow authoredGroup = parent.getAuthoredAsGroupId() == null
                             ? null
                             : groupById.get(parent.getAuthoredAsGroupId());
                     return d.withParentPost(PostDto.ParentPostPreview.fromEntity(
                             parent,
                             author,
-                            authoredGroup == null ? null : authoredGroup.getGroupName(),
-                            authoredGroup == null ? null : authoredGroup.getGroupType()
+                            authoredGroup == null ? null : authoredGroup.groupName(),
+                            authoredGroup == null ? null : authoredGroup.groupType()
                     ));
                 })
                 .collect(Collectors.toList());
@@ -438,6 +434,11 @@ public class PostService {
      * — one batched count query per page-load alongside the reaction summary.
      * Tasks with no comments are absent from the count map; we default to 0
      * for missing keys so the FE renders the comment icon without a count.</p>
+     *
+     * <p>Reaction, comment and confirm counts all read the denormalized
+     * {@code post_engagement_count} rows (maintained by
+     * {@link io.sitprep.sitprepapi.domain.PostEngagementCounter}), so page
+     * cost no longer grows with how much engagement the page has.</p>
      */
     private List<PostDto> withEngagement(List<PostDto> dtos, String viewerEmail) {
         if (dtos == null || dtos.isEmpty()) return dtos;
@@ -446,16 +447,12 @@ public class PostService {
                 .filter(Objects::nonNull)
                 .toList();
         if (ids.isEmpty()) return dtos;
-        // Two batched fetches against the reaction table — one for the
-        // legacy thank-only summary (drives the heart-fill state),
-        // another for the per-emoji summary that powers the new
-        // multi-emoji cluster display under each card. Both reuse the
-        // same `findByPostIdIn` query path internally so this is one
-        // DB hit per fetch, not per post.
-        PostReactionService.ThankSummary thankSummary =
-                reactionService.loadThankSummary(ids, viewerEmail);
+        // Per-emoji counts come from the denormalized post_engagement_count
+        // rows plus the viewer's own reactions; the heart-only thank state
+        // is derived from the same summary rather than a second fetch.
         PostReactionService.ReactionSummary reactionSummary =
                 reactionService.loadReactionSummary(ids, viewerEmail);
+        PostReactionService.ThankSummary thankSummary = reactionSummary.thanks();
         Map<Long, Integer> commentCounts = commentService.loadCountsByPostIds(ids);
         // Latest-comment preview per post (IG/FB-style "teased reply" on
         // the feed card). One batched query + one batched author-profile
@@ -466,8 +463,7 @@ public class PostService {
 
         // Community-redesign folds: first-class confirms + saved viewer state
         // + tagged-agency display name. Each is one batched query.
-        Map<Long, Long> confirmCounts = postConfirmRepo.findByPostIdIn(ids).stream()
-                .collect(Collectors.groupingBy(PostConfirm::getPostId, Collectors.counting()));
+        Map<Long, Integer> confirmCounts = confirmCountsByPost(ids);
         Set<Long> viewerConfirmed = (viewerEmail == null || viewerEmail.isBlank())
                 ? Set.of()
                 : new HashSet<>(postConfirmRepo.findPostIdsWhereViewerConfirmed(ids, viewerEmail));
@@ -481,10 +477,10 @@ public class PostService {
                 .filter(Objects::nonNull)
                 .map(PostDto.CommunityExtras.TaggedAgency::id)
                 .filter(Objects::nonNull).distinct().toList();
-        Map<String, Group> agencyById = new HashMap<>();
+        Map<String, GroupSummaryRow> agencyById = new HashMap<>();
         if (!agencyIds.isEmpty()) {
-            for (Group g : groupRepo.findAllById(agencyIds)) {
-                if (g != null && g.getGroupId() != null) agencyById.put(g.getGroupId(), g);
+            for (GroupSummaryRow g : groupRepo.findSummariesByIds(agencyIds)) {
+                if (g.groupId() != null) agencyById.put(g.groupId(), g);
             }
         }
         // Slice 2 — batch-fold the full multi-agency tag set for civic posts from
@@ -525,11 +521,10 @@ public class PostService {
             List<Long> allDupIds = dupsByCanon.values().stream().flatMap(List::stream)
                     .distinct().toList();
             if (!allDupIds.isEmpty()) {
-                Map<Long, Long> dupConfirms = postConfirmRepo.findByPostIdIn(allDupIds).stream()
-                        .collect(Collectors.groupingBy(PostConfirm::getPostId, Collectors.counting()));
+                Map<Long, Integer> dupConfirms = confirmCountsByPost(allDupIds);
                 for (Map.Entry<Long, List<Long>> e : dupsByCanon.entrySet()) {
                     int bonus = e.getValue().stream()
-                            .mapToInt(id -> dupConfirms.getOrDefault(id, 0L).intValue()).sum();
+                            .mapToInt(id -> dupConfirms.getOrDefault(id, 0)).sum();
                     if (bonus > 0) mergedConfirmBonus.put(e.getKey(), bonus);
                 }
             }
@@ -553,13 +548,13 @@ public class PostService {
                         ce = ce.withConfirms(
                                 // Slice 3 (4d) — canonical shows summed confirms
                                 // across itself + its merged duplicates.
-                                confirmCounts.getOrDefault(d.id(), 0L).intValue()
+                                confirmCounts.getOrDefault(d.id(), 0)
                                         + mergedConfirmBonus.getOrDefault(d.id(), 0),
                                 viewerConfirmed.contains(d.id())
                         ).withSaved(savedKeys.contains(String.valueOf(d.id())));
                         if (ce.taggedAgency() != null) {
-                            Group g = agencyById.get(ce.taggedAgency().id());
-                            if (g != null) ce = ce.withAgencyIdentity(g.getGroupName(), true);
+                            GroupSummaryRow g = agencyById.get(ce.taggedAgency().id());
+                            if (g != null) ce = ce.withAgencyIdentity(g.groupName(), true);
                         }
                         // Slice 2 — fold the full multi-agency list (civic only).
                         // A civic post with no active tags gets an empty list so
@@ -585,6 +580,15 @@ public class PostService {
                 .collect(Collectors.toList());
     }
 
+    /** Confirm counts from the denormalized counters; posts with none are absent. */
+    private Map<Long, Integer> confirmCountsByPost(Collection<Long> postIds) {
+        Map<Long, Integer> out = new HashMap<>();
+        for (PostEngagementRow row : postConfirmRepo.findConfirmCounts(postIds)) {
+            out.merge(row.postId(), row.total(), Integer::sum);
+        }
+        return out;
+    }
+
     // ---------------------------------------------------------------------
     // Create
     // ---------------------------------------------------------------------
@@ -779,22 +783,24 @@ public class PostService {
         // acknowledge the still-new report.
         applyWorkOrderSourceLink(t, incoming, requesterEmail);
 
-        // Reverse-geocode to populate zipBucket (community-feed pre-filter)
-        // and placeLabel (Nextdoor-style "{neighborhood} · {time}" subtitle
-        // on feed cards). Safe to skip on group-scope tasks since the
-        // group itself provides location context. The FULL postcode is captured
-        // here too — the civic multi-agency resolver (V53) needs it (its zip side
-        // matches the group_jurisdiction_zips join on the full zip, not the
-        // 3-char zipBucket).
+        // Geo enrichment: zipBucket (community-feed pre-filter) and
+        // placeLabel (Nextdoor-style "{neighborhood} · {time}" subtitle on
+        // feed cards). Safe to skip on group-scope tasks since the group
+        // itself provides location context. The FULL postcode is captured
+        // here too — the civic multi-agency resolver (V53) needs it (its zip
+        // side matches the group_jurisdiction_zips join on the full zip, not
+        // the 3-char zipBucket). Postcodes come from the offline geocoder, so
+        // civic routing no longer hinges on Nominatim; only the label does.
         String civicPostcode = null;
         if (t.getGroupId() == null && t.getLatitude() != null && t.getLongitude() != null) {
             try {
-                NominatimGeocodeService.Place p = geocode.reverse(t.getLatitude(), t.getLongitude());
-                if (p != null) {
-                    t.setZipBucket(p.zipBucket());
-                    t.setPlaceLabel(p.shortLabel());
-                    civicPostcode = p.postcode();
+                NominatimGeocodeService.Postal postal = geocode.postal(t.getLatitude(), t.getLongitude());
+                if (postal != null) {
+                    t.setZipBucket(postal.zipBucket());
+                    civicPostcode = postal.postcode();
                 }
+                NominatimGeocodeService.Place p = geocode.reverse(t.getLatitude(), t.getLongitude());
+                if (p != null) t.setPlaceLabel(p.shortLabel());
             } catch (Exception e) {
                 log.debug("Post geo enrichment failed: {}", e.getMessage());
             }
@@ -1091,12 +1097,15 @@ public class PostService {
                 // A racing confirm for the same (post,user) already landed — idempotent success.
             }
         }
+        // The cached card carries confirmsCount; only viewerConfirmed is overlaid live.
+        feedCache.onEngagementChangedAfterCommit(postId);
         return new ConfirmResult((int) postConfirmRepo.countByPostId(postId), true);
     }
 
     @Transactional
     public ConfirmResult removeConfirm(Long postId, String email) {
         postConfirmRepo.deleteByPostAndUser(postId, email.trim().toLowerCase());
+        feedCache.onEngagementChangedAfterCommit(postId);
         return new ConfirmResult((int) postConfirmRepo.countByPostId(postId), false);
     }
 
@@ -1424,38 +1433,30 @@ public class PostService {
                 ? Set.of()
                 : blockService.getBlockSet(viewerEmail);
 
-        // No bucket pre-filter for now (we don't know the viewer's zip ahead
-        // of the request). Service-layer Haversine + status filter is fine
-        // at SitPrep scale; add bucket prefilter when row counts grow.
-        List<Post> candidates = taskRepo.findCommunityCandidates(wanted, null);
-
-        // Walk candidates ONCE; bucket each into within-radius vs follow-
-        // source-out-of-radius vs drop. Geo-less rows are community-wide
-        // by construction — they belong in every viewer's feed (existing
-        // behavior, preserved here verbatim).
+        // Shared layer — the within-reach candidate rows for the viewer's
+        // ~1 km cell and radius band (CommunityFeedCache). Neighbors share
+        // it; on a miss it is built by communitySnapshot below. Everything
+        // after this is per viewer and in-memory until the page's folds.
+        CommunityFeedCache.Snapshot snapshot =
+                feedCache.snapshot(lat, lng, radiusKm, wanted, this::communitySnapshot);
+        Map<Long, PostDto> baseById = new HashMap<>();
+
+        // Per-viewer pass over the shared rows: block filter, then the
+        // viewer's exact distance (the snapshot reaches a little past the
+        // radius from its cell center). Geo-less rows are community-wide
+        // by construction and stay.
         List<PostDto> within = new ArrayList<>();
-        List<PostDto> followTail = new ArrayList<>();
-        for (Post t : candidates) {
-            // Block filter — symmetric, applied before any geo math so
-            // we don't waste cycles on rows the viewer will never see.
-            String author = t.getRequesterEmail();
-            String authorNormalized = author == null ? null : author.toLowerCase(Locale.ROOT);
-            if (authorNormalized != null && blockSet.contains(authorNormalized)) continue;
-
-            if (t.getLatitude() == null || t.getLongitude() == null) {
-                within.add(PostDto.fromEntity(t, null));
-                continue;
-            }
-            double d = haversineKm(lat, lng, t.getLatitude(), t.getLongitude());
-            if (d <= radiusKm) {
-                within.add(PostDto.fromEntity(t, roundKm(d)));
+        for (PostDto d : snapshot.rows()) {
+            if (isBlockedAuthor(d.requesterEmail(), blockSet)) continue;
+            baseById.put(d.id(), d);
+            if (d.latitude() == null || d.longitude() == null) {
+                within.add(d);
                 continue;
             }
-            // Out-of-radius — only include if author is followed.
-            if (authorNormalized != null && followedEmails.contains(authorNormalized)) {
-                followTail.add(PostDto.fromEntity(t, roundKm(d)).asFollowSource());
-            }
+            double km = haversineKm(lat, lng, d.latitude(), d.longitude());
+            if (km <= radiusKm) within.add(d.withDistanceKm(roundKm(km)));
         }
+
         // Hybrid relevance sort (locked 2026-05-09): proximity is still
         // the primary signal, but engagement + recency also count so a
         // fresh urgent post 1.5mi away outranks a quiet 0.4mi post from
@@ -1479,12 +1480,28 @@ public class PostService {
         // Tier first (official > civic > news > neighbor > sponsored),
         // then the relevance score within a tier — so official/crisis
         // content rises above organic without losing proximity ranking.
-        within.sort((a, b) -> {
-            int ta = communityTier(a), tb = communityTier(b);
-            if (ta != tb) return Integer.compare(ta, tb);
-            return Double.compare(communityScore(b), communityScore(a));
-        });
-
+        // Ranked here, per viewer, from the viewer's own distance — the
+        // snapshot only shares the candidate rows and their tier / recency
+        // / engagement inputs, so two neighbors in one cell each see their
+        // nearest posts first.
+        within.sort(COMMUNITY_ORDER);
+
+        // Follow tail — out-of-radius posts by authors the viewer follows.
+        // Per viewer, so never cached; skipped outright when they follow
+        // nobody.
+        List<PostDto> followTail = new ArrayList<>();
+        if (!followedEmails.isEmpty()) {
+            for (Post t : taskRepo.findCommunityCandidatesByAuthors(wanted, followedEmails)) {
+                if (t.getGroupId() != null || !wanted.contains(t.getStatus())) continue;
+                if (t.getLatitude() == null || t.getLongitude() == null) continue;
+                if (isBlockedAuthor(t.getRequesterEmail(), blockSet)) continue;
+                double d = haversineKm(lat, lng, t.getLatitude(), t.getLongitude());
+                if (d <= radiusKm) continue;
+                PostDto base = PostDto.fromEntity(t, null);
+                baseById.putIfAbsent(base.id(), base);
+                followTail.add(base.withDistanceKm(roundKm(d)).asFollowSource());
+            }
+        }
         // Follow-source tail by recency — most-recent follow post first.
         // Null createdAt sorts last so legacy rows don't dominate.
         followTail.sort((a, b) -> {
@@ -1566,11 +1583,114 @@ public class PostService {
         List<PostDto> capped = from >= balanced.size()
                 ? List.of()
                 : balanced.subList(from, Math.min(balanced.size(), from + size));
-        return withEngagement(withParentPosts(withAuthoredAsGroups(withAuthors(capped))), viewerEmail);
+        return withViewerState(placeCards(capped, baseById), viewerEmail);
     }
 
+    /**
+     * Snapshot loader: every OPEN/CLAIMED (per {@code area.statuses()})
+     * community post within the area's reach of its center, newest first.
+     * Unranked and without a distance: the caller measures each row from
+     * the viewer and ranks by {@link #COMMUNITY_ORDER} (the newest-first
+     * order keeps score ties stable). The grid index answers the radius
+     * question by touching only nearby cells; rows are re-checked against
+     * the loaded entity (status, scope) in case the index lags a write that
+     * bypassed the service seams. The index only holds the live statuses;
+     * a request for closed ones (history tabs — rare) takes the
+     * status-filtered candidate scan instead.
+     */
+    private CommunityFeedCache.Snapshot communitySnapshot(CommunityFeedCache.Area area) {
+        double cLat = area.centerLat(), cLng = area.centerLng();
+        List<Post> candidates = CommunityPostGeoIndex.covers(area.statuses())
+                ? taskRepo.findAllById(geoIndex.idsWithin(cLat, cLng, area.reachKm(), area.statuses()))
+                : taskRepo.findCommunityCandidates(area.statuses(), null);
+        List<PostDto> rows = new ArrayList<>();
+        for (Post t : candidates) {
+            if (t.getGroupId() != null || !area.statuses().contains(t.getStatus())) continue;
+            if (t.getLatitude() != null && t.getLongitude() != null
+                    && haversineKm(cLat, cLng, t.getLatitude(), t.getLongitude()) > area.reachKm()) continue;
+            rows.add(PostDto.fromEntity(t, null));
+        }
+        rows.sort(Comparator.comparing(PostDto::createdAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return new CommunityFeedCache.Snapshot(area, rows);
+    }
+
+    /**
+     * Page rows → enriched cards. The viewer-independent folds come from
+     * {@link CommunityFeedCache#cards} (misses enriched in one batch with no
+     * viewer); this request's placement — distance, follow source, pin —
+     * is laid back over each card.
+     */
+    private List<PostDto> placeCards(List<PostDto> page, Map<Long, PostDto> baseById) {
+        if (page.isEmpty()) return page;
+        Map<Long, PostDto> cards = feedCache.cards(page.stream().map(PostDto::id).toList(), missing -> {
+            List<PostDto> bases = missing.stream().map(baseById::get).filter(Objects::nonNull).toList();
+            Map<Long, PostDto> out = new HashMap<>();
+            for (PostDto c : withEngagement(withParentPosts(withAuthoredAsGroups(withAuthors(bases))), null)) {
+                out.put(c.id(), c);
+            }
+            return out;
+        });
+        List<PostDto> out = new ArrayList<>(page.size());
+        for (PostDto p : page) {
+            PostDto card = cards.get(p.id());
+            if (card == null) continue;
+            card = card.withDistanceKm(p.distanceKm());
+            if (p.viaFollow()) card = card.asFollowSource();
+            if (p.community() != null && p.community().pinned()
+                    && card.community() != null && !card.community().pinned()) {
+                card = card.withCommunity(card.community().withPinned(true));
+            }
+            out.add(card);
+        }
+        return out;
+    }
+
+    /**
+     * The viewer's own flags over shared cards: thanked / reacted emojis,
+     * confirmed, saved. Three batched reads; a no-op for anonymous viewers
+     * (cards are built with every flag off).
+     */
+    private List<PostDto> withViewerState(List<PostDto> dtos, String viewerEmail) {
+        if (dtos.isEmpty() || viewerEmail == null || viewerEmail.isBlank()) return dtos;
+        List<Long> ids = dtos.stream().map(PostDto::id).toList();
+        Map<Long, Set<String>> emojis = reactionService.loadViewerEmojis(ids, viewerEmail);
+        Set<Long> confirmed = new HashSet<>(postConfirmRepo.findPostIdsWhereViewerConfirmed(ids, viewerEmail));
+        Set<String> savedKeys = askBookmarkRepo.findUserBookmarksIn(viewerEmail, "post",
+                        ids.stream().map(String::valueOf).toList())
+                .stream().map(AskBookmark::getTargetKey).collect(Collectors.toSet());
+        List<PostDto> out = new ArrayList<>(dtos.size());
+        for (PostDto d : dtos) {
+            Set<String> mine = emojis.getOrDefault(d.id(), Set.of());
+            PostDto v = d.withEngagement(d.thanksCount(),
+                            mine.contains(PostReactionService.THANK_EMOJI), d.commentsCount())
+                    .withReactions(d.reactionsByEmoji(), mine);
+            PostDto.CommunityExtras ce = v.community();
+            if (ce != null) {
+                v = v.withCommunity(ce.withConfirms(ce.confirmsCount(), confirmed.contains(d.id()))
+                        .withSaved(savedKeys.contains(String.valueOf(d.id()))));
+            }
+            out.add(v);
+        }
+        return out;
+    }
+
+    private static boolean isBlockedAuthor(String author, Set<String> blockSet) {
+        return author != null && !blockSet.isEmpty() && blockSet.contains(author.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Within-radius community-feed order: tier ascending, then
+     * {@link #communityScore} descending. Package-private for the ranking
+     * benchmark ({@code src/jmh}).
+     */
+    static final Comparator<PostDto> COMMUNITY_ORDER = (a, b) -> {
+        int ta = communityTier(a), tb = communityTier(b);
+        if (ta != tb) return Integer.compare(ta, tb);
+        return Double.compare(communityScore(b), communityScore(a));
+    };
+
     /** Feed-ranking tier: 0 emergency → 6 sponsored. Lower ranks higher. */
-    private int communityTier(PostDto d) {
+    static int communityTier(PostDto d) {
         PostDto.CommunityExtras c = d.community();
         String type = (c == null || c.feedItemType() == null) ? "neighbor" : c.feedItemType();
         switch (type) {
@@ -1632,20 +1752,22 @@ public class PostService {
                 .map(UserInfo::getVerifiedPublisherGroupId)
                 .filter(g -> g != null && !g.isBlank())
                 .distinct().toList();
-        Map<String, Group> groups = new HashMap<>();
-        for (Group g : groupRepo.findAllById(gids)) {
-            if (g != null && g.getGroupId() != null) groups.put(g.getGroupId(), g);
+        Map<String, GroupSummaryRow> groups = new HashMap<>();
+        if (!gids.isEmpty()) {
+            for (GroupSummaryRow g : groupRepo.findSummariesByIds(gids)) {
+                if (g.groupId() != null) groups.put(g.groupId(), g);
+            }
         }
         Map<String, AgencyDto> byId = new LinkedHashMap<>();
         for (UserInfo p : pubs) {
             String gid = p.getVerifiedPublisherGroupId();
             if (gid == null || gid.isBlank()) continue;
-            Group g = groups.get(gid);
+            GroupSummaryRow g = groups.get(gid);
             if (g == null) continue;
             String area = p.getVerifiedPublisherServiceArea();
             if (z != null && (area == null || !area.toLowerCase().contains(z))) continue;
-            byId.putIfAbsent(g.getGroupId(),
-                    new AgencyDto(g.getGroupId(), g.getGroupName(), p.getVerifiedPublisherKind(), true, area));
+            byId.putIfAbsent(g.groupId(),
+                    new AgencyDto(g.groupId(), g.groupName(), p.getVerifiedPublisherKind(), true, area));
         }
         return new ArrayList<>(byId.values());
     }
@@ -2474,6 +2596,7 @@ public class PostService {
                 } catch (Exception e) {
                     log.error("WS task-delete broadcast failed for task {}", id, e);
                 }
+                geoIndex.remove(id);
                 deleteR2ObjectsBestEffort(imageKeys, "post " + id);
             }
         });
@@ -2536,6 +2659,9 @@ public class PostService {
                 } catch (Exception e) {
                     log.error("WS task broadcast failed for task {}", dto.id(), e);
                 }
+                // Every create/patch/lifecycle transition funnels through
+                // here, so this one call keeps the community geo index current.
+                geoIndex.upsert(dto.id(), dto.groupId(), dto.latitude(), dto.longitude(), dto.status());
             }
         });
     }
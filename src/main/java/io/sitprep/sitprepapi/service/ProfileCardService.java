@@ -0,0 +1,106 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.repo.UserProfileCard;
+import io.sitprep.sitprepapi.util.LookupCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Process-wide cache of {@link UserProfileCard}s — the name / avatar /
+ * verified-publisher fields every DTO enrichment path (post and comment
+ * authors, pinners, assignees, map and discover owners) folds in.
+ *
+ * <p>Those paths used to run {@code userInfoRepo.findByUserEmailIn} on
+ * every page and hydrate full {@code UserInfo} entities, EAGER group-id
+ * sets included, to read four columns. Cards are keyed by lowercased
+ * email in a {@link LookupCache} (bounded, TinyLFU admission, counters at
+ * {@code GET /api/admin/ops/caches} as {@code profile-cards}); a page's
+ * misses load in one scalar projection query. Unknown emails are cached
+ * briefly as negatives so a deleted author isn't re-queried every page.</p>
+ *
+ * <p>Profile writes call {@link #invalidate(String)} — immediately and again
+ * after commit, so a read that raced the write can't re-cache the old card.
+ * The cache is per instance; other dynos converge within the TTL.</p>
+ */
+@Service
+public class ProfileCardService {
+
+    private final UserInfoRepo userInfoRepo;
+    private final LookupCache<UserProfileCard> cache;
+
+    public ProfileCardService(
+            UserInfoRepo userInfoRepo,
+            LookupCacheRegistry caches,
+            @Value("${sitprep.profile-cards.max-entries:50000}") long maxEntries,
+            @Value("${sitprep.profile-cards.ttl:PT10M}") String ttl,
+            @Value("${sitprep.profile-cards.negative-ttl:PT1M}") String negativeTtl
+    ) {
+        this.userInfoRepo = userInfoRepo;
+        this.cache = caches.create("profile-cards", maxEntries, Duration.parse(ttl),
+                Duration.parse(negativeTtl), c -> 1, Objects::isNull);
+    }
+
+    /**
+     * Cards for {@code emails}, keyed by each email exactly as passed so
+     * callers can look up with whatever string they hold (an author column,
+     * a lowercased owner email). Emails with no user are absent.
+     */
+    public Map<String, UserProfileCard> cardsFor(Collection<String> emails) {
+        if (emails == null || emails.isEmpty()) return Map.of();
+        List<String> keys = emails.stream().map(ProfileCardService::normalize)
+                .filter(Objects::nonNull).distinct().toList();
+        if (keys.isEmpty()) return Map.of();
+
+        Map<String, UserProfileCard> byKey = cache.getAll(keys, missing -> {
+            Map<String, UserProfileCard> loaded = new HashMap<>();
+            for (UserProfileCard c : userInfoRepo.findProfileCardsByEmailIn(missing)) {
+                String k = normalize(c.email());
+                if (k != null) loaded.putIfAbsent(k, c);
+            }
+            return loaded;
+        });
+
+        Map<String, UserProfileCard> out = new HashMap<>();
+        for (String email : emails) {
+            String k = normalize(email);
+            UserProfileCard c = k == null ? null : byKey.get(k);
+            if (c != null) out.put(email, c);
+        }
+        return out;
+    }
+
+    public Optional<UserProfileCard> cardFor(String email) {
+        if (normalize(email) == null) return Optional.empty();
+        return Optional.ofNullable(cardsFor(List.of(email)).get(email));
+    }
+
+    /** Drop a user's card now and again once the writing transaction commits. */
+    public void invalidate(String email) {
+        String key = normalize(email);
+        if (key == null) return;
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override public void afterCommit() { cache.invalidate(key); }
+            });
+        }
+    }
+
+    private static String normalize(String email) {
+        if (email == null) return null;
+        String e = email.trim().toLowerCase(Locale.ROOT);
+        return e.isEmpty() ? null : e;
+    }
+}
@@ -12,7 +12,11 @@ import java.time.Instant;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -82,8 +86,48 @@ public class PushPolicyService {
     @Transactional
     public Lane evaluate(String userEmail, Category category, String severity) {
         if (userEmail == null || userEmail.isBlank() || category == null) return Lane.DROP;
-        UserAlertPreference pref = getOrCreate(userEmail);
+        return decide(getOrCreate(userEmail), userEmail, category, severity);
+    }
+
+    /**
+     * {@link #evaluate} for a whole fan-out: every recipient's preference
+     * row comes back in one {@code findAllById} instead of one lookup per
+     * recipient. Recipients with no row yet are judged against a transient
+     * all-defaults record — the same decision {@link #getOrCreate} would
+     * reach — without inserting it; the row is still created on that user's
+     * next single evaluate or settings PATCH.
+     *
+     * @return lane per recipient, keyed by trimmed lowercased email; blank
+     *         emails are omitted
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Lane> evaluateAll(Collection<String> userEmails, Category category, String severity) {
+        if (userEmails == null || userEmails.isEmpty()) return Map.of();
+        Set<String> keys = new LinkedHashSet<>();
+        for (String e : userEmails) {
+            if (e != null && !e.isBlank()) keys.add(e.trim().toLowerCase());
+        }
+        Map<String, UserAlertPreference> prefs = new HashMap<>();
+        for (UserAlertPreference p : repo.findAllById(keys)) {
+            prefs.put(p.getUserEmail(), p);
+        }
+        Map<String, Lane> out = new HashMap<>(keys.size() * 2);
+        for (String key : keys) {
+            if (category == null) {
+                out.put(key, Lane.DROP);
+                continue;
+            }
+            UserAlertPreference pref = prefs.get(key);
+            if (pref == null) {
+                pref = new UserAlertPreference();
+                pref.setUserEmail(key);
+            }
+            out.put(key, decide(pref, key, category, severity));
+        }
+        return out;
+    }
 
+    private Lane decide(UserAlertPreference pref, String userEmail, Category category, String severity) {
         // -- per-category opt-out applied first, before master switches,
         //    so a user who muted earthquakes drops it entirely (not even
         //    inboxed). Per spec: "the inbox is the audit log for Lane A
@@ -65,13 +65,16 @@ public class RiskProfileService {
     private final UserSavedLocationService savedLocationService;
     private final UserInfoRepo userInfoRepo;
     private final AlertIngestService alertIngestService;
+    private final OfflineReverseGeocoder offlineGeocoder;
 
     public RiskProfileService(UserSavedLocationService savedLocationService,
                               UserInfoRepo userInfoRepo,
-                              AlertIngestService alertIngestService) {
+                              AlertIngestService alertIngestService,
+                              OfflineReverseGeocoder offlineGeocoder) {
         this.savedLocationService = savedLocationService;
         this.userInfoRepo = userInfoRepo;
         this.alertIngestService = alertIngestService;
+        this.offlineGeocoder = offlineGeocoder;
     }
 
     // ---------------------------------------------------------------------
@@ -97,6 +100,9 @@ public class RiskProfileService {
             UserSavedLocation s = home.get();
             String code = stateCodeFromName(s.getState());
             if (code == null) code = zipToStateCode(s.getZipBucket());
+            // A pin with no geocoded state / zip (Nominatim was down at save
+            // time) still resolves from its coordinates, offline.
+            if (code == null) code = offlineGeocoder.state(s.getLatitude(), s.getLongitude());
             if (code != null || notBlank(s.getState()) || notBlank(s.getZipBucket())) {
                 return build("saved_home", code, s.getState(), coords);
             }
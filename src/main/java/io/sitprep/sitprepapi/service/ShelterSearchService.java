@@ -2,6 +2,7 @@ package io.sitprep.sitprepapi.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sitprep.sitprepapi.util.LookupCache;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -24,9 +25,8 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Free, key-less emergency-shelter search built entirely on OpenStreetMap
@@ -46,7 +46,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * </ol>
  *
  * <p>Results are ranked by haversine distance and capped to the top N.
- * Both layers are cached in-memory (6 h on success) keyed on a coarse
+ * Both layers are cached in bounded, single-flight {@link LookupCache}s
+ * (6 h on success, 5 min on an empty/failed lookup) keyed on a coarse
  * lat/lng bucket so we respect the OSM operators' fair-use policy. Never
  * throws — returns an empty list on any upstream failure so the shelter
  * step degrades gracefully.</p>
@@ -101,11 +102,16 @@ public class ShelterSearchService {
     private static final double MAX_RADIUS_MI = 100.0;
     private static final double DEFAULT_RADIUS_MI = 40.0;
 
-    private static final long TTL_OK_MS = Duration.ofHours(6).toMillis();
-    private static final long TTL_FAIL_MS = Duration.ofMinutes(5).toMillis();
+    private static final Duration TTL_OK = Duration.ofHours(6);
+    private static final Duration TTL_FAIL = Duration.ofMinutes(5);
     /** FEMA NSS refreshes ~every 20 min; the national open set is small, so we
      *  cache it whole for 15 min and filter per-request rather than re-fetch. */
-    private static final long TTL_FEMA_MS = Duration.ofMinutes(15).toMillis();
+    private static final Duration TTL_FEMA = Duration.ofMinutes(15);
+    /** Cache bounds, in shelters (a candidate list weighs its length, ≤ 40). */
+    private static final long MAX_OSM_WEIGHT = 20_000;
+    /** One national list plus ≤ 50 per-state lists; a busy national set is a few hundred rows. */
+    private static final long MAX_FEMA_WEIGHT = 20_000;
+    private static final long MAX_ANCHOR_ENTRIES = 2_000;
     /** ~0.02° ≈ 2 km buckets to coalesce nearby searches. */
     private static final double Q = 0.02;
 
@@ -118,13 +124,23 @@ public class ShelterSearchService {
 
     private final ObjectMapper objectMapper;
     private final RestTemplate rest;
-    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final LookupCache<List<Shelter>> osmCache;
+    private final LookupCache<List<Shelter>> femaCache;
+    private final LookupCache<double[]> anchorCache;
 
     @Value("${nominatim.user-agent:SitPrep/1.0 (contact@sitprep.app)}")
     private String userAgent;
 
-    public ShelterSearchService(ObjectMapper objectMapper) {
+    public ShelterSearchService(ObjectMapper objectMapper, LookupCacheRegistry caches) {
         this.objectMapper = objectMapper;
+        this.osmCache = caches.create("shelter-osm", MAX_OSM_WEIGHT, TTL_OK, TTL_FAIL,
+                List::size, List::isEmpty);
+        this.femaCache = caches.create("shelter-fema", MAX_FEMA_WEIGHT, TTL_FEMA, TTL_FAIL,
+                List::size, List::isEmpty);
+        // City / zip → anchor point. Previously uncached — every text search
+        // paid a Nominatim round-trip even for the same "Oakland, CA".
+        this.anchorCache = caches.create("shelter-anchor", MAX_ANCHOR_ENTRIES, TTL_OK, TTL_FAIL,
+                a -> 1, Objects::isNull);
         var factory = new org.springframework.http.client.SimpleClientHttpRequestFactory();
         factory.setConnectTimeout(5_000);
         factory.setReadTimeout(25_000); // Overpass can be slow under load
@@ -157,15 +173,9 @@ public class ShelterSearchService {
         // Cache the broad, UNFILTERED ranked candidate list; filter per-request.
         String key = String.format(Locale.US, "%.2f|%.2f|%.0f",
                 Math.round(anchorLat / Q) * Q, Math.round(anchorLng / Q) * Q, radius);
-        List<Shelter> candidates;
-        CacheEntry cached = cache.get(key);
-        if (cached != null && !cached.isExpired()) {
-            candidates = cached.shelters;
-        } else {
-            candidates = queryOverpass(anchorLat, anchorLng, radius);
-            long ttl = candidates.isEmpty() ? TTL_FAIL_MS : TTL_OK_MS;
-            cache.put(key, new CacheEntry(candidates, System.currentTimeMillis() + ttl));
-        }
+        final double qLat = anchorLat;
+        final double qLng = anchorLng;
+        List<Shelter> candidates = osmCache.get(key, () -> queryOverpass(qLat, qLng, radius));
 
         // Apply optional filters (already ranked dedicated-first, nearest),
         // then take the top N.
@@ -201,16 +211,7 @@ public class ShelterSearchService {
         double radius = clampRadius(radiusMi);
         String st = (state == null || state.isBlank()) ? null : state.trim().toUpperCase(Locale.US);
 
-        String key = "fema|" + (st != null ? st : "US");
-        List<Shelter> national;
-        CacheEntry cached = cache.get(key);
-        if (cached != null && !cached.isExpired()) {
-            national = cached.shelters;
-        } else {
-            national = fetchFemaOpenSheltersRaw(st);
-            long ttl = national.isEmpty() ? TTL_FAIL_MS : TTL_FEMA_MS;
-            cache.put(key, new CacheEntry(national, System.currentTimeMillis() + ttl));
-        }
+        List<Shelter> national = femaCache.get(st != null ? st : "US", () -> fetchFemaOpenSheltersRaw(st));
 
         // Cached rows carry distanceMi=0; recompute from THIS caller, filter, sort.
         List<Shelter> out = new ArrayList<>();
@@ -317,6 +318,10 @@ public class ShelterSearchService {
     // ── Forward geocode (Nominatim /search) ─────────────────────────
     private double[] forwardGeocode(String query) {
         if (query == null || query.isBlank()) return null;
+        return anchorCache.get(query.trim().toLowerCase(Locale.US), () -> fetchAnchor(query));
+    }
+
+    private double[] fetchAnchor(String query) {
         try {
             URI uri = URI.create(NOMINATIM_SEARCH
                     + "?format=jsonv2&limit=1&countrycodes=us&q="
@@ -541,14 +546,4 @@ public class ShelterSearchService {
                 * Math.sin(dLon / 2) * Math.sin(dLon / 2);
         return 2 * R * Math.asin(Math.min(1.0, Math.sqrt(a)));
     }
-
-    private static final class CacheEntry {
-        final List<Shelter> shelters;
-        final long expiresAtMs;
-        CacheEntry(List<Shelter> shelters, long expiresAtMs) {
-            this.shelters = shelters;
-            this.expiresAtMs = expiresAtMs;
-        }
-        boolean isExpired() { return System.currentTimeMillis() > expiresAtMs; }
-    }
 }
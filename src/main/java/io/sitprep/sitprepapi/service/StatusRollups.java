@@ -1,5 +1,6 @@
 package io.sitprep.sitprepapi.service;
 
+import io.sitprep.sitprepapi.domain.Group;
 import io.sitprep.sitprepapi.domain.UserInfo;
 import io.sitprep.sitprepapi.dto.GroupMemberViewDto.StatusRollup;
 import io.sitprep.sitprepapi.dto.HouseholdAccompanimentDto;
@@ -19,7 +20,8 @@ import java.util.Map;
  * <p>Semantics (mirror the retired {@code useHouseholdData.counts} exactly):</p>
  * <ul>
  *   <li><b>Real members:</b> freshness-clamped — while the group's alert is
- *       Active, a status last updated before the alert start ({@code updatedAt})
+ *       Active, a status last updated before the alert start
+ *       ({@link #alertAnchor})
  *       is treated as NO RESPONSE. SAFE / HELP / INJURED bucket to their
  *       counts; anything else (incl. blank / stale / unknown) is noResponse.</li>
  *   <li><b>Manual members</b> (dependents without accounts): accounted (safe)
@@ -71,6 +73,18 @@ public final class StatusRollups {
         return new StatusRollup(total, safe + help + injured, safe, help, injured, noResponse);
     }
 
+    /**
+     * Freshness anchor for {@code g}'s current alert session: when the
+     * alert went Active, or {@code updatedAt} for alerts that predate that
+     * column. Every rollup path — member view, check-in card, readiness,
+     * and the live {@link AccountabilityRollupService} counts — clamps on
+     * this same instant.
+     */
+    public static Instant alertAnchor(Group g) {
+        if (g == null) return null;
+        return g.getAlertActivatedAt() != null ? g.getAlertActivatedAt() : g.getUpdatedAt();
+    }
+
     /**
      * Canonical dominant-status derivation from a rollup — severity first,
      * so the label never hides a member in trouble:
@@ -2,12 +2,18 @@ package io.sitprep.sitprepapi.service;
 
 import io.sitprep.sitprepapi.domain.UserInfo;
 import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.service.NotificationService.PushTarget;
+import io.sitprep.sitprepapi.util.AlertGeometry;
 import io.sitprep.sitprepapi.util.GeoUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
 
 @Service
 public class UserGeoService {
@@ -33,4 +39,56 @@ public class UserGeoService {
     public int countWithinRadiusMiles(double lat, double lng, double miles, Instant since) {
         return findWithinRadiusMiles(lat, lng, miles, since).size();
     }
+
+    /** Nearest-first recipients plus how many matched before the cap applied. */
+    public record RankedPushables(List<PushTarget> nearestFirst, int matched) {}
+
+    private record Candidate(PushTarget target, double areaKm, double centreKm) {}
+
+    private static final Comparator<Candidate> NEAREST_FIRST =
+            Comparator.comparingDouble(Candidate::areaKm).thenComparingDouble(Candidate::centreKm);
+
+    /**
+     * Push-enabled users within {@code bufferKm} of {@code area} (0 = inside
+     * the polygon only), ordered nearest-first and capped at {@code cap}.
+     * Ranking is distance to the area, then distance to its representative
+     * point — so when a warning covers more users than the cap, the ones
+     * dropped are those farthest from the middle of it, not whoever the
+     * table happened to return last.
+     *
+     * <p>Rows are streamed from a bounding-box projection query and folded
+     * into a {@code cap}-sized max-heap, so memory is bounded by the cap
+     * rather than by how many users live under the warning.</p>
+     */
+    @Transactional(readOnly = true)
+    public RankedPushables nearestPushables(AlertGeometry area, double bufferKm, int cap) {
+        GeoUtil.GeoBox box = area.boundsExpandedKm(bufferKm);
+        double[] centre = area.representativePoint(); // [lng, lat]
+        PriorityQueue<Candidate> farthestOnTop = new PriorityQueue<>(NEAREST_FIRST.reversed());
+        int matched = 0;
+
+        try (Stream<Object[]> rows = userInfoRepo.streamPushableLocationsInBox(
+                box.latMin(), box.latMax(), box.lngMin(), box.lngMax())) {
+            for (Object[] r : (Iterable<Object[]>) rows::iterator) {
+                double lat = ((Number) r[2]).doubleValue();
+                double lng = ((Number) r[3]).doubleValue();
+                double areaKm = area.distanceKm(lat, lng);
+                if (areaKm > bufferKm) continue;
+                matched++;
+
+                Candidate c = new Candidate(new PushTarget((String) r[0], (String) r[1]), areaKm,
+                        GeoUtil.haversineKm(lat, lng, centre[1], centre[0]));
+                if (farthestOnTop.size() < cap) {
+                    farthestOnTop.add(c);
+                } else if (NEAREST_FIRST.compare(c, farthestOnTop.peek()) < 0) {
+                    farthestOnTop.poll();
+                    farthestOnTop.add(c);
+                }
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(farthestOnTop);
+        ranked.sort(NEAREST_FIRST);
+        return new RankedPushables(ranked.stream().map(Candidate::target).toList(), matched);
+    }
 }
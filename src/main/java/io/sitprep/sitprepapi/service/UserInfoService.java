@@ -1,6 +1,5 @@
 package io.sitprep.sitprepapi.service;
 
-import io.sitprep.sitprepapi.util.GeoUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.sitprep.sitprepapi.domain.Group;
@@ -12,6 +11,7 @@ import io.sitprep.sitprepapi.dto.ProfileSummaryDto;
 import io.sitprep.sitprepapi.dto.PublicProfileDto;
 import io.sitprep.sitprepapi.repo.GroupRepo;
 import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.security.VerifiedTokenCache;
 import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -29,42 +29,51 @@ import java.util.stream.Collectors;
 public class UserInfoService {
 
     private static final int MAX_ASSESSMENT_SUMMARY_JSON_BYTES = 50_000;
-    private static final String SHARE_ALWAYS = "always";
-    private static final String SHARE_CHECK_IN_ONLY = "check-in-only";
-    private static final String SHARE_NEVER = "never";
 
     private final UserInfoRepo userInfoRepo;
     private final HouseholdEventService householdEventService;
     private final GroupRepo groupRepo;
+    private final GroupMembershipIndex membershipIndex;
+    private final AccountabilityRollupService rollups;
     private final PostService postService;
     private final FollowService followService;
     private final BlockService blockService;
     private final ObjectMapper objectMapper;
     private final WebSocketMessageSender ws;
-    private final NominatimGeocodeService geocode;
+    private final LocationIngestService locationIngest;
     private final HouseholdProvisioningService householdProvisioning;
+    private final VerifiedTokenCache tokenCache;
+    private final ProfileCardService profileCards;
 
     @Autowired
     public UserInfoService(UserInfoRepo userInfoRepo,
                            HouseholdEventService householdEventService,
                            GroupRepo groupRepo,
+                           GroupMembershipIndex membershipIndex,
+                           AccountabilityRollupService rollups,
                            PostService postService,
                            FollowService followService,
                            BlockService blockService,
                            ObjectMapper objectMapper,
                            WebSocketMessageSender ws,
-                           NominatimGeocodeService geocode,
-                           HouseholdProvisioningService householdProvisioning) {
+                           LocationIngestService locationIngest,
+                           HouseholdProvisioningService householdProvisioning,
+                           VerifiedTokenCache tokenCache,
+                           ProfileCardService profileCards) {
         this.userInfoRepo = userInfoRepo;
         this.householdEventService = householdEventService;
         this.groupRepo = groupRepo;
+        this.membershipIndex = membershipIndex;
+        this.rollups = rollups;
         this.postService = postService;
         this.followService = followService;
         this.blockService = blockService;
         this.objectMapper = objectMapper;
         this.ws = ws;
-        this.geocode = geocode;
+        this.locationIngest = locationIngest;
         this.householdProvisioning = householdProvisioning;
+        this.tokenCache = tokenCache;
+        this.profileCards = profileCards;
     }
 
     public List<UserInfo> getAllUsers() { return userInfoRepo.findAll(); }
@@ -298,6 +307,8 @@ public class UserInfoService {
         if (userInfo.getUserEmail() == null || userInfo.getUserEmail().isBlank())
             throw new IllegalArgumentException("userEmail is required");
         UserInfo saved = userInfoRepo.save(userInfo);
+        // Drops any negative entry cached while this email had no user.
+        profileCards.invalidate(saved.getUserEmail());
         // Guarantee a base household on creation (the app anchors the dashboard
         // + personal plan to it). No-op for guests. Joins this transaction.
         householdProvisioning.ensureBaseHousehold(saved);
@@ -327,10 +338,24 @@ public class UserInfoService {
             existing.setFirebaseUid(incoming.getFirebaseUid().trim());
         }
 
-        return userInfoRepo.save(existing);
+        UserInfo saved = userInfoRepo.save(existing);
+        profileCards.invalidate(saved.getUserEmail());
+        return saved;
     }
 
-    public void deleteUser(String id) { userInfoRepo.deleteById(id); }
+    /**
+     * Delete the account and drop any of its ID tokens this pod has cached
+     * as verified, so the deleted identity stops authenticating here
+     * immediately rather than at token expiry.
+     */
+    public void deleteUser(String id) {
+        UserInfo existing = userInfoRepo.findById(id).orElse(null);
+        userInfoRepo.deleteById(id);
+        if (existing != null) {
+            tokenCache.revokeUser(existing.getFirebaseUid(), existing.getUserEmail());
+            profileCards.invalidate(existing.getUserEmail());
+        }
+    }
 
     @Transactional
     public MemberStatusFrame updateSelfStatusByEmail(String email, String status, String color, Instant updatedAt) {
@@ -353,6 +378,10 @@ public class UserInfoService {
         userInfo.setUserStatusLastUpdated(effectiveUpdatedAt);
 
         UserInfo saved = userInfoRepo.save(userInfo);
+        // Even an unchanged status moves the rollup: re-tapping SAFE after
+        // an alert starts turns a stale answer into a fresh one.
+        rollups.statusChangedAfterCommit(saved.getUserEmail(), saved.getUserStatus(),
+                saved.getUserStatusLastUpdated());
         MemberStatusFrame frame = new MemberStatusFrame(
                 saved.getUserEmail() == null ? null : saved.getUserEmail().trim().toLowerCase(Locale.ROOT),
                 saved.getUserStatus(),
@@ -365,11 +394,7 @@ public class UserInfoService {
             householdEventService.recordStatusChangedForActor(saved.getUserEmail(), normalizedStatus);
 
             final String householdId = saved.getBaseHouseholdId();
-            final List<String> groupIds = groupRepo.findByMemberEmail(saved.getUserEmail()).stream()
-                    .map(Group::getGroupId)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .toList();
+            final Set<String> groupIds = membershipIndex.groupIdsOf(saved.getUserEmail());
 
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override public void afterCommit() {
@@ -437,90 +462,17 @@ public class UserInfoService {
                 .orElseGet(HashMap::new);
     }
 
-    // ~0.03° ≈ 2mi in either axis — past this we re-resolve the zip.
-    private static boolean movedMeaningfully(Double prevLat, Double prevLng, double lat, double lng) {
-        if (prevLat == null || prevLng == null) return true;
-        return Math.abs(prevLat - lat) > 0.03 || Math.abs(prevLng - lng) > 0.03;
-    }
-
     /**
-     * Presence-location ping handler. Updates {@code lastKnownLat/Lng} +
-     * {@code lastKnownLocationAt} on the user identified by email. Silently
-     * no-ops if the user doesn't exist (the FE may have stale identity).
+     * Presence-location ping handler. Hands the ping to
+     * {@link LocationIngestService}, which coalesces pings per user and
+     * persists {@code lastKnownLat/Lng} + {@code lastKnownLocationAt} in
+     * batched narrow updates, refreshes the jurisdiction zip off the request
+     * path, and fans out {@link MemberLocationFrame}s
+     * per group. Silently no-ops if the user doesn't exist (the FE may have
+     * stale identity).
      */
-    @Transactional
     public void updateLastKnownLocationByEmail(String email, Double lat, Double lng) {
-        if (email == null || email.isBlank() || lat == null || lng == null) return;
-        GeoUtil.requireValidLatLng(lat, lng);
-        userInfoRepo.findByUserEmailIgnoreCase(email.trim()).ifPresent(u -> {
-            Instant updatedAt = Instant.now();
-            Double prevLat = u.getLastKnownLat();
-            Double prevLng = u.getLastKnownLng();
-            u.setLastKnownLat(lat);
-            u.setLastKnownLng(lng);
-            u.setLastKnownLocationAt(updatedAt);
-            // Refresh the cached jurisdiction zip only when we don't have one
-            // yet or the position moved meaningfully (~2mi) — bounds Nominatim
-            // calls (it also caches internally). Best-effort: a failure leaves
-            // the previous zip untouched.
-            if (u.getLastKnownZip() == null || movedMeaningfully(prevLat, prevLng, lat, lng)) {
-                try {
-                    NominatimGeocodeService.Place p = geocode.reverse(lat, lng);
-                    if (p != null && p.postcode() != null && !p.postcode().isBlank()) {
-                        u.setLastKnownZip(p.postcode().trim());
-                    }
-                } catch (Exception ignore) {
-                    // leave existing zip
-                }
-            }
-            UserInfo saved = userInfoRepo.save(u);
-
-            final String frameEmail = saved.getUserEmail() == null
-                    ? null
-                    : saved.getUserEmail().trim().toLowerCase(Locale.ROOT);
-            if (frameEmail == null || frameEmail.isBlank()) return;
-
-            final MemberLocationFrame frame = new MemberLocationFrame(
-                    frameEmail,
-                    saved.getLastKnownLat(),
-                    saved.getLastKnownLng(),
-                    saved.getLastKnownLocationAt()
-            );
-            final List<String> groupIds = groupRepo.findByMemberEmail(frameEmail).stream()
-                    .filter(group -> shouldShareLocationWithGroup(saved, group))
-                    .map(Group::getGroupId)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .toList();
-
-            if (!groupIds.isEmpty()) {
-                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                    @Override public void afterCommit() {
-                        for (String groupId : groupIds) {
-                            ws.sendGroupMemberLocation(groupId, frame);
-                        }
-                    }
-                });
-            }
-        });
-    }
-
-    private boolean shouldShareLocationWithGroup(UserInfo u, Group group) {
-        if (u == null || group == null || group.getGroupId() == null) return false;
-        Map<String, String> map = u.getGroupLocationSharing();
-        String mode = map == null ? null : map.get(group.getGroupId());
-        if (mode == null || mode.isBlank()) {
-            mode = HouseholdEventService.HOUSEHOLD_GROUP_TYPE.equalsIgnoreCase(group.getGroupType())
-                    ? SHARE_CHECK_IN_ONLY
-                    : SHARE_NEVER;
-        }
-        boolean alertActive = "active".equalsIgnoreCase(group.getAlert());
-        return switch (mode) {
-            case SHARE_ALWAYS -> true;
-            case SHARE_NEVER -> false;
-            case SHARE_CHECK_IN_ONLY -> alertActive;
-            default -> false;
-        };
+        locationIngest.ingest(email, lat, lng);
     }
 
     /**
@@ -654,6 +606,7 @@ public class UserInfoService {
         });
 
         UserInfo saved = userInfoRepo.save(userInfo);
+        profileCards.invalidate(saved.getUserEmail());
 
         String newStatus = saved.getUserStatus();
         if (newStatus != null && !Objects.equals(oldUserStatus, newStatus)
@@ -717,7 +670,9 @@ public class UserInfoService {
         if (isNew) applyInitialSystemDefaults(entity, patch);
 
         try {
-            return userInfoRepo.save(entity);
+            UserInfo saved = userInfoRepo.save(entity);
+            profileCards.invalidate(norm);
+            return saved;
         } catch (org.springframework.dao.DataIntegrityViolationException e) {
             return userInfoRepo.findByUserEmailIgnoreCase(norm).orElseThrow(() -> e);
         }
@@ -744,12 +699,15 @@ public class UserInfoService {
 
             // If email is present and different, update it (still unique)
             if (normEmail != null && !normEmail.equalsIgnoreCase(entity.getUserEmail())) {
+                profileCards.invalidate(entity.getUserEmail());
                 entity.setUserEmail(normEmail);
             }
 
             applyPatch(entity, patch);
             entity.setFirebaseUid(normUid);
-            return userInfoRepo.save(entity);
+            UserInfo saved = userInfoRepo.save(entity);
+            profileCards.invalidate(saved.getUserEmail());
+            return saved;
         }
 
         // 2) Fallback: if email exists, see if an old record exists and attach UID
@@ -759,7 +717,9 @@ public class UserInfoService {
                 UserInfo entity = byEmail.get();
                 entity.setFirebaseUid(normUid);
                 applyPatch(entity, patch);
-                return userInfoRepo.save(entity);
+                UserInfo saved = userInfoRepo.save(entity);
+                profileCards.invalidate(saved.getUserEmail());
+                return saved;
             }
         }
 
@@ -772,6 +732,7 @@ public class UserInfoService {
         applyPatch(created, patch);
         applyInitialSystemDefaults(created, patch);
         UserInfo saved = userInfoRepo.save(created);
+        profileCards.invalidate(saved.getUserEmail());
         // Guarantee a base household on first sign-in (no-op for guests).
         // Joins this @Transactional method so user + household are atomic.
         householdProvisioning.ensureBaseHousehold(saved);
@@ -61,11 +61,14 @@ public class VerifiedPublisherService {
 
     private final UserInfoRepo userInfoRepo;
     private final AdminAuditLogService adminAuditLogService;
+    private final ProfileCardService profileCards;
 
     public VerifiedPublisherService(UserInfoRepo userInfoRepo,
-                                    AdminAuditLogService adminAuditLogService) {
+                                    AdminAuditLogService adminAuditLogService,
+                                    ProfileCardService profileCards) {
         this.userInfoRepo = userInfoRepo;
         this.adminAuditLogService = adminAuditLogService;
+        this.profileCards = profileCards;
     }
 
     /**
@@ -233,6 +236,7 @@ public class VerifiedPublisherService {
             log.info("VerifiedPublisher: {} → false by {}", userEmail, adminEmail);
         }
         userInfoRepo.save(u);
+        profileCards.invalidate(u.getUserEmail());
         adminAuditLogService.record(
                 adminEmail,
                 verified ? "VERIFIED_PUBLISHER" : "REVOKED_PUBLISHER",
@@ -1,8 +1,6 @@
 package io.sitprep.sitprepapi.service;
 
-import io.sitprep.sitprepapi.domain.Group;
 import io.sitprep.sitprepapi.dto.MemberPresenceFrame;
-import io.sitprep.sitprepapi.repo.GroupRepo;
 import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
 import io.sitprep.sitprepapi.websocket.WebSocketPresenceService;
 import org.springframework.stereotype.Service;
@@ -13,22 +11,21 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
 
 @Service
 public class WebSocketPresenceBroadcastService {
 
     private final WebSocketPresenceService presenceService;
-    private final GroupRepo groupRepo;
+    private final GroupMembershipIndex membershipIndex;
     private final WebSocketMessageSender ws;
 
     public WebSocketPresenceBroadcastService(
             WebSocketPresenceService presenceService,
-            GroupRepo groupRepo,
+            GroupMembershipIndex membershipIndex,
             WebSocketMessageSender ws
     ) {
         this.presenceService = presenceService;
-        this.groupRepo = groupRepo;
+        this.membershipIndex = membershipIndex;
         this.ws = ws;
     }
 
@@ -56,11 +53,9 @@ public class WebSocketPresenceBroadcastService {
                 change.onlineCount(),
                 Instant.now()
         );
-        final List<String> householdIds = groupRepo.findByMemberEmail(email).stream()
-                .filter(g -> HouseholdEventService.HOUSEHOLD_GROUP_TYPE.equalsIgnoreCase(g.getGroupType()))
-                .map(Group::getGroupId)
-                .filter(Objects::nonNull)
-                .distinct()
+        final List<String> householdIds = membershipIndex.membershipsOf(email).stream()
+                .filter(m -> HouseholdEventService.HOUSEHOLD_GROUP_TYPE.equalsIgnoreCase(m.groupType()))
+                .map(GroupMembershipIndex.Membership::groupId)
                 .toList();
 
         if (householdIds.isEmpty()) return;
@@ -0,0 +1,240 @@
+package io.sitprep.sitprepapi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GeoJSON alert geometry compiled once at ingest time into flat primitive
+ * arrays plus a bounding box, so per-request matching never walks the
+ * nested {@code Map}/{@code List} tree Jackson produced.
+ *
+ * <p>Supports {@code Point} (USGS quakes), {@code Polygon} and
+ * {@code MultiPolygon} (NWS warnings). Every ring of every polygon is
+ * stored as one interleaved {@code [lng0, lat0, lng1, lat1, ...]} array and
+ * containment uses the even-odd rule across all rings — holes and
+ * disjoint parts of a MultiPolygon fall out of that without tracking which
+ * ring belongs to which polygon.</p>
+ *
+ * <p>Distances for points outside an area are measured to the nearest edge
+ * in an equirectangular projection centred on the query point. Error is
+ * well under 1% at the ≤ 250 mi radii the alert endpoints use.</p>
+ */
+public final class AlertGeometry {
+
+    private static final double DEG_LAT_KM = 111.045;
+
+    /** Interleaved lng/lat rings; empty for a Point. */
+    private final double[][] rings;
+    private final double pointLat;
+    private final double pointLng;
+    private final double minLat;
+    private final double maxLat;
+    private final double minLng;
+    private final double maxLng;
+
+    private AlertGeometry(double[][] rings, double pointLat, double pointLng,
+                          double minLat, double maxLat, double minLng, double maxLng) {
+        this.rings = rings;
+        this.pointLat = pointLat;
+        this.pointLng = pointLng;
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLng = minLng;
+        this.maxLng = maxLng;
+    }
+
+    /**
+     * Compile a raw GeoJSON geometry (map of {@code {type, coordinates}}).
+     * Returns null for null input, unsupported types, or malformed
+     * coordinates — callers treat that the same as a geometry-less alert.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static AlertGeometry compile(Object geom) {
+        if (!(geom instanceof Map)) return null;
+        Map m = (Map) geom;
+        Object type = m.get("type");
+        Object coords = m.get("coordinates");
+        if (!(type instanceof String) || coords == null) return null;
+        try {
+            switch ((String) type) {
+                case "Point": {
+                    List<Number> p = (List<Number>) coords;
+                    double lng = p.get(0).doubleValue();
+                    double lat = p.get(1).doubleValue();
+                    if (!GeoUtil.validLatLng(lat, lng)) return null;
+                    return new AlertGeometry(new double[0][], lat, lng, lat, lat, lng, lng);
+                }
+                case "Polygon":
+                    return fromRings(compileRings((List<List<List<Number>>>) coords, new ArrayList<>()));
+                case "MultiPolygon": {
+                    List<double[]> all = new ArrayList<>();
+                    for (List<List<List<Number>>> poly : (List<List<List<List<Number>>>>) coords) {
+                        compileRings(poly, all);
+                    }
+                    return fromRings(all);
+                }
+                default:
+                    return null;
+            }
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static List<double[]> compileRings(List<List<List<Number>>> rings, List<double[]> out) {
+        for (List<List<Number>> ring : rings) {
+            if (ring.size() < 3) continue;
+            double[] flat = new double[ring.size() * 2];
+            int i = 0;
+            for (List<Number> v : ring) {
+                flat[i++] = v.get(0).doubleValue();
+                flat[i++] = v.get(1).doubleValue();
+            }
+            out.add(flat);
+        }
+        return out;
+    }
+
+    private static AlertGeometry fromRings(List<double[]> rings) {
+        if (rings.isEmpty()) return null;
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        double minLng = Double.POSITIVE_INFINITY, maxLng = Double.NEGATIVE_INFINITY;
+        for (double[] r : rings) {
+            for (int i = 0; i < r.length; i += 2) {
+                minLng = Math.min(minLng, r[i]);
+                maxLng = Math.max(maxLng, r[i]);
+                minLat = Math.min(minLat, r[i + 1]);
+                maxLat = Math.max(maxLat, r[i + 1]);
+            }
+        }
+        if (!GeoUtil.validLatLng(minLat, minLng) || !GeoUtil.validLatLng(maxLat, maxLng)) return null;
+        double[] first = rings.get(0);
+        return new AlertGeometry(rings.toArray(new double[0][]), first[1], first[0],
+                minLat, maxLat, minLng, maxLng);
+    }
+
+    public boolean isArea() {
+        return rings.length > 0;
+    }
+
+    public double minLat() { return minLat; }
+    public double maxLat() { return maxLat; }
+    public double minLng() { return minLng; }
+    public double maxLng() { return maxLng; }
+
+    /**
+     * Bounding box grown by {@code km} on every side — a conservative
+     * prefilter for "within {@code km} of this geometry" (the box for a
+     * point alert, the polygon's own box at {@code km = 0}). Falls back to
+     * the full longitude range near the poles or across the antimeridian,
+     * same as {@link GeoUtil#around}.
+     */
+    public GeoUtil.GeoBox boundsExpandedKm(double km) {
+        double latDelta = km / DEG_LAT_KM;
+        double latMin = Math.max(-90.0, minLat - latDelta);
+        double latMax = Math.min(90.0, maxLat + latDelta);
+        double cos = Math.cos(Math.toRadians(Math.max(Math.abs(latMin), Math.abs(latMax))));
+        if (cos < 1.0e-6) return new GeoUtil.GeoBox(latMin, latMax, -180.0, 180.0);
+        double lngDelta = km / (DEG_LAT_KM * cos);
+        double lngMin = minLng - lngDelta;
+        double lngMax = maxLng + lngDelta;
+        if (lngMin < -180.0 || lngMax > 180.0) return new GeoUtil.GeoBox(latMin, latMax, -180.0, 180.0);
+        return new GeoUtil.GeoBox(latMin, latMax, lngMin, lngMax);
+    }
+
+    /** True when the point is inside the area (always false for a Point geometry). */
+    public boolean contains(double lat, double lng) {
+        if (!isArea()) return false;
+        if (lat < minLat || lat > maxLat || lng < minLng || lng > maxLng) return false;
+        boolean inside = false;
+        for (double[] r : rings) {
+            int n = r.length;
+            for (int i = 0, j = n - 2; i < n; j = i, i += 2) {
+                double yi = r[i + 1], yj = r[j + 1];
+                if ((yi > lat) != (yj > lat)) {
+                    double xCross = r[i] + (lat - yi) * (r[j] - r[i]) / (yj - yi);
+                    if (lng < xCross) inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Distance in km from the point to this geometry: 0 inside an area,
+     * otherwise to the nearest edge (areas) or the point itself (quakes).
+     */
+    public double distanceKm(double lat, double lng) {
+        if (!isArea()) return GeoUtil.haversineKm(lat, lng, pointLat, pointLng);
+        if (contains(lat, lng)) return 0.0;
+        double kx = DEG_LAT_KM * Math.cos(Math.toRadians(lat));
+        double best = Double.POSITIVE_INFINITY;
+        for (double[] r : rings) {
+            int n = r.length;
+            for (int i = 0, j = n - 2; i < n; j = i, i += 2) {
+                double ax = (r[j] - lng) * kx, ay = (r[j + 1] - lat) * DEG_LAT_KM;
+                double bx = (r[i] - lng) * kx, by = (r[i + 1] - lat) * DEG_LAT_KM;
+                best = Math.min(best, segmentToOriginSq(ax, ay, bx, by));
+            }
+        }
+        return Math.sqrt(best);
+    }
+
+    /** {@code distanceKm(lat, lng) <= radiusKm}, with a bounding-box reject first. */
+    public boolean withinKm(double lat, double lng, double radiusKm) {
+        GeoUtil.GeoBox box = GeoUtil.around(lat, lng, radiusKm);
+        if (maxLat < box.latMin() || minLat > box.latMax()
+                || maxLng < box.lngMin() || minLng > box.lngMax()) {
+            return false;
+        }
+        return distanceKm(lat, lng) <= radiusKm;
+    }
+
+    /**
+     * A {@code [lng, lat]} coordinate guaranteed to lie on the geometry —
+     * the point itself for quakes, an interior point for areas. Used where
+     * the alert needs one representative location (reverse-geocode to a
+     * zip bucket, auto-post pin). Found by scanning the horizontal line
+     * through the bbox's middle latitude and taking the midpoint of the
+     * widest span inside the area; falls back to the first vertex if the
+     * scan comes up empty (degenerate sliver polygons).
+     */
+    public double[] representativePoint() {
+        if (!isArea()) return new double[] { pointLng, pointLat };
+        double lat = (minLat + maxLat) / 2.0;
+        // Nudge off any vertex latitude so the crossing list has no duplicates.
+        lat += (maxLat - minLat) * 1e-9;
+
+        List<Double> xs = new ArrayList<>();
+        for (double[] r : rings) {
+            int n = r.length;
+            for (int i = 0, j = n - 2; i < n; j = i, i += 2) {
+                double yi = r[i + 1], yj = r[j + 1];
+                if ((yi > lat) != (yj > lat)) {
+                    xs.add(r[i] + (lat - yi) * (r[j] - r[i]) / (yj - yi));
+                }
+            }
+        }
+        xs.sort(null);
+        double bestWidth = -1, bestX = Double.NaN;
+        for (int k = 0; k + 1 < xs.size(); k += 2) {
+            double w = xs.get(k + 1) - xs.get(k);
+            if (w > bestWidth) {
+                bestWidth = w;
+                bestX = (xs.get(k) + xs.get(k + 1)) / 2.0;
+            }
+        }
+        if (Double.isNaN(bestX)) return new double[] { pointLng, pointLat };
+        return new double[] { bestX, lat };
+    }
+
+    /** Squared distance from the origin to segment AB (planar, km²). */
+    private static double segmentToOriginSq(double ax, double ay, double bx, double by) {
+        double dx = bx - ax, dy = by - ay;
+        double len2 = dx * dx + dy * dy;
+        double t = len2 == 0 ? 0 : Math.max(0, Math.min(1, -(ax * dx + ay * dy) / len2));
+        double px = ax + t * dx, py = ay + t * dy;
+        return px * px + py * py;
+    }
+}
@@ -0,0 +1,152 @@
+package io.sitprep.sitprepapi.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable R-tree over compiled {@link AlertGeometry} bounding boxes,
+ * bulk-loaded with Sort-Tile-Recursive packing. Built once per ingest
+ * snapshot (a few hundred alerts) and then shared read-only by every
+ * request thread — no locking, no per-query allocation beyond the
+ * recursion.
+ *
+ * <p>Entries are identified by their position in the list handed to
+ * {@link #build}; a null geometry at a slot simply isn't indexed. A radius
+ * query prunes on bounding boxes ({@code O(log n)} nodes for a local
+ * query) and then runs the exact {@link AlertGeometry#distanceKm} test on
+ * the survivors.</p>
+ */
+public final class AlertGeometryIndex {
+
+    private static final int NODE_CAPACITY = 8;
+
+    private final AlertGeometry[] geometries;
+    private final Node root;
+
+    private AlertGeometryIndex(AlertGeometry[] geometries, Node root) {
+        this.geometries = geometries;
+        this.root = root;
+    }
+
+    /** Index the non-null entries of {@code geometries}; slot i reports as id i. */
+    public static AlertGeometryIndex build(List<AlertGeometry> geometries) {
+        AlertGeometry[] geoms = geometries.toArray(new AlertGeometry[0]);
+        Node[] level = Arrays.stream(indicesOf(geoms))
+                .mapToObj(i -> Node.leaf(i, geoms[i]))
+                .toArray(Node[]::new);
+        if (level.length == 0) return new AlertGeometryIndex(geoms, null);
+        while (level.length > 1) {
+            level = pack(level);
+        }
+        return new AlertGeometryIndex(geoms, level[0]);
+    }
+
+    private static int[] indicesOf(AlertGeometry[] geoms) {
+        int[] out = new int[geoms.length];
+        int n = 0;
+        for (int i = 0; i < geoms.length; i++) {
+            if (geoms[i] != null) out[n++] = i;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** One STR pass: slice by centre longitude, tile each slice by centre latitude. */
+    private static Node[] pack(Node[] nodes) {
+        int parents = (nodes.length + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int slices = (int) Math.ceil(Math.sqrt(parents));
+        int perSlice = slices * NODE_CAPACITY;
+
+        Node[] sorted = nodes.clone();
+        Arrays.sort(sorted, Comparator.comparingDouble(Node::centerLng));
+        Node[] out = new Node[parents];
+        int p = 0;
+        for (int s = 0; s < sorted.length; s += perSlice) {
+            int sliceEnd = Math.min(s + perSlice, sorted.length);
+            Arrays.sort(sorted, s, sliceEnd, Comparator.comparingDouble(Node::centerLat));
+            for (int c = s; c < sliceEnd; c += NODE_CAPACITY) {
+                out[p++] = Node.branch(Arrays.copyOfRange(sorted, c, Math.min(c + NODE_CAPACITY, sliceEnd)));
+            }
+        }
+        return p == out.length ? out : Arrays.copyOf(out, p);
+    }
+
+    /** Number of indexed geometries. */
+    public int size() {
+        return root == null ? 0 : root.count;
+    }
+
+    public AlertGeometry geometry(int id) {
+        return id >= 0 && id < geometries.length ? geometries[id] : null;
+    }
+
+    /**
+     * Report every indexed id whose geometry lies within {@code radiusKm}
+     * of the point (containment counts as distance 0). Order is
+     * unspecified.
+     */
+    public void forEachWithin(double lat, double lng, double radiusKm, IntConsumer sink) {
+        if (root == null) return;
+        GeoUtil.GeoBox box = GeoUtil.around(lat, lng, radiusKm);
+        search(root, box, lat, lng, radiusKm, sink);
+    }
+
+    private void search(Node n, GeoUtil.GeoBox box, double lat, double lng, double radiusKm, IntConsumer sink) {
+        if (n.maxLat < box.latMin() || n.minLat > box.latMax()
+                || n.maxLng < box.lngMin() || n.minLng > box.lngMax()) {
+            return;
+        }
+        if (n.children == null) {
+            if (geometries[n.id].distanceKm(lat, lng) <= radiusKm) sink.accept(n.id);
+            return;
+        }
+        for (Node c : n.children) {
+            search(c, box, lat, lng, radiusKm, sink);
+        }
+    }
+
+    private static final class Node {
+        final double minLat, maxLat, minLng, maxLng;
+        final Node[] children;   // null for a leaf
+        final int id;            // leaf only
+        final int count;
+
+        private Node(double minLat, double maxLat, double minLng, double maxLng,
+                     Node[] children, int id, int count) {
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLng = minLng;
+            this.maxLng = maxLng;
+            this.children = children;
+            this.id = id;
+            this.count = count;
+        }
+
+        static Node leaf(int id, AlertGeometry g) {
+            return new Node(g.minLat(), g.maxLat(), g.minLng(), g.maxLng(), null, id, 1);
+        }
+
+        static Node branch(Node[] children) {
+            double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+            double minLng = Double.POSITIVE_INFINITY, maxLng = Double.NEGATIVE_INFINITY;
+            int count = 0;
+            for (Node c : children) {
+                minLat = Math.min(minLat, c.minLat);
+                maxLat = Math.max(maxLat, c.maxLat);
+                minLng = Math.min(minLng, c.minLng);
+                maxLng = Math.max(maxLng, c.maxLng);
+                count += c.count;
+            }
+            return new Node(minLat, maxLat, minLng, maxLng, children, -1, count);
+        }
+
+        double centerLat() {
+            return (minLat + maxLat) / 2.0;
+        }
+
+        double centerLng() {
+            return (minLng + maxLng) / 2.0;
+        }
+    }
+}
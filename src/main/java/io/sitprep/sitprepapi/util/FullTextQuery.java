@@ -0,0 +1,96 @@
+package io.sitprep.sitprepapi.util;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns raw search-box input into the bound parameters the indexed search
+ * queries take (V61): a prefix {@code tsquery} string for the Ask
+ * {@code search_tsv} columns, and an escaped {@code LIKE} prefix for the
+ * user trigram indexes.
+ *
+ * <p>Input is reduced to letter/digit tokens before it reaches
+ * {@code to_tsquery}, so tsquery operators typed by a user ({@code & | ! :
+ * ( )}) can never produce a syntax error or change the query's shape.</p>
+ *
+ * <p>Highlights: {@code ts_headline} wraps matches in two control-character
+ * sentinels rather than HTML, and {@link #highlightHtml} escapes the user
+ * text before swapping the sentinels for {@code <mark>} tags — the snippet
+ * is safe to render as HTML.</p>
+ */
+public final class FullTextQuery {
+
+    /** Tokens beyond this are ignored — typeahead input, not documents. */
+    private static final int MAX_TOKENS = 8;
+
+    private static final String MARK_START = "\u0001";
+    private static final String MARK_STOP = "\u0002";
+
+    /** {@code ts_headline} options: sentinel markers, up to two short fragments. */
+    public static final String HEADLINE_OPTIONS = "StartSel=" + MARK_START + ", StopSel=" + MARK_STOP
+            + ", MaxWords=30, MinWords=12, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private FullTextQuery() {}
+
+    /**
+     * AND of the input's tokens, the last one as a prefix ({@code :*}) so
+     * results track the user as they type. Null when the input has no
+     * letters or digits.
+     */
+    public static String toPrefixTsQuery(String raw) {
+        List<String> tokens = tokens(raw);
+        if (tokens.isEmpty()) return null;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i > 0) sb.append(" & ");
+            sb.append(tokens.get(i));
+            if (i == tokens.size() - 1) sb.append(":*");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lowercased {@code LIKE} prefix pattern with {@code \ % _} escaped
+     * (queries declare {@code ESCAPE '\'}), so a typed {@code %} matches a
+     * literal percent sign instead of everything.
+     */
+    public static String likePrefix(String raw) {
+        String q = raw == null ? "" : raw.trim().toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(q.length() + 1);
+        for (int i = 0; i < q.length(); i++) {
+            char c = q.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append('%').toString();
+    }
+
+    /** HTML-escape a {@code ts_headline} result and turn its sentinels into {@code <mark>}. */
+    public static String highlightHtml(String headline) {
+        if (headline == null || headline.isBlank()) return null;
+        return HtmlUtils.htmlEscape(headline)
+                .replace(MARK_START, "<mark>")
+                .replace(MARK_STOP, "</mark>");
+    }
+
+    static List<String> tokens(String raw) {
+        List<String> out = new ArrayList<>();
+        if (raw == null) return out;
+        String s = raw.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < s.length() && out.size() < MAX_TOKENS) {
+            while (i < s.length() && !Character.isLetterOrDigit(s.codePointAt(i))) {
+                i += Character.charCount(s.codePointAt(i));
+            }
+            int start = i;
+            while (i < s.length() && Character.isLetterOrDigit(s.codePointAt(i))) {
+                i += Character.charCount(s.codePointAt(i));
+            }
+            if (i > start) out.add(s.substring(start, i));
+        }
+        return out;
+    }
+}
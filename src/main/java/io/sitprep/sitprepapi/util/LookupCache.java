@@ -0,0 +1,522 @@
+package io.sitprep.sitprepapi.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded, single-flight read-through cache — originally for upstream
+ * lookups (Nominatim, Overpass, FEMA NSS), now also for hot per-request DB
+ * enrichment (profile cards, feed snapshots, group heads). Replaces the
+ * per-service unbounded {@code ConcurrentHashMap<String, CacheEntry>} maps
+ * that only checked TTL on read and never evicted.
+ *
+ * <ul>
+ *   <li><b>Weight bound</b> — every value is weighed (a shelter list
+ *       weighs its length, a single place weighs 1) and the total never
+ *       exceeds {@code maxWeight}.</li>
+ *   <li><b>Frequency-aware eviction</b> — LRU order picks the victim, but
+ *       a small count-min sketch (TinyLFU) decides admission: a one-off
+ *       lookup can't push out a cell that half the metro keeps asking
+ *       for. The sketch halves itself periodically so old popularity
+ *       fades.</li>
+ *   <li><b>Single-flight</b> — concurrent misses for the same key share
+ *       one loader call; the rest wait on its future instead of all
+ *       hitting the upstream.</li>
+ *   <li><b>Negative TTL</b> — values matching {@code isNegative} (null,
+ *       empty list) are kept for the shorter {@code negativeTtl} so a
+ *       flapping upstream is retried soon without being hammered.</li>
+ *   <li><b>Batch loads</b> — {@link #getAll} resolves a page of keys with
+ *       one loader call for just the misses (profile cards for a feed
+ *       page).</li>
+ *   <li><b>Per-key invalidation</b> — a load that straddles an
+ *       {@link #invalidate} of its key, or an {@link #invalidateIf} its
+ *       value matches, is returned to its caller but not cached, so it
+ *       can't resurrect what the invalidation meant to drop. Loads of
+ *       other keys are unaffected.</li>
+ *   <li><b>Counters</b> — hits / misses / loads / coalesced waits /
+ *       evictions / expirations, read via {@link #stats()}.</li>
+ * </ul>
+ *
+ * <p>Reads don't take a lock: values live in a {@link ConcurrentHashMap},
+ * and each read is recorded in a small lossy buffer that is replayed into
+ * the LRU order and the sketch under the lock — by whichever reader finds
+ * the lock free once the buffer fills, and before every write. Under heavy
+ * contention some reads go unrecorded, which only blurs recency and
+ * frequency slightly. Writes (loads landing, invalidation, sweeps) are
+ * serialized; loaders run outside the lock. Expired entries are dropped on
+ * read and by {@link #sweepExpired()}, which {@code LookupCacheRegistry}
+ * runs on a schedule.</p>
+ */
+public class LookupCache<V> {
+
+    /** How long a coalesced caller waits on the leader before loading itself. */
+    private static final long MAX_COALESCED_WAIT_MS = 30_000;
+
+    /** Reads buffered before one is dropped, and the fill level that triggers a replay. */
+    private static final int READ_BUFFER_MAX = 1024;
+    private static final int READ_DRAIN_THRESHOLD = 64;
+
+    public record Stats(String name, int size, long weight, long maxWeight,
+                        long hits, long misses, long loads, long negativeLoads,
+                        long coalesced, long rejected, long evictions, long expirations,
+                        double hitRate) {}
+
+    private record Node<V>(V value, int weight, long expiresAtMs) {}
+
+    /**
+     * One in-progress load of one key. Invalidations that land while it runs
+     * mark it (under the lock), and {@link #put(String, Object, Flight)}
+     * checks the marks before caching the result.
+     */
+    private static final class Flight<V> {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        // Guarded by the cache lock.
+        boolean stale;
+        List<Predicate<V>> dropIf;
+
+        boolean drops(V value) {
+            if (stale) return true;
+            if (dropIf == null || value == null) return false;
+            for (Predicate<V> p : dropIf) {
+                if (p.test(value)) return true;
+            }
+            return false;
+        }
+    }
+
+    private final String name;
+    private final long maxWeight;
+    private final long ttlMs;
+    private final long negativeTtlMs;
+    private final ToIntFunction<V> weigher;
+    private final Predicate<V> isNegative;
+    private final LongSupplier clock;
+
+    // Read path: lock-free lookups. Structural changes happen under `lock`,
+    // which keeps `data` and `order` holding the same nodes.
+    private final ConcurrentMap<String, Node<V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by `lock`. Access-ordered: eldest = least recently used.
+    private final LinkedHashMap<String, Node<V>> order = new LinkedHashMap<>(64, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long weight;
+
+    private final ConcurrentLinkedQueue<String> reads = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedReads = new AtomicInteger();
+
+    private final ConcurrentMap<String, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder negativeLoads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public LookupCache(String name, long maxWeight, Duration ttl, Duration negativeTtl,
+                       ToIntFunction<V> weigher, Predicate<V> isNegative) {
+        this(name, maxWeight, ttl, negativeTtl, weigher, isNegative, System::currentTimeMillis);
+    }
+
+    LookupCache(String name, long maxWeight, Duration ttl, Duration negativeTtl,
+                ToIntFunction<V> weigher, Predicate<V> isNegative, LongSupplier clock) {
+        if (maxWeight <= 0) throw new IllegalArgumentException("maxWeight must be positive");
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.ttlMs = ttl.toMillis();
+        this.negativeTtlMs = negativeTtl.toMillis();
+        this.weigher = weigher;
+        this.isNegative = isNegative;
+        this.clock = clock;
+        this.sketch = new FrequencySketch((int) Math.min(maxWeight, 1 << 20));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Cached value for {@code key}, or the loader's result on a miss. The
+     * loader may return null (cached as a negative result). Exceptions from
+     * the loader propagate to every caller sharing that flight and are not
+     * cached.
+     */
+    public V get(String key, Supplier<V> loader) {
+        Node<V> hit = lookup(key);
+        if (hit != null) {
+            hits.increment();
+            return hit.value();
+        }
+        misses.increment();
+
+        Flight<V> mine = new Flight<>();
+        Flight<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader.future, loader);
+        }
+        try {
+            V value = loader.get();
+            loads.increment();
+            put(key, value, mine);
+            mine.future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private V await(CompletableFuture<V> leader, Supplier<V> loader) {
+        try {
+            return leader.get(MAX_COALESCED_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        } catch (TimeoutException e) {
+            // Leader is stuck on a slow upstream — don't chain behind it.
+            return loader.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Cached values for {@code keys}, loading every miss with ONE call to
+     * {@code loader}. The loader gets the missing keys and returns what it
+     * found; keys it leaves out are cached as negative results. Null keys
+     * are skipped and keys with no value are absent from the result.
+     *
+     * <p>Batches are not single-flighted: a key another caller is already
+     * loading is loaded again in the batch (cheap for DB-backed loads, where
+     * the round trip, not the per-key work, is the cost) but only cached by
+     * whichever load owns its flight. Batch-owned flights are visible to
+     * {@link #get}, which waits on them.</p>
+     */
+    public Map<String, V> getAll(Collection<String> keys, Function<Set<String>, Map<String, V>> loader) {
+        Map<String, V> out = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (key == null || out.containsKey(key) || missing.contains(key)) continue;
+            Node<V> hit = lookup(key);
+            if (hit != null) {
+                hits.increment();
+                if (hit.value() != null) out.put(key, hit.value());
+            } else {
+                misses.increment();
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) return out;
+
+        Map<String, Flight<V>> owned = new HashMap<>();
+        for (String key : missing) {
+            Flight<V> mine = new Flight<>();
+            if (inFlight.putIfAbsent(key, mine) == null) owned.put(key, mine);
+        }
+        try {
+            Map<String, V> loaded = loader.apply(missing);
+            loads.increment();
+            for (String key : missing) {
+                V value = loaded == null ? null : loaded.get(key);
+                Flight<V> mine = owned.get(key);
+                if (mine != null) {
+                    put(key, value, mine);
+                    mine.future.complete(value);
+                }
+                if (value != null) out.put(key, value);
+            }
+            return out;
+        } catch (RuntimeException | Error e) {
+            for (Flight<V> mine : owned.values()) mine.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            owned.forEach(inFlight::remove);
+        }
+    }
+
+    private Node<V> lookup(String key) {
+        recordRead(key);
+        Node<V> n = data.get(key);
+        if (n == null) return null;
+        if (n.expiresAtMs() <= clock.getAsLong()) {
+            lock.lock();
+            try {
+                if (data.remove(key, n)) {
+                    order.remove(key);
+                    weight -= n.weight();
+                    expirations.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+        return n;
+    }
+
+    private void recordRead(String key) {
+        if (bufferedReads.incrementAndGet() > READ_BUFFER_MAX) {
+            bufferedReads.decrementAndGet();
+        } else {
+            reads.offer(key);
+        }
+        if (bufferedReads.get() >= READ_DRAIN_THRESHOLD && lock.tryLock()) {
+            try {
+                drainReads();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Replay buffered reads into the LRU order and the sketch. Lock held. */
+    private void drainReads() {
+        String key;
+        while ((key = reads.poll()) != null) {
+            bufferedReads.decrementAndGet();
+            sketch.increment(key);
+            order.get(key);
+        }
+    }
+
+    private void put(String key, V value, Flight<V> flight) {
+        boolean negative = isNegative.test(value);
+        if (negative) negativeLoads.increment();
+        long ttl = negative ? negativeTtlMs : ttlMs;
+        if (ttl <= 0) return;
+        int w = negative ? 1 : Math.max(1, weigher.applyAsInt(value));
+        if (w > maxWeight) {
+            rejected.increment();
+            return;
+        }
+        long now = clock.getAsLong();
+        lock.lock();
+        try {
+            if (flight != null && flight.drops(value)) return;
+            drainReads();
+            Node<V> old = order.remove(key);
+            if (old != null) {
+                data.remove(key);
+                weight -= old.weight();
+            }
+
+            Iterator<Map.Entry<String, Node<V>>> it = order.entrySet().iterator();
+            while (weight + w > maxWeight && it.hasNext()) {
+                Map.Entry<String, Node<V>> victim = it.next();
+                Node<V> v = victim.getValue();
+                if (v.expiresAtMs() <= now) {
+                    it.remove();
+                    data.remove(victim.getKey());
+                    weight -= v.weight();
+                    expirations.increment();
+                    continue;
+                }
+                // TinyLFU admission: only displace the LRU victim if the
+                // newcomer has been asked for at least as often.
+                if (sketch.frequency(key) < sketch.frequency(victim.getKey())) {
+                    rejected.increment();
+                    return;
+                }
+                it.remove();
+                data.remove(victim.getKey());
+                weight -= v.weight();
+                evictions.increment();
+            }
+            Node<V> node = new Node<>(value, w, now + ttl);
+            order.put(key, node);
+            data.put(key, node);
+            weight += w;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cache a value the caller produced itself (e.g. a response it just
+     * stored) so the next {@link #get} is a hit. Subject to the same
+     * weight bound and admission as a loaded value.
+     */
+    public void put(String key, V value) {
+        put(key, value, null);
+    }
+
+    /** Drop one key (e.g. after an upstream correction); an in-flight load of it won't be cached. */
+    public void invalidate(String key) {
+        lock.lock();
+        try {
+            Node<V> n = order.remove(key);
+            if (n != null) {
+                data.remove(key);
+                weight -= n.weight();
+            }
+            Flight<V> f = inFlight.get(key);
+            if (f != null) f.stale = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop every entry whose value matches (e.g. every feed snapshot whose
+     * area covers a changed post); in-flight loads whose value matches won't
+     * be cached. A linear walk under the lock, so meant for caches of
+     * modest size. Returns how many were dropped.
+     */
+    public int invalidateIf(Predicate<V> matches) {
+        lock.lock();
+        try {
+            int dropped = 0;
+            Iterator<Map.Entry<String, Node<V>>> it = order.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Node<V>> e = it.next();
+                Node<V> n = e.getValue();
+                if (n.value() != null && matches.test(n.value())) {
+                    it.remove();
+                    data.remove(e.getKey());
+                    weight -= n.weight();
+                    dropped++;
+                }
+            }
+            for (Flight<V> f : inFlight.values()) {
+                if (f.dropIf == null) f.dropIf = new ArrayList<>(2);
+                f.dropIf.add(matches);
+            }
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Remove every expired entry. Returns how many were dropped. */
+    public int sweepExpired() {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            int dropped = 0;
+            Iterator<Map.Entry<String, Node<V>>> it = order.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Node<V>> e = it.next();
+                if (e.getValue().expiresAtMs() <= now) {
+                    it.remove();
+                    data.remove(e.getKey());
+                    weight -= e.getValue().weight();
+                    dropped++;
+                }
+            }
+            expirations.add(dropped);
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        long w;
+        lock.lock();
+        try {
+            size = order.size();
+            w = weight;
+        } finally {
+            lock.unlock();
+        }
+        long h = hits.sum();
+        long m = misses.sum();
+        return new Stats(name, size, w, maxWeight, h, m, loads.sum(), negativeLoads.sum(),
+                coalesced.sum(), rejected.sum(), evictions.sum(), expirations.sum(),
+                (h + m) == 0 ? 0.0 : (double) h / (h + m));
+    }
+
+    /**
+     * 4-row count-min sketch with 4-bit-style saturation (max 15) and
+     * periodic halving — the TinyLFU frequency filter. Not thread-safe on
+     * its own; always touched under the owning cache's lock.
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final int MAX_COUNT = 15;
+
+        private final int[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int size = Integer.highestOneBit(Math.max(16, expectedEntries) - 1) << 1;
+            this.table = new int[size];
+            this.mask = size - 1;
+            this.sampleSize = 10 * size;
+        }
+
+        void increment(String key) {
+            int h = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int idx = indexOf(h, i);
+                if (table[idx] < MAX_COUNT) {
+                    table[idx]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        int frequency(String key) {
+            int h = spread(key.hashCode());
+            int min = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                min = Math.min(min, table[indexOf(h, i)]);
+            }
+            return min;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) table[i] >>>= 1;
+            additions /= 2;
+        }
+
+        private int indexOf(int h, int row) {
+            long hash = (h + SEEDS[row]) * SEEDS[row];
+            hash += hash >>> 32;
+            return (int) hash & mask;
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
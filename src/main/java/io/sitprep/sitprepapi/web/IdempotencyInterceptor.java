@@ -2,8 +2,6 @@ package io.sitprep.sitprepapi.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.sentry.Sentry;
-import io.sitprep.sitprepapi.domain.IdempotencyKey;
-import io.sitprep.sitprepapi.repo.IdempotencyKeyRepo;
 import io.sitprep.sitprepapi.util.AuthUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,7 +9,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.method.HandlerMethod;
@@ -21,10 +18,7 @@ import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Idempotency-Key cache enforcement — audit P1-10.
@@ -36,12 +30,17 @@ import java.util.Optional;
  *   <li>If the header is present and the (caller, endpoint, key) tuple has
  *       a fresh cached entry, write the cached status + body verbatim and
  *       skip the controller entirely.</li>
- *   <li>Otherwise, execute the handler. If the response is 2xx, persist
- *       the status + body before letting it propagate to the client.
- *       Non-2xx responses are not cached — clients should be free to retry
- *       past a transient failure without being locked into it.</li>
+ *   <li>If another request with the same tuple is still executing, wait
+ *       for its response and replay that; 409 if it doesn't finish within
+ *       the wait.</li>
+ *   <li>Otherwise, reserve the tuple and execute the handler. If the
+ *       response is 2xx, store the status + body on the reservation.
+ *       Non-2xx responses release it instead — clients should be free to
+ *       retry past a transient failure without being locked into it.</li>
  * </ol>
  *
+ * <p>Lookup, reservation and storage live in {@link IdempotencyStore}.</p>
+ *
  * <p>Implemented as a {@link OncePerRequestFilter} so we can wrap the
  * response in a {@link ContentCachingResponseWrapper} and read the body
  * after the controller has written it. Annotation-vs-handler-method
@@ -59,17 +58,14 @@ public class IdempotencyInterceptor extends OncePerRequestFilter {
     /** Cap on header value length to keep PK index pages small. */
     private static final int MAX_KEY_LEN = 200;
 
-    private final IdempotencyKeyRepo repo;
+    private final IdempotencyStore store;
     private final ObjectMapper objectMapper;
     private final List<HandlerMapping> handlerMappings;
 
-    @Value("${app.idempotency.ttlHours:24}")
-    private long ttlHours;
-
-    public IdempotencyInterceptor(IdempotencyKeyRepo repo,
+    public IdempotencyInterceptor(IdempotencyStore store,
                                   ObjectMapper objectMapper,
                                   List<HandlerMapping> handlerMappings) {
-        this.repo = repo;
+        this.store = store;
         this.objectMapper = objectMapper;
         this.handlerMappings = handlerMappings;
     }
@@ -114,11 +110,10 @@ public class IdempotencyInterceptor extends OncePerRequestFilter {
         }
         String endpoint = endpointKey(request);
         String key = header.trim();
-        IdempotencyKey.PK pk = new IdempotencyKey.PK(caller, endpoint, key);
 
-        Optional<IdempotencyKey> hit;
+        IdempotencyStore.Claim claim;
         try {
-            hit = repo.findById(pk);
+            claim = store.claim(caller, endpoint, key);
         } catch (Exception e) {
             log.warn("Idempotency lookup failed; proceeding without cache: {}", e.getMessage());
             try { Sentry.captureException(e); } catch (Throwable ignored) {}
@@ -126,41 +121,57 @@ public class IdempotencyInterceptor extends OncePerRequestFilter {
             return;
         }
 
-        Instant cutoff = Instant.now().minus(Duration.ofHours(ttlHours));
-        if (hit.isPresent() && hit.get().getCreatedAt().isAfter(cutoff)) {
-            // Cache hit — short-circuit. Write the original body verbatim.
-            IdempotencyKey cached = hit.get();
-            response.setStatus(cached.getResponseStatusCode());
-            response.setContentType("application/json");
-            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
-            byte[] body = cached.getResponseBody().getBytes(StandardCharsets.UTF_8);
-            response.setContentLength(body.length);
-            response.getOutputStream().write(body);
-            response.flushBuffer();
-            return;
+        switch (claim.state()) {
+            case REPLAY -> {
+                // Cache hit — short-circuit. Write the original body verbatim.
+                IdempotencyStore.Replay cached = claim.replay();
+                response.setStatus(cached.status());
+                response.setContentType("application/json");
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                byte[] body = cached.body();
+                response.setContentLength(body.length);
+                response.getOutputStream().write(body);
+                response.flushBuffer();
+                return;
+            }
+            case BUSY -> {
+                // The first request is still running past our wait. Don't
+                // execute a second copy; the client retries shortly.
+                response.setHeader("Retry-After", "1");
+                response.sendError(HttpServletResponse.SC_CONFLICT,
+                        "A request with this Idempotency-Key is still in progress");
+                return;
+            }
+            case OWNED -> { /* run the handler below */ }
         }
 
-        // Cache miss (or stale entry). Run the handler, capture the
-        // response, and persist on success.
-        ContentCachingResponseWrapper wrapped = new ContentCachingResponseWrapper(response);
-        chain.doFilter(request, wrapped);
-
-        int status = wrapped.getStatus();
-        byte[] bodyBytes = wrapped.getContentAsByteArray();
-        // copyBodyToResponse() is mandatory — without it the client gets
-        // an empty body because ContentCachingResponseWrapper buffers.
-        wrapped.copyBodyToResponse();
-
-        if (status >= 200 && status < 300 && bodyBytes.length > 0) {
-            try {
-                persist(caller, endpoint, key, status, bodyBytes);
-            } catch (Exception e) {
-                // Persistence failure shouldn't fail the user's request —
-                // they already got a 2xx. Worst case: a future replay
-                // re-runs the work.
-                log.warn("Idempotency persist failed: {}", e.getMessage());
-                try { Sentry.captureException(e); } catch (Throwable ignored) {}
+        // We hold the reservation. Run the handler, capture the response,
+        // and store it on success; release the reservation otherwise.
+        boolean stored = false;
+        try {
+            ContentCachingResponseWrapper wrapped = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, wrapped);
+
+            int status = wrapped.getStatus();
+            byte[] bodyBytes = wrapped.getContentAsByteArray();
+            // copyBodyToResponse() is mandatory — without it the client gets
+            // an empty body because ContentCachingResponseWrapper buffers.
+            wrapped.copyBodyToResponse();
+
+            if (status >= 200 && status < 300 && bodyBytes.length > 0) {
+                try {
+                    store.complete(claim, status, canonicalJson(bodyBytes));
+                    stored = true;
+                } catch (Exception e) {
+                    // Persistence failure shouldn't fail the user's request —
+                    // they already got a 2xx. Worst case: a future replay
+                    // re-runs the work.
+                    log.warn("Idempotency persist failed: {}", e.getMessage());
+                    try { Sentry.captureException(e); } catch (Throwable ignored) {}
+                }
             }
+        } finally {
+            if (!stored) store.release(claim);
         }
     }
 
@@ -191,33 +202,25 @@ public class IdempotencyInterceptor extends OncePerRequestFilter {
         return null;
     }
 
-    // No @Transactional here — adding it triggers Spring CGLib proxying of
-    // this OncePerRequestFilter subclass. CGLib can't proxy the filter's
-    // final init() method, so the generated subclass is instantiated without
-    // GenericFilterBean's logger field being set, and the first init() call
-    // NPEs ("Cannot invoke ... isDebugEnabled() because this.logger is null").
-    // Spring Data JPA's SimpleJpaRepository.save() is already @Transactional,
-    // so a bare repo.save() opens its own short tx — exactly what we want for
-    // the idempotency cache insert (independent of the controller's tx).
-    protected void persist(String caller, String endpoint, String key,
-                           int status, byte[] body) {
-        // Normalize through Jackson when possible so the stored shape is
-        // canonical JSON; fall back to the raw bytes for non-JSON 2xx
-        // bodies (rare — controllers return DTOs).
-        String json;
+    // No @Transactional anywhere on this filter — it triggers Spring CGLib
+    // proxying of this OncePerRequestFilter subclass. CGLib can't proxy the
+    // filter's final init() method, so the generated subclass is instantiated
+    // without GenericFilterBean's logger field being set, and the first init()
+    // call NPEs ("Cannot invoke ... isDebugEnabled() because this.logger is
+    // null"). IdempotencyStore's repo calls each run their own short tx,
+    // independent of the controller's.
+
+    /**
+     * Normalize through Jackson when possible so the stored shape is
+     * canonical JSON; fall back to the raw bytes for non-JSON 2xx bodies
+     * (rare — controllers return DTOs).
+     */
+    private byte[] canonicalJson(byte[] body) {
         try {
             Object tree = objectMapper.readTree(body);
-            json = objectMapper.writeValueAsString(tree);
+            return objectMapper.writeValueAsBytes(tree);
         } catch (Exception e) {
-            json = new String(body, StandardCharsets.UTF_8);
+            return body;
         }
-        IdempotencyKey row = new IdempotencyKey();
-        row.setCallerEmail(caller);
-        row.setEndpoint(endpoint);
-        row.setKey(key);
-        row.setResponseStatusCode(status);
-        row.setResponseBody(json);
-        row.setCreatedAt(Instant.now());
-        repo.save(row);
     }
 }
@@ -0,0 +1,277 @@
+package io.sitprep.sitprepapi.web;
+
+import io.sentry.Sentry;
+import io.sitprep.sitprepapi.domain.IdempotencyKey;
+import io.sitprep.sitprepapi.repo.IdempotencyKeyRepo;
+import io.sitprep.sitprepapi.service.LookupCacheRegistry;
+import io.sitprep.sitprepapi.util.LookupCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Two-tier store behind {@link IdempotencyInterceptor}: a bounded
+ * in-memory tier in front of the {@code idempotency_keys} table, plus an
+ * in-flight reservation so a duplicate that arrives while the first
+ * request is still executing waits for its response instead of running
+ * the handler a second time.
+ *
+ * <ul>
+ *   <li><b>Memory tier</b> — completed responses in a {@link LookupCache}
+ *       ({@code idempotency}, weighed by compressed body size, counters at
+ *       {@code GET /api/admin/ops/caches}). A replayed retry on the same
+ *       instance never touches the database. Entries live for
+ *       {@code app.idempotency.memoryTtl} (default 10m) — retries cluster
+ *       in the seconds after a dropped response.</li>
+ *   <li><b>Reservation</b> — {@link #claim} INSERTs the row with
+ *       {@code ON CONFLICT DO NOTHING} before the handler runs; exactly one
+ *       request wins. Duplicates on the same instance park on the winner's
+ *       future; duplicates on other instances poll the row until it
+ *       completes. Either way they give up after
+ *       {@code app.idempotency.waitSeconds} and get a 409.</li>
+ *   <li><b>Abandoned reservations</b> — a reservation older than
+ *       {@code app.idempotency.reservationLeaseSeconds} (its instance died
+ *       mid-handler) can be taken over. The lease must outlast the slowest
+ *       {@code @Idempotent} handler or a slow first request could run twice.</li>
+ * </ul>
+ *
+ * <p>Bodies are gzipped in memory and in {@code response_body_gzip}; JSON
+ * DTOs compress several-fold. Rows from before V59 still replay from the
+ * legacy {@code response_body} text column.</p>
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    /** Poll interval while another instance holds the reservation. */
+    private static final long POLL_MS = 100;
+
+    /** A stored 2xx response. */
+    public record Replay(int status, byte[] gzipBody) {
+        public byte[] body() {
+            return gunzip(gzipBody);
+        }
+    }
+
+    public enum State {
+        /** Caller holds the reservation; must end in {@link #complete} or {@link #release}. */
+        OWNED,
+        /** A stored response exists; write {@link Claim#replay()} verbatim. */
+        REPLAY,
+        /** Another request still holds the reservation after the wait. */
+        BUSY
+    }
+
+    public record Claim(State state, Replay replay, String caller, String endpoint, String key) {
+        String slot() {
+            return slotKey(caller, endpoint, key);
+        }
+    }
+
+    private final IdempotencyKeyRepo repo;
+    private final LookupCache<Replay> memory;
+    private final Duration ttl;
+    private final Duration lease;
+    private final long waitMs;
+
+    // Reservations held by this instance, so a local duplicate waits on the
+    // leader's outcome instead of polling the row.
+    private final Map<String, CompletableFuture<Replay>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(
+            IdempotencyKeyRepo repo,
+            LookupCacheRegistry caches,
+            @Value("${app.idempotency.ttlHours:24}") long ttlHours,
+            @Value("${app.idempotency.reservationLeaseSeconds:120}") long leaseSeconds,
+            @Value("${app.idempotency.waitSeconds:10}") long waitSeconds,
+            @Value("${app.idempotency.memoryMaxBytes:8388608}") long memoryMaxBytes,
+            @Value("${app.idempotency.memoryTtl:PT10M}") String memoryTtl
+    ) {
+        this.repo = repo;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.waitMs = TimeUnit.SECONDS.toMillis(waitSeconds);
+        // Misses aren't cached (zero negative TTL): an absent key is about
+        // to be reserved, and the reservation is the source of truth.
+        this.memory = caches.create("idempotency", memoryMaxBytes, Duration.parse(memoryTtl),
+                Duration.ZERO, r -> r.gzipBody().length, Objects::isNull);
+    }
+
+    /**
+     * Replay a stored response, or take the reservation for
+     * (caller, endpoint, key), waiting out a concurrent holder if needed.
+     * Database errors propagate; the caller should then run uncached.
+     */
+    public Claim claim(String caller, String endpoint, String key) {
+        return claim(caller, endpoint, key, true);
+    }
+
+    private Claim claim(String caller, String endpoint, String key, boolean retryReleased) {
+        String slot = slotKey(caller, endpoint, key);
+        Replay hit = memory.get(slot, () -> loadCompleted(caller, endpoint, key));
+        if (hit != null) return new Claim(State.REPLAY, hit, caller, endpoint, key);
+
+        CompletableFuture<Replay> mine = new CompletableFuture<>();
+        CompletableFuture<Replay> leader = inFlight.putIfAbsent(slot, mine);
+        if (leader != null) {
+            Replay r = awaitLocal(leader);
+            if (r != null) return new Claim(State.REPLAY, r, caller, endpoint, key);
+            // Done without a response: the leader released (or lost) the
+            // slot rather than timing us out, so it's free — claim it again.
+            if (retryReleased && leader.isDone()) return claim(caller, endpoint, key, false);
+            return new Claim(State.BUSY, null, caller, endpoint, key);
+        }
+
+        Claim c;
+        try {
+            c = claimRow(caller, endpoint, key);
+        } catch (RuntimeException e) {
+            finish(slot, mine, null);
+            throw e;
+        }
+        if (c.state() != State.OWNED) finish(slot, mine, c.replay());
+        return c;
+    }
+
+    /**
+     * Store the handler's 2xx response on an owned reservation and wake
+     * local waiters. If the reservation was lost meanwhile, the row belongs
+     * to whoever took it over: nothing is cached and waiters claim afresh.
+     */
+    public void complete(Claim claim, int status, byte[] body) {
+        Replay r = new Replay(status, gzip(body));
+        Replay stored = null;
+        try {
+            int updated = repo.complete(claim.caller(), claim.endpoint(), claim.key(),
+                    status, r.gzipBody(), Instant.now());
+            if (updated == 0) {
+                // Our lease lapsed and another request took the slot over.
+                log.warn("Idempotency reservation lost before completion: endpoint={}", claim.endpoint());
+            } else {
+                memory.put(claim.slot(), r);
+                stored = r;
+            }
+        } finally {
+            finish(claim.slot(), inFlight.get(claim.slot()), stored);
+        }
+    }
+
+    /**
+     * Drop an owned reservation (handler failed or returned non-2xx) so the
+     * client can retry. Best-effort: if the delete fails the lease expires.
+     */
+    public void release(Claim claim) {
+        try {
+            repo.release(claim.caller(), claim.endpoint(), claim.key());
+        } catch (Exception e) {
+            log.warn("Idempotency release failed; reservation will lapse: {}", e.getMessage());
+            try { Sentry.captureException(e); } catch (Throwable ignored) {}
+        } finally {
+            finish(claim.slot(), inFlight.get(claim.slot()), null);
+        }
+    }
+
+    private Claim claimRow(String caller, String endpoint, String key) {
+        long deadline = System.currentTimeMillis() + waitMs;
+        while (true) {
+            Instant now = Instant.now();
+            if (repo.reserve(caller, endpoint, key, now) == 1
+                    || repo.takeOver(caller, endpoint, key, now, now.minus(lease), now.minus(ttl)) == 1) {
+                return new Claim(State.OWNED, null, caller, endpoint, key);
+            }
+            Optional<IdempotencyKey> row = repo.findById(new IdempotencyKey.PK(caller, endpoint, key));
+            if (row.isPresent() && !row.get().isReserved()) {
+                Replay r = toReplay(row.get());
+                memory.put(slotKey(caller, endpoint, key), r);
+                return new Claim(State.REPLAY, r, caller, endpoint, key);
+            }
+            // Reserved by another instance — or released between our
+            // statements, in which case the next INSERT wins.
+            if (System.currentTimeMillis() >= deadline) {
+                return new Claim(State.BUSY, null, caller, endpoint, key);
+            }
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(State.BUSY, null, caller, endpoint, key);
+            }
+        }
+    }
+
+    private Replay loadCompleted(String caller, String endpoint, String key) {
+        Instant cutoff = Instant.now().minus(ttl);
+        return repo.findById(new IdempotencyKey.PK(caller, endpoint, key))
+                .filter(k -> !k.isReserved() && k.getCreatedAt().isAfter(cutoff))
+                .map(IdempotencyStore::toReplay)
+                .orElse(null);
+    }
+
+    private Replay awaitLocal(CompletableFuture<Replay> leader) {
+        try {
+            return leader.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private void finish(String slot, CompletableFuture<Replay> future, Replay result) {
+        if (future == null) return;
+        inFlight.remove(slot, future);
+        future.complete(result);
+    }
+
+    private static Replay toReplay(IdempotencyKey row) {
+        byte[] gz = row.getResponseBodyGzip();
+        if (gz == null) {
+            String legacy = row.getResponseBody();
+            gz = gzip(legacy == null ? new byte[0] : legacy.getBytes(StandardCharsets.UTF_8));
+        }
+        return new Replay(row.getResponseStatusCode(), gz);
+    }
+
+    private static String slotKey(String caller, String endpoint, String key) {
+        return caller + '\n' + endpoint + '\n' + key;
+    }
+
+    static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -12,8 +12,10 @@ import java.lang.annotation.Target;
  * <p>When the request carries an {@code Idempotency-Key} header and the
  * (caller, endpoint, key) tuple has a successful cached response within
  * the TTL, {@link IdempotencyInterceptor} short-circuits and returns the
- * cached body verbatim. Misses execute normally and have their successful
- * (2xx) response cached on the way out. Non-2xx responses are not cached
+ * cached body verbatim. A duplicate that arrives while the first request
+ * is still executing waits for that response rather than running again.
+ * Misses execute normally and have their successful (2xx) response cached
+ * on the way out. Non-2xx responses are not cached
  * — the client is meant to retry those and we don't want to lock in a
  * transient failure.</p>
  *
@@ -0,0 +1,287 @@
+package io.sitprep.sitprepapi.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sitprep.sitprepapi.config.SchedulingConfig;
+import io.sitprep.sitprepapi.websocket.ClusterStore.PresenceWrite;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Multi-instance {@link RealtimeBackend} over a {@link ClusterStore}.
+ *
+ * <ul>
+ *   <li><b>Presence</b> — each local session is an entry
+ *       {@code nodeId:sessionId} under its email, with an expiry. Every
+ *       instance re-stamps its own sessions on a heartbeat
+ *       ({@code sitprep.realtime.heartbeat-interval}, default 10s) with
+ *       {@code sitprep.realtime.presence-ttl} (default 30s), so a dyno that
+ *       dies without a clean disconnect drops out of everyone's counts
+ *       within one TTL.</li>
+ *   <li><b>Batched writes</b> — opens / closes land in a pending map keyed
+ *       by (email, entry) and are flushed as one pipelined write every
+ *       {@code sitprep.realtime.flush-interval} (default 1s). A connect +
+ *       disconnect inside one window coalesces to a single removal; a
+ *       same-session re-auth keeps the old email's removal alongside the
+ *       new email's open.</li>
+ *   <li><b>Counts</b> — this instance's sessions are counted locally and
+ *       exactly; other instances' are read from the store and cached for
+ *       {@code sitprep.realtime.presence-cache} (default 2s), so a
+ *       notification fan-out over many recipients isn't a round-trip per
+ *       {@code isUserOnline}. Presence is eventually consistent within one
+ *       flush interval plus the cache window.</li>
+ *   <li><b>Fan-out</b> — {@link #broadcast} delivers to this instance's
+ *       broker first, then publishes {@code {node, destination, payload}} to
+ *       the relay channel; every other instance re-delivers it to its own
+ *       subscribers. A store outage degrades to single-instance delivery,
+ *       never to a failed request.</li>
+ * </ul>
+ */
+public class ClusterRealtimeBackend implements RealtimeBackend {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRealtimeBackend.class);
+
+    private final ClusterStore store;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration presenceTtl;
+    private final Duration readCacheTtl;
+    private final LongSupplier clockMs;
+    private final String nodeId;
+
+    // sessionId -> email, sockets on THIS instance only
+    private final Map<String, String> localSessions = new ConcurrentHashMap<>();
+    // email -> count of this instance's sessions
+    private final Map<String, Integer> localCounts = new ConcurrentHashMap<>();
+    // (email, entry) -> latest unflushed write (newest wins, so open+close coalesce)
+    private final Map<PendingKey, PresenceWrite> pending = new ConcurrentHashMap<>();
+    // email -> other instances' session count, briefly cached
+    private final Map<String, RemoteCount> remoteCounts = new ConcurrentHashMap<>();
+
+    private final LongAdder relayedOut = new LongAdder();
+    private final LongAdder relayedIn = new LongAdder();
+    private final LongAdder relayFailures = new LongAdder();
+    private final LongAdder presenceFlushes = new LongAdder();
+    private final LongAdder presenceWriteFailures = new LongAdder();
+
+    private record RemoteCount(int count, long readAtMs) {}
+
+    /** An entry is stored under its email, so the same entry under two emails is two writes. */
+    private record PendingKey(String email, String member) {
+        static PendingKey of(PresenceWrite w) {
+            return new PendingKey(w.email(), w.member());
+        }
+    }
+
+    public ClusterRealtimeBackend(ClusterStore store, SimpMessagingTemplate messagingTemplate,
+                                  ObjectMapper objectMapper, Duration presenceTtl, Duration readCacheTtl) {
+        this(store, messagingTemplate, objectMapper, presenceTtl, readCacheTtl,
+                System::currentTimeMillis, UUID.randomUUID().toString().substring(0, 12));
+    }
+
+    ClusterRealtimeBackend(ClusterStore store, SimpMessagingTemplate messagingTemplate,
+                           ObjectMapper objectMapper, Duration presenceTtl, Duration readCacheTtl,
+                           LongSupplier clockMs, String nodeId) {
+        this.store = store;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.presenceTtl = presenceTtl;
+        this.readCacheTtl = readCacheTtl;
+        this.clockMs = clockMs;
+        this.nodeId = nodeId;
+    }
+
+    @PostConstruct
+    void start() {
+        store.subscribe(this::onRelayMessage);
+        log.info("ClusterRealtimeBackend: node {} joined (presenceTtl={})", nodeId, presenceTtl);
+    }
+
+    /** Best-effort: take this instance's sessions out of the shared counts right away. */
+    @PreDestroy
+    void shutdown() {
+        List<PresenceWrite> removals = new ArrayList<>();
+        localSessions.forEach((sid, email) -> removals.add(new PresenceWrite(email, member(sid), 0L)));
+        if (removals.isEmpty()) return;
+        try {
+            store.writePresence(removals);
+        } catch (Exception e) {
+            log.warn("ClusterRealtimeBackend: presence cleanup on shutdown failed (entries expire in {}): {}",
+                    presenceTtl, e.getMessage());
+        }
+    }
+
+    // ---- presence ----
+
+    @Override
+    public int sessionOpened(String sessionId, String email) {
+        localSessions.put(sessionId, email);
+        int local = localCounts.merge(email, 1, Integer::sum);
+        queue(new PresenceWrite(email, member(sessionId), expiry()));
+        return local + remoteCount(email);
+    }
+
+    @Override
+    public int sessionClosed(String sessionId, String email) {
+        localSessions.remove(sessionId);
+        int local = decrementLocal(email);
+        queue(new PresenceWrite(email, member(sessionId), 0L));
+        return local + remoteCount(email);
+    }
+
+    @Override
+    public int onlineCount(String email) {
+        return localCounts.getOrDefault(email, 0) + remoteCount(email);
+    }
+
+    @Override
+    public Set<String> onlineEmails() {
+        Set<String> out = new HashSet<>();
+        try {
+            out.addAll(store.liveEmails(clockMs.getAsLong()));
+        } catch (Exception e) {
+            log.debug("ClusterRealtimeBackend: liveEmails read failed, local only: {}", e.getMessage());
+        }
+        localCounts.forEach((email, n) -> {
+            if (n != null && n > 0) out.add(email);
+        });
+        return Set.copyOf(out);
+    }
+
+    /** Push pending opens / closes to the store in one batch. */
+    @Scheduled(fixedDelayString = "${sitprep.realtime.flush-interval:PT1S}",
+            initialDelayString = "${sitprep.realtime.flush-interval:PT1S}",
+            scheduler = SchedulingConfig.FLUSH_SCHEDULER)
+    public void flush() {
+        if (pending.isEmpty()) return;
+        List<PresenceWrite> batch = new ArrayList<>(pending.size());
+        for (PendingKey key : pending.keySet()) {
+            PresenceWrite w = pending.remove(key);
+            if (w != null) batch.add(w);
+        }
+        if (batch.isEmpty()) return;
+        try {
+            store.writePresence(batch);
+            presenceFlushes.increment();
+        } catch (Exception e) {
+            presenceWriteFailures.increment();
+            // Re-queue unless a newer write for the same entry arrived meanwhile.
+            for (PresenceWrite w : batch) pending.putIfAbsent(PendingKey.of(w), w);
+            log.warn("ClusterRealtimeBackend: presence flush of {} writes failed: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Re-stamp every local session so it outlives the next TTL, then flush.
+     * Also the point where the remote-count cache is dropped, which keeps it
+     * bounded to one heartbeat's worth of lookups.
+     */
+    @Scheduled(fixedDelayString = "${sitprep.realtime.heartbeat-interval:PT10S}",
+            initialDelayString = "${sitprep.realtime.heartbeat-interval:PT10S}",
+            scheduler = SchedulingConfig.FLUSH_SCHEDULER)
+    public void heartbeat() {
+        long exp = expiry();
+        localSessions.forEach((sid, email) -> {
+            PresenceWrite w = new PresenceWrite(email, member(sid), exp);
+            // A pending removal for this entry wins over the re-stamp.
+            pending.merge(PendingKey.of(w), w, (prev, next) -> prev.isRemoval() ? prev : next);
+        });
+        remoteCounts.clear();
+        flush();
+    }
+
+    private int remoteCount(String email) {
+        long now = clockMs.getAsLong();
+        RemoteCount cached = remoteCounts.get(email);
+        if (cached != null && now - cached.readAtMs() < readCacheTtl.toMillis()) return cached.count();
+        try {
+            List<String> members = store.liveMembers(List.of(email), now).getOrDefault(email, List.of());
+            String own = nodeId + ":";
+            int n = 0;
+            for (String m : members) {
+                if (!m.startsWith(own)) n++;
+            }
+            remoteCounts.put(email, new RemoteCount(n, now));
+            return n;
+        } catch (Exception e) {
+            log.debug("ClusterRealtimeBackend: presence read failed for {}: {}", email, e.getMessage());
+            return cached == null ? 0 : cached.count();
+        }
+    }
+
+    private int decrementLocal(String email) {
+        final int[] nextValue = {0};
+        localCounts.compute(email, (e, n) -> {
+            int next = (n == null ? 0 : n - 1);
+            nextValue[0] = Math.max(0, next);
+            return next <= 0 ? null : next;
+        });
+        return nextValue[0];
+    }
+
+    private void queue(PresenceWrite w) {
+        pending.put(PendingKey.of(w), w);
+    }
+
+    private String member(String sessionId) {
+        return nodeId + ":" + sessionId;
+    }
+
+    private long expiry() {
+        return clockMs.getAsLong() + presenceTtl.toMillis();
+    }
+
+    // ---- fan-out ----
+
+    @Override
+    public void broadcast(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+        try {
+            store.publish(objectMapper.writeValueAsString(new RelayFrame(nodeId, destination, payload)));
+            relayedOut.increment();
+        } catch (Exception e) {
+            relayFailures.increment();
+            log.warn("ClusterRealtimeBackend: relay publish to {} failed (delivered locally only): {}",
+                    destination, e.getMessage());
+        }
+    }
+
+    /** One relayed frame. {@code payload} is re-sent as a JSON tree, so it serializes to the same body. */
+    record RelayFrame(String node, String destination, Object payload) {}
+
+    void onRelayMessage(String message) {
+        try {
+            JsonNode frame = objectMapper.readTree(message);
+            if (nodeId.equals(frame.path("node").asText(null))) return;
+            String destination = frame.path("destination").asText(null);
+            JsonNode payload = frame.get("payload");
+            if (destination == null || payload == null || payload.isNull()) return;
+            messagingTemplate.convertAndSend(destination, payload);
+            relayedIn.increment();
+        } catch (Exception e) {
+            relayFailures.increment();
+            log.warn("ClusterRealtimeBackend: dropped relayed frame: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats("redis", nodeId, localSessions.size(), relayedOut.sum(), relayedIn.sum(),
+                relayFailures.sum(), presenceFlushes.sum(), presenceWriteFailures.sum());
+    }
+}
@@ -0,0 +1,39 @@
+package io.sitprep.sitprepapi.websocket;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The shared store {@link ClusterRealtimeBackend} needs: expiring presence
+ * entries per email plus one pub/sub channel. {@link RedisClusterStore} in
+ * production; tests share one in-memory stand-in between two backends.
+ */
+public interface ClusterStore {
+
+    /**
+     * One presence entry: {@code member} ({@code nodeId:sessionId}) under
+     * {@code email}, live until {@code expiresAtMs}. A non-positive
+     * expiry removes the entry.
+     */
+    record PresenceWrite(String email, String member, long expiresAtMs) {
+        public boolean isRemoval() {
+            return expiresAtMs <= 0;
+        }
+    }
+
+    /** Apply a batch of presence writes in one round-trip. */
+    void writePresence(List<PresenceWrite> writes);
+
+    /** Live members (expiry after {@code nowMs}) per email; emails with none may be absent. */
+    Map<String, List<String>> liveMembers(Collection<String> emails, long nowMs);
+
+    /** Every email with at least one live member. */
+    Set<String> liveEmails(long nowMs);
+
+    void publish(String message);
+
+    void subscribe(Consumer<String> listener);
+}
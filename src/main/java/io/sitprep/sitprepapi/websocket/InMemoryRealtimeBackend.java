@@ -0,0 +1,65 @@
+package io.sitprep.sitprepapi.websocket;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Single-instance {@link RealtimeBackend}: per-email session counts in a
+ * local map and frames straight to this process's SimpleBroker. The
+ * original behavior, and still the right one for one web dyno.
+ */
+public class InMemoryRealtimeBackend implements RealtimeBackend {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // email -> count of active sessions
+    private final Map<String, Integer> emailCounts = new ConcurrentHashMap<>();
+
+    public InMemoryRealtimeBackend(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public int sessionOpened(String sessionId, String email) {
+        return emailCounts.merge(email, 1, Integer::sum);
+    }
+
+    @Override
+    public int sessionClosed(String sessionId, String email) {
+        final int[] nextValue = {0};
+        emailCounts.compute(email, (e, n) -> {
+            int next = (n == null ? 0 : n - 1);
+            nextValue[0] = Math.max(0, next);
+            return next <= 0 ? null : next;
+        });
+        return nextValue[0];
+    }
+
+    @Override
+    public int onlineCount(String email) {
+        return emailCounts.getOrDefault(email, 0);
+    }
+
+    @Override
+    public Set<String> onlineEmails() {
+        return emailCounts.entrySet().stream()
+                .filter(e -> e.getValue() != null && e.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public void broadcast(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+    }
+
+    @Override
+    public Stats stats() {
+        int sessions = emailCounts.values().stream().mapToInt(Integer::intValue).sum();
+        return new Stats("memory", null, sessions, 0, 0, 0, 0, 0);
+    }
+}
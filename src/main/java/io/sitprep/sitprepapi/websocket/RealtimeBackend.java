@@ -0,0 +1,44 @@
+package io.sitprep.sitprepapi.websocket;
+
+import java.util.Set;
+
+/**
+ * Where WebSocket presence counts live and how {@code /topic} frames reach
+ * subscribers. Selected by {@code sitprep.realtime.backend}
+ * ({@link RealtimeBackendConfig}):
+ *
+ * <ul>
+ *   <li>{@code memory} (default) — {@link InMemoryRealtimeBackend}: counts in
+ *       this process, frames to this process's SimpleBroker. Correct only
+ *       with a single instance.</li>
+ *   <li>{@code redis} — {@link ClusterRealtimeBackend}: counts shared
+ *       through a {@link ClusterStore} with TTL heartbeats, frames relayed
+ *       to every instance over pub/sub.</li>
+ * </ul>
+ *
+ * <p>Session bookkeeping (which STOMP session belongs to which email) stays
+ * in {@link WebSocketPresenceService}; a socket only ever lives on the
+ * instance that accepted it. Emails arrive already lowercased.</p>
+ */
+public interface RealtimeBackend {
+
+    /** A local session came up for {@code email}; returns the cluster-wide session count after it. */
+    int sessionOpened(String sessionId, String email);
+
+    /** A local session for {@code email} went away; returns the cluster-wide session count after it. */
+    int sessionClosed(String sessionId, String email);
+
+    /** Cluster-wide live session count for {@code email}. */
+    int onlineCount(String email);
+
+    /** Emails with at least one live session anywhere. */
+    Set<String> onlineEmails();
+
+    /** Deliver {@code payload} to every subscriber of {@code destination}, on every instance. */
+    void broadcast(String destination, Object payload);
+
+    Stats stats();
+
+    record Stats(String backend, String nodeId, int localSessions, long relayedOut, long relayedIn,
+                 long relayFailures, long presenceFlushes, long presenceWriteFailures) {}
+}
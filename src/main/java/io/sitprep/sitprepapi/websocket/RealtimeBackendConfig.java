@@ -0,0 +1,63 @@
+package io.sitprep.sitprepapi.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+
+/**
+ * Picks the {@link RealtimeBackend} from {@code sitprep.realtime.backend}:
+ * {@code memory} (default, single instance) or {@code redis} (shared
+ * presence + pub/sub relay, for more than one web dyno). The Redis beans
+ * only exist in {@code redis} mode, so the default never opens a Redis
+ * connection.
+ */
+@Configuration
+public class RealtimeBackendConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "sitprep.realtime.backend", havingValue = "memory", matchIfMissing = true)
+    public RealtimeBackend inMemoryRealtimeBackend(SimpMessagingTemplate messagingTemplate) {
+        return new InMemoryRealtimeBackend(messagingTemplate);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "sitprep.realtime.backend", havingValue = "redis")
+    static class RedisRealtime {
+
+        @Bean
+        public RedisMessageListenerContainer realtimeRelayListenerContainer(RedisConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        public ClusterStore redisClusterStore(
+                StringRedisTemplate redis,
+                RedisMessageListenerContainer realtimeRelayListenerContainer,
+                @Value("${sitprep.realtime.presence-ttl:PT30S}") String presenceTtl
+        ) {
+            return new RedisClusterStore(redis, realtimeRelayListenerContainer, Duration.parse(presenceTtl));
+        }
+
+        @Bean
+        public RealtimeBackend clusterRealtimeBackend(
+                ClusterStore clusterStore,
+                SimpMessagingTemplate messagingTemplate,
+                ObjectMapper objectMapper,
+                @Value("${sitprep.realtime.presence-ttl:PT30S}") String presenceTtl,
+                @Value("${sitprep.realtime.presence-cache:PT2S}") String presenceCache
+        ) {
+            return new ClusterRealtimeBackend(clusterStore, messagingTemplate, objectMapper,
+                    Duration.parse(presenceTtl), Duration.parse(presenceCache));
+        }
+    }
+}
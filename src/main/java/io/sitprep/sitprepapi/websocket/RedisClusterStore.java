@@ -0,0 +1,130 @@
+package io.sitprep.sitprepapi.websocket;
+
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Redis-backed {@link ClusterStore}.
+ *
+ * <ul>
+ *   <li>{@code sitprep:presence:{email}} — sorted set, member
+ *       {@code nodeId:sessionId}, score = expiry epoch ms. Live =
+ *       score after now. The key itself expires a little after the TTL so an
+ *       abandoned email cleans up on its own.</li>
+ *   <li>{@code sitprep:presence-index} — sorted set of emails scored by
+ *       their latest expiry, so {@link #liveEmails} doesn't need KEYS.</li>
+ *   <li>{@code sitprep:stomp-relay} — the pub/sub channel for relayed
+ *       frames.</li>
+ * </ul>
+ *
+ * <p>Every batch is one pipelined round-trip.</p>
+ */
+public class RedisClusterStore implements ClusterStore {
+
+    static final String PRESENCE_PREFIX = "sitprep:presence:";
+    static final String PRESENCE_INDEX = "sitprep:presence-index";
+    static final String RELAY_CHANNEL = "sitprep:stomp-relay";
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Duration keyTtl;
+
+    public RedisClusterStore(StringRedisTemplate redis, RedisMessageListenerContainer listenerContainer,
+                             Duration presenceTtl) {
+        this.redis = redis;
+        this.listenerContainer = listenerContainer;
+        this.keyTtl = presenceTtl.multipliedBy(2);
+    }
+
+    @Override
+    public void writePresence(List<PresenceWrite> writes) {
+        if (writes == null || writes.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        redis.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                Set<String> touched = new LinkedHashSet<>();
+                for (PresenceWrite w : writes) {
+                    String key = PRESENCE_PREFIX + w.email();
+                    touched.add(key);
+                    if (w.isRemoval()) {
+                        ops.opsForZSet().remove(key, w.member());
+                    } else {
+                        ops.opsForZSet().add(key, w.member(), w.expiresAtMs());
+                        ops.opsForZSet().add(PRESENCE_INDEX, w.email(), w.expiresAtMs());
+                    }
+                }
+                for (String key : touched) {
+                    ops.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+                    ops.expire(key, keyTtl);
+                }
+                ops.opsForZSet().removeRangeByScore(PRESENCE_INDEX, Double.NEGATIVE_INFINITY, now);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public Map<String, List<String>> liveMembers(Collection<String> emails, long nowMs) {
+        if (emails == null || emails.isEmpty()) return Map.of();
+        List<String> ordered = new ArrayList<>(emails);
+        List<Object> results = redis.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String email : ordered) {
+                    ops.opsForZSet().rangeByScore(PRESENCE_PREFIX + email, nowMs + 1, Double.POSITIVE_INFINITY);
+                }
+                return null;
+            }
+        });
+        Map<String, List<String>> out = new HashMap<>();
+        for (int i = 0; i < ordered.size() && i < results.size(); i++) {
+            if (results.get(i) instanceof Collection<?> members && !members.isEmpty()) {
+                List<String> list = new ArrayList<>(members.size());
+                for (Object m : members) list.add(String.valueOf(m));
+                out.put(ordered.get(i), list);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public Set<String> liveEmails(long nowMs) {
+        Set<String> candidates = redis.opsForZSet()
+                .rangeByScore(PRESENCE_INDEX, nowMs + 1, Double.POSITIVE_INFINITY);
+        if (candidates == null || candidates.isEmpty()) return Set.of();
+        // The index only knows an email's latest stamp; confirm an entry is
+        // still live (closed sessions are removed from the per-email set).
+        return Set.copyOf(liveMembers(candidates, nowMs).keySet());
+    }
+
+    @Override
+    public void publish(String message) {
+        redis.convertAndSend(RELAY_CHANNEL, message);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(RELAY_CHANNEL));
+    }
+}
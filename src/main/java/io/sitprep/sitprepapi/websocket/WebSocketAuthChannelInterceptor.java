@@ -1,7 +1,7 @@
 package io.sitprep.sitprepapi.websocket;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
+import io.sitprep.sitprepapi.security.VerifiedTokenCache;
+import io.sitprep.sitprepapi.security.VerifiedTokenCache.VerifiedToken;
 import io.sitprep.sitprepapi.service.PlanActivationService;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.messaging.Message;
@@ -39,8 +39,13 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
      */
     private final ObjectProvider<PlanActivationService> planActivationService;
 
-    public WebSocketAuthChannelInterceptor(ObjectProvider<PlanActivationService> planActivationService) {
+    /** Same verified-token cache the HTTP filter uses — a reconnect storm reuses prior verifications. */
+    private final VerifiedTokenCache tokenCache;
+
+    public WebSocketAuthChannelInterceptor(ObjectProvider<PlanActivationService> planActivationService,
+                                           VerifiedTokenCache tokenCache) {
         this.planActivationService = planActivationService;
+        this.tokenCache = tokenCache;
     }
 
     @Override
@@ -68,8 +73,8 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
         }
 
         try {
-            FirebaseToken decoded = FirebaseAuth.getInstance().verifyIdToken(token);
-            String email = decoded.getEmail();
+            VerifiedToken decoded = tokenCache.verify(token);
+            String email = decoded.email();
             if (!StringUtils.hasText(email)) {
                 throw new IllegalArgumentException("Firebase token has no email");
             }
@@ -77,7 +82,7 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
             accessor.setUser(new StompPrincipal(normalizedEmail));
             if (accessor.getSessionAttributes() != null) {
                 accessor.getSessionAttributes().put("email", normalizedEmail);
-                accessor.getSessionAttributes().put("firebaseUid", decoded.getUid());
+                accessor.getSessionAttributes().put("firebaseUid", decoded.uid());
             }
         } catch (IllegalArgumentException e) {
             throw e;
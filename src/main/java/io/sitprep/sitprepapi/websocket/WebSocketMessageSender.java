@@ -14,16 +14,17 @@ import io.sitprep.sitprepapi.dto.PostCommentDto;
 import io.sitprep.sitprepapi.dto.PostCommentReactionFrame;
 import io.sitprep.sitprepapi.dto.PostDto;
 import io.sitprep.sitprepapi.dto.PostReactionFrame;
+import io.sitprep.sitprepapi.service.CommunityFeedCache;
 
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 /**
  * Centralized STOMP broadcast helper — the single place every
- * {@code convertAndSend} lives. Topic strings below reflect what the methods
+ * {@code convertAndSend} lives, all routed through {@link RealtimeBackend} so
+ * frames reach subscribers on every instance. Topic strings below reflect what the methods
  * ACTUALLY publish (verified 2026-07-11); the previous list had drifted).
  * Canonical topics:
  *  - Group chat post / reaction / typing: /topic/group-posts/{groupId}[/delete|/typing]
@@ -34,8 +35,8 @@ import org.springframework.stereotype.Component;
  *  - Activations: /topic/activations/{activationId}/acks and /plan
  *  - Household events / member status / presence / supplies:
  *      /topic/households/{householdId}/{events|members/status|presence|supplies}
- *  - Group member status / location / alert status:
- *      /topic/group/{groupId}/{members/status|members/location|status}
+ *  - Group member status / location / alert status / accountability rollup:
+ *      /topic/group/{groupId}/{members/status|members/location|status|rollup}
  *  - DMs: /topic/dm/{lowercased-email}
  *
  * NOTE: the community-feed post/reaction topic is {@code .../posts}, NOT the
@@ -43,11 +44,17 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class WebSocketMessageSender {
-    private final SimpMessagingTemplate messagingTemplate;
+    // Local SimpleBroker, or local + relay to every other instance — see RealtimeBackend.
+    private final RealtimeBackend realtime;
+    // Post broadcasts double as the community feed cache's invalidation
+    // events — every post write that reaches subscribers also drops the
+    // cached snapshots and cards it affects on this instance.
+    private final CommunityFeedCache feedCache;
 
     @Autowired
-    public WebSocketMessageSender(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public WebSocketMessageSender(RealtimeBackend realtime, CommunityFeedCache feedCache) {
+        this.realtime = realtime;
+        this.feedCache = feedCache;
     }
 
     // --- Direct messages ---
@@ -59,17 +66,17 @@ public class WebSocketMessageSender {
      */
     public void sendDmMessage(String participantEmail, Object frame) {
         if (participantEmail == null || participantEmail.isBlank() || frame == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/dm/" + participantEmail.trim().toLowerCase(), frame);
     }
 
     // --- Posts ---
     public void sendNewGroupPost(String groupId, GroupPostDto dto) {
-        messagingTemplate.convertAndSend("/topic/group-posts/" + groupId, dto);
+        realtime.broadcast("/topic/group-posts/" + groupId, dto);
     }
 
     public void sendGroupPostDeletion(String groupId, Long postId) {
-        messagingTemplate.convertAndSend("/topic/group-posts/" + groupId + "/delete", postId);
+        realtime.broadcast("/topic/group-posts/" + groupId + "/delete", postId);
     }
 
     /**
@@ -80,7 +87,7 @@ public class WebSocketMessageSender {
      */
     public void sendGroupPostReaction(String groupId, GroupPostReactionFrame frame) {
         if (groupId == null || groupId.isBlank() || frame == null) return;
-        messagingTemplate.convertAndSend("/topic/group-posts/" + groupId, frame);
+        realtime.broadcast("/topic/group-posts/" + groupId, frame);
     }
 
     /**
@@ -90,7 +97,7 @@ public class WebSocketMessageSender {
      */
     public void sendGroupPostReceipt(String groupId, Object dto) {
         if (groupId == null || groupId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend("/topic/group-posts/" + groupId, dto);
+        realtime.broadcast("/topic/group-posts/" + groupId, dto);
     }
 
     /**
@@ -100,16 +107,16 @@ public class WebSocketMessageSender {
      */
     public void sendGroupTyping(String groupId, Object dto) {
         if (groupId == null || groupId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend("/topic/group-posts/" + groupId + "/typing", dto);
+        realtime.broadcast("/topic/group-posts/" + groupId + "/typing", dto);
     }
 
     // --- Comments ---
     public void sendNewGroupPostComment(Long postId, GroupPostCommentDto dto) {
-        messagingTemplate.convertAndSend("/topic/group-post-comments/" + postId, dto);
+        realtime.broadcast("/topic/group-post-comments/" + postId, dto);
     }
 
     public void sendGroupPostCommentDeletion(Long postId, Long commentId) {
-        messagingTemplate.convertAndSend("/topic/group-post-comments/" + postId + "/delete", commentId);
+        realtime.broadcast("/topic/group-post-comments/" + postId + "/delete", commentId);
     }
 
     /**
@@ -122,7 +129,7 @@ public class WebSocketMessageSender {
      */
     public void sendGroupPostCommentReaction(GroupPostCommentReactionFrame frame) {
         if (frame == null || frame.postId() == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/group-post-comments/" + frame.postId(), frame);
     }
 
@@ -138,12 +145,14 @@ public class WebSocketMessageSender {
      */
     public void sendNewPostComment(Long postId, PostCommentDto dto) {
         if (postId == null || dto == null) return;
-        messagingTemplate.convertAndSend("/topic/post-comments/" + postId, dto);
+        feedCache.onEngagementChanged(postId);
+        realtime.broadcast("/topic/post-comments/" + postId, dto);
     }
 
     public void sendPostCommentDeletion(Long postId, Long commentId) {
         if (postId == null || commentId == null) return;
-        messagingTemplate.convertAndSend("/topic/post-comments/" + postId + "/delete", commentId);
+        feedCache.onEngagementChanged(postId);
+        realtime.broadcast("/topic/post-comments/" + postId + "/delete", commentId);
     }
 
     /**
@@ -156,18 +165,18 @@ public class WebSocketMessageSender {
      */
     public void sendPostCommentReaction(PostCommentReactionFrame frame) {
         if (frame == null || frame.postId() == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/post-comments/" + frame.postId(), frame);
     }
 
     // --- Activations ---
     public void sendActivationAck(String activationId, AckDto dto) {
-        messagingTemplate.convertAndSend("/topic/activations/" + activationId + "/acks", dto);
+        realtime.broadcast("/topic/activations/" + activationId + "/acks", dto);
     }
 
     public void sendActivationPlanUpdate(String activationId, ActivationPlanUpdatedFrame dto) {
         if (activationId == null || activationId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend("/topic/activations/" + activationId + "/plan", dto);
+        realtime.broadcast("/topic/activations/" + activationId + "/plan", dto);
     }
 
     // --- Tasks ---
@@ -181,14 +190,15 @@ public class WebSocketMessageSender {
      */
     public void sendPostUpdate(PostDto dto) {
         if (dto == null) return;
+        feedCache.onPostChanged(dto);
         if (dto.groupId() != null && !dto.groupId().isBlank()) {
-            messagingTemplate.convertAndSend("/topic/group/" + dto.groupId() + "/posts", dto);
+            realtime.broadcast("/topic/group/" + dto.groupId() + "/posts", dto);
         } else if (dto.zipBucket() != null && !dto.zipBucket().isBlank()) {
-            messagingTemplate.convertAndSend("/topic/community/posts/" + dto.zipBucket(), dto);
+            realtime.broadcast("/topic/community/posts/" + dto.zipBucket(), dto);
         }
         if (dto.claimedByGroupId() != null && !dto.claimedByGroupId().isBlank()
                 && !dto.claimedByGroupId().equals(dto.groupId())) {
-            messagingTemplate.convertAndSend("/topic/group/" + dto.claimedByGroupId() + "/posts", dto);
+            realtime.broadcast("/topic/group/" + dto.claimedByGroupId() + "/posts", dto);
         }
     }
 
@@ -200,7 +210,7 @@ public class WebSocketMessageSender {
      */
     public void sendHouseholdEvent(String householdId, HouseholdEventDto dto) {
         if (householdId == null || householdId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/events", dto);
     }
 
@@ -213,7 +223,7 @@ public class WebSocketMessageSender {
      */
     public void sendHouseholdMemberStatus(String householdId, Object dto) {
         if (householdId == null || householdId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/members/status", dto);
     }
 
@@ -224,7 +234,7 @@ public class WebSocketMessageSender {
      */
     public void sendHouseholdPresence(String householdId, Object dto) {
         if (householdId == null || householdId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/presence", dto);
     }
 
@@ -239,7 +249,7 @@ public class WebSocketMessageSender {
      */
     public void sendHouseholdSupplies(String householdId, Object frame) {
         if (householdId == null || householdId.isBlank() || frame == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/supplies", frame);
     }
 
@@ -253,7 +263,7 @@ public class WebSocketMessageSender {
      */
     public void sendHouseholdDemographic(String householdId, Object frame) {
         if (householdId == null || householdId.isBlank() || frame == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/demographic", frame);
     }
 
@@ -264,7 +274,7 @@ public class WebSocketMessageSender {
      */
     public void sendGroupMemberStatus(String groupId, Object dto) {
         if (groupId == null || groupId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/group/" + groupId + "/members/status", dto);
     }
 
@@ -276,7 +286,7 @@ public class WebSocketMessageSender {
      */
     public void sendGroupMemberLocation(String groupId, Object dto) {
         if (groupId == null || groupId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/group/" + groupId + "/members/location", dto);
     }
 
@@ -289,10 +299,23 @@ public class WebSocketMessageSender {
      */
     public void sendGroupAlertStatus(String groupId, Object dto) {
         if (groupId == null || groupId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/group/" + groupId + "/status", dto);
     }
 
+    // --- Group accountability rollup ---
+    /**
+     * Live "N of M accounted for" counts while the group's alert is Active,
+     * so check-in surfaces update without re-fetching the member view.
+     *
+     * <p>Topic: {@code /topic/group/{groupId}/rollup}</p>
+     */
+    public void sendGroupRollup(String groupId, Object dto) {
+        if (groupId == null || groupId.isBlank() || dto == null) return;
+        realtime.broadcast(
+                "/topic/group/" + groupId + "/rollup", dto);
+    }
+
     // --- Group membership deltas (Sprint 2 / G3) ---
     /**
      * Broadcast a roster add/remove delta so admin/member roster surfaces
@@ -302,20 +325,20 @@ public class WebSocketMessageSender {
      */
     public void sendGroupMembership(String groupId, Object dto) {
         if (groupId == null || groupId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/group/" + groupId + "/members", dto);
     }
 
     // --- Household accompaniments (with-me feature) ---
     public void sendHouseholdAccompanimentUpdate(String householdId, HouseholdAccompanimentDto dto) {
         if (householdId == null || householdId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/accompaniments", dto);
     }
 
     public void sendHouseholdAccompanimentRelease(String householdId, Map<String, String> ref) {
         if (householdId == null || householdId.isBlank() || ref == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/accompaniments/release", ref);
     }
 
@@ -325,28 +348,29 @@ public class WebSocketMessageSender {
      */
     public void sendHouseholdAccompanimentReplaceAll(String householdId, List<HouseholdAccompanimentDto> all) {
         if (householdId == null || householdId.isBlank()) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/accompaniments/snapshot", all);
     }
 
     // --- Household manual members ---
     public void sendHouseholdManualMemberUpdate(String householdId, HouseholdManualMemberDto dto) {
         if (householdId == null || householdId.isBlank() || dto == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/manual-members", dto);
     }
 
     public void sendHouseholdManualMemberDeletion(String householdId, String manualMemberId) {
         if (householdId == null || householdId.isBlank() || manualMemberId == null) return;
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/households/" + householdId + "/manual-members/delete", manualMemberId);
     }
 
     public void sendPostDeletion(String groupId, String zipBucket, Long postId) {
+        feedCache.onPostDeleted(postId);
         if (groupId != null && !groupId.isBlank()) {
-            messagingTemplate.convertAndSend("/topic/group/" + groupId + "/posts/delete", postId);
+            realtime.broadcast("/topic/group/" + groupId + "/posts/delete", postId);
         } else if (zipBucket != null && !zipBucket.isBlank()) {
-            messagingTemplate.convertAndSend("/topic/community/posts/" + zipBucket + "/delete", postId);
+            realtime.broadcast("/topic/community/posts/" + zipBucket + "/delete", postId);
         }
     }
 
@@ -364,11 +388,12 @@ public class WebSocketMessageSender {
      */
     public void sendPostReaction(PostReactionFrame frame) {
         if (frame == null) return;
+        feedCache.onEngagementChanged(frame.postId());
         if (frame.groupId() != null && !frame.groupId().isBlank()) {
-            messagingTemplate.convertAndSend(
+            realtime.broadcast(
                     "/topic/group/" + frame.groupId() + "/posts", frame);
         } else if (frame.zipBucket() != null && !frame.zipBucket().isBlank()) {
-            messagingTemplate.convertAndSend(
+            realtime.broadcast(
                     "/topic/community/posts/" + frame.zipBucket(), frame);
         }
     }
@@ -397,7 +422,7 @@ public class WebSocketMessageSender {
         String email = payload.getRecipientEmail();
         if (email == null || email.isBlank()) return;
         String key = email.trim().toLowerCase();
-        messagingTemplate.convertAndSend(
+        realtime.broadcast(
                 "/topic/notifications/" + key + "/banner", payload);
     }
 
@@ -424,11 +449,11 @@ public class WebSocketMessageSender {
     public void sendInboxEvent(String userEmail, Object payload) {
         if (userEmail == null || userEmail.isBlank()) return;
         String key = userEmail.trim().toLowerCase();
-        messagingTemplate.convertAndSend("/topic/notifications/" + key, payload);
+        realtime.broadcast("/topic/notifications/" + key, payload);
     }
 
     // --- Generic updates ---
     public void sendGenericUpdate(String topic, Object dto) {
-        messagingTemplate.convertAndSend("/topic/" + topic, dto);
+        realtime.broadcast("/topic/" + topic, dto);
     }
 }
@@ -8,8 +8,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
+/**
+ * STOMP session bookkeeping for this instance, with per-email online counts
+ * delegated to the configured {@link RealtimeBackend} — local-only by
+ * default, cluster-wide when {@code sitprep.realtime.backend=redis}.
+ */
 @Service
 public class WebSocketPresenceService {
 
@@ -37,21 +41,25 @@ public class WebSocketPresenceService {
 
     public record PresenceChange(String email, int onlineCount) {}
 
-    // sessionId -> presence
+    // sessionId -> presence (sockets on this instance)
     private final Map<String, PresenceInfo> sessions = new ConcurrentHashMap<>();
-    // email -> count of active sessions
-    private final Map<String, Integer> emailCounts = new ConcurrentHashMap<>();
+    // email -> count of active sessions, possibly cluster-wide
+    private final RealtimeBackend backend;
+
+    public WebSocketPresenceService(RealtimeBackend backend) {
+        this.backend = backend;
+    }
 
     public PresenceChange addSession(String sessionId, String email) {
         if (sessionId == null || sessionId.isBlank()) return null;
         String normalizedEmail = normalizeEmail(email);
         PresenceInfo prev = sessions.put(sessionId, new PresenceInfo(sessionId, normalizedEmail));
         if (prev != null && prev.email != null) {
-            decrement(prev.email);
+            backend.sessionClosed(sessionId, prev.email);
         }
         int count = 0;
         if (normalizedEmail != null) {
-            count = increment(normalizedEmail);
+            count = backend.sessionOpened(sessionId, normalizedEmail);
         }
         maybePruneStale();
         return normalizedEmail == null ? null : new PresenceChange(normalizedEmail, count);
@@ -61,7 +69,7 @@ public class WebSocketPresenceService {
         if (sessionId == null || sessionId.isBlank()) return null;
         PresenceInfo removed = sessions.remove(sessionId);
         if (removed != null && removed.email != null) {
-            int count = decrement(removed.email);
+            int count = backend.sessionClosed(sessionId, removed.email);
             return new PresenceChange(removed.email, count);
         }
         return null;
@@ -77,14 +85,14 @@ public class WebSocketPresenceService {
     public boolean isUserOnline(String email) {
         if (email == null || email.isBlank()) return false;
         String key = normalizeEmail(email);
-        return key != null && emailCounts.getOrDefault(key, 0) > 0;
+        return key != null && backend.onlineCount(key) > 0;
     }
 
     /** Handy: how many sessions for this email are currently active. */
     public int getOnlineCount(String email) {
         if (email == null || email.isBlank()) return 0;
         String key = normalizeEmail(email);
-        return key == null ? 0 : emailCounts.getOrDefault(key, 0);
+        return key == null ? 0 : backend.onlineCount(key);
     }
 
     /** Resolve the lower-cased email associated with a STOMP session. */
@@ -101,10 +109,7 @@ public class WebSocketPresenceService {
 
     /** Snapshot of emails considered "online" (count > 0). */
     public Set<String> getOnlineEmailsSnapshot() {
-        return emailCounts.entrySet().stream()
-                .filter(e -> e.getValue() != null && e.getValue() > 0)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toUnmodifiableSet());
+        return backend.onlineEmails();
     }
 
     /** Fetch presence by session if you need metadata (lastSeen, connectedAt). */
@@ -114,20 +119,6 @@ public class WebSocketPresenceService {
 
     // ---- internals ----
 
-    private int increment(String email) {
-        return emailCounts.merge(email, 1, Integer::sum);
-    }
-
-    private int decrement(String email) {
-        final int[] nextValue = {0};
-        emailCounts.compute(email, (e, n) -> {
-            int next = (n == null ? 0 : n - 1);
-            nextValue[0] = Math.max(0, next);
-            return next <= 0 ? null : next;
-        });
-        return nextValue[0];
-    }
-
     private static String normalizeEmail(String email) {
         if (email == null || email.isBlank()) return null;
         return email.trim().toLowerCase(Locale.ROOT);
@@ -142,7 +133,7 @@ public class WebSocketPresenceService {
             if (info.getLastSeen().isBefore(cutoff)) {
                 // remove session and adjust counts atomically relative to sessions map
                 if (sessions.remove(sid, info) && info.email != null) {
-                    decrement(info.email);
+                    backend.sessionClosed(sid, info.email);
                 }
             }
         });
@@ -0,0 +1,17 @@
+-- Severe-alert recipient stage: bounding-box scan over push-enabled,
+-- located users that returns only (email, token, lat, lng). INCLUDE makes
+-- it index-only, and the partial predicate keeps tokenless / unlocated
+-- rows (most of the table) out of the index entirely.
+--
+-- Plain, TRANSACTIONAL CREATE INDEX (not CONCURRENTLY) — same reasoning as
+-- V28: user_info is small, so the build is sub-second and the brief SHARE
+-- lock on writes is fine. A CONCURRENTLY build on the app DataSource runs
+-- under the 20s statement_timeout from Hikari's connection-init-sql and can
+-- leave an INVALID index behind, which IF NOT EXISTS would then skip on the
+-- next deploy. A transactional build rolls back cleanly on any error.
+
+CREATE INDEX IF NOT EXISTS idx_user_info_push_geo
+    ON user_info (last_known_lat, last_known_lng)
+    INCLUDE (user_email, fcm_token)
+    WHERE fcm_token IS NOT NULL AND fcm_token <> ''
+      AND last_known_lat IS NOT NULL AND last_known_lng IS NOT NULL;
@@ -0,0 +1,20 @@
+-- Transactional outbox for push fan-outs. The business transaction inserts
+-- a PENDING row; NotificationOutboxService claims due rows with
+-- FOR UPDATE SKIP LOCKED, delivers them off the request path, and deletes
+-- them once delivered. Rows that exhaust their retries stay as FAILED.
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id                 BIGSERIAL PRIMARY KEY,
+    notification_type  VARCHAR(64) NOT NULL,
+    reference_id       VARCHAR(255),
+    payload            TEXT NOT NULL,
+    status             VARCHAR(16) NOT NULL,
+    attempts           INT NOT NULL DEFAULT 0,
+    next_attempt_at    TIMESTAMP NOT NULL,
+    locked_until       TIMESTAMP,
+    created_at         TIMESTAMP NOT NULL DEFAULT now(),
+    last_error         VARCHAR(1000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_due
+    ON notification_outbox (status, next_attempt_at);
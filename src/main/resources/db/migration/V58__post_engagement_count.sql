@@ -0,0 +1,34 @@
+-- Denormalized engagement counters for community posts. One row per
+-- (task, metric): 'confirm', 'comment', or 'r:<emoji>' for each reaction
+-- emoji. PostEngagementCounter keeps them in step with post_confirm,
+-- task_comment and task_reaction from JPA entity callbacks, inside the
+-- writing transaction; the feed listing reads these rows instead of
+-- pulling every confirm / reaction row for the page.
+
+CREATE TABLE IF NOT EXISTS post_engagement_count (
+    task_id  BIGINT NOT NULL,
+    metric   VARCHAR(40) NOT NULL,
+    total    INT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_post_engagement_count PRIMARY KEY (task_id, metric)
+);
+
+-- Backfill from the source tables.
+INSERT INTO post_engagement_count (task_id, metric, total)
+SELECT task_id, 'confirm', COUNT(*) FROM post_confirm GROUP BY task_id
+ON CONFLICT DO NOTHING;
+
+INSERT INTO post_engagement_count (task_id, metric, total)
+SELECT task_id, 'comment', COUNT(*) FROM task_comment GROUP BY task_id
+ON CONFLICT DO NOTHING;
+
+INSERT INTO post_engagement_count (task_id, metric, total)
+SELECT task_id, 'r:' || emoji, COUNT(*) FROM task_reaction GROUP BY task_id, emoji
+ON CONFLICT DO NOTHING;
+
+-- Viewer-flag lookups ("which of these posts did I confirm / react to")
+-- filter on LOWER(user_email) first; the plain user_email indexes can't
+-- serve that predicate.
+CREATE INDEX IF NOT EXISTS idx_task_reaction_user_lower
+    ON task_reaction (LOWER(user_email), task_id);
+CREATE INDEX IF NOT EXISTS idx_post_confirm_user_lower
+    ON post_confirm (LOWER(user_email), task_id);
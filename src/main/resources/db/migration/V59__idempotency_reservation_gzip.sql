@@ -0,0 +1,18 @@
+-- Idempotency keys: in-flight reservations + compressed response bodies.
+--
+-- IdempotencyStore now INSERTs the (caller, endpoint, key) row with
+-- ON CONFLICT DO NOTHING *before* running the handler, so two concurrent
+-- retries can't both execute it: the loser sees the reservation and waits
+-- for the winner's response. A reserved row has response_status_code = 0
+-- and no body until the handler completes.
+--
+-- Bodies are stored gzipped in response_body_gzip. response_body (TEXT)
+-- is kept, now nullable, so rows written before this migration still
+-- replay until the hourly sweeper ages them out.
+--
+-- Hibernate ddl-auto=validate is live: these must match
+-- io.sitprep.sitprepapi.domain.IdempotencyKey.
+
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS response_body_gzip BYTEA;
+
+ALTER TABLE idempotency_keys ALTER COLUMN response_body DROP NOT NULL;
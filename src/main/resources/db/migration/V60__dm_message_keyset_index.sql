@@ -0,0 +1,12 @@
+-- DM history and sync page by keyset on (created_at, id) instead of
+-- loading whole threads. Adding id to the thread index lets both the
+-- "older than cursor" and "newer than since" range scans resolve ties
+-- inside the index; it subsumes the old (thread_id, created_at) index.
+--
+-- Hibernate ddl-auto=validate is live: name matches the @Index on
+-- io.sitprep.sitprepapi.domain.DmMessage.
+
+CREATE INDEX IF NOT EXISTS idx_dm_message_thread_created_id
+    ON dm_message (thread_id, created_at, id);
+
+DROP INDEX IF EXISTS idx_dm_message_thread_created;
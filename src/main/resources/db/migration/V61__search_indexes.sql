@@ -0,0 +1,52 @@
+-- Indexed search for Ask questions / tips and user typeahead.
+--
+-- Ask: a stored, generated tsvector per row (title weighted A, body B)
+-- with a GIN index. AskQuestionRepo / AskTipRepo.searchRanked match it
+-- with a prefix tsquery ("smoke detec" → 'smoke' & 'detec':*), rank with
+-- ts_rank_cd and build highlighted snippets with ts_headline for just
+-- the returned page. Replaces LOWER(title|body) LIKE '%q%' seq scans.
+--
+-- Users: trigram GIN indexes on the lowered name / email expressions
+-- UserInfoRepo.searchUsers filters on, so a bound LIKE 'q%' pattern is
+-- answered from the index whatever the plan-time parameter value. Partial
+-- on the searchable predicate the query carries — opted-out users never
+-- surface, so they needn't be indexed.
+--
+-- search_tsv is generated by Postgres and not mapped on the entities, so
+-- ddl-auto=validate is unaffected.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE ask_question ADD COLUMN IF NOT EXISTS search_tsv tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(title, '')), 'A')
+        || setweight(to_tsvector('english', COALESCE(body, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_ask_question_search
+    ON ask_question USING GIN (search_tsv);
+
+ALTER TABLE ask_tip ADD COLUMN IF NOT EXISTS search_tsv tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(title, '')), 'A')
+        || setweight(to_tsvector('english', COALESCE(body, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_ask_tip_search
+    ON ask_tip USING GIN (search_tsv);
+
+CREATE INDEX IF NOT EXISTS idx_user_info_first_name_trgm
+    ON user_info USING GIN (LOWER(user_first_name) gin_trgm_ops)
+    WHERE searchable IS NOT FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_user_info_last_name_trgm
+    ON user_info USING GIN (LOWER(user_last_name) gin_trgm_ops)
+    WHERE searchable IS NOT FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_user_info_email_trgm
+    ON user_info USING GIN (LOWER(user_email) gin_trgm_ops)
+    WHERE searchable IS NOT FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_user_info_full_name_trgm
+    ON user_info USING GIN (LOWER(COALESCE(user_first_name, '') || ' ' || COALESCE(user_last_name, '')) gin_trgm_ops)
+    WHERE searchable IS NOT FALSE;
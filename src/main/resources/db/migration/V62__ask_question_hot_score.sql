@@ -0,0 +1,13 @@
+-- Materialized hot score for Ask questions (AskService.hotScore):
+--   log10(max(vote_score + 1, 1)) + max(0, 14 - days_old) * 0.15
+-- Refreshed on vote and re-decayed every 15 min for rows still inside the
+-- 14-day recency window (AskHotScoreService); older rows only move on votes.
+-- The top strip reads it straight off the index instead of sorting a range.
+
+ALTER TABLE ask_question ADD COLUMN IF NOT EXISTS hot_score DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+UPDATE ask_question
+   SET hot_score = LOG(GREATEST(vote_score + 1, 1))
+                 + GREATEST(0, 14 - EXTRACT(EPOCH FROM (now() AT TIME ZONE 'UTC' - created_at)) / 86400.0) * 0.15;
+
+CREATE INDEX IF NOT EXISTS idx_ask_question_hot ON ask_question (hot_score DESC, id DESC);
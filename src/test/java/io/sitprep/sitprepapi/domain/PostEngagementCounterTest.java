@@ -0,0 +1,94 @@
+package io.sitprep.sitprepapi.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counter maintenance from entity callbacks: inserts bump (seeding a missing
+ * row), deletes decrement without seeding, a lost seed race retries the
+ * bump, and deleting the post clears its counters.
+ */
+@ExtendWith(MockitoExtension.class)
+class PostEngagementCounterTest {
+
+    @Mock JdbcTemplate jdbc;
+
+    private static PostReaction reaction(Long postId, String emoji) {
+        PostReaction r = new PostReaction();
+        r.setPostId(postId);
+        r.setEmoji(emoji);
+        return r;
+    }
+
+    private static PostConfirm confirm(Long postId) {
+        PostConfirm c = new PostConfirm();
+        c.setPostId(postId);
+        return c;
+    }
+
+    @Test
+    void insert_bumpsExistingRow() {
+        when(jdbc.update(startsWith("UPDATE"), any(Object[].class))).thenReturn(1);
+
+        new PostEngagementCounter(jdbc).afterInsert(reaction(7L, "❤"));
+
+        verify(jdbc).update(startsWith("UPDATE"), eq(1), eq(7L), eq("r:❤"));
+        verify(jdbc, never()).update(startsWith("INSERT"), any(Object[].class));
+    }
+
+    @Test
+    void insert_seedsMissingRow() {
+        when(jdbc.update(startsWith("UPDATE"), any(Object[].class))).thenReturn(0);
+        when(jdbc.update(startsWith("INSERT"), any(Object[].class))).thenReturn(1);
+
+        new PostEngagementCounter(jdbc).afterInsert(confirm(7L));
+
+        verify(jdbc).update(startsWith("INSERT"), eq(7L), eq(PostEngagementCount.CONFIRM), eq(1));
+        verify(jdbc, times(1)).update(startsWith("UPDATE"), any(Object[].class));
+    }
+
+    @Test
+    void insert_lostSeedRace_retriesBump() {
+        when(jdbc.update(startsWith("UPDATE"), any(Object[].class))).thenReturn(0, 1);
+        when(jdbc.update(startsWith("INSERT"), any(Object[].class))).thenReturn(0);
+
+        new PostEngagementCounter(jdbc).afterInsert(confirm(7L));
+
+        verify(jdbc, times(2)).update(startsWith("UPDATE"), eq(1), eq(7L), eq(PostEngagementCount.CONFIRM));
+    }
+
+    @Test
+    void delete_decrementsWithoutSeeding() {
+        when(jdbc.update(startsWith("UPDATE"), any(Object[].class))).thenReturn(0);
+
+        new PostEngagementCounter(jdbc).afterDelete(confirm(7L));
+
+        verify(jdbc).update(startsWith("UPDATE"), eq(-1), eq(7L), eq(PostEngagementCount.CONFIRM));
+        verify(jdbc, never()).update(startsWith("INSERT"), any(Object[].class));
+    }
+
+    @Test
+    void postDelete_clearsCounters_andPostInsertIsNoOp() {
+        Post post = new Post();
+        post.setId(7L);
+        PostEngagementCounter counter = new PostEngagementCounter(jdbc);
+
+        counter.afterInsert(post);
+        counter.afterDelete(post);
+
+        verify(jdbc).update(startsWith("DELETE FROM post_engagement_count"), eq(7L));
+        verify(jdbc, never()).update(anyString(), eq(-1), any(), any());
+    }
+}
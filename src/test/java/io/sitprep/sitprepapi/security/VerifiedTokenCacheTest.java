@@ -0,0 +1,108 @@
+package io.sitprep.sitprepapi.security;
+
+import io.sitprep.sitprepapi.security.VerifiedTokenCache.VerifiedToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verified-token cache contract: one real verification per token until its
+ * {@code exp}, failures never cached, revocation by uid/email, and the size
+ * bound holds. A fake clock drives expiry.
+ */
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong nowMs = new AtomicLong(1_700_000_000_000L);
+    private final AtomicInteger verifyCalls = new AtomicInteger();
+
+    /** Tokens look like "uid|email|expSec". */
+    private VerifiedTokenCache cache() {
+        return new VerifiedTokenCache(token -> {
+            verifyCalls.incrementAndGet();
+            if (token.startsWith("bad")) throw new IllegalStateException("invalid signature");
+            String[] parts = token.split("\\|");
+            return new VerifiedToken(parts[0], parts[1], null, Long.parseLong(parts[2]));
+        }, nowMs::get);
+    }
+
+    private long expIn(long seconds) {
+        return nowMs.get() / 1000 + seconds;
+    }
+
+    @Test
+    void sameToken_verifiedOnce_untilExp() throws Exception {
+        VerifiedTokenCache c = cache();
+        String token = "u1|a@x.com|" + expIn(3600);
+
+        assertThat(c.verify(token).email()).isEqualTo("a@x.com");
+        assertThat(c.verify(token).uid()).isEqualTo("u1");
+        assertThat(verifyCalls.get()).isEqualTo(1);
+
+        nowMs.addAndGet(3601_000L);
+        c.verify(token);
+        assertThat(verifyCalls.get()).isEqualTo(2);
+        assertThat(c.stats().hits()).isEqualTo(1);
+        assertThat(c.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void failedVerification_isNotCached() {
+        VerifiedTokenCache c = cache();
+
+        assertThatThrownBy(() -> c.verify("bad-token")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> c.verify("bad-token")).isInstanceOf(IllegalStateException.class);
+
+        assertThat(verifyCalls.get()).isEqualTo(2);
+        assertThat(c.stats().verifyFailures()).isEqualTo(2);
+        assertThat(c.stats().size()).isZero();
+    }
+
+    @Test
+    void tokenWithoutExp_isVerifiedEveryTime() throws Exception {
+        VerifiedTokenCache c = cache();
+        c.verify("u1|a@x.com|0");
+        c.verify("u1|a@x.com|0");
+        assertThat(verifyCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void revokeUser_dropsAllTokensForUidOrEmail() throws Exception {
+        VerifiedTokenCache c = cache();
+        c.verify("u1|a@x.com|" + expIn(3600));
+        c.verify("u1|a@x.com|" + expIn(3500));   // second device
+        c.verify("u2|b@x.com|" + expIn(3600));
+
+        assertThat(c.revokeUser("u1", null)).isEqualTo(2);
+        assertThat(c.revokeUser(null, "B@X.com")).isEqualTo(1);
+        assertThat(c.stats().size()).isZero();
+
+        c.verify("u1|a@x.com|" + expIn(3600));
+        assertThat(verifyCalls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void sizeBound_holds() throws Exception {
+        VerifiedTokenCache c = cache();
+        for (int i = 0; i < VerifiedTokenCache.MAX_ENTRIES + 50; i++) {
+            c.verify("u" + i + "|u" + i + "@x.com|" + expIn(3600));
+        }
+        assertThat(c.stats().size()).isLessThanOrEqualTo(VerifiedTokenCache.MAX_ENTRIES);
+        assertThat(c.stats().evictions()).isPositive();
+    }
+
+    @Test
+    void sweep_dropsExpired() throws Exception {
+        VerifiedTokenCache c = cache();
+        c.verify("u1|a@x.com|" + expIn(60));
+        c.verify("u2|b@x.com|" + expIn(3600));
+        nowMs.addAndGet(120_000L);
+
+        c.sweepExpired();
+
+        assertThat(c.stats().size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,209 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.Group;
+import io.sitprep.sitprepapi.domain.HouseholdAccompaniment;
+import io.sitprep.sitprepapi.domain.HouseholdManualMember;
+import io.sitprep.sitprepapi.dto.GroupMemberViewDto.StatusRollup;
+import io.sitprep.sitprepapi.dto.GroupRollupFrame;
+import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.HouseholdAccompanimentRepo;
+import io.sitprep.sitprepapi.repo.HouseholdManualMemberRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Live rollup: built once per alert session with the same bucketing as
+ * {@link StatusRollups#compute}, moved by status taps and manual-member
+ * claims, and kept honest by the verifier without rolling back newer taps.
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountabilityRollupServiceTest {
+
+    private static final Instant START = Instant.parse("2026-10-01T12:00:00Z");
+
+    @Mock GroupRepo groupRepo;
+    @Mock UserInfoRepo userInfoRepo;
+    @Mock HouseholdManualMemberRepo manualMemberRepo;
+    @Mock HouseholdAccompanimentRepo accompanimentRepo;
+    @Mock WebSocketMessageSender ws;
+
+    private AccountabilityRollupService svc() {
+        return new AccountabilityRollupService(groupRepo, userInfoRepo, manualMemberRepo, accompanimentRepo, ws);
+    }
+
+    private static Group group(String id, String type, String alert) {
+        Group g = new Group();
+        g.setGroupId(id);
+        g.setGroupType(type);
+        g.setAlert(alert);
+        g.setAlertActivatedAt(START);
+        g.setUpdatedAt(START.plusSeconds(600));   // a later edit must not move the anchor
+        return g;
+    }
+
+    private void roster(String groupId, Object[]... rows) {
+        when(groupRepo.findMemberStatusRows(groupId)).thenReturn(List.of(rows));
+    }
+
+    private static Object[] row(String email, String status, Instant at) {
+        return new Object[]{email, status, at};
+    }
+
+    private GroupRollupFrame lastFrame(String groupId) {
+        ArgumentCaptor<Object> frames = ArgumentCaptor.forClass(Object.class);
+        verify(ws, atLeastOnce()).sendGroupRollup(eq(groupId), frames.capture());
+        return (GroupRollupFrame) frames.getValue();
+    }
+
+    @Test
+    void firstRead_buildsFromRows_withAlertStartFreshness() {
+        roster("org-1",
+                row("a@x.com", "SAFE", START.plusSeconds(5)),
+                row("b@x.com", "HELP", START.plusSeconds(5)),
+                row("c@x.com", "SAFE", START.minusSeconds(60)),   // answered before the alert
+                row("d@x.com", "EVACUATING", START.plusSeconds(5)),
+                row("e@x.com", null, null));
+        AccountabilityRollupService service = svc();
+        Group g = group("org-1", "Organization", "Active");
+
+        AccountabilityRollupService.Counts c = service.current(g).orElseThrow();
+
+        assertThat(c.toStatusRollup()).isEqualTo(new StatusRollup(5, 2, 1, 1, 0, 3));
+        assertThat(c.checkedIn()).isEqualTo(3);
+        assertThat(c.missing()).isEqualTo(2);
+        assertThat(lastFrame("org-1").version()).isEqualTo(1);
+
+        // Served from memory afterwards.
+        service.current(g);
+        verify(groupRepo, times(1)).findMemberStatusRows("org-1");
+    }
+
+    @Test
+    void inactiveAlert_isNotTracked() {
+        AccountabilityRollupService service = svc();
+
+        assertThat(service.current(group("org-1", "Organization", "Cleared"))).isEmpty();
+        verifyNoInteractions(groupRepo, ws);
+    }
+
+    @Test
+    void statusTap_movesCounts_evenWhenTheStatusIsUnchanged() {
+        roster("org-1",
+                row("a@x.com", "SAFE", START.minusSeconds(60)),
+                row("b@x.com", null, null));
+        AccountabilityRollupService service = svc();
+        Group g = group("org-1", "Organization", "Active");
+        service.current(g);
+
+        service.statusChangedAfterCommit("A@x.com", "SAFE", START.plusSeconds(30));
+        service.statusChangedAfterCommit("stranger@x.com", "SAFE", START.plusSeconds(30));
+
+        assertThat(service.current(g).orElseThrow().toStatusRollup())
+                .isEqualTo(new StatusRollup(2, 1, 1, 0, 0, 1));
+        GroupRollupFrame frame = lastFrame("org-1");
+        assertThat(frame.version()).isEqualTo(2);
+        assertThat(frame.accounted()).isEqualTo(1);
+        assertThat(frame.missing()).isEqualTo(1);
+    }
+
+    @Test
+    void manualMembers_countOnlyWhileClaimed() {
+        roster("hh-1", row("a@x.com", "SAFE", START.plusSeconds(5)));
+        HouseholdManualMember kid = new HouseholdManualMember();
+        kid.setId("kid-1");
+        HouseholdManualMember gran = new HouseholdManualMember();
+        gran.setId("gran-1");
+        when(manualMemberRepo.findByHouseholdIdOrderByCreatedAtAsc("hh-1")).thenReturn(List.of(kid, gran));
+        HouseholdAccompaniment withMe = new HouseholdAccompaniment();
+        withMe.setAccompaniedKind("manual");
+        withMe.setAccompaniedId("kid-1");
+        when(accompanimentRepo.findByHouseholdId("hh-1")).thenReturn(List.of(withMe));
+        AccountabilityRollupService service = svc();
+        Group g = group("hh-1", "Household", "Active");
+
+        assertThat(service.statusRollup(g).orElseThrow()).isEqualTo(new StatusRollup(3, 2, 2, 0, 0, 1));
+
+        service.manualClaimedAfterCommit("hh-1", "gran-1");
+        service.manualClaimedAfterCommit("hh-1", "not-a-member");
+        assertThat(service.statusRollup(g).orElseThrow().accounted()).isEqualTo(3);
+
+        service.manualReleasedAfterCommit("hh-1", "kid-1");
+        assertThat(service.statusRollup(g).orElseThrow().noResponse()).isEqualTo(1);
+        // Account holders only on the check-in card.
+        assertThat(service.current(g).orElseThrow().missing()).isZero();
+    }
+
+    @Test
+    void verify_correctsDrift_andEndsClearedAlerts() {
+        roster("org-1", row("a@x.com", null, null));
+        AccountabilityRollupService service = svc();
+        Group g = group("org-1", "Organization", "Active");
+        service.current(g);
+        // A tap that landed on another instance.
+        roster("org-1", row("a@x.com", "SAFE", START.plusSeconds(5)));
+        when(groupRepo.findActiveAlertAnchors())
+                .thenReturn(List.<Object[]>of(new Object[]{"org-1", "Organization", START, null}));
+
+        assertThat(service.verifyOnce()).isEqualTo(1);
+        assertThat(service.current(g).orElseThrow().safe()).isEqualTo(1);
+        assertThat(service.verifyOnce()).isZero();
+
+        when(groupRepo.findActiveAlertAnchors()).thenReturn(List.of());
+        service.verifyOnce();
+
+        assertThat(service.liveCount()).isZero();
+        assertThat(lastFrame("org-1").active()).isFalse();
+    }
+
+    @Test
+    void verify_keepsTapThatLandsWhileItLoads() {
+        roster("org-1", row("a@x.com", null, null), row("b@x.com", null, null));
+        AccountabilityRollupService service = svc();
+        Group g = group("org-1", "Organization", "Active");
+        service.current(g);
+        when(groupRepo.findActiveAlertAnchors())
+                .thenReturn(List.<Object[]>of(new Object[]{"org-1", "Organization", START, null}));
+        // The verifier's read predates a's tap, which commits mid-load.
+        when(groupRepo.findMemberStatusRows("org-1")).thenAnswer(inv -> {
+            service.statusChangedAfterCommit("a@x.com", "SAFE", START.plusSeconds(30));
+            return List.<Object[]>of(row("a@x.com", null, null), row("b@x.com", null, null));
+        });
+
+        service.verifyOnce();
+
+        assertThat(service.current(g).orElseThrow().safe()).isEqualTo(1);
+        verify(userInfoRepo, never()).findByUserEmailIgnoreCase(anyString());
+    }
+
+    @Test
+    void newAlertSession_restartsTheRollup() {
+        roster("org-1", row("a@x.com", "SAFE", START.plusSeconds(5)));
+        AccountabilityRollupService service = svc();
+        Group g = group("org-1", "Organization", "Active");
+        assertThat(service.current(g).orElseThrow().safe()).isEqualTo(1);
+
+        g.setAlertActivatedAt(START.plusSeconds(3600));
+
+        assertThat(service.current(g).orElseThrow().safe()).isZero();
+        verify(ws, atLeastOnce()).sendGroupRollup(anyString(), any());
+    }
+}
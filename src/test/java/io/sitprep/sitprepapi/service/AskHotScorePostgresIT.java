@@ -0,0 +1,93 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.AskQuestion;
+import io.sitprep.sitprepapi.repo.AskQuestionRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * REAL-Postgres check that the materialized {@code hot_score} (V62) matches
+ * {@link AskService#hotScore}: the SQL twin in {@link AskQuestionRepo} is
+ * written on vote and by the decay sweep, and the top strip reads it back
+ * in order. Same throwaway {@code it-pg} database and gating convention as
+ * {@link AgencyJurisdictionServicePostgresIT}; runs only when
+ * {@code ASK_PG_IT=true}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("it-pg")
+@EnabledIfEnvironmentVariable(named = "ASK_PG_IT", matches = "true")
+class AskHotScorePostgresIT {
+
+    @Autowired AskQuestionRepo questionRepo;
+    @Autowired TestEntityManager em;
+
+    private AskQuestion question(String title, int votes, Instant createdAt) {
+        AskQuestion q = new AskQuestion();
+        q.setAuthorEmail("hot@x.com");
+        q.setTitle(title);
+        q.setBody(title);
+        q.setVoteScore(votes);
+        q.setCreatedAt(createdAt);
+        return questionRepo.save(q);
+    }
+
+    private double storedScore(Long id) {
+        em.flush();
+        em.clear();
+        return questionRepo.findById(id).orElseThrow().getHotScore();
+    }
+
+    @Test
+    void voteBump_writesJavaEquivalentScore() {
+        Instant created = Instant.now().minus(Duration.ofDays(3));
+        AskQuestion q = question("bump", 4, created);
+        em.flush();
+
+        questionRepo.bumpVoteScore(q.getId(), 5, AskService.nowEpochSeconds());
+
+        assertThat(storedScore(q.getId())).isCloseTo(AskService.hotScore(9, created), within(1e-3));
+    }
+
+    @Test
+    void decaySweep_rewritesOnlyTheRecencyWindow() {
+        Instant now = Instant.now();
+        AskQuestion fresh = question("fresh", 0, now.minus(Duration.ofDays(2)));
+        AskQuestion settling = question("settling", 9, now.minus(Duration.ofDays(14).plusHours(6)));
+        AskQuestion old = question("old", 99, now.minus(Duration.ofDays(40)));
+        em.flush();
+
+        new AskHotScoreService(questionRepo, "P1D").decayOnce(now);
+
+        assertThat(storedScore(fresh.getId())).isCloseTo(AskService.hotScore(0, fresh.getCreatedAt()), within(1e-3));
+        assertThat(storedScore(settling.getId())).isCloseTo(1.0, within(1e-9));
+        assertThat(storedScore(old.getId())).isZero();   // outside the sweep; untouched
+    }
+
+    @Test
+    void hotSince_readsIndexOrder() {
+        Instant now = Instant.now();
+        AskQuestion a = question("a", 0, now.minus(Duration.ofDays(1)));
+        AskQuestion b = question("b", 99, now.minus(Duration.ofDays(1)));
+        em.flush();
+        new AskHotScoreService(questionRepo, "P1D").decayOnce(now);
+        em.clear();
+
+        List<AskQuestion> top = questionRepo.hotSince(now.minus(Duration.ofDays(7)), PageRequest.of(0, 2));
+
+        assertThat(top).extracting(AskQuestion::getId).containsExactly(b.getId(), a.getId());
+    }
+}
@@ -0,0 +1,158 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.Post;
+import io.sitprep.sitprepapi.domain.Post.PostStatus;
+import io.sitprep.sitprepapi.dto.PostDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shared feed layers: viewers in one cell and radius band share a
+ * snapshot, the broadcasts drop exactly the snapshots and cards a post
+ * change touches, and cards enrich only the misses.
+ */
+class CommunityFeedCacheTest {
+
+    private static final Set<PostStatus> OPEN_CLAIMED = EnumSet.of(PostStatus.OPEN, PostStatus.CLAIMED);
+
+    // Downtown Oakland; a second viewer a few hundred meters away in the same 0.01° cell.
+    private static final double LAT = 37.8044, LNG = -122.2712;
+    private static final double NEAR_LAT = 37.8071, NEAR_LNG = -122.2745;
+
+    private final CommunityFeedCache cache =
+            new CommunityFeedCache(new LookupCacheRegistry(), 10_000, "PT30S", 1_000, "PT1M");
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static PostDto post(long id, Double lat, Double lng, String groupId) {
+        Post p = new Post();
+        p.setId(id);
+        p.setStatus(PostStatus.OPEN);
+        p.setLatitude(lat);
+        p.setLongitude(lng);
+        p.setGroupId(groupId);
+        return PostDto.fromEntity(p);
+    }
+
+    private CommunityFeedCache.Snapshot snapshot(double lat, double lng, double radiusKm, PostDto... rows) {
+        return cache.snapshot(lat, lng, radiusKm, OPEN_CLAIMED, area -> {
+            loads.incrementAndGet();
+            return new CommunityFeedCache.Snapshot(area, List.of(rows));
+        });
+    }
+
+    @Test
+    void sameCellAndBand_shareOneSnapshot() {
+        CommunityFeedCache.Snapshot first = snapshot(LAT, LNG, 8, post(1, 37.81, -122.265, null));
+        CommunityFeedCache.Snapshot second = snapshot(NEAR_LAT, NEAR_LNG, 10);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(first.area().reachKm()).isEqualTo(10 + CommunityFeedCache.CELL_SLACK_KM);
+    }
+
+    @Test
+    void otherBand_andOversizedRadius_loadSeparately() {
+        snapshot(LAT, LNG, 8);
+        snapshot(LAT, LNG, 20);
+        CommunityFeedCache.Snapshot wide = snapshot(LAT, LNG, 500);
+        snapshot(LAT, LNG, 500);
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(wide.area().centerLat()).isEqualTo(LAT);
+    }
+
+    @Test
+    void postChange_dropsCoveringSnapshots_only() {
+        snapshot(LAT, LNG, 5);
+        snapshot(37.3382, -121.8863, 5);   // San Jose, ~60 km away
+
+        cache.onPostChanged(post(9, 37.81, -122.265, null));
+        snapshot(LAT, LNG, 5);
+        snapshot(37.3382, -121.8863, 5);
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void geolessPostChange_dropsEverySnapshot() {
+        snapshot(LAT, LNG, 5);
+        snapshot(37.3382, -121.8863, 5);
+
+        cache.onPostChanged(post(9, null, null, null));
+        snapshot(LAT, LNG, 5);
+        snapshot(37.3382, -121.8863, 5);
+
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void postMovedAway_orIntoGroup_orDeleted_dropsSnapshotHoldingIt() {
+        snapshot(LAT, LNG, 5, post(1, 37.81, -122.265, null));
+        cache.onPostChanged(post(1, 37.3382, -121.8863, null));
+        snapshot(LAT, LNG, 5, post(1, 37.81, -122.265, null));
+        cache.onPostChanged(post(1, 37.81, -122.265, "g-1"));
+        snapshot(LAT, LNG, 5, post(1, 37.81, -122.265, null));
+        cache.onPostDeleted(1L);
+        snapshot(LAT, LNG, 5);
+
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void cards_enrichOnlyMisses_andEngagementDropsOne() {
+        List<Set<Long>> batches = new ArrayList<>();
+        java.util.function.Function<Set<Long>, Map<Long, PostDto>> loader = ids -> {
+            batches.add(ids);
+            Map<Long, PostDto> out = new HashMap<>();
+            for (Long id : ids) out.put(id, post(id, null, null, null));
+            return out;
+        };
+
+        cache.cards(List.of(1L, 2L), loader);
+        Map<Long, PostDto> page = cache.cards(List.of(1L, 2L, 3L), loader);
+        cache.onEngagementChanged(2L);
+        cache.cards(List.of(1L, 2L), loader);
+
+        assertThat(page).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(batches).containsExactly(Set.of(1L, 2L), Set.of(3L), Set.of(2L));
+    }
+
+    @Test
+    void engagementAfterCommit_dropsTheCardOnlyOnceCommitted() {
+        AtomicInteger cardLoads = new AtomicInteger();
+        java.util.function.Function<Set<Long>, Map<Long, PostDto>> loader = ids -> {
+            cardLoads.incrementAndGet();
+            return Map.of(1L, post(1, null, null, null));
+        };
+        cache.cards(List.of(1L), loader);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onEngagementChangedAfterCommit(1L);
+        cache.cards(List.of(1L), loader);
+        assertThat(cardLoads.get()).isEqualTo(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.cards(List.of(1L), loader);
+
+        assertThat(cardLoads.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,116 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.Post.PostStatus;
+import io.sitprep.sitprepapi.repo.PostRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Grid prefilter behind the community feed: a radius query must return
+ * exactly the posts the old full-scan Haversine pass accepted (in-radius +
+ * geo-less, status-filtered), only live (OPEN/CLAIMED) posts are held, and
+ * live upserts/removes must be reflected without a rebuild.
+ */
+class CommunityPostGeoIndexTest {
+
+    private static final Set<PostStatus> OPEN_CLAIMED = EnumSet.of(PostStatus.OPEN, PostStatus.CLAIMED);
+
+    // Downtown Oakland; ~1 km, ~8 km and ~60 km away.
+    private static final double LAT = 37.8044, LNG = -122.2712;
+
+    private PostRepo repo;
+    private CommunityPostGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(PostRepo.class);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, 37.8100, -122.2650, PostStatus.OPEN});      // ~1 km
+        rows.add(new Object[]{2L, 37.8715, -122.2730, PostStatus.CLAIMED});   // ~7.5 km (Berkeley)
+        rows.add(new Object[]{3L, 37.3382, -121.8863, PostStatus.OPEN});      // ~60 km (San Jose)
+        rows.add(new Object[]{4L, null, null, PostStatus.OPEN});              // geo-less
+        rows.add(new Object[]{5L, 37.8050, -122.2700, PostStatus.DONE});      // near but closed
+        when(repo.findCommunityGeoRows(CommunityPostGeoIndex.LIVE_STATUSES)).thenReturn(rows);
+        index = new CommunityPostGeoIndex(repo);
+    }
+
+    @Test
+    void radiusQuery_returnsInRadiusAndGeolessOnly() {
+        assertThat(index.idsWithin(LAT, LNG, 10, OPEN_CLAIMED)).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(index.idsWithin(LAT, LNG, 2, OPEN_CLAIMED)).containsExactlyInAnyOrder(1L, 4L);
+    }
+
+    @Test
+    void statusFilter_isHonored() {
+        assertThat(index.idsWithin(LAT, LNG, 2, EnumSet.of(PostStatus.CLAIMED))).isEmpty();
+        assertThat(index.idsWithin(LAT, LNG, 10, EnumSet.of(PostStatus.CLAIMED))).containsExactly(2L);
+    }
+
+    @Test
+    void closedStatuses_areNotIndexed() {
+        assertThat(CommunityPostGeoIndex.covers(EnumSet.of(PostStatus.OPEN, PostStatus.DONE))).isFalse();
+        assertThatThrownBy(() -> index.idsWithin(LAT, LNG, 2, EnumSet.of(PostStatus.DONE)))
+                .isInstanceOf(IllegalArgumentException.class);
+        // A closed row that slips into the seed scan is skipped too.
+        index.idsWithin(LAT, LNG, 2, OPEN_CLAIMED);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void hugeRadius_walksPopulatedCells() {
+        assertThat(index.idsWithin(LAT, LNG, 5000, OPEN_CLAIMED)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void buildsLazilyOnce() {
+        index.idsWithin(LAT, LNG, 10, OPEN_CLAIMED);
+        index.idsWithin(LAT, LNG, 10, OPEN_CLAIMED);
+        verify(repo, times(1)).findCommunityGeoRows(CommunityPostGeoIndex.LIVE_STATUSES);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void upsert_movesPostBetweenCells_andRemoveDrops() {
+        index.idsWithin(LAT, LNG, 10, OPEN_CLAIMED);
+
+        // San Jose post edited to a downtown Oakland location.
+        index.upsert(3L, null, 37.8040, -122.2710, PostStatus.OPEN);
+        assertThat(index.idsWithin(LAT, LNG, 2, OPEN_CLAIMED)).contains(3L);
+        assertThat(index.idsWithin(37.3382, -121.8863, 5, OPEN_CLAIMED)).doesNotContain(3L);
+
+        // Completed → leaves the index entirely.
+        index.upsert(1L, null, 37.8100, -122.2650, PostStatus.DONE);
+        assertThat(index.idsWithin(LAT, LNG, 2, OPEN_CLAIMED)).doesNotContain(1L);
+        assertThat(index.size()).isEqualTo(3);
+
+        index.remove(4L);
+        assertThat(index.idsWithin(LAT, LNG, 2, OPEN_CLAIMED)).doesNotContain(4L);
+    }
+
+    @Test
+    void groupScopedUpsert_isNeverIndexed() {
+        index.upsert(9L, "grp-1", LAT, LNG, PostStatus.OPEN);
+        assertThat(index.idsWithin(LAT, LNG, 2, OPEN_CLAIMED)).doesNotContain(9L);
+    }
+
+    @Test
+    void rebuild_reconcilesAgainstRepo() {
+        index.idsWithin(LAT, LNG, 10, OPEN_CLAIMED);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{7L, 37.8045, -122.2713, PostStatus.OPEN});
+        when(repo.findCommunityGeoRows(CommunityPostGeoIndex.LIVE_STATUSES)).thenReturn(rows);
+
+        index.rebuild();
+
+        assertThat(index.idsWithin(LAT, LNG, 10, OPEN_CLAIMED)).containsExactly(7L);
+    }
+}
@@ -0,0 +1,147 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.DmMessage;
+import io.sitprep.sitprepapi.domain.DmThread;
+import io.sitprep.sitprepapi.dto.DmDtos.DmMessageDto;
+import io.sitprep.sitprepapi.dto.DmDtos.DmMessagePage;
+import io.sitprep.sitprepapi.dto.DmDtos.DmThreadDto;
+import io.sitprep.sitprepapi.repo.DmInboxRow;
+import io.sitprep.sitprepapi.repo.DmMessageRepo;
+import io.sitprep.sitprepapi.repo.DmThreadRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.repo.UserProfileCard;
+import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * DM reads: history pages by (createdAt, id) keyset and comes back oldest
+ * → newest, both reads say when a page was cut at its limit, the reconnect
+ * delta is bounded, and the inbox is built from the
+ * one-statement projection with batched peer cards.
+ */
+@ExtendWith(MockitoExtension.class)
+class DmServiceTest {
+
+    private static final String ME = "a@x.com";
+    private static final String PEER = "b@x.com";
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock DmThreadRepo threadRepo;
+    @Mock DmMessageRepo messageRepo;
+    @Mock UserInfoRepo userInfoRepo;
+    @Mock BlockService blockService;
+    @Mock WebSocketMessageSender ws;
+    @Mock NotificationService notificationService;
+    @Mock ProfileCardService profileCards;
+
+    private DmService svc() {
+        return new DmService(threadRepo, messageRepo, userInfoRepo, blockService, ws,
+                notificationService, profileCards);
+    }
+
+    private static DmThread thread() {
+        DmThread t = new DmThread();
+        t.setId(9L);
+        t.setParticipantAEmail(ME);
+        t.setParticipantBEmail(PEER);
+        return t;
+    }
+
+    private static DmMessage msg(long id, Instant at) {
+        DmMessage m = new DmMessage();
+        m.setId(id);
+        m.setThreadId(9L);
+        m.setSenderEmail(PEER);
+        m.setBody("m" + id);
+        m.setCreatedAt(at);
+        return m;
+    }
+
+    @Test
+    void messages_withCursor_usesKeyset_andReturnsOldestFirst() {
+        when(threadRepo.findById(9L)).thenReturn(Optional.of(thread()));
+        when(messageRepo.findPageBefore(eq(9L), eq(T0), eq(40L), any(Pageable.class)))
+                .thenReturn(List.of(msg(39, T0.minusSeconds(1)), msg(38, T0.minusSeconds(2))));
+
+        DmMessagePage page = svc().messages(9L, ME, T0, 40L, 1000);
+
+        assertThat(page.messages()).extracting(DmMessageDto::id).containsExactly(38L, 39L);
+        assertThat(page.hasMore()).isFalse();
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(messageRepo).findPageBefore(eq(9L), eq(T0), eq(40L), pageable.capture());
+        // Clamped to 200, plus the one probe row.
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(201);
+    }
+
+    @Test
+    void messages_fullPage_reportsMore_andDropsTheProbeRow() {
+        when(threadRepo.findById(9L)).thenReturn(Optional.of(thread()));
+        when(messageRepo.findByThreadIdOrderByCreatedAtDescIdDesc(eq(9L), any(Pageable.class)))
+                .thenReturn(List.of(msg(42, T0), msg(41, T0.minusSeconds(1)), msg(40, T0.minusSeconds(2))));
+
+        DmMessagePage page = svc().messages(9L, ME, null, null, 2);
+
+        assertThat(page.messages()).extracting(DmMessageDto::id).containsExactly(41L, 42L);
+        assertThat(page.hasMore()).isTrue();
+    }
+
+    @Test
+    void messages_nonParticipant_isForbidden() {
+        when(threadRepo.findById(9L)).thenReturn(Optional.of(thread()));
+
+        assertThatThrownBy(() -> svc().messages(9L, "c@x.com", null, null, null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Not a participant");
+    }
+
+    @Test
+    void since_defaultsAfterIdAndLimit() {
+        when(messageRepo.findForViewerSince(eq(ME), eq(T0), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(msg(41, T0.plusSeconds(1))));
+
+        DmMessagePage delta = svc().since(ME, T0, null, null);
+
+        assertThat(delta.messages()).extracting(DmMessageDto::id).containsExactly(41L);
+        assertThat(delta.hasMore()).isFalse();
+    }
+
+    @Test
+    void inbox_mapsProjection_withPeerCard() {
+        Instant read = T0.minusSeconds(60);
+        when(threadRepo.findInboxRows(ME)).thenReturn(List.of(
+                new DmInboxRow(9L, ME, PEER, read, null, 41L, PEER, "hi", T0, 3L),
+                new DmInboxRow(10L, "0@x.com", ME, null, null, null, null, null, null, 0L)));
+        when(profileCards.cardsFor(List.of(PEER, "0@x.com"))).thenReturn(Map.of(PEER,
+                new UserProfileCard("u-b", PEER, "Bea", "Bee", null, false, null, false, null, null, null)));
+
+        List<DmThreadDto> inbox = svc().inbox(ME);
+
+        assertThat(inbox).hasSize(2);
+        DmThreadDto first = inbox.get(0);
+        assertThat(first.peer().name()).isEqualTo("Bea Bee");
+        assertThat(first.lastMessage().body()).isEqualTo("hi");
+        assertThat(first.unreadCount()).isEqualTo(3L);
+        assertThat(first.lastReadAt()).isEqualTo(read);
+        DmThreadDto empty = inbox.get(1);
+        assertThat(empty.lastMessage()).isNull();
+        assertThat(empty.peer().name()).isEqualTo("0@x.com");
+    }
+}
@@ -0,0 +1,92 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.repo.GroupPostRepo;
+import io.sitprep.sitprepapi.repo.GroupPostSummaryRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Group head: two bounded summary reads per miss, shared until a post
+ * write on the group commits, and a load racing that write can't re-seed
+ * the stale head.
+ */
+@ExtendWith(MockitoExtension.class)
+class GroupHeadCacheTest {
+
+    private static final PageRequest RECENT = PageRequest.of(0, GroupHeadCache.RECENT_LIMIT);
+
+    @Mock GroupPostRepo postRepo;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private GroupHeadCache cache() {
+        return new GroupHeadCache(postRepo, new LookupCacheRegistry(), 100, "PT5M");
+    }
+
+    private static GroupPostSummaryRow row(long id, Instant pinnedAt) {
+        return new GroupPostSummaryRow(id, "grp-1", "Block 12", "a@x.com", "post " + id,
+                Instant.parse("2026-10-01T12:00:00Z").plusSeconds(id), pinnedAt, null);
+    }
+
+    @Test
+    void head_loadsBoundedRowsOnce_untilAWriteCommits() {
+        GroupPostSummaryRow pinned = row(1, Instant.parse("2026-10-02T00:00:00Z"));
+        when(postRepo.findRecentSummariesByGroupId("grp-1", RECENT)).thenReturn(List.of(row(3, null), row(2, null)));
+        when(postRepo.findPinnedSummariesByGroupId("grp-1")).thenReturn(List.of(pinned));
+        GroupHeadCache cache = cache();
+
+        GroupHeadCache.Head head = cache.head("grp-1");
+        assertThat(head.recent()).extracting(GroupPostSummaryRow::id).containsExactly(3L, 2L);
+        assertThat(head.pinned()).containsExactly(pinned);
+        assertThat(cache.head("grp-1")).isSameAs(head);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit("grp-1");
+        assertThat(cache.head("grp-1")).isSameAs(head);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.head("grp-1")).isNotSameAs(head);
+        verify(postRepo, times(2)).findRecentSummariesByGroupId("grp-1", RECENT);
+    }
+
+    @Test
+    void loadRacingACommittedWrite_isNotCached() {
+        GroupHeadCache cache = cache();
+        // The head's read predates a post that commits mid-load.
+        when(postRepo.findRecentSummariesByGroupId("grp-1", RECENT)).thenAnswer(inv -> {
+            cache.evictAfterCommit("grp-1");
+            return List.of(row(2, null));
+        });
+        when(postRepo.findPinnedSummariesByGroupId("grp-1")).thenReturn(List.of());
+
+        cache.head("grp-1");
+        cache.head("grp-1");
+
+        verify(postRepo, times(2)).findPinnedSummariesByGroupId("grp-1");
+    }
+
+    @Test
+    void blankGroup_isEmptyWithoutQuery() {
+        assertThat(cache().head(" ").recent()).isEmpty();
+    }
+}
@@ -0,0 +1,132 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.Group;
+import io.sitprep.sitprepapi.repo.GroupRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Membership index: the rebuild indexes both directions from the narrow
+ * projections, GroupService's patches land after commit, a patch racing a
+ * rebuild survives it, and lookups before the first build hit the DB.
+ */
+@ExtendWith(MockitoExtension.class)
+class GroupMembershipIndexTest {
+
+    @Mock GroupRepo groupRepo;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private GroupMembershipIndex built() {
+        when(groupRepo.findGroupTypeRows()).thenReturn(List.of(
+                new Object[]{"hh-1", "Household"},
+                new Object[]{"org-1", "Organization"}));
+        when(groupRepo.findMembershipRows()).thenReturn(List.of(
+                new Object[]{"hh-1", " A@x.com"},
+                new Object[]{"org-1", "a@x.com"},
+                new Object[]{"org-1", "b@x.com"},
+                new Object[]{"gone", "a@x.com"}));     // roster row for a group not in the first read
+        GroupMembershipIndex index = new GroupMembershipIndex(groupRepo);
+        index.rebuild();
+        return index;
+    }
+
+    private static Group group(String id, String type, String... members) {
+        Group g = new Group();
+        g.setGroupId(id);
+        g.setGroupType(type);
+        g.setMemberEmails(new ArrayList<>(List.of(members)));
+        return g;
+    }
+
+    @Test
+    void rebuild_indexesBothDirections_lowercased() {
+        GroupMembershipIndex index = built();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.groupIdsOf("A@X.com")).containsExactlyInAnyOrder("hh-1", "org-1");
+        assertThat(index.membershipsOf("a@x.com")).containsExactlyInAnyOrder(
+                new GroupMembershipIndex.Membership("hh-1", "Household"),
+                new GroupMembershipIndex.Membership("org-1", "Organization"));
+        assertThat(index.groupIdsOf("b@x.com")).containsExactly("org-1");
+        assertThat(index.groupIdsOf("nobody@x.com")).isEmpty();
+        verify(groupRepo, never()).findMembershipsByMemberEmail("a@x.com");
+    }
+
+    @Test
+    void beforeFirstBuild_fallsBackToNarrowQuery() {
+        GroupMembershipIndex index = new GroupMembershipIndex(groupRepo);
+        when(groupRepo.findMembershipsByMemberEmail("a@x.com"))
+                .thenReturn(List.<Object[]>of(new Object[]{"hh-1", "Household"}));
+
+        assertThat(index.groupIdsOf(" A@x.com ")).containsExactly("hh-1");
+        assertThat(index.isReady()).isFalse();
+    }
+
+    @Test
+    void patches_applyAfterCommit() {
+        GroupMembershipIndex index = built();
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.memberAddedAfterCommit(group("org-1", "Organization"), "C@x.com");
+        index.memberRemovedAfterCommit("org-1", "b@x.com");
+        assertThat(index.groupIdsOf("c@x.com")).isEmpty();
+        assertThat(index.groupIdsOf("b@x.com")).containsExactly("org-1");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(index.groupIdsOf("a@x.com")).containsExactlyInAnyOrder("hh-1", "org-1");
+        assertThat(index.groupIdsOf("c@x.com")).containsExactly("org-1");
+        assertThat(index.groupIdsOf("b@x.com")).isEmpty();
+    }
+
+    @Test
+    void savedRoster_replacesOldOne_andDeleteDropsGroup() {
+        GroupMembershipIndex index = built();
+
+        index.groupSavedAfterCommit(group("org-1", "Club", "b@x.com", "d@x.com"));
+
+        assertThat(index.groupIdsOf("a@x.com")).containsExactly("hh-1");
+        assertThat(index.membershipsOf("d@x.com"))
+                .containsExactly(new GroupMembershipIndex.Membership("org-1", "Club"));
+
+        index.groupDeletedAfterCommit("org-1");
+
+        assertThat(index.groupIdsOf("d@x.com")).isEmpty();
+        assertThat(index.groupIdsOf("b@x.com")).isEmpty();
+        assertThat(index.groupIdsOf("a@x.com")).containsExactly("hh-1");
+    }
+
+    @Test
+    void patchCommittedDuringRebuild_survivesTheSwap() {
+        GroupMembershipIndex index = built();
+        // The second rebuild's roster read predates a join that commits mid-load.
+        when(groupRepo.findMembershipRows()).thenAnswer(inv -> {
+            index.memberAddedAfterCommit(group("hh-1", "Household"), "late@x.com");
+            return List.<Object[]>of(new Object[]{"hh-1", "a@x.com"});
+        });
+
+        index.rebuild();
+
+        assertThat(index.groupIdsOf("a@x.com")).containsExactly("hh-1");
+        assertThat(index.groupIdsOf("late@x.com")).containsExactly("hh-1");
+    }
+}
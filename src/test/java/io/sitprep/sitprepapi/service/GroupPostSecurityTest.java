@@ -47,12 +47,14 @@ class GroupPostSecurityTest {
         userInfoRepo = mock(UserInfoRepo.class);
         groupRepo = mock(GroupRepo.class);
         service = new GroupPostService(postRepo, userInfoRepo, groupRepo,
-                mock(NotificationService.class),
+                mock(NotificationOutboxService.class),
                 mock(WebSocketMessageSender.class),
                 mock(GroupPostReactionService.class),
                 mock(GroupReadStateRepo.class),
                 mock(GroupPostThreadPresenceService.class),
-                mock(PublisherPublishAuditService.class));
+                mock(PublisherPublishAuditService.class),
+                mock(ProfileCardService.class),
+                mock(GroupHeadCache.class));
         // createPost registers an afterCommit synchronization on success.
         TransactionSynchronizationManager.initSynchronization();
     }
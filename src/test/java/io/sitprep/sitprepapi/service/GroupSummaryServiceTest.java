@@ -0,0 +1,81 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.GroupSummaryRow;
+import io.sitprep.sitprepapi.service.GroupSummaryService.ViewerMemberships;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Summary read path: viewer roles resolve from id lists with the same
+ * precedence the entity path used, member emails come back lowercased per
+ * group in stored order, and co-members exclude the viewer. Pure Mockito.
+ */
+@ExtendWith(MockitoExtension.class)
+class GroupSummaryServiceTest {
+
+    @Mock GroupRepo groupRepo;
+
+    private GroupSummaryService svc() {
+        return new GroupSummaryService(groupRepo);
+    }
+
+    private static GroupSummaryRow row(String id, String owner) {
+        return new GroupSummaryRow(id, "Group " + id, "Neighborhood", null, "public", null,
+                40.0, -111.0, null, null, owner, false, null, null, null, null, null,
+                null, null, 3);
+    }
+
+    @Test
+    void roleOf_followsOwnerAdminMemberPendingPrecedence() {
+        when(groupRepo.findGroupIdsByAdminEmail("a@x.com")).thenReturn(List.of("g2"));
+        when(groupRepo.findGroupIdsByMemberEmail("a@x.com")).thenReturn(List.of("g1", "g2", "g3"));
+        when(groupRepo.findGroupIdsByPendingMemberEmail("a@x.com")).thenReturn(List.of("g4"));
+
+        ViewerMemberships m = svc().membershipsOf(" A@x.com ");
+
+        assertThat(m.roleOf(row("g1", "A@X.com"))).isEqualTo("OWNER");
+        assertThat(m.roleOf(row("g2", "o@x.com"))).isEqualTo("ADMIN");
+        assertThat(m.roleOf(row("g3", "o@x.com"))).isEqualTo("MEMBER");
+        assertThat(m.roleOf(row("g4", "o@x.com"))).isEqualTo("PENDING");
+        assertThat(m.roleOf(row("g5", "o@x.com"))).isEqualTo("NONE");
+    }
+
+    @Test
+    void anonymousViewer_skipsQueries() {
+        ViewerMemberships m = svc().membershipsOf("  ");
+
+        assertThat(m).isSameAs(ViewerMemberships.ANONYMOUS);
+        assertThat(m.roleOf(row("g1", "o@x.com"))).isEqualTo("NONE");
+        verifyNoInteractions(groupRepo);
+    }
+
+    @Test
+    void memberEmailsOf_groupsLowercasedInStoredOrder() {
+        List<String> ids = List.of("g1", "g2");
+        when(groupRepo.findMemberEmailRows(ids)).thenReturn(List.of(
+                new Object[]{"g1", "B@x.com"},
+                new Object[]{"g1", "a@x.com"},
+                new Object[]{"g2", "c@x.com"},
+                new Object[]{"g2", null}));
+
+        assertThat(svc().memberEmailsOf(ids))
+                .containsEntry("g1", List.of("b@x.com", "a@x.com"))
+                .containsEntry("g2", List.of("c@x.com"));
+    }
+
+    @Test
+    void coMemberEmails_excludesViewer() {
+        when(groupRepo.findCoMemberEmails("a@x.com")).thenReturn(List.of("a@x.com", "b@x.com", "c@x.com"));
+
+        assertThat(svc().coMemberEmails("A@x.com")).containsExactlyInAnyOrder("b@x.com", "c@x.com");
+    }
+}
@@ -0,0 +1,67 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.UserInfo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * REAL-Postgres check that a JPA save can't rewind presence: an entity
+ * loaded before a {@link LastActivityService} flush saves cleanly without
+ * writing its older {@code last_active_at} over the flushed one. Same
+ * throwaway {@code it-pg} database and gating convention as
+ * {@link LocationIngestPostgresIT}; runs only when
+ * {@code ACTIVITY_PG_IT=true}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("it-pg")
+@EnabledIfEnvironmentVariable(named = "ACTIVITY_PG_IT", matches = "true")
+class LastActivityPostgresIT {
+
+    @Autowired UserInfoRepo userInfoRepo;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired TestEntityManager em;
+
+    @Test
+    void saveOfEntityLoadedBeforeFlush_keepsFlushedActivity() {
+        Instant before = Instant.now().minus(Duration.ofHours(1)).truncatedTo(ChronoUnit.MILLIS);
+        UserInfo u = new UserInfo();
+        u.setUserEmail("seen@x.com");
+        u.setLastActiveAt(before);
+        userInfoRepo.save(u);
+        em.flush();
+        em.clear();
+
+        // A status tap loads the row...
+        UserInfo loaded = userInfoRepo.findByUserEmailIgnoreCase("seen@x.com").orElseThrow();
+
+        // ...an activity bump flushes underneath it...
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        LastActivityService activity = new LastActivityService(jdbc, Duration.ofMinutes(5), 100, () -> now);
+        activity.touch("seen@x.com");
+        activity.flush();
+
+        // ...and the tap saves the entity it loaded first.
+        loaded.setUserStatus("SAFE");
+        userInfoRepo.save(loaded);
+        em.flush();
+        em.clear();
+
+        UserInfo stored = userInfoRepo.findByUserEmailIgnoreCase("seen@x.com").orElseThrow();
+        assertThat(stored.getUserStatus()).isEqualTo("SAFE");
+        assertThat(stored.getLastActiveAt()).isEqualTo(now);
+    }
+}
@@ -0,0 +1,86 @@
+package io.sitprep.sitprepapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Write-behind activity bumps: touches only buffer, throttled repeats are
+ * coalesced, one flush writes every buffered user in a single statement,
+ * failed flushes re-buffer, and both maps stay bounded.
+ */
+@ExtendWith(MockitoExtension.class)
+class LastActivityServiceTest {
+
+    @Mock JdbcTemplate jdbc;
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-10-01T12:00:00Z"));
+
+    private LastActivityService svc(int maxTracked) {
+        return new LastActivityService(jdbc, Duration.ofMinutes(5), maxTracked, now::get);
+    }
+
+    @Test
+    void touch_buffersOnly_andFlushWritesOneBatchedUpdate() {
+        LastActivityService service = svc(100);
+        service.touch("A@x.com");
+        service.touch("a@x.com ");
+        service.touch("b@x.com");
+        verify(jdbc, never()).update(anyString(), any(Object[].class));
+
+        service.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbc, times(1)).update(sql.capture(), args.capture());
+        assertThat(sql.getValue()).contains("FROM (VALUES (?, CAST(? AS timestamptz)), (?, CAST(? AS timestamptz)))");
+        assertThat(args.getValue()).hasSize(4).contains("a@x.com", "b@x.com");
+        assertThat(service.pendingCount()).isZero();
+
+        service.flush();
+        verify(jdbc, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void failedFlush_rebuffersForNextFlush() {
+        when(jdbc.update(anyString(), any(Object[].class))).thenThrow(new QueryTimeoutException("boom"));
+        LastActivityService service = svc(100);
+        service.touch("a@x.com");
+
+        service.flush();
+
+        assertThat(service.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void throttleEntries_arePrunedAfterWindow_andMapsAreCapped() {
+        LastActivityService service = svc(2);
+        service.touch("a@x.com");
+        service.touch("b@x.com");
+        service.touch("c@x.com");
+        assertThat(service.trackedCount()).isEqualTo(2);
+        assertThat(service.pendingCount()).isEqualTo(2);
+
+        now.set(now.get().plus(Duration.ofMinutes(6)));
+        service.flush();
+
+        assertThat(service.trackedCount()).isZero();
+        assertThat(service.pendingCount()).isZero();
+    }
+}
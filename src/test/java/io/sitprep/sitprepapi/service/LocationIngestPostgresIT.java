@@ -0,0 +1,84 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.UserInfo;
+import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * REAL-Postgres check that the write-behind location flush can't be rolled
+ * back by a JPA save. The flush's narrow UPDATE skips the {@code @Version}
+ * bump, so an entity loaded before it still saves cleanly — and must not
+ * write its stale {@code last_known_*} values over the flushed ping. Same
+ * throwaway {@code it-pg} database and gating convention as
+ * {@link AgencyJurisdictionServicePostgresIT}; runs only when
+ * {@code LOCATION_PG_IT=true}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("it-pg")
+@EnabledIfEnvironmentVariable(named = "LOCATION_PG_IT", matches = "true")
+class LocationIngestPostgresIT {
+
+    @Autowired UserInfoRepo userInfoRepo;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired TestEntityManager em;
+
+    private LocationIngestService ingest(Instant now) {
+        // Real JDBC write path; fan-out and zip resolution are out of scope.
+        return new LocationIngestService(jdbc, mock(GroupRepo.class), mock(GroupMembershipIndex.class),
+                userInfoRepo, mock(NominatimGeocodeService.class), mock(OfflineReverseGeocoder.class),
+                mock(WebSocketMessageSender.class), Duration.ofSeconds(5), 100, () -> now, r -> {});
+    }
+
+    @Test
+    void saveOfEntityLoadedBeforeFlush_keepsFlushedLocation() {
+        Instant before = Instant.now().minus(Duration.ofHours(1)).truncatedTo(ChronoUnit.MILLIS);
+        UserInfo u = new UserInfo();
+        u.setUserEmail("tap@x.com");
+        u.setLastKnownLat(40.0);
+        u.setLastKnownLng(-111.0);
+        u.setLastKnownLocationAt(before);
+        u.setLastKnownZip("84601");
+        userInfoRepo.save(u);
+        em.flush();
+        em.clear();
+
+        // A status tap loads the row...
+        UserInfo loaded = userInfoRepo.findByUserEmailIgnoreCase("tap@x.com").orElseThrow();
+
+        // ...a ping flushes underneath it...
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        LocationIngestService service = ingest(now);
+        service.ingest("tap@x.com", 40.5, -111.5);
+        service.flush();
+
+        // ...and the tap saves the entity it loaded first.
+        loaded.setUserStatus("SAFE");
+        userInfoRepo.save(loaded);
+        em.flush();
+        em.clear();
+
+        UserInfo stored = userInfoRepo.findByUserEmailIgnoreCase("tap@x.com").orElseThrow();
+        assertThat(stored.getUserStatus()).isEqualTo("SAFE");
+        assertThat(stored.getLastKnownLat()).isEqualTo(40.5);
+        assertThat(stored.getLastKnownLng()).isEqualTo(-111.5);
+        assertThat(stored.getLastKnownLocationAt()).isEqualTo(now);
+        assertThat(stored.getLastKnownZip()).isEqualTo("84601");   // kept; no offline postcode
+    }
+}
@@ -0,0 +1,196 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.dto.MemberLocationFrame;
+import io.sitprep.sitprepapi.repo.GroupRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Location ingest: pings only buffer and coalesce latest-wins, one flush
+ * writes the batch in one statement, zips resolve off the write path
+ * only when needed, and frames respect the sharing gate and the
+ * per-group burst interval.
+ */
+@ExtendWith(MockitoExtension.class)
+class LocationIngestServiceTest {
+
+    @Mock JdbcTemplate jdbc;
+    @Mock GroupRepo groupRepo;
+    @Mock GroupMembershipIndex membershipIndex;
+    @Mock UserInfoRepo userInfoRepo;
+    @Mock NominatimGeocodeService geocode;
+    @Mock OfflineReverseGeocoder offline;
+    @Mock WebSocketMessageSender ws;
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-10-01T12:00:00Z"));
+
+    private LocationIngestService svc(int maxTracked) {
+        return new LocationIngestService(jdbc, groupRepo, membershipIndex, userInfoRepo, geocode, offline, ws,
+                Duration.ofSeconds(5), maxTracked, now::get, Runnable::run);
+    }
+
+    private void persistReturns(LocationIngestService.Persisted... rows) {
+        when(jdbc.query(anyString(), ArgumentMatchers.<RowMapper<LocationIngestService.Persisted>>any(),
+                any(Object[].class))).thenReturn(List.of(rows));
+    }
+
+    private static LocationIngestService.Persisted persisted(String email, double lat, double lng,
+                                                             Double prevLat, Double prevLng, String zip) {
+        return persisted(email, lat, lng, prevLat, prevLng, zip, false);
+    }
+
+    private static LocationIngestService.Persisted persisted(String email, double lat, double lng,
+                                                             Double prevLat, Double prevLng, String zip,
+                                                             boolean zipResolved) {
+        return new LocationIngestService.Persisted(email,
+                new LocationIngestService.Ping(lat, lng, Instant.parse("2026-10-01T12:00:00Z")),
+                prevLat, prevLng, zip, zipResolved);
+    }
+
+    @Test
+    void ingest_buffersLatestPerUser_andFlushWritesOneNarrowUpdate() {
+        LocationIngestService service = svc(100);
+        service.ingest("A@x.com", 37.80, -122.27);
+        now.set(now.get().plusSeconds(1));
+        service.ingest("a@x.com ", 37.81, -122.28);
+        service.ingest("b@x.com", 37.70, -122.20);
+        verifyNoInteractions(jdbc);
+        when(offline.postcode(37.81, -122.28)).thenReturn("94612");
+        when(offline.postcode(37.70, -122.20)).thenReturn(null);
+        persistReturns();
+
+        service.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbc, times(1)).query(sql.capture(), ArgumentMatchers.<RowMapper<Object>>any(), args.capture());
+        assertThat(sql.getValue())
+                .startsWith("UPDATE user_info u SET last_known_lat = v.lat, last_known_lng = v.lng, last_known_location_at = v.ts")
+                .contains("u.last_known_location_at < v.ts")
+                .contains("last_known_zip = COALESCE(v.zip, u.last_known_zip)")
+                .doesNotContain("version");
+        assertThat(args.getValue()).hasSize(10).contains("a@x.com", 37.81, -122.28, "94612", "b@x.com");
+        assertThat(args.getValue()).doesNotContain(37.80);
+        assertThat(service.pendingCount()).isZero();
+    }
+
+    @Test
+    void invalidCoordinates_rejectedOnRequestThread_andBufferIsBounded() {
+        LocationIngestService service = svc(1);
+        assertThatThrownBy(() -> service.ingest("a@x.com", 91.0, 0.0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        service.ingest("a@x.com", 37.80, -122.27);
+        service.ingest("b@x.com", 37.80, -122.27);
+
+        assertThat(service.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedWrite_rebuffersForNextFlush() {
+        when(jdbc.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), any(Object[].class)))
+                .thenThrow(new QueryTimeoutException("boom"));
+        LocationIngestService service = svc(100);
+        service.ingest("a@x.com", 37.80, -122.27);
+
+        service.flush();
+
+        assertThat(service.pendingCount()).isEqualTo(1);
+        verify(geocode, never()).postal(anyDouble(), anyDouble());
+    }
+
+    @Test
+    void zipFallback_onlyWhenOfflineMissed_andMissingOrMovedMeaningfully() {
+        LocationIngestService service = svc(100);
+        service.ingest("a@x.com", 37.80, -122.27);
+        persistReturns(
+                persisted("a@x.com", 37.80, -122.27, 37.801, -122.271, "94612"),   // jitter: keep zip
+                persisted("b@x.com", 37.80, -122.27, null, null, null),            // first fix
+                persisted("c@x.com", 37.80, -122.27, 37.50, -122.27, "94401"),     // moved ~20 mi
+                persisted("d@x.com", 37.80, -122.27, null, null, "94612", true));  // offline answered
+        when(geocode.postal(anyDouble(), anyDouble()))
+                .thenReturn(new NominatimGeocodeService.Postal(" 94612 ", "946"));
+
+        service.flush();
+
+        verify(geocode, times(2)).postal(37.80, -122.27);
+        verify(jdbc).update(anyString(), eq("94612"), eq("b@x.com"));
+        verify(jdbc).update(anyString(), eq("94612"), eq("c@x.com"));
+        verify(jdbc, never()).update(anyString(), anyString(), eq("a@x.com"));
+    }
+
+    @Test
+    void frames_followSharingGate_andAreThrottledPerGroup() {
+        LocationIngestService service = svc(100);
+        when(userInfoRepo.findLocationSharingRows(anyCollection())).thenReturn(List.<Object[]>of(
+                new Object[]{"a@x.com", "org-1", "always"},
+                new Object[]{"b@x.com", "org-1", "never"}));
+        when(membershipIndex.membershipsOf("a@x.com")).thenReturn(List.of(
+                new GroupMembershipIndex.Membership("org-1", "Organization"),
+                new GroupMembershipIndex.Membership("hh-1", "Household"),       // check-in-only default
+                new GroupMembershipIndex.Membership("hh-2", "Household"),       // ...but no active alert
+                new GroupMembershipIndex.Membership("club", "Club")));          // never by default
+        when(membershipIndex.membershipsOf("b@x.com")).thenReturn(List.of(
+                new GroupMembershipIndex.Membership("org-1", "Organization"))); // never is absolute
+        // Only the alert-gated groups are checked live.
+        when(groupRepo.findActiveAlertGroupIds(Set.of("hh-1", "hh-2"))).thenReturn(List.of("hh-1"));
+
+        service.ingest("a@x.com", 37.80, -122.27);
+        persistReturns(persisted("a@x.com", 37.80, -122.27, 37.80, -122.27, "94612"),
+                persisted("b@x.com", 37.80, -122.27, 37.80, -122.27, "94612"));
+        service.flush();
+
+        ArgumentCaptor<String> groups = ArgumentCaptor.forClass(String.class);
+        verify(ws, times(2)).sendGroupMemberLocation(groups.capture(), any(MemberLocationFrame.class));
+        assertThat(groups.getAllValues()).containsExactlyInAnyOrder("org-1", "hh-1");
+
+        // A second move inside the burst interval is held, then sent once the interval passes.
+        service.ingest("a@x.com", 37.81, -122.27);
+        now.set(now.get().plusSeconds(2));
+        service.flush();
+        verify(ws, times(2)).sendGroupMemberLocation(anyString(), any());
+        assertThat(service.heldGroupCount()).isEqualTo(2);
+
+        now.set(now.get().plusSeconds(5));
+        service.flush();
+        verify(ws, times(4)).sendGroupMemberLocation(anyString(), any());
+        assertThat(service.heldGroupCount()).isZero();
+    }
+
+    @Test
+    void shareGate_matchesGroupViewDefaults() {
+        assertThat(LocationIngestService.shouldShareLocation(null, "h", "Household", false)).isFalse();
+        assertThat(LocationIngestService.shouldShareLocation(null, "h", "Household", true)).isTrue();
+        assertThat(LocationIngestService.shouldShareLocation(Map.of("g", "always"), "g", "Club", false)).isTrue();
+        assertThat(LocationIngestService.shouldShareLocation(Map.of("g", "bogus"), "g", "Club", true)).isFalse();
+    }
+}
@@ -0,0 +1,161 @@
+package io.sitprep.sitprepapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * /me hydration contract: sections overlap instead of adding up, a slow
+ * or failing section degrades to its fallback and lands in the degraded
+ * list, the permit bound caps concurrent sections without eating their
+ * deadlines, and timings are kept per section.
+ */
+class MeHydratorTest {
+
+    private final MeSubfetchService subfetch = mock(MeSubfetchService.class);
+
+    {
+        when(subfetch.runReadOnly(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+    }
+
+    @AfterEach
+    void clearContext() {
+        MeBuildContext.drain();
+    }
+
+    private static <T> Supplier<T> sleeping(long ms, T value) {
+        return () -> {
+            try {
+                Thread.sleep(ms);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return value;
+        };
+    }
+
+    @Test
+    void sections_runConcurrently() {
+        MeHydrator h = new MeHydrator(subfetch, 4, Duration.ofSeconds(5));
+        MeBuildContext.begin();
+
+        long started = System.nanoTime();
+        List<MeHydrator.Section<String>> sections = new ArrayList<>();
+        for (int i = 0; i < 4; i++) sections.add(h.fork("s" + i, "test", sleeping(200, "v" + i), null));
+        List<String> values = sections.stream().map(MeHydrator.Section::join).toList();
+        long tookMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(values).containsExactly("v0", "v1", "v2", "v3");
+        assertThat(tookMs).isLessThan(600);
+        assertThat(MeBuildContext.drain()).isEmpty();
+    }
+
+    @Test
+    void missedDeadline_degradesToFallback() {
+        MeHydrator h = new MeHydrator(subfetch, 4, Duration.ofMillis(100));
+        MeBuildContext.begin();
+
+        MeHydrator.Section<String> slow = h.fork("slow", "test", sleeping(2_000, "late"), "fallback");
+        MeHydrator.Section<String> fast = h.fork("fast", "test", () -> "ok", "fallback");
+
+        assertThat(slow.join()).isEqualTo("fallback");
+        assertThat(fast.join()).isEqualTo("ok");
+        assertThat(MeBuildContext.drain()).containsExactly("slow");
+        assertThat(h.stats().sections()).anySatisfy(s -> {
+            assertThat(s.section()).isEqualTo("slow");
+            assertThat(s.timeouts()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void failureAndNull_degradeLikeSafeGet() {
+        MeHydrator h = new MeHydrator(subfetch, 4, Duration.ofSeconds(5));
+        MeBuildContext.begin();
+
+        MeHydrator.Section<List<String>> boom = h.fork("boom", "test",
+                () -> { throw new IllegalStateException("bad row"); }, List.of());
+        MeHydrator.Section<List<String>> empty = h.fork("empty", "test", () -> null, List.of("fb"));
+
+        assertThat(boom.join()).isEmpty();
+        assertThat(empty.join()).containsExactly("fb");
+        // Null is a legitimate "nothing there", not a failure.
+        assertThat(MeBuildContext.drain()).containsExactly("boom");
+    }
+
+    @Test
+    void permits_boundConcurrentSections() {
+        MeHydrator h = new MeHydrator(subfetch, 2, Duration.ofSeconds(5));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Supplier<Integer> tracked = () -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            running.decrementAndGet();
+            return 1;
+        };
+
+        List<MeHydrator.Section<Integer>> sections = new ArrayList<>();
+        for (int i = 0; i < 8; i++) sections.add(h.fork("t", "test", tracked, 0));
+        int sum = sections.stream().mapToInt(MeHydrator.Section::join).sum();
+
+        assertThat(sum).isEqualTo(8);
+        assertThat(peak.get()).isLessThanOrEqualTo(2);
+        assertThat(h.stats().permitsAvailable()).isEqualTo(2);
+        assertThat(h.stats().sections()).singleElement()
+                .satisfies(s -> assertThat(s.calls()).isEqualTo(8));
+    }
+
+    @Test
+    void deadline_startsWhenThePermitIsAcquired() {
+        // One permit: the second section queues ~100ms behind the first,
+        // which would blow a 150ms budget if the queue counted against it.
+        MeHydrator h = new MeHydrator(subfetch, 1, Duration.ofMillis(150), Duration.ofSeconds(5));
+        MeBuildContext.begin();
+
+        MeHydrator.Section<String> first = h.fork("first", "test", sleeping(100, "a"), "fallback");
+        MeHydrator.Section<String> second = h.fork("second", "test", sleeping(100, "b"), "fallback");
+
+        assertThat(first.join()).isEqualTo("a");
+        assertThat(second.join()).isEqualTo("b");
+        assertThat(MeBuildContext.drain()).isEmpty();
+    }
+
+    @Test
+    void noPermitWithinBound_degradesWithoutRunningTheQuery() {
+        MeHydrator h = new MeHydrator(subfetch, 1, Duration.ofSeconds(5), Duration.ofMillis(50));
+        MeBuildContext.begin();
+        AtomicInteger ran = new AtomicInteger();
+
+        MeHydrator.Section<String> hog = h.fork("hog", "test", sleeping(300, "a"), "fallback");
+        MeHydrator.Section<String> queued = h.fork("queued", "test",
+                () -> { ran.incrementAndGet(); return "b"; }, "fallback");
+
+        assertThat(queued.join()).isEqualTo("fallback");
+        assertThat(hog.join()).isEqualTo("a");
+        assertThat(ran.get()).isZero();
+        assertThat(MeBuildContext.drain()).containsExactly("queued");
+        assertThat(h.stats().sections()).anySatisfy(s -> {
+            assertThat(s.section()).isEqualTo("queued");
+            assertThat(s.timeouts()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void completedSection_needsNoThread() {
+        assertThat(MeHydrator.Section.completed("x").join()).isEqualTo("x");
+    }
+}
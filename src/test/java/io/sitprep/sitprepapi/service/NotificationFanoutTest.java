@@ -0,0 +1,119 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.domain.NotificationLog;
+import io.sitprep.sitprepapi.domain.UserInfo;
+import io.sitprep.sitprepapi.repo.NotificationLogRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.service.GroupMuteService.Suppression;
+import io.sitprep.sitprepapi.service.NotificationService.FanoutReport;
+import io.sitprep.sitprepapi.service.NotificationService.GroupFanout;
+import io.sitprep.sitprepapi.service.PushPolicyService.Category;
+import io.sitprep.sitprepapi.service.PushPolicyService.Lane;
+import io.sitprep.sitprepapi.websocket.WebSocketMessageSender;
+import io.sitprep.sitprepapi.websocket.WebSocketPresenceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batched group fan-out: one policy lookup and one mute lookup for the
+ * whole recipient list, one batch log write, and the same per-recipient
+ * outcome as the single-recipient path (suppressed → Lane B row, DROP →
+ * nothing, Lane B → silent row, no token → "No token" row). No recipient
+ * here has a token, so nothing reaches FCM.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationFanoutTest {
+
+    @Mock WebSocketMessageSender webSocketMessageSender;
+    @Mock UserInfoRepo userInfoRepo;
+    @Mock NotificationLogRepo notificationLogRepo;
+    @Mock WebSocketPresenceService presenceService;
+    @Mock PushPolicyService pushPolicyService;
+    @Mock GroupMuteService groupMuteService;
+    @Mock NotificationLogBatchWriter logBatchWriter;
+
+    private NotificationService svc() {
+        return new NotificationService(webSocketMessageSender, userInfoRepo, notificationLogRepo,
+                presenceService, pushPolicyService, groupMuteService, logBatchWriter);
+    }
+
+    private static UserInfo user(String email) {
+        UserInfo u = new UserInfo();
+        u.setUserEmail(email);
+        return u;
+    }
+
+    private static GroupFanout fanout(String muteGroupId) {
+        return new GroupFanout("check_in_request", Category.CHECK_IN_REQUEST, "Home", "Check in",
+                "Dana", null, "g1", "/status-now", null, "actor-1", muteGroupId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fanOut_batchesPolicyMuteAndLogWrites() {
+        when(groupMuteService.suppressions(any(), eq("g1")))
+                .thenReturn(Map.of("muted@x.com", Suppression.MUTED));
+        when(pushPolicyService.evaluateAll(any(), eq(Category.CHECK_IN_REQUEST), any()))
+                .thenReturn(Map.of("quiet@x.com", Lane.B, "optout@x.com", Lane.DROP, "notoken@x.com", Lane.A));
+
+        List<UserInfo> recipients = List.of(user("Dana@x.com"), user("Muted@x.com"), user("quiet@x.com"),
+                user("optout@x.com"), user("notoken@x.com"), user("NOTOKEN@x.com"));
+
+        FanoutReport report = svc().fanOut(fanout("g1"), recipients, "dana@x.com");
+
+        ArgumentCaptor<Collection<String>> evaluated = ArgumentCaptor.forClass(Collection.class);
+        verify(pushPolicyService).evaluateAll(evaluated.capture(), eq(Category.CHECK_IN_REQUEST), any());
+        assertThat(evaluated.getValue()).containsExactly("quiet@x.com", "optout@x.com", "notoken@x.com");
+        verify(pushPolicyService, never()).evaluate(anyString(), any(), any());
+        verify(groupMuteService, never()).isMuted(anyString(), anyString());
+
+        ArgumentCaptor<List<NotificationLog>> rows = ArgumentCaptor.forClass(List.class);
+        verify(logBatchWriter).insertAll(rows.capture());
+        assertThat(rows.getValue())
+                .extracting(NotificationLog::getRecipientEmail, NotificationLog::getLane,
+                        NotificationLog::getErrorMessage)
+                .containsExactly(
+                        tuple("Muted@x.com", "B", "Muted by recipient (group=g1)"),
+                        tuple("quiet@x.com", "B", "Lane B (silent inbox)"),
+                        tuple("notoken@x.com", "A", "No token"));
+        assertThat(rows.getValue()).allSatisfy(r -> {
+            assertThat(r.getActorUserId()).isEqualTo("actor-1");
+            assertThat(r.getCategory()).isEqualTo("CHECK_IN_REQUEST");
+        });
+
+        assertThat(report.recipients()).isEqualTo(4);
+        assertThat(report.suppressed()).isEqualTo(1);
+        assertThat(report.inboxOnly()).isEqualTo(1);
+        assertThat(report.dropped()).isEqualTo(1);
+        assertThat(report.noToken()).isEqualTo(1);
+        assertThat(report.pushed()).isZero();
+    }
+
+    @Test
+    void fanOut_withoutMuteGroup_skipsMuteLookup() {
+        when(pushPolicyService.evaluateAll(any(), any(), any())).thenReturn(Map.of("a@x.com", Lane.B));
+        NotificationService service = svc();
+
+        service.fanOut(fanout(null), List.of(user("a@x.com")), null);
+
+        verify(groupMuteService, never()).suppressions(any(), any());
+        assertThat(service.fanoutStats().fanouts()).isEqualTo(1);
+        assertThat(service.fanoutStats().last().inboxOnly()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,145 @@
+package io.sitprep.sitprepapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sitprep.sitprepapi.domain.NotificationOutbox;
+import io.sitprep.sitprepapi.domain.UserInfo;
+import io.sitprep.sitprepapi.repo.NotificationOutboxRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.service.NotificationService.GroupFanout;
+import io.sitprep.sitprepapi.service.NotificationService.PushTarget;
+import io.sitprep.sitprepapi.service.PushPolicyService.Category;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Outbox delivery: the first attempt runs the full fan-out and keeps only
+ * transiently-failed tokens for the next attempt; retries re-send just
+ * those; the last attempt logs what still fails and the row is deleted.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxServiceTest {
+
+    @Mock NotificationOutboxRepo repo;
+    @Mock NotificationService notificationService;
+    @Mock UserInfoRepo userInfoRepo;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private NotificationOutboxService svc;
+
+    private static final GroupFanout FANOUT = new GroupFanout("plan_activation",
+            Category.PLAN_ACTIVATION_RECEIVED, "Plan activated", "Open it", "Dana", null, "act-1",
+            "/deployedplan?activationId=act-1", null, null, null);
+
+    private NotificationOutboxService svc() {
+        svc = new NotificationOutboxService(repo, notificationService, userInfoRepo, mapper,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new NotificationOutboxService.Settings(1, 10, 3, Duration.ofSeconds(10),
+                        Duration.ofMinutes(1), Duration.ofMinutes(5)));
+        return svc;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (svc != null) svc.shutdown();
+    }
+
+    private NotificationOutbox row(int attempts, NotificationOutboxService.Envelope env) throws Exception {
+        NotificationOutbox row = new NotificationOutbox();
+        row.setId(7L);
+        row.setNotificationType(FANOUT.notificationType());
+        row.setStatus(NotificationOutbox.DELIVERING);
+        row.setAttempts(attempts);
+        row.setCreatedAt(Instant.now().minusSeconds(3));
+        row.setPayload(mapper.writeValueAsString(env));
+        return row;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void firstAttempt_reschedulesOnlyTransientlyFailedTokens() throws Exception {
+        UserInfo kid = new UserInfo();
+        kid.setUserEmail("kid@x.com");
+        when(userInfoRepo.findByUserEmailIn(List.of("kid@x.com", "spouse@x.com"))).thenReturn(List.of(kid));
+        doAnswer(inv -> {
+            ((List<PushTarget>) inv.getArgument(3)).add(new PushTarget("kid@x.com", "tok-kid"));
+            return null;
+        }).when(notificationService).fanOut(eq(FANOUT), eq(List.of(kid)), eq("owner@x.com"), any());
+        NotificationOutboxService service = svc();
+
+        NotificationOutbox row = row(1, new NotificationOutboxService.Envelope(FANOUT,
+                List.of("kid@x.com", "spouse@x.com"), "owner@x.com", null));
+        Instant before = Instant.now();
+        service.deliver(row);
+
+        ArgumentCaptor<NotificationOutbox> saved = ArgumentCaptor.forClass(NotificationOutbox.class);
+        verify(repo).save(saved.capture());
+        verify(repo, never()).deleteById(any());
+        NotificationOutbox next = saved.getValue();
+        assertThat(next.getStatus()).isEqualTo(NotificationOutbox.PENDING);
+        assertThat(next.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(10));
+        NotificationOutboxService.Envelope env = mapper.readValue(next.getPayload(),
+                NotificationOutboxService.Envelope.class);
+        assertThat(env.retry()).containsExactly(new PushTarget("kid@x.com", "tok-kid"));
+        assertThat(env.fanout()).isEqualTo(FANOUT);
+        assertThat(service.stats().retried()).isEqualTo(1);
+    }
+
+    @Test
+    void finalAttempt_retriesWithoutDeferral_andDeletesRow() throws Exception {
+        NotificationOutboxService service = svc();
+        List<PushTarget> owed = List.of(new PushTarget("kid@x.com", "tok-kid"));
+
+        service.deliver(row(3, new NotificationOutboxService.Envelope(FANOUT, List.of(), null, owed)));
+
+        verify(notificationService).retryPushes(eq(FANOUT), eq(owed), isNull());
+        verify(notificationService, never()).fanOut(any(), any(), anyString(), any());
+        verify(repo).deleteById(7L);
+        assertThat(service.stats().delivered()).isEqualTo(1);
+        assertThat(service.stats().maxLagMs()).isGreaterThanOrEqualTo(3_000);
+    }
+
+    @Test
+    void undecodablePayload_isKeptAsFailedAfterLastAttempt() {
+        NotificationOutboxService service = svc();
+        NotificationOutbox row = new NotificationOutbox();
+        row.setId(9L);
+        row.setAttempts(3);
+        row.setCreatedAt(Instant.now());
+        row.setPayload("{not json");
+
+        service.deliver(row);
+
+        assertThat(row.getStatus()).isEqualTo(NotificationOutbox.FAILED);
+        verify(repo).save(row);
+        assertThat(service.stats().deadLettered()).isEqualTo(1);
+    }
+
+    @Test
+    void backoff_doublesAndCaps() {
+        NotificationOutboxService service = svc();
+        assertThat(service.backoff(1)).isBetween(Duration.ofSeconds(10), Duration.ofSeconds(12));
+        assertThat(service.backoff(2)).isBetween(Duration.ofSeconds(20), Duration.ofSeconds(24));
+        assertThat(service.backoff(30)).isBetween(Duration.ofMinutes(1), Duration.ofSeconds(72));
+    }
+}
@@ -0,0 +1,96 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.util.GeoUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Offline reverse geocoder: the k-d tree returns the same nearest point a
+ * brute-force scan does, the distance cutoff and malformed rows are
+ * honored, and a missing dataset degrades to "no answer".
+ */
+class OfflineReverseGeocoderTest {
+
+    /** Synthetic points over the lower 48; not real ZCTA locations. */
+    private static String syntheticRows(int n, Random rnd, double[][] out) {
+        StringBuilder sb = new StringBuilder("# zip\tstate\tlat\tlng\n");
+        for (int i = 0; i < n; i++) {
+            double lat = 25 + rnd.nextDouble() * 24;
+            double lng = -124 + rnd.nextDouble() * 57;
+            out[i] = new double[]{(float) lat, (float) lng};
+            sb.append(String.format(Locale.ROOT, "%05d\t%s\t%.5f\t%.5f%n", i, i % 2 == 0 ? "CA" : "NV", lat, lng));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void nearest_matchesBruteForce() {
+        Random rnd = new Random(42);
+        int n = 5_000;
+        double[][] pts = new double[n][];
+        OfflineReverseGeocoder geo = new OfflineReverseGeocoder(new StringReader(syntheticRows(n, rnd, pts)), 10_000);
+        assertThat(geo.size()).isEqualTo(n);
+
+        for (int q = 0; q < 500; q++) {
+            double lat = 25 + rnd.nextDouble() * 24;
+            double lng = -124 + rnd.nextDouble() * 57;
+            double bestKm = Double.MAX_VALUE;
+            for (double[] p : pts) bestKm = Math.min(bestKm, GeoUtil.haversineKm(lat, lng, p[0], p[1]));
+
+            OfflineReverseGeocoder.Hit hit = geo.nearest(lat, lng);
+
+            // Exact up to float rounding of the stored unit vectors (well under a meter).
+            assertThat(hit).isNotNull();
+            assertThat(hit.distanceKm()).isCloseTo(bestKm, within(0.005));
+        }
+    }
+
+    @Test
+    void hit_carriesPaddedPostcodeBucketAndState() {
+        OfflineReverseGeocoder geo = new OfflineReverseGeocoder(new StringReader(
+                "94612\tca\t37.8110\t-122.2680\n00601\tPR\t18.1800\t-66.7500\n"), 40);
+
+        OfflineReverseGeocoder.Hit oakland = geo.nearest(37.8044, -122.2712);
+        OfflineReverseGeocoder.Hit pr = geo.nearest(18.20, -66.70);
+
+        assertThat(oakland.postcode()).isEqualTo("94612");
+        assertThat(oakland.zipBucket()).isEqualTo("946");
+        assertThat(oakland.state()).isEqualTo("CA");
+        assertThat(pr.postcode()).isEqualTo("00601");
+        assertThat(geo.state(18.20, -66.70)).isEqualTo("PR");
+    }
+
+    @Test
+    void farFromEveryCentroid_orInvalidInput_returnsNull() {
+        OfflineReverseGeocoder geo = new OfflineReverseGeocoder(new StringReader(
+                "94612\tCA\t37.8110\t-122.2680\n"), 40);
+
+        assertThat(geo.nearest(36.0, -126.0)).isNull();      // Pacific, ~250 km out
+        assertThat(geo.nearest(null, -122.0)).isNull();
+        assertThat(geo.nearest(95.0, -122.0)).isNull();
+
+        // Invalid input isn't a lookup; the offshore miss is.
+        assertThat(geo.stats().lookups()).isEqualTo(1);
+        assertThat(geo.stats().resolved()).isZero();
+    }
+
+    @Test
+    void malformedRowsSkipped_andMissingDatasetIsUnavailable() {
+        OfflineReverseGeocoder geo = new OfflineReverseGeocoder(new StringReader(
+                "94612\tCA\t37.8110\t-122.2680\nnot-a-zip\tCA\t1\t2\n94105\tCAL\t37.79\t-122.39\n"
+                        + "94103\tCA\t137.0\t-122.41\n94110\tCA\n"), 40);
+        assertThat(geo.size()).isEqualTo(1);
+
+        OfflineReverseGeocoder missing = new OfflineReverseGeocoder("geo/does-not-exist.tsv.gz", 40);
+        assertThat(missing.available()).isFalse();
+        assertThat(missing.postcode(37.8, -122.27)).isNull();
+        assertThat(missing.stats()).isEqualTo(
+                new OfflineReverseGeocoder.Stats(false, "geo/does-not-exist.tsv.gz", 0, 1, 0));
+    }
+}
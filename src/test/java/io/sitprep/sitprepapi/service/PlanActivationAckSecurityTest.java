@@ -60,7 +60,7 @@ class PlanActivationAckSecurityTest {
                 mock(MeetingPlaceRepo.class), mock(EvacuationPlanRepo.class),
                 mock(OriginLocationRepo.class), emergencyContactGroupRepo,
                 emergencyContactRepo, mock(WebSocketMessageSender.class),
-                mock(GroupRepo.class), mock(NotificationService.class),
+                mock(GroupRepo.class), mock(NotificationOutboxService.class),
                 mock(HouseholdAccessService.class),
                 mock(HouseholdResolver.class), mock(GoBagService.class));
         TransactionSynchronizationManager.initSynchronization();
@@ -48,7 +48,7 @@ class PlanActivationMapServiceTest {
     private EmergencyContactRepo emergencyContactRepo;
     private WebSocketMessageSender ws;
     private GroupRepo groupRepo;
-    private NotificationService notificationService;
+    private NotificationOutboxService notificationOutbox;
     private HouseholdAccessService householdAccess;
     private PlanActivationService service;
 
@@ -67,12 +67,12 @@ class PlanActivationMapServiceTest {
         emergencyContactRepo = mock(EmergencyContactRepo.class);
         ws = mock(WebSocketMessageSender.class);
         groupRepo = mock(GroupRepo.class);
-        notificationService = mock(NotificationService.class);
+        notificationOutbox = mock(NotificationOutboxService.class);
         householdAccess = mock(HouseholdAccessService.class);
         service = new PlanActivationService(activationRepo, ackRepo, userInfoRepo,
                 meetingPlaceRepo, evacuationPlanRepo, originLocationRepo,
                 emergencyContactGroupRepo, emergencyContactRepo, ws, groupRepo,
-                notificationService, householdAccess,
+                notificationOutbox, householdAccess,
                 mock(HouseholdResolver.class), mock(GoBagService.class));
         // createActivation registers an afterCommit synchronization; activate one
         // so the success path doesn't throw "synchronization not active".
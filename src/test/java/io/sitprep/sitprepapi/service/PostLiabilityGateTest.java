@@ -64,7 +64,10 @@ class PostLiabilityGateTest {
                 mock(io.sitprep.sitprepapi.repo.TaskAssigneeRepo.class),
                 mock(TaskAssignmentService.class),
                 mock(AgencyJurisdictionService.class),
-                mock(CivicAgencyService.class));
+                mock(CivicAgencyService.class),
+                mock(CommunityPostGeoIndex.class),
+                mock(ProfileCardService.class),
+                mock(CommunityFeedCache.class));
         // refetchAndBroadcast registers an afterCommit synchronization on the
         // successful transition path — same pattern as GroupPostSecurityTest.
         TransactionSynchronizationManager.initSynchronization();
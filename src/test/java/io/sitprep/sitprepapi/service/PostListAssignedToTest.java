@@ -76,7 +76,10 @@ class PostListAssignedToTest {
                 assigneeRepo,
                 mock(TaskAssignmentService.class),
                 mock(AgencyJurisdictionService.class),
-                mock(CivicAgencyService.class));
+                mock(CivicAgencyService.class),
+                mock(CommunityPostGeoIndex.class),
+                mock(ProfileCardService.class),
+                mock(CommunityFeedCache.class));
         // withEngagement dereferences the reaction summaries — hand it real empties
         // (a mock would default them to null → NPE inside the fold).
         when(reactionService.loadThankSummary(any(), any()))
@@ -90,7 +90,10 @@ class PostProjectBundlesTest {
                 mock(TaskAssigneeRepo.class),
                 mock(TaskAssignmentService.class),
                 mock(AgencyJurisdictionService.class),
-                mock(CivicAgencyService.class));
+                mock(CivicAgencyService.class),
+                mock(CommunityPostGeoIndex.class),
+                mock(ProfileCardService.class),
+                mock(CommunityFeedCache.class));
         // Any fold that reaches withEngagement needs real (empty) reaction summaries
         // — a mock defaults them to null → NPE. Harmless when the path doesn't use them.
         when(reactionService.loadThankSummary(any(), any()))
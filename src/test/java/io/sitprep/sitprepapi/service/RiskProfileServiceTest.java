@@ -33,9 +33,10 @@ class RiskProfileServiceTest {
     @Mock UserSavedLocationService savedLocationService;
     @Mock UserInfoRepo userInfoRepo;
     @Mock AlertIngestService alertIngestService;
+    @Mock OfflineReverseGeocoder offlineGeocoder;
 
     private RiskProfileService service() {
-        return new RiskProfileService(savedLocationService, userInfoRepo, alertIngestService);
+        return new RiskProfileService(savedLocationService, userInfoRepo, alertIngestService, offlineGeocoder);
     }
 
     private static Group group(String zip) {
@@ -78,6 +79,20 @@ class RiskProfileServiceTest {
         assertThat(p.riskAdjustedRequirements().get(0).hazard()).isEqualTo("earthquake");
     }
 
+    @Test
+    void savedHome_withOnlyCoordinates_resolvesStateOffline() {
+        UserSavedLocation home = savedHome(null, null);
+        home.setLatitude(37.80);
+        home.setLongitude(-122.27);
+        when(savedLocationService.homeFor("owner@x.com")).thenReturn(Optional.of(home));
+        when(offlineGeocoder.state(37.80, -122.27)).thenReturn("CA");
+
+        RiskProfileDto p = service().resolveFor(group("33101"));
+
+        assertThat(p.locationBasis()).isEqualTo("saved_home");
+        assertThat(p.geoKey()).isEqualTo("CA");
+    }
+
     // --- Live active-alert upgrade -------------------------------------
 
     @Test
@@ -0,0 +1,118 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.repo.AskQuestionRepo;
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.util.FullTextQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * REAL-Postgres timing of the V61 search paths over 100k seeded rows:
+ * ranked Ask search ({@code search_tsv} GIN), the per-page
+ * {@code ts_headline} pass, and user typeahead (trigram GIN). Prints
+ * p50/p95 per query; the assertions only check that results come back
+ * in rank order, not absolute latency.
+ *
+ * <p><b>Runs only when {@code SEARCH_PG_BENCH=true}</b>, against the same
+ * throwaway {@code it-pg} database as {@link AgencyJurisdictionServicePostgresIT}
+ * (schema replayed from the real migrations, V61 included). Seeding happens
+ * inside the test transaction and rolls back.</p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("it-pg")
+@EnabledIfEnvironmentVariable(named = "SEARCH_PG_BENCH", matches = "true")
+class SearchPostgresBenchmarkIT {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP = 20;
+    private static final int RUNS = 200;
+
+    @Autowired AskQuestionRepo questionRepo;
+    @Autowired UserInfoRepo userInfoRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("""
+                INSERT INTO ask_question (author_email, title, body, vote_score, view_count,
+                                          answer_count, created_at, updated_at)
+                SELECT 'bench' || g || '@x.com',
+                       (ARRAY['Generator safety','Boil water notice','Wildfire evacuation',
+                              'Flood insurance','Power outage food'])[1 + g % 5] || ' #' || g,
+                       'How should we handle ' ||
+                       (ARRAY['carbon monoxide from a generator','tap water after a main break',
+                              'smoke and evacuation routes','basement flooding','a freezer without power'])[1 + g % 5]
+                       || '? Neighbors in block ' || (g % 997) || ' are asking.',
+                       g % 50, 0, 0, now() - (g % 365) * interval '1 day', now()
+                  FROM generate_series(1, ?) g
+                """, ROWS);
+        jdbc.update("""
+                INSERT INTO user_info (user_id, user_first_name, user_last_name, user_email,
+                                       verified_publisher, verified_publisher_emergency_posting_enabled,
+                                       searchable)
+                SELECT 'bench-' || g,
+                       (ARRAY['Ann','Andre','Bea','Carlos','Dana','Eli','Fatima','Gus'])[1 + g % 8],
+                       (ARRAY['Lee','Martinez','Nguyen','Okafor','Patel','Quinn'])[1 + g % 6] || g,
+                       'bench-user' || g || '@x.com', false, false, g % 3 <> 0
+                  FROM generate_series(1, ?) g
+                """, ROWS);
+        jdbc.execute("ANALYZE ask_question");
+        jdbc.execute("ANALYZE user_info");
+    }
+
+    @Test
+    void rankedAskSearch() {
+        String tsq = FullTextQuery.toPrefixTsQuery("generator carb");
+        List<String> hazards = List.of("");
+
+        List<Object[]> rows = time("ask searchRanked", () -> questionRepo.searchRanked(tsq, hazards, 60));
+
+        assertThat(rows).hasSize(60);
+        for (int i = 1; i < rows.size(); i++) {
+            assertThat(((Number) rows.get(i - 1)[1]).doubleValue())
+                    .isGreaterThanOrEqualTo(((Number) rows.get(i)[1]).doubleValue());
+        }
+
+        List<Long> ids = rows.stream().limit(20).map(r -> ((Number) r[0]).longValue()).toList();
+        List<Object[]> heads = time("ask headlines(20)",
+                () -> questionRepo.headlines(tsq, FullTextQuery.HEADLINE_OPTIONS, ids));
+        assertThat(heads).hasSize(20);
+    }
+
+    @Test
+    void userTypeahead() {
+        List<?> hits = time("user searchUsers",
+                () -> userInfoRepo.searchUsers("bea nguyen1", "viewer@x.com", PageRequest.of(0, 10)));
+
+        assertThat(hits).isNotEmpty();
+    }
+
+    private static <T> T time(String label, Supplier<T> query) {
+        T result = null;
+        for (int i = 0; i < WARMUP; i++) result = query.get();
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long t0 = System.nanoTime();
+            result = query.get();
+            nanos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-20s rows=%d p50=%.2fms p95=%.2fms%n", label, ROWS,
+                nanos[RUNS / 2] / 1e6, nanos[(int) (RUNS * 0.95)] / 1e6);
+        return result;
+    }
+}
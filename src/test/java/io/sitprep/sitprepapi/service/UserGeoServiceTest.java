@@ -0,0 +1,88 @@
+package io.sitprep.sitprepapi.service;
+
+import io.sitprep.sitprepapi.repo.UserInfoRepo;
+import io.sitprep.sitprepapi.service.NotificationService.PushTarget;
+import io.sitprep.sitprepapi.util.AlertGeometry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Severe-alert recipient stage: only users inside the warned area (or the
+ * point radius) qualify, results come back nearest-first, and the cap
+ * drops the farthest matches rather than whichever rows came last.
+ */
+class UserGeoServiceTest {
+
+    // 1° x 1° warning box centred on (35.5, -97.5).
+    private static final AlertGeometry BOX = AlertGeometry.compile(Map.of("type", "Polygon",
+            "coordinates", List.of(List.of(
+                    List.of(-98.0, 35.0), List.of(-97.0, 35.0), List.of(-97.0, 36.0),
+                    List.of(-98.0, 36.0), List.of(-98.0, 35.0)))));
+
+    private final UserInfoRepo repo = mock(UserInfoRepo.class);
+    private final UserGeoService service = new UserGeoService(repo);
+
+    private void rows(AtomicBoolean closed, Object[]... rows) {
+        when(repo.streamPushableLocationsInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(Stream.of(rows).onClose(() -> closed.set(true)));
+    }
+
+    private static List<String> emails(UserGeoService.RankedPushables r) {
+        return r.nearestFirst().stream().map(PushTarget::email).toList();
+    }
+
+    @Test
+    void polygon_keepsInsideOnly_nearestCentreFirst() {
+        AtomicBoolean closed = new AtomicBoolean();
+        rows(closed,
+                new Object[]{"edge@x.com", "t1", 35.05, -97.95},
+                new Object[]{"outside@x.com", "t2", 36.2, -97.5},
+                new Object[]{"centre@x.com", "t3", 35.5, -97.5},
+                new Object[]{"mid@x.com", "t4", 35.3, -97.3});
+
+        UserGeoService.RankedPushables r = service.nearestPushables(BOX, 0.0, 10);
+
+        assertThat(emails(r)).containsExactly("centre@x.com", "mid@x.com", "edge@x.com");
+        assertThat(r.matched()).isEqualTo(3);
+        assertThat(r.nearestFirst().get(0).fcmToken()).isEqualTo("t3");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void cap_dropsFarthestRegardlessOfRowOrder() {
+        List<Object[]> many = new ArrayList<>();
+        // Farthest rows first so a "stop at cap" scan would keep the wrong ones.
+        for (int i = 9; i >= 0; i--) {
+            many.add(new Object[]{"u" + i + "@x.com", "t" + i, 35.5 + i * 0.04, -97.5});
+        }
+        rows(new AtomicBoolean(), many.toArray(new Object[0][]));
+
+        UserGeoService.RankedPushables r = service.nearestPushables(BOX, 0.0, 3);
+
+        assertThat(emails(r)).containsExactly("u0@x.com", "u1@x.com", "u2@x.com");
+        assertThat(r.matched()).isEqualTo(10);
+    }
+
+    @Test
+    void pointAlert_usesBufferRadius() {
+        AlertGeometry quake = AlertGeometry.compile(Map.of("type", "Point",
+                "coordinates", List.of(-117.3, 33.0)));
+        rows(new AtomicBoolean(),
+                new Object[]{"near@x.com", "t1", 33.3, -117.3},   // ~33 km
+                new Object[]{"far@x.com", "t2", 34.0, -117.3});   // ~111 km
+
+        UserGeoService.RankedPushables r = service.nearestPushables(quake, 80.0, 10);
+
+        assertThat(emails(r)).containsExactly("near@x.com");
+    }
+}
@@ -60,7 +60,10 @@ class WorkOrderReopenRestoreTest {
                 mock(io.sitprep.sitprepapi.repo.TaskAssigneeRepo.class),
                 mock(TaskAssignmentService.class),
                 mock(AgencyJurisdictionService.class),
-                mock(CivicAgencyService.class));
+                mock(CivicAgencyService.class),
+                mock(CommunityPostGeoIndex.class),
+                mock(ProfileCardService.class),
+                mock(CommunityFeedCache.class));
         // refetchAndBroadcast registers an afterCommit synchronization.
         TransactionSynchronizationManager.initSynchronization();
     }
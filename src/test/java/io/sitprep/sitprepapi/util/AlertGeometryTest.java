@@ -0,0 +1,141 @@
+package io.sitprep.sitprepapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compiled alert geometry + its R-tree: real point-in-polygon (holes and
+ * MultiPolygon parts included), edge distance for the radius filter, an
+ * interior representative point, and index queries that agree with a
+ * brute-force scan.
+ */
+class AlertGeometryTest {
+
+    /** Closed GeoJSON ring from lng/lat pairs. */
+    private static List<List<Number>> ring(double... lngLat) {
+        List<List<Number>> r = new ArrayList<>();
+        for (int i = 0; i < lngLat.length; i += 2) r.add(List.of(lngLat[i], lngLat[i + 1]));
+        r.add(List.of(lngLat[0], lngLat[1]));
+        return r;
+    }
+
+    private static Map<String, Object> square(double lng, double lat, double half) {
+        return Map.of("type", "Polygon", "coordinates", List.of(
+                ring(lng - half, lat - half, lng + half, lat - half, lng + half, lat + half, lng - half, lat + half)));
+    }
+
+    @Test
+    void polygon_containsInteriorNotFirstVertexNeighbourhood() {
+        // Long thin warning: first vertex is ~100 km west of the far end.
+        AlertGeometry g = AlertGeometry.compile(Map.of("type", "Polygon", "coordinates", List.of(
+                ring(-98.0, 35.0, -96.9, 35.0, -96.9, 35.1, -98.0, 35.1))));
+
+        assertThat(g).isNotNull();
+        assertThat(g.isArea()).isTrue();
+        assertThat(g.contains(35.05, -97.0)).isTrue();
+        assertThat(g.contains(35.2, -97.0)).isFalse();
+        assertThat(g.distanceKm(35.05, -97.0)).isZero();
+        // ~0.1° of latitude north of the edge ≈ 11 km.
+        assertThat(g.distanceKm(35.2, -97.0)).isBetween(10.0, 12.5);
+    }
+
+    @Test
+    void concaveAndHoles_followEvenOddRule() {
+        // U-shape: the notch between the arms is outside.
+        AlertGeometry u = AlertGeometry.compile(Map.of("type", "Polygon", "coordinates", List.of(
+                ring(0, 0, 3, 0, 3, 3, 2, 3, 2, 1, 1, 1, 1, 3, 0, 3))));
+        assertThat(u.contains(2.0, 1.5)).isFalse();
+        assertThat(u.contains(2.0, 0.5)).isTrue();
+
+        AlertGeometry donut = AlertGeometry.compile(Map.of("type", "Polygon", "coordinates", List.of(
+                ring(0, 0, 4, 0, 4, 4, 0, 4),
+                ring(1, 1, 3, 1, 3, 3, 1, 3))));
+        assertThat(donut.contains(2.0, 2.0)).isFalse();
+        assertThat(donut.contains(0.5, 0.5)).isTrue();
+    }
+
+    @Test
+    void multiPolygon_matchesEitherPart() {
+        AlertGeometry g = AlertGeometry.compile(Map.of("type", "MultiPolygon", "coordinates", List.of(
+                List.of(ring(0, 0, 1, 0, 1, 1, 0, 1)),
+                List.of(ring(5, 5, 6, 5, 6, 6, 5, 6)))));
+        assertThat(g.contains(0.5, 0.5)).isTrue();
+        assertThat(g.contains(5.5, 5.5)).isTrue();
+        assertThat(g.contains(3.0, 3.0)).isFalse();
+    }
+
+    @Test
+    void point_usesGreatCircleDistance() {
+        AlertGeometry quake = AlertGeometry.compile(Map.of("type", "Point",
+                "coordinates", List.of(-117.3, 33.0, 10.0)));
+        assertThat(quake.isArea()).isFalse();
+        assertThat(quake.contains(33.0, -117.3)).isFalse();
+        assertThat(quake.distanceKm(33.0, -117.3)).isLessThan(0.001);
+        assertThat(quake.withinKm(33.5, -117.3, 60)).isTrue();
+        assertThat(quake.withinKm(33.5, -117.3, 50)).isFalse();
+    }
+
+    @Test
+    void unsupportedOrMalformed_compilesToNull() {
+        assertThat(AlertGeometry.compile(null)).isNull();
+        assertThat(AlertGeometry.compile(Map.of("type", "LineString", "coordinates", List.of()))).isNull();
+        assertThat(AlertGeometry.compile(Map.of("type", "Polygon", "coordinates", List.of(List.of())))).isNull();
+        assertThat(AlertGeometry.compile(Map.of("type", "Point", "coordinates", List.of(500, 500)))).isNull();
+    }
+
+    @Test
+    void representativePoint_liesInsideConcaveShape() {
+        // C-shape whose bbox centre is in the open mouth.
+        AlertGeometry c = AlertGeometry.compile(Map.of("type", "Polygon", "coordinates", List.of(
+                ring(0, 0, 4, 0, 4, 1, 1, 1, 1, 3, 4, 3, 4, 4, 0, 4))));
+        double[] p = c.representativePoint();
+        assertThat(c.contains(p[1], p[0])).isTrue();
+    }
+
+    @Test
+    void index_agreesWithBruteForce() {
+        Random rnd = new Random(42);
+        List<AlertGeometry> geoms = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            if (i % 10 == 0) {
+                geoms.add(null); // geometry-less slot is skipped, ids stay aligned
+                continue;
+            }
+            double lng = -124 + rnd.nextDouble() * 57;
+            double lat = 25 + rnd.nextDouble() * 24;
+            geoms.add(AlertGeometry.compile(square(lng, lat, 0.05 + rnd.nextDouble() * 0.5)));
+        }
+        AlertGeometryIndex index = AlertGeometryIndex.build(geoms);
+        assertThat(index.size()).isEqualTo(360);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 25 + rnd.nextDouble() * 24;
+            double lng = -124 + rnd.nextDouble() * 57;
+            double radiusKm = rnd.nextDouble() * 400;
+
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < geoms.size(); i++) {
+                AlertGeometry g = geoms.get(i);
+                if (g != null && g.distanceKm(lat, lng) <= radiusKm) expected.add(i);
+            }
+            TreeSet<Integer> actual = new TreeSet<>();
+            index.forEachWithin(lat, lng, radiusKm, actual::add);
+
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void emptyIndex_returnsNothing() {
+        List<Integer> hits = new ArrayList<>();
+        AlertGeometryIndex.build(List.of()).forEachWithin(35, -97, 100, hits::add);
+        assertThat(hits).isEmpty();
+    }
+}
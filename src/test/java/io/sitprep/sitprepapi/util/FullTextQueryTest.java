@@ -0,0 +1,47 @@
+package io.sitprep.sitprepapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search-box input → bound search parameters: tsquery operators can't leak
+ * through, LIKE wildcards are literal, and highlights are escaped before
+ * the {@code <mark>} tags go in.
+ */
+class FullTextQueryTest {
+
+    @Test
+    void prefixTsQuery_andsTokens_lastOneAsPrefix() {
+        assertThat(FullTextQuery.toPrefixTsQuery("  Wild FIRE evac")).isEqualTo("wild & fire & evac:*");
+        assertThat(FullTextQuery.toPrefixTsQuery("gen")).isEqualTo("gen:*");
+    }
+
+    @Test
+    void prefixTsQuery_stripsOperators() {
+        assertThat(FullTextQuery.toPrefixTsQuery("water & !(boil) | 'tap':*")).isEqualTo("water & boil & tap:*");
+        assertThat(FullTextQuery.toPrefixTsQuery("&|!():*")).isNull();
+        assertThat(FullTextQuery.toPrefixTsQuery(null)).isNull();
+    }
+
+    @Test
+    void prefixTsQuery_capsTokenCount() {
+        assertThat(FullTextQuery.toPrefixTsQuery("a b c d e f g h i j")).isEqualTo("a & b & c & d & e & f & g & h:*");
+    }
+
+    @Test
+    void likePrefix_escapesWildcards() {
+        assertThat(FullTextQuery.likePrefix(" Ann_Lee ")).isEqualTo("ann\\_lee%");
+        assertThat(FullTextQuery.likePrefix("100%")).isEqualTo("100\\%%");
+        assertThat(FullTextQuery.likePrefix("a\\b")).isEqualTo("a\\\\b%");
+    }
+
+    @Test
+    void highlightHtml_escapesUserText_thenMarksMatches() {
+        String headline = "<script>x</script> boil \u0001water\u0002 first";
+
+        assertThat(FullTextQuery.highlightHtml(headline))
+                .isEqualTo("&lt;script&gt;x&lt;/script&gt; boil <mark>water</mark> first");
+        assertThat(FullTextQuery.highlightHtml(" ")).isNull();
+    }
+}
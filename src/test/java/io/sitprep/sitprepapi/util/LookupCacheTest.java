@@ -0,0 +1,202 @@
+package io.sitprep.sitprepapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contract for the shared upstream-lookup cache: TTLs (positive and
+ * negative), the weight bound, frequency-aware admission and single-flight
+ * coalescing. A fake clock drives expiry so nothing here sleeps.
+ */
+class LookupCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private LookupCache<String> cache(long maxWeight) {
+        return new LookupCache<>("test", maxWeight, Duration.ofHours(6), Duration.ofMinutes(5),
+                v -> 1, Objects::isNull, now::get);
+    }
+
+    @Test
+    void hitAfterMiss_loaderCalledOnce() {
+        LookupCache<String> c = cache(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(c.get("k", () -> "v" + calls.incrementAndGet())).isEqualTo("v1");
+        assertThat(c.get("k", () -> "v" + calls.incrementAndGet())).isEqualTo("v1");
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(c.stats().hits()).isEqualTo(1);
+        assertThat(c.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void negativeResult_expiresOnShortTtl() {
+        LookupCache<String> c = cache(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        c.get("k", () -> { calls.incrementAndGet(); return null; });
+        now.addAndGet(Duration.ofMinutes(4).toMillis());
+        c.get("k", () -> { calls.incrementAndGet(); return null; });
+        assertThat(calls.get()).isEqualTo(1);
+
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+        c.get("k", () -> { calls.incrementAndGet(); return "ok"; });
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(c.stats().negativeLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_dropsExpiredEntries() {
+        LookupCache<String> c = cache(10);
+        c.get("a", () -> "1");
+        c.get("b", () -> null);
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+
+        assertThat(c.sweepExpired()).isEqualTo(1);
+        assertThat(c.stats().size()).isEqualTo(1);
+    }
+
+    @Test
+    void weightBound_isNeverExceeded() {
+        LookupCache<List<Integer>> c = new LookupCache<>("lists", 10, Duration.ofHours(1),
+                Duration.ofMinutes(1), List::size, List::isEmpty, now::get);
+        for (int i = 0; i < 20; i++) {
+            c.get("k" + i, () -> List.of(1, 2, 3));
+        }
+        assertThat(c.stats().weight()).isLessThanOrEqualTo(10);
+        assertThat(c.stats().evictions()).isPositive();
+    }
+
+    @Test
+    void frequentKey_survivesOneOffScan() {
+        LookupCache<String> c = cache(2);
+        for (int i = 0; i < 5; i++) c.get("hot", () -> "h");
+        c.get("warm", () -> "w");
+
+        // A burst of never-repeated keys must not flush the hot entry.
+        for (int i = 0; i < 50; i++) c.get("scan" + i, () -> "s");
+
+        AtomicInteger reloads = new AtomicInteger();
+        c.get("hot", () -> { reloads.incrementAndGet(); return "h2"; });
+        assertThat(reloads.get()).isZero();
+        assertThat(c.stats().rejected()).isPositive();
+    }
+
+    @Test
+    void getAll_loadsOnlyMisses_inOneCall() {
+        LookupCache<String> c = cache(10);
+        c.get("a", () -> "A");
+        List<Set<String>> batches = new ArrayList<>();
+
+        Map<String, String> out = c.getAll(List.of("a", "b", "c"), missing -> {
+            batches.add(Set.copyOf(missing));
+            return Map.of("b", "B");
+        });
+        assertThat(out).containsExactlyInAnyOrderEntriesOf(Map.of("a", "A", "b", "B"));
+        assertThat(batches).containsExactly(Set.of("b", "c"));
+
+        // "c" came back absent, so it's now a cached negative.
+        c.getAll(List.of("a", "b", "c"), missing -> {
+            batches.add(Set.copyOf(missing));
+            return Map.of();
+        });
+        assertThat(batches).hasSize(1);
+        assertThat(c.stats().negativeLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateDuringLoad_resultNotCached() {
+        LookupCache<String> c = cache(10);
+
+        String v = c.get("k", () -> { c.invalidate("k"); return "stale"; });
+        assertThat(v).isEqualTo("stale");
+
+        assertThat(c.get("k", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void invalidateOfOtherKeyDuringLoad_resultStillCached() {
+        LookupCache<String> c = cache(10);
+        c.put("other", "x");
+
+        c.get("k", () -> { c.invalidate("other"); return "v1"; });
+
+        assertThat(c.get("k", () -> "reloaded")).isEqualTo("v1");
+    }
+
+    @Test
+    void invalidateIfDuringLoad_dropsOnlyMatchingResults() {
+        LookupCache<String> c = cache(10);
+
+        c.get("a", () -> { c.invalidateIf(v -> v.startsWith("stale")); return "stale-a"; });
+        c.get("b", () -> { c.invalidateIf(v -> v.startsWith("stale")); return "fresh-b"; });
+
+        assertThat(c.get("a", () -> "reloaded")).isEqualTo("reloaded");
+        assertThat(c.get("b", () -> "reloaded")).isEqualTo("fresh-b");
+    }
+
+    @Test
+    void invalidateDuringBatchLoad_dropsOnlyThatKey() {
+        LookupCache<String> c = cache(10);
+
+        c.getAll(List.of("a", "b"), missing -> {
+            c.invalidate("a");
+            return Map.of("a", "A", "b", "B");
+        });
+
+        assertThat(c.get("a", () -> "A2")).isEqualTo("A2");
+        assertThat(c.get("b", () -> "B2")).isEqualTo("B");
+    }
+
+    @Test
+    void concurrentMisses_shareOneLoad() throws Exception {
+        LookupCache<String> c = cache(10);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = pool.submit(() -> c.get("k", () -> {
+                calls.incrementAndGet();
+                loaderEntered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "v";
+            }));
+            assertThat(loaderEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<String> f1 = pool.submit(() -> c.get("k", () -> "dup" + calls.incrementAndGet()));
+            Future<String> f2 = pool.submit(() -> c.get("k", () -> "dup" + calls.incrementAndGet()));
+            // Give the followers time to park on the leader's future.
+            while (c.stats().coalesced() < 2) Thread.onSpinWait();
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+            assertThat(f1.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+            assertThat(f2.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.sitprep.sitprepapi.web;
+
+import io.sitprep.sitprepapi.domain.IdempotencyKey;
+import io.sitprep.sitprepapi.repo.IdempotencyKeyRepo;
+import io.sitprep.sitprepapi.service.LookupCacheRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two-tier idempotency store: memory-tier replay, the in-flight reservation
+ * (local and cross-instance duplicates wait instead of re-executing), the
+ * busy timeout, a released or lost reservation, and replay of pre-gzip rows.
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final String CALLER = "a@x.com";
+    private static final String ENDPOINT = "/api/posts";
+    private static final String KEY = "k1";
+
+    @Mock IdempotencyKeyRepo repo;
+
+    private IdempotencyStore store(long waitSeconds) {
+        return new IdempotencyStore(repo, new LookupCacheRegistry(), 24, 120, waitSeconds,
+                1 << 20, "PT10M");
+    }
+
+    private static IdempotencyKey row(int status, byte[] gzip, String legacy) {
+        IdempotencyKey k = new IdempotencyKey();
+        k.setCallerEmail(CALLER);
+        k.setEndpoint(ENDPOINT);
+        k.setKey(KEY);
+        k.setResponseStatusCode(status);
+        k.setResponseBodyGzip(gzip);
+        k.setResponseBody(legacy);
+        k.setCreatedAt(Instant.now());
+        return k;
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void completedResponse_replaysFromMemory_afterFirstRead() {
+        when(repo.findById(any())).thenReturn(Optional.of(
+                row(201, IdempotencyStore.gzip(utf8("{\"id\":1}")), null)));
+        IdempotencyStore store = store(1);
+
+        IdempotencyStore.Claim first = store.claim(CALLER, ENDPOINT, KEY);
+        IdempotencyStore.Claim second = store.claim(CALLER, ENDPOINT, KEY);
+
+        assertThat(first.state()).isEqualTo(IdempotencyStore.State.REPLAY);
+        assertThat(second.replay().body()).isEqualTo(utf8("{\"id\":1}"));
+        assertThat(second.replay().status()).isEqualTo(201);
+        verify(repo, times(1)).findById(any());
+        verify(repo, never()).reserve(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void legacyTextRow_stillReplays() {
+        when(repo.findById(any())).thenReturn(Optional.of(row(200, null, "{\"ok\":true}")));
+
+        IdempotencyStore.Claim c = store(1).claim(CALLER, ENDPOINT, KEY);
+
+        assertThat(c.state()).isEqualTo(IdempotencyStore.State.REPLAY);
+        assertThat(c.replay().body()).isEqualTo(utf8("{\"ok\":true}"));
+    }
+
+    @Test
+    void reservedElsewhere_waitsForCompletion() {
+        IdempotencyKey reserved = row(IdempotencyKey.RESERVED, null, null);
+        IdempotencyKey done = row(201, IdempotencyStore.gzip(utf8("{\"id\":2}")), null);
+        when(repo.findById(any())).thenReturn(Optional.of(reserved), Optional.of(reserved), Optional.of(done));
+        when(repo.reserve(anyString(), anyString(), anyString(), any())).thenReturn(0);
+        when(repo.takeOver(anyString(), anyString(), anyString(), any(), any(), any())).thenReturn(0);
+
+        IdempotencyStore.Claim c = store(5).claim(CALLER, ENDPOINT, KEY);
+
+        assertThat(c.state()).isEqualTo(IdempotencyStore.State.REPLAY);
+        assertThat(c.replay().body()).isEqualTo(utf8("{\"id\":2}"));
+    }
+
+    @Test
+    void reservedElsewhere_pastWait_isBusy() {
+        when(repo.findById(any())).thenReturn(Optional.of(row(IdempotencyKey.RESERVED, null, null)));
+        when(repo.reserve(anyString(), anyString(), anyString(), any())).thenReturn(0);
+        when(repo.takeOver(anyString(), anyString(), anyString(), any(), any(), any())).thenReturn(0);
+
+        IdempotencyStore.Claim c = store(0).claim(CALLER, ENDPOINT, KEY);
+
+        assertThat(c.state()).isEqualTo(IdempotencyStore.State.BUSY);
+    }
+
+    @Test
+    void localDuplicate_waitsOnLeader_andNeverReserves() throws Exception {
+        when(repo.findById(any())).thenReturn(Optional.empty());
+        when(repo.reserve(anyString(), anyString(), anyString(), any())).thenReturn(1);
+        when(repo.complete(anyString(), anyString(), anyString(), anyInt(), any(), any())).thenReturn(1);
+        IdempotencyStore store = store(5);
+
+        IdempotencyStore.Claim leader = store.claim(CALLER, ENDPOINT, KEY);
+        assertThat(leader.state()).isEqualTo(IdempotencyStore.State.OWNED);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyStore.Claim> dup = pool.submit(() -> store.claim(CALLER, ENDPOINT, KEY));
+            Thread.sleep(50);
+            assertThat(dup.isDone()).isFalse();
+
+            store.complete(leader, 201, utf8("{\"id\":3}"));
+
+            IdempotencyStore.Claim replayed = dup.get(5, TimeUnit.SECONDS);
+            assertThat(replayed.state()).isEqualTo(IdempotencyStore.State.REPLAY);
+            assertThat(replayed.replay().body()).isEqualTo(utf8("{\"id\":3}"));
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(repo, times(1)).reserve(anyString(), anyString(), anyString(), any());
+        verify(repo).complete(eq(CALLER), eq(ENDPOINT), eq(KEY), eq(201), any(), any());
+    }
+
+    @Test
+    void release_letsLocalDuplicateClaimAfresh_andDeletesReservation() throws Exception {
+        when(repo.findById(any())).thenReturn(Optional.empty());
+        when(repo.reserve(anyString(), anyString(), anyString(), any())).thenReturn(1);
+        IdempotencyStore store = store(5);
+        IdempotencyStore.Claim leader = store.claim(CALLER, ENDPOINT, KEY);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyStore.Claim> dup = pool.submit(() -> store.claim(CALLER, ENDPOINT, KEY));
+            Thread.sleep(50);
+            store.release(leader);
+
+            // The key is free again, so the duplicate runs instead of a 409.
+            assertThat(dup.get(5, TimeUnit.SECONDS).state()).isEqualTo(IdempotencyStore.State.OWNED);
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(repo).release(CALLER, ENDPOINT, KEY);
+        verify(repo, times(2)).reserve(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void lostReservation_isNotCached_soReplaysMatchTheRow() {
+        when(repo.findById(any())).thenReturn(Optional.empty(), Optional.of(
+                row(201, IdempotencyStore.gzip(utf8("{\"id\":9}")), null)));
+        when(repo.reserve(anyString(), anyString(), anyString(), any())).thenReturn(1);
+        when(repo.complete(anyString(), anyString(), anyString(), anyInt(), any(), any())).thenReturn(0);
+        IdempotencyStore store = store(1);
+
+        // Our lease lapsed; the request that took the slot over stored {"id":9}.
+        store.complete(store.claim(CALLER, ENDPOINT, KEY), 201, utf8("{\"id\":4}"));
+        IdempotencyStore.Claim retry = store.claim(CALLER, ENDPOINT, KEY);
+
+        assertThat(retry.state()).isEqualTo(IdempotencyStore.State.REPLAY);
+        assertThat(retry.replay().body()).isEqualTo(utf8("{\"id\":9}"));
+    }
+}
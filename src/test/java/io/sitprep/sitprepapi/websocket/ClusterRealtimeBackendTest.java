@@ -0,0 +1,221 @@
+package io.sitprep.sitprepapi.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Two instances sharing one in-memory {@link ClusterStore} stand-in:
+ * presence is visible across nodes after a flush, a node that stops
+ * heartbeating ages out after the TTL, writes are batched and coalesced,
+ * and broadcast frames reach the other node's broker but never echo back.
+ */
+class ClusterRealtimeBackendTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final AtomicLong nowMs = new AtomicLong(1_700_000_000_000L);
+    private final FakeStore store = new FakeStore();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SimpMessagingTemplate brokerA = mock(SimpMessagingTemplate.class);
+    private final SimpMessagingTemplate brokerB = mock(SimpMessagingTemplate.class);
+
+    private ClusterRealtimeBackend node(String id, SimpMessagingTemplate broker) {
+        ClusterRealtimeBackend b = new ClusterRealtimeBackend(store, broker, mapper, TTL, Duration.ZERO,
+                nowMs::get, id);
+        b.start();
+        return b;
+    }
+
+    @Test
+    void presence_visibleOnOtherNodeAfterFlush() {
+        ClusterRealtimeBackend a = node("a", brokerA);
+        ClusterRealtimeBackend b = node("b", brokerB);
+
+        assertThat(a.sessionOpened("s1", "x@x.com")).isEqualTo(1);
+        assertThat(b.onlineCount("x@x.com")).isZero();
+
+        a.flush();
+        assertThat(b.onlineCount("x@x.com")).isEqualTo(1);
+        assertThat(b.onlineEmails()).containsExactly("x@x.com");
+
+        // Second device on the other node: both count it, neither double-counts its own.
+        assertThat(b.sessionOpened("s2", "x@x.com")).isEqualTo(2);
+        b.flush();
+        assertThat(a.onlineCount("x@x.com")).isEqualTo(2);
+
+        assertThat(a.sessionClosed("s1", "x@x.com")).isEqualTo(1);
+        a.flush();
+        assertThat(b.onlineCount("x@x.com")).isEqualTo(1);
+    }
+
+    @Test
+    void silentNode_expiresAfterTtl_whileHeartbeatingNodeStays() {
+        ClusterRealtimeBackend a = node("a", brokerA);
+        ClusterRealtimeBackend b = node("b", brokerB);
+        a.sessionOpened("s1", "x@x.com");
+        b.sessionOpened("s2", "y@x.com");
+        a.flush();
+        b.flush();
+
+        // b keeps heartbeating; a has died without closing its socket.
+        nowMs.addAndGet(20_000);
+        b.heartbeat();
+        nowMs.addAndGet(15_000);
+
+        assertThat(b.onlineCount("x@x.com")).isZero();
+        assertThat(b.onlineEmails()).containsExactly("y@x.com");
+        ClusterRealtimeBackend c = node("c", mock(SimpMessagingTemplate.class));
+        assertThat(c.onlineCount("y@x.com")).isEqualTo(1);
+    }
+
+    @Test
+    void writes_areBatchedAndCoalesced() {
+        ClusterRealtimeBackend a = node("a", brokerA);
+        a.sessionOpened("s1", "x@x.com");
+        a.sessionOpened("s2", "y@x.com");
+        a.sessionClosed("s1", "x@x.com");
+
+        a.flush();
+        a.flush();
+
+        assertThat(store.writeCalls.get()).isEqualTo(1);
+        assertThat(store.lastBatch).hasSize(2)
+                .anySatisfy(w -> {
+                    assertThat(w.member()).isEqualTo("a:s1");
+                    assertThat(w.isRemoval()).isTrue();
+                });
+    }
+
+    @Test
+    void broadcast_reachesOtherNode_withoutEcho() {
+        ClusterRealtimeBackend a = node("a", brokerA);
+        node("b", brokerB);
+
+        a.broadcast("/topic/dm/x@x.com", Map.of("text", "hi", "n", 2));
+
+        verify(brokerA).convertAndSend(eq("/topic/dm/x@x.com"), any(Object.class));
+        ArgumentCaptor<Object> relayed = ArgumentCaptor.forClass(Object.class);
+        verify(brokerB).convertAndSend(eq("/topic/dm/x@x.com"), relayed.capture());
+        JsonNode body = (JsonNode) relayed.getValue();
+        assertThat(body.path("text").asText()).isEqualTo("hi");
+        assertThat(body.path("n").asInt()).isEqualTo(2);
+        assertThat(a.stats().relayedOut()).isEqualTo(1);
+    }
+
+    @Test
+    void storeOutage_degradesToLocalDelivery() {
+        ClusterRealtimeBackend a = node("a", brokerA);
+        store.down = true;
+
+        a.broadcast("/topic/group/g1/status", Map.of("status", "ok"));
+        a.sessionOpened("s1", "x@x.com");
+        a.flush();
+
+        verify(brokerA).convertAndSend(eq("/topic/group/g1/status"), any(Object.class));
+        verify(brokerB, never()).convertAndSend(anyString(), any(Object.class));
+        assertThat(a.onlineCount("x@x.com")).isEqualTo(1);
+        assertThat(a.stats().relayFailures()).isEqualTo(1);
+        assertThat(a.stats().presenceWriteFailures()).isEqualTo(1);
+
+        // Re-queued writes land once the store is back.
+        store.down = false;
+        a.flush();
+        assertThat(node("b", brokerB).onlineCount("x@x.com")).isEqualTo(1);
+    }
+
+    @Test
+    void sameSessionReauth_removesOldEmailAlongsideNewOpen() {
+        ClusterRealtimeBackend a = node("a", brokerA);
+        ClusterRealtimeBackend b = node("b", brokerB);
+        a.sessionOpened("s1", "old@x.com");
+        a.flush();
+
+        // WebSocketPresenceService.addSession on a re-auth of the same socket.
+        a.sessionClosed("s1", "old@x.com");
+        a.sessionOpened("s1", "new@x.com");
+        a.flush();
+
+        assertThat(b.onlineCount("old@x.com")).isZero();
+        assertThat(b.onlineCount("new@x.com")).isEqualTo(1);
+    }
+
+    /** Shared store stand-in: expiring members per email plus a synchronous channel. */
+    private static final class FakeStore implements ClusterStore {
+        final Map<String, Map<String, Long>> presence = new ConcurrentHashMap<>();
+        final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+        final AtomicInteger writeCalls = new AtomicInteger();
+        volatile List<PresenceWrite> lastBatch = List.of();
+        volatile boolean down;
+
+        private void check() {
+            if (down) throw new IllegalStateException("store unavailable");
+        }
+
+        @Override
+        public void writePresence(List<PresenceWrite> writes) {
+            check();
+            writeCalls.incrementAndGet();
+            lastBatch = List.copyOf(writes);
+            for (PresenceWrite w : writes) {
+                Map<String, Long> members = presence.computeIfAbsent(w.email(), k -> new ConcurrentHashMap<>());
+                if (w.isRemoval()) members.remove(w.member());
+                else members.put(w.member(), w.expiresAtMs());
+            }
+        }
+
+        @Override
+        public Map<String, List<String>> liveMembers(Collection<String> emails, long nowMs) {
+            check();
+            Map<String, List<String>> out = new ConcurrentHashMap<>();
+            for (String email : emails) {
+                List<String> live = new ArrayList<>();
+                presence.getOrDefault(email, Map.of()).forEach((m, exp) -> {
+                    if (exp > nowMs) live.add(m);
+                });
+                if (!live.isEmpty()) out.put(email, live);
+            }
+            return out;
+        }
+
+        @Override
+        public Set<String> liveEmails(long nowMs) {
+            check();
+            return new HashSet<>(liveMembers(presence.keySet(), nowMs).keySet());
+        }
+
+        @Override
+        public void publish(String message) {
+            check();
+            listeners.forEach(l -> l.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<String> listener) {
+            listeners.add(listener);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.sitprep.sitprepapi.websocket;
 
+import io.sitprep.sitprepapi.security.VerifiedTokenCache;
 import io.sitprep.sitprepapi.service.PlanActivationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,7 +32,7 @@ class WebSocketAuthChannelInterceptorSubscribeTest {
         service = mock(PlanActivationService.class);
         ObjectProvider<PlanActivationService> provider = mock(ObjectProvider.class);
         when(provider.getObject()).thenReturn(service);
-        interceptor = new WebSocketAuthChannelInterceptor(provider);
+        interceptor = new WebSocketAuthChannelInterceptor(provider, mock(VerifiedTokenCache.class));
     }
 
     private Message<byte[]> subscribe(String destination, String principalEmail) {